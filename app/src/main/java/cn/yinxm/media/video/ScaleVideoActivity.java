@@ -1,6 +1,5 @@
 package cn.yinxm.media.video;
 
-import android.media.MediaPlayer;
 import android.os.Bundle;
 import android.view.View;
 import android.view.ViewGroup;
@@ -8,20 +7,40 @@ import android.widget.ImageButton;
 
 import androidx.fragment.app.FragmentActivity;
 
+import java.io.File;
+import java.io.IOException;
+
 
 import cn.yinxm.lib.screen.StatusBarUtils;
+import cn.yinxm.media.video.cache.CacheProxyServer;
+import cn.yinxm.media.video.cache.SegmentCache;
+import cn.yinxm.media.video.cache.VideoPrefetcher;
 import cn.yinxm.media.video.gesture.GestureLayer;
 import cn.yinxm.media.video.gesture.touch.adapter.GestureVideoTouchAdapterImpl;
+import cn.yinxm.media.video.player.PlayerCallback;
+import cn.yinxm.media.video.player.PlaylistSource;
 import cn.yinxm.media.video.surface.SimpleTextureViewPlayer;
+import cn.yinxm.media.video.surface.stats.FrameStatsCollector;
+import cn.yinxm.media.video.surface.stats.FrameStatsSnapshot;
+import cn.yinxm.media.video.util.VideoLog;
+import cn.yinxm.media.video.util.VideoUrlTest;
 
 import static cn.yinxm.media.video.util.VideoUrlTest.getPlayUrl;
 
 
 public class ScaleVideoActivity extends FragmentActivity {
+    private static final String TAG = "ScaleVideoActivity";
+    private static final String VIDEO_CACHE_DIR = "video-cache";
+    private static final long VIDEO_CACHE_MAX_BYTES = 256L * 1024 * 1024;
+    /** 预取带宽上限 */
+    private static final long PREFETCH_MAX_BYTES_PER_SECOND = 1024 * 1024;
+
     private ViewGroup mVideoContent;
     public SimpleTextureViewPlayer mTextureViewPlayer;
     private ImageButton mPlayPauseView;
     private boolean isPaused = false;
+    private CacheProxyServer mCacheProxy;
+    private VideoPrefetcher mPrefetcher;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -77,27 +96,60 @@ public class ScaleVideoActivity extends FragmentActivity {
     }
 
     private void initPlayer() {
-        mTextureViewPlayer.setOnPreparedListener(new MediaPlayer.OnPreparedListener() {
+        // 重播、循环播放走本地缓存
+        SegmentCache cache = new SegmentCache(new File(getCacheDir(), VIDEO_CACHE_DIR), VIDEO_CACHE_MAX_BYTES);
+        mCacheProxy = new CacheProxyServer(cache);
+        try {
+            mCacheProxy.start();
+            mTextureViewPlayer.setCacheProxy(mCacheProxy);
+            // 切换视频时首帧直接读缓存，当前视频缓冲不足时暂停
+            mPrefetcher = new VideoPrefetcher(cache);
+            mPrefetcher.setMaxBytesPerSecond(PREFETCH_MAX_BYTES_PER_SECOND);
+            mTextureViewPlayer.setPrefetcher(mPrefetcher, VideoUrlTest.getUrlCount() - 1);
+        } catch (IOException e) {
+            VideoLog.e(TAG, "start cache proxy failed", e);
+        }
+        // 当前视频准备完成后预加载下一个，播放完成时直接切换
+        mTextureViewPlayer.setPlaylistSource(new PlaylistSource() {
             @Override
-            public void onPrepared(MediaPlayer mp) {
-                mp.start();
+            public String getNextUrl(String currentUrl) {
+                return VideoUrlTest.getNextUrl(currentUrl);
             }
         });
-        mTextureViewPlayer.setOnVideoSizeChangedListener(new MediaPlayer.OnVideoSizeChangedListener() {
+        if (VideoLog.DEBUG_ENABLED) {
+            mTextureViewPlayer.setOnFrameStatsListener(new FrameStatsCollector.OnFrameStatsListener() {
+                @Override
+                public void onFrameStats(FrameStatsSnapshot snapshot) {
+                    VideoLog.d(TAG, "frame stats {}", snapshot);
+                }
+            });
+        }
+        mTextureViewPlayer.setPlayerCallback(new PlayerCallback() {
+            @Override
+            public void onPrepared() {
+                mTextureViewPlayer.start();
+            }
+
             @Override
-            public void onVideoSizeChanged(MediaPlayer mp, int width, int height) {
+            public void onVideoSizeChanged(int width, int height) {
 
             }
-        });
-        mTextureViewPlayer.setOnCompletionListener(new MediaPlayer.OnCompletionListener() {
+
             @Override
-            public void onCompletion(MediaPlayer mp) {
-                String newUrl = getPlayUrl(0);
-                if (mTextureViewPlayer.getPlayUrl().equals(getPlayUrl(0))) {
-                    newUrl = getPlayUrl(1);
-                }
-                mTextureViewPlayer.startPlay(newUrl);
+            public void onCompletion() {
+                mTextureViewPlayer.startPlay(VideoUrlTest.getNextUrl(mTextureViewPlayer.getPlayUrl()));
             }
         });
     }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        mTextureViewPlayer.release();
+        if (mPrefetcher != null) {
+            VideoLog.d(TAG, "prefetch {}", mPrefetcher.getStats());
+            mPrefetcher.shutdown();
+        }
+        mCacheProxy.stop();
+    }
 }
\ No newline at end of file
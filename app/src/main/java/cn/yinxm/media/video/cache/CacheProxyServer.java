@@ -0,0 +1,122 @@
+package cn.yinxm.media.video.cache;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLEncoder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 本地缓存代理：播放器请求 http://127.0.0.1:port/&lt;原地址&gt;，由代理读缓存或回源，重播、循环播放不再重复下载
+ * <p>
+ * 每个连接在有界线程池中处理，连接数超过线程数时排队
+ * <p>
+ * 纯 Java 实现，可在 JVM 上配合本地 HTTP 服务测试
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class CacheProxyServer {
+    public static final int DEFAULT_MAX_CONNECTIONS = 4;
+
+    private final SegmentCache mCache;
+    private final int mMaxConnections;
+    private ServerSocket mServerSocket;
+    private ExecutorService mExecutor;
+    private Thread mAcceptThread;
+    private volatile boolean mRunning;
+
+    public CacheProxyServer(SegmentCache cache) {
+        this(cache, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    public CacheProxyServer(SegmentCache cache, int maxConnections) {
+        mCache = cache;
+        mMaxConnections = maxConnections;
+    }
+
+    public SegmentCache getCache() {
+        return mCache;
+    }
+
+    /**
+     * 在随机端口启动代理
+     */
+    public synchronized void start() throws IOException {
+        if (mRunning) {
+            return;
+        }
+        mServerSocket = new ServerSocket(0, 8, InetAddress.getByName("127.0.0.1"));
+        mExecutor = Executors.newFixedThreadPool(mMaxConnections, new ThreadFactory() {
+            private int mCount;
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "video-cache-proxy-" + (++mCount));
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        mRunning = true;
+        final ServerSocket serverSocket = mServerSocket;
+        final ExecutorService executor = mExecutor;
+        mAcceptThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (mRunning) {
+                    try {
+                        Socket socket = serverSocket.accept();
+                        executor.execute(new ProxyConnection(socket, mCache));
+                    } catch (IOException e) {
+                        // stop() 关闭 ServerSocket 后退出
+                        break;
+                    }
+                }
+            }
+        }, "video-cache-proxy");
+        mAcceptThread.setDaemon(true);
+        mAcceptThread.start();
+    }
+
+    public synchronized void stop() {
+        if (!mRunning) {
+            return;
+        }
+        mRunning = false;
+        try {
+            mServerSocket.close();
+        } catch (IOException ignored) {
+        }
+        mExecutor.shutdownNow();
+        mServerSocket = null;
+        mExecutor = null;
+        mAcceptThread = null;
+    }
+
+    public boolean isRunning() {
+        return mRunning;
+    }
+
+    public synchronized int getPort() {
+        return mServerSocket != null ? mServerSocket.getLocalPort() : -1;
+    }
+
+    /**
+     * 将 http/https 地址转换为代理地址；代理未启动或其他协议时原样返回
+     */
+    public String getProxyUrl(String url) {
+        int port = getPort();
+        if (url == null || port < 0 || !(url.startsWith("http://") || url.startsWith("https://"))) {
+            return url;
+        }
+        try {
+            return "http://127.0.0.1:" + port + "/" + URLEncoder.encode(url, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            return url;
+        }
+    }
+}
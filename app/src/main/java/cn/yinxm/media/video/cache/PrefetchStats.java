@@ -0,0 +1,50 @@
+package cn.yinxm.media.video.cache;
+
+/**
+ * 预取统计快照，由 {@link VideoPrefetcher#getStats(PrefetchStats)} 填充
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class PrefetchStats {
+    /** 开始播放的次数，不含切换到预加载播放器的播放 */
+    public long playCount;
+    /** 开始播放时头部已在缓存中的次数 */
+    public long hitCount;
+    /** 切换到预加载播放器的播放次数，缓存由预加载的播放器经代理写入，不计入命中统计 */
+    public long preloadedPlayCount;
+    /** 已完成的预取任务数 */
+    public long completedTasks;
+    /** 失败的预取任务数 */
+    public long failedTasks;
+    /** 队列已满被丢弃的预取请求数 */
+    public long rejectedTasks;
+    /** 预取下载的段数、字节数 */
+    public long downloadedSegments;
+    public long downloadedBytes;
+    /** 已在缓存中跳过的段数 */
+    public long skippedSegments;
+
+    /**
+     * @return 播放时头部命中缓存的比例，没有播放记录时为 0
+     */
+    public float getHitRate() {
+        return playCount == 0 ? 0 : (float) hitCount / playCount;
+    }
+
+    @Override
+    public String toString() {
+        return "PrefetchStats{"
+                + "playCount=" + playCount
+                + ", hitCount=" + hitCount
+                + ", hitRate=" + getHitRate()
+                + ", preloadedPlayCount=" + preloadedPlayCount
+                + ", completedTasks=" + completedTasks
+                + ", failedTasks=" + failedTasks
+                + ", rejectedTasks=" + rejectedTasks
+                + ", downloadedSegments=" + downloadedSegments
+                + ", downloadedBytes=" + downloadedBytes
+                + ", skippedSegments=" + skippedSegments
+                + '}';
+    }
+}
@@ -0,0 +1,302 @@
+package cn.yinxm.media.video.cache;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+
+/**
+ * 处理播放器的一次 HTTP 请求：按段读取缓存，未缓存的段从源站下载，边下载边返回并写入缓存
+ * <p>
+ * 支持 GET/HEAD 与 Range: bytes=start- / bytes=start-end / bytes=-suffixLength，播放器 seek 时以 Range 请求，
+ * 部分播放器打开文件时以 bytes=-N 读取尾部的 moov
+ * <p>
+ * 请求无法解析或地址不是 http/https 时回复 400，响应头发出前回源失败时回复 502，播放器不必等到超时
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+final class ProxyConnection implements Runnable {
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_HEADER_LINE = 8 * 1024;
+
+    private final Socket mSocket;
+    private final SegmentCache mCache;
+
+    private String mMethod;
+    private String mUrl;
+    private boolean mHasRange;
+    private long mRangeStart;
+    private long mRangeEnd = -1;
+    /** bytes=-N 的 N，文件长度确定后换算为起止位置；-1 表示不是后缀范围 */
+    private long mSuffixLength = -1;
+    /** 已发出响应头，之后出错只能断开连接 */
+    private boolean mHeadersSent;
+
+    ProxyConnection(Socket socket, SegmentCache cache) {
+        mSocket = socket;
+        mCache = cache;
+    }
+
+    @Override
+    public void run() {
+        OutputStream out = null;
+        try {
+            if (!readRequest(new BufferedInputStream(mSocket.getInputStream()))) {
+                return;
+            }
+            out = mSocket.getOutputStream();
+            if (mUrl == null || !UpstreamConnection.isHttpUrl(mUrl)) {
+                writeHeaders(out, 400, "Bad Request", null, 0, -1, -1, -1);
+                return;
+            }
+            serve(out);
+        } catch (IOException | RuntimeException e) {
+            // 播放器 seek、切换地址时会主动断开连接；响应头发出前的失败（源站不可用等）回复 502
+            if (out != null && !mHeadersSent) {
+                try {
+                    writeHeaders(out, 502, "Bad Gateway", null, 0, -1, -1, -1);
+                } catch (IOException ignored) {
+                }
+            }
+        } finally {
+            try {
+                mSocket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * @return 是否读到请求行；请求行或地址无法解析时 mUrl 为 null
+     */
+    private boolean readRequest(InputStream in) throws IOException {
+        String requestLine = readLine(in);
+        if (requestLine == null) {
+            return false;
+        }
+        // GET /<urlencoded> HTTP/1.1
+        String[] parts = requestLine.split(" ");
+        if (parts.length >= 2 && parts[1].length() >= 2) {
+            mMethod = parts[0];
+            try {
+                mUrl = URLDecoder.decode(parts[1].substring(1), "UTF-8");
+            } catch (IllegalArgumentException e) {
+                // 非法的 % 转义
+                mUrl = null;
+            }
+        }
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && "range".equalsIgnoreCase(line.substring(0, colon).trim())) {
+                parseRange(line.substring(colon + 1).trim());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * bytes=start-、bytes=start-end 或 bytes=-suffixLength，其他形式（如多段范围）按整个文件处理
+     */
+    private void parseRange(String value) {
+        if (!value.startsWith("bytes=")) {
+            return;
+        }
+        String range = value.substring("bytes=".length()).trim();
+        int dash = range.indexOf('-');
+        if (dash < 0 || range.indexOf(',') >= 0) {
+            return;
+        }
+        try {
+            if (dash == 0) {
+                mSuffixLength = Long.parseLong(range.substring(1).trim());
+                mHasRange = true;
+                return;
+            }
+            mRangeStart = Long.parseLong(range.substring(0, dash).trim());
+            String end = range.substring(dash + 1).trim();
+            mRangeEnd = end.isEmpty() ? -1 : Long.parseLong(end);
+            mHasRange = true;
+        } catch (NumberFormatException e) {
+            mRangeStart = 0;
+            mRangeEnd = -1;
+            mSuffixLength = -1;
+        }
+    }
+
+    private void serve(OutputStream out) throws IOException {
+        String key = SegmentCache.keyOf(mUrl);
+        int segmentSize = mCache.getSegmentSize();
+        UpstreamConnection upstream = null;
+        try {
+            long length;
+            String contentType;
+            SegmentCache.Metadata metadata = mCache.getMetadata(key);
+            if (metadata != null) {
+                length = metadata.length;
+                contentType = metadata.contentType;
+            } else {
+                // 后缀范围在得到长度前不知道起点，从头打开，之后按段的位置重新连接
+                long offset = mSuffixLength >= 0 ? 0 : mRangeStart / segmentSize * segmentSize;
+                upstream = UpstreamConnection.open(mUrl, offset);
+                length = upstream.getLength();
+                contentType = upstream.getContentType();
+                if (length < 0) {
+                    // 长度未知，无法分段缓存，直接转发
+                    writeHeaders(out, 200, "OK", contentType, -1, -1, -1, -1);
+                    if (!"HEAD".equals(mMethod)) {
+                        pipe(upstream, out);
+                    }
+                    return;
+                }
+                mCache.putMetadata(key, length, contentType);
+            }
+            long start = mRangeStart;
+            long end = mRangeEnd < 0 || mRangeEnd >= length ? length - 1 : mRangeEnd;
+            if (mSuffixLength >= 0) {
+                // 后缀长度超过文件长度时返回整个文件；bytes=-0 不可满足
+                start = mSuffixLength == 0 ? length : Math.max(0, length - mSuffixLength);
+                end = length - 1;
+            }
+            if (start >= length) {
+                writeHeaders(out, 416, "Range Not Satisfiable", contentType, 0, -1, -1, length);
+                return;
+            }
+            if (mHasRange) {
+                writeHeaders(out, 206, "Partial Content", contentType, end - start + 1, start, end, length);
+            } else {
+                writeHeaders(out, 200, "OK", contentType, length, -1, -1, length);
+            }
+            if ("HEAD".equals(mMethod)) {
+                return;
+            }
+
+            byte[] buffer = new byte[BUFFER_SIZE];
+            byte[] segment = null;
+            long position = start;
+            while (position <= end) {
+                int index = (int) (position / segmentSize);
+                long segmentStart = (long) index * segmentSize;
+                int segmentLength = (int) Math.min(segmentSize, length - segmentStart);
+                int from = (int) (position - segmentStart);
+                int to = (int) Math.min(segmentLength, end - segmentStart + 1);
+
+                ByteBuffer cached = mCache.read(key, index);
+                if (cached != null && cached.remaining() == segmentLength) {
+                    if (upstream != null) {
+                        upstream.close();
+                        upstream = null;
+                    }
+                    writeBuffer(cached, from, to, buffer, out);
+                } else {
+                    if (upstream == null || upstream.getPosition() != segmentStart) {
+                        if (upstream != null) {
+                            upstream.close();
+                        }
+                        upstream = UpstreamConnection.open(mUrl, segmentStart);
+                    }
+                    if (segment == null) {
+                        segment = new byte[segmentSize];
+                    }
+                    downloadSegment(upstream, segment, segmentLength, from, to, out);
+                    mCache.write(key, index, segment, segmentLength);
+                }
+                position = segmentStart + to;
+            }
+            out.flush();
+        } finally {
+            if (upstream != null) {
+                upstream.close();
+            }
+        }
+    }
+
+    /**
+     * 下载完整的一段，[from, to) 部分同时返回给播放器；请求范围在段中间结束时仍读完整段用于缓存
+     */
+    private static void downloadSegment(UpstreamConnection upstream, byte[] segment, int segmentLength,
+                                        int from, int to, OutputStream out) throws IOException {
+        int filled = 0;
+        while (filled < segmentLength) {
+            int read = upstream.read(segment, filled, segmentLength - filled);
+            if (read < 0) {
+                throw new IOException("unexpected end of upstream");
+            }
+            int writeFrom = Math.max(filled, from);
+            int writeTo = Math.min(filled + read, to);
+            if (writeTo > writeFrom) {
+                out.write(segment, writeFrom, writeTo - writeFrom);
+            }
+            filled += read;
+        }
+    }
+
+    private static void writeBuffer(ByteBuffer source, int from, int to, byte[] buffer, OutputStream out)
+            throws IOException {
+        source.position(from);
+        int remaining = to - from;
+        while (remaining > 0) {
+            int count = Math.min(buffer.length, remaining);
+            source.get(buffer, 0, count);
+            out.write(buffer, 0, count);
+            remaining -= count;
+        }
+    }
+
+    private static void pipe(UpstreamConnection upstream, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = upstream.read(buffer, 0, buffer.length)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+        out.flush();
+    }
+
+    private void writeHeaders(OutputStream out, int code, String message, String contentType,
+                              long contentLength, long rangeStart, long rangeEnd, long length)
+            throws IOException {
+        mHeadersSent = true;
+        StringBuilder headers = new StringBuilder(256);
+        headers.append("HTTP/1.1 ").append(code).append(' ').append(message).append("\r\n");
+        if (contentType != null && !contentType.isEmpty()) {
+            headers.append("Content-Type: ").append(contentType).append("\r\n");
+        }
+        headers.append("Accept-Ranges: bytes\r\n");
+        if (contentLength >= 0) {
+            headers.append("Content-Length: ").append(contentLength).append("\r\n");
+        }
+        if (rangeStart >= 0) {
+            headers.append("Content-Range: bytes ").append(rangeStart).append('-').append(rangeEnd)
+                    .append('/').append(length).append("\r\n");
+        } else if (code == 416) {
+            headers.append("Content-Range: bytes */").append(length).append("\r\n");
+        }
+        headers.append("Connection: close\r\n\r\n");
+        out.write(headers.toString().getBytes("US-ASCII"));
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int c;
+        while ((c = in.read()) >= 0) {
+            if (c == '\n') {
+                break;
+            }
+            if (c != '\r') {
+                line.write(c);
+                if (line.size() > MAX_HEADER_LINE) {
+                    throw new IOException("header line too long");
+                }
+            }
+        }
+        if (c < 0 && line.size() == 0) {
+            return null;
+        }
+        return line.toString("US-ASCII");
+    }
+}
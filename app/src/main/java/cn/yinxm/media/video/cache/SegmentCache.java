@@ -0,0 +1,346 @@
+package cn.yinxm.media.video.cache;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 视频分段磁盘缓存：按固定大小把文件切成段，每段一个文件，读写都用内存映射
+ * <p>
+ * 目录结构：cacheDir/&lt;url 的 md5&gt;/meta、0.seg、1.seg ...；meta 保存文件总长度与 Content-Type。
+ * 只缓存完整的段，段先写入临时文件再重命名，不会读到写了一半的段
+ * <p>
+ * 所有段按访问顺序组成 LRU，总大小超过上限时淘汰最久未访问的段；段文件的修改时间记录访问时间，重启后据此恢复顺序。
+ * 一个文件的段全部被淘汰后，meta 随之删除
+ * <p>
+ * 纯 Java 实现，线程安全
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class SegmentCache {
+    public static final int DEFAULT_SEGMENT_SIZE = 512 * 1024;
+
+    private static final String META_FILE = "meta";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * 缓存文件信息
+     */
+    public static class Metadata {
+        /** 文件总长度 */
+        public final long length;
+        public final String contentType;
+
+        public Metadata(long length, String contentType) {
+            this.length = length;
+            this.contentType = contentType;
+        }
+    }
+
+    private final File mCacheDir;
+    private final long mMaxBytes;
+    private final int mSegmentSize;
+    /** 段文件 → 大小，按访问顺序排列 */
+    private final LinkedHashMap<File, Long> mSegments = new LinkedHashMap<>(64, 0.75F, true);
+    private final Map<String, Metadata> mMetadata = new HashMap<>();
+    /** key → 已缓存的段数 */
+    private final Map<String, Integer> mSegmentCounts = new HashMap<>();
+    private long mTotalBytes;
+    private boolean mIndexLoaded;
+
+    public SegmentCache(File cacheDir, long maxBytes) {
+        this(cacheDir, maxBytes, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public SegmentCache(File cacheDir, long maxBytes, int segmentSize) {
+        mCacheDir = cacheDir;
+        mMaxBytes = maxBytes;
+        mSegmentSize = segmentSize;
+    }
+
+    public int getSegmentSize() {
+        return mSegmentSize;
+    }
+
+    public long getMaxBytes() {
+        return mMaxBytes;
+    }
+
+    public synchronized long getTotalBytes() {
+        ensureIndex();
+        return mTotalBytes;
+    }
+
+    /**
+     * 缓存 key：url 的 md5
+     */
+    public static String keyOf(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            byte[] bytes = digest.digest(url.getBytes("UTF-8"));
+            char[] hex = new char[bytes.length * 2];
+            for (int i = 0; i < bytes.length; i++) {
+                hex[i * 2] = Character.forDigit((bytes[i] >> 4) & 0xF, 16);
+                hex[i * 2 + 1] = Character.forDigit(bytes[i] & 0xF, 16);
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException | IOException e) {
+            return Integer.toHexString(url.hashCode());
+        }
+    }
+
+    public synchronized Metadata getMetadata(String key) {
+        ensureIndex();
+        Metadata metadata = mMetadata.get(key);
+        if (metadata != null) {
+            return metadata;
+        }
+        File file = new File(new File(mCacheDir, key), META_FILE);
+        if (!file.exists()) {
+            return null;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new FileInputStream(file));
+            metadata = new Metadata(in.readLong(), in.readUTF());
+            mMetadata.put(key, metadata);
+            return metadata;
+        } catch (IOException e) {
+            file.delete();
+            return null;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    public synchronized void putMetadata(String key, long length, String contentType) throws IOException {
+        if (contentType == null) {
+            contentType = "";
+        }
+        ensureIndex();
+        File dir = new File(mCacheDir, key);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("mkdirs failed: " + dir);
+        }
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new FileOutputStream(new File(dir, META_FILE)));
+            out.writeLong(length);
+            out.writeUTF(contentType);
+        } finally {
+            closeQuietly(out);
+        }
+        mMetadata.put(key, new Metadata(length, contentType));
+    }
+
+    /**
+     * 读取一段，返回只读的内存映射
+     *
+     * @return 未缓存时返回 null
+     */
+    public ByteBuffer read(String key, int index) {
+        File file = segmentFile(key, index);
+        synchronized (this) {
+            ensureIndex();
+            if (mSegments.get(file) == null) {
+                return null;
+            }
+        }
+        file.setLastModified(System.currentTimeMillis());
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            FileChannel channel = raf.getChannel();
+            // 映射建立后关闭文件不影响映射内容
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            // 已被淘汰
+            synchronized (this) {
+                Long size = mSegments.remove(file);
+                if (size != null) {
+                    mTotalBytes -= size;
+                    onSegmentRemoved(key);
+                }
+            }
+            return null;
+        } finally {
+            closeQuietly(raf);
+        }
+    }
+
+    public synchronized boolean contains(String key, int index) {
+        ensureIndex();
+        return mSegments.containsKey(segmentFile(key, index));
+    }
+
+    /**
+     * 写入完整的一段，超出容量时淘汰最久未访问的段
+     */
+    public void write(String key, int index, byte[] data, int length) throws IOException {
+        synchronized (this) {
+            // 扫描磁盘会删除临时文件与空目录，需在写临时文件之前完成
+            ensureIndex();
+        }
+        File dir = new File(mCacheDir, key);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("mkdirs failed: " + dir);
+        }
+        File file = segmentFile(key, index);
+        File temp = new File(dir, index + TEMP_SUFFIX + Thread.currentThread().getId());
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(temp, "rw");
+            raf.setLength(length);
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+            buffer.put(data, 0, length);
+            buffer.force();
+        } finally {
+            closeQuietly(raf);
+        }
+        synchronized (this) {
+            if (!temp.renameTo(file)) {
+                temp.delete();
+                throw new IOException("rename failed: " + file);
+            }
+            addSegment(key, file, length);
+            trimToSize();
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void clear() {
+        ensureIndex();
+        for (File file : mSegments.keySet()) {
+            file.delete();
+        }
+        mSegments.clear();
+        mMetadata.clear();
+        mSegmentCounts.clear();
+        mTotalBytes = 0;
+        File[] dirs = mCacheDir.listFiles();
+        if (dirs != null) {
+            for (File dir : dirs) {
+                new File(dir, META_FILE).delete();
+                dir.delete();
+            }
+        }
+    }
+
+    private File segmentFile(String key, int index) {
+        return new File(new File(mCacheDir, key), index + SEGMENT_SUFFIX);
+    }
+
+    private void addSegment(String key, File file, long length) {
+        Long old = mSegments.put(file, length);
+        if (old != null) {
+            mTotalBytes -= old;
+        } else {
+            Integer count = mSegmentCounts.get(key);
+            mSegmentCounts.put(key, count == null ? 1 : count + 1);
+        }
+        mTotalBytes += length;
+    }
+
+    /**
+     * 段已从索引中移除：该 key 没有剩余的段时删除 meta，避免只剩 meta 的目录一直留在磁盘上
+     */
+    private void onSegmentRemoved(String key) {
+        Integer count = mSegmentCounts.get(key);
+        if (count != null && count > 1) {
+            mSegmentCounts.put(key, count - 1);
+            return;
+        }
+        mSegmentCounts.remove(key);
+        mMetadata.remove(key);
+        new File(new File(mCacheDir, key), META_FILE).delete();
+    }
+
+    private void trimToSize() {
+        Iterator<Map.Entry<File, Long>> iterator = mSegments.entrySet().iterator();
+        while (mTotalBytes > mMaxBytes && iterator.hasNext()) {
+            Map.Entry<File, Long> eldest = iterator.next();
+            iterator.remove();
+            mTotalBytes -= eldest.getValue();
+            File file = eldest.getKey();
+            file.delete();
+            onSegmentRemoved(file.getParentFile().getName());
+        }
+    }
+
+    /**
+     * 首次使用时扫描磁盘，按修改时间恢复 LRU 顺序，避免在构造时（通常是主线程）读磁盘
+     */
+    private void ensureIndex() {
+        if (mIndexLoaded) {
+            return;
+        }
+        mIndexLoaded = true;
+        File[] dirs = mCacheDir.listFiles();
+        if (dirs == null) {
+            return;
+        }
+        List<File> segments = new ArrayList<>();
+        for (File dir : dirs) {
+            File[] files = dir.listFiles();
+            if (files == null) {
+                continue;
+            }
+            int count = segments.size();
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(SEGMENT_SUFFIX)) {
+                    segments.add(file);
+                } else if (name.contains(TEMP_SUFFIX)) {
+                    file.delete();
+                }
+            }
+            if (segments.size() == count) {
+                // 没有段的目录（如段已被淘汰的旧数据）只剩 meta，一并删除
+                new File(dir, META_FILE).delete();
+                dir.delete();
+            }
+        }
+        Collections.sort(segments, new Comparator<File>() {
+            @Override
+            public int compare(File o1, File o2) {
+                long diff = o1.lastModified() - o2.lastModified();
+                return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+            }
+        });
+        for (File file : segments) {
+            addSegment(file.getParentFile().getName(), file, file.length());
+        }
+        trimToSize();
+    }
+
+    static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package cn.yinxm.media.video.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * 源站连接：从指定偏移开始顺序读取，记录当前读取位置
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+final class UpstreamConnection {
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int READ_TIMEOUT_MS = 15_000;
+
+    private final HttpURLConnection mConnection;
+    private final InputStream mInputStream;
+    /** 文件总长度，未知时为 -1 */
+    private final long mLength;
+    private final String mContentType;
+    private long mPosition;
+
+    private UpstreamConnection(HttpURLConnection connection, InputStream inputStream, long length,
+                               String contentType, long position) {
+        mConnection = connection;
+        mInputStream = inputStream;
+        mLength = length;
+        mContentType = contentType;
+        mPosition = position;
+    }
+
+    /**
+     * 打开连接，源站不支持 Range 时跳过 offset 之前的数据
+     *
+     * @throws IOException 连接失败、源站返回错误，或地址不是 http/https
+     */
+    static UpstreamConnection open(String url, long offset) throws IOException {
+        if (!isHttpUrl(url)) {
+            throw new IOException("unsupported url " + url);
+        }
+        try {
+            return openHttp(url, offset);
+        } catch (RuntimeException e) {
+            // 非法的主机名、端口等由 URL 与 HttpURLConnection 抛出运行时异常
+            throw new IOException("open " + url + " failed", e);
+        }
+    }
+
+    /**
+     * @return 是否为 http、https 地址，代理与预取只支持这两种
+     */
+    static boolean isHttpUrl(String url) {
+        return url != null && (url.regionMatches(true, 0, "http://", 0, "http://".length())
+                || url.regionMatches(true, 0, "https://", 0, "https://".length()));
+    }
+
+    private static UpstreamConnection openHttp(String url, long offset) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        if (offset > 0) {
+            connection.setRequestProperty("Range", "bytes=" + offset + "-");
+        }
+        int code = connection.getResponseCode();
+        long length;
+        if (code == HttpURLConnection.HTTP_PARTIAL) {
+            length = parseContentRangeLength(connection.getHeaderField("Content-Range"));
+        } else if (code == HttpURLConnection.HTTP_OK) {
+            length = parseLong(connection.getHeaderField("Content-Length"));
+        } else {
+            connection.disconnect();
+            throw new IOException("HTTP " + code + " " + url);
+        }
+        InputStream inputStream = connection.getInputStream();
+        if (code == HttpURLConnection.HTTP_OK && offset > 0) {
+            skipFully(inputStream, offset);
+        }
+        return new UpstreamConnection(connection, inputStream, length, connection.getContentType(), offset);
+    }
+
+    long getLength() {
+        return mLength;
+    }
+
+    String getContentType() {
+        return mContentType;
+    }
+
+    long getPosition() {
+        return mPosition;
+    }
+
+    int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = mInputStream.read(buffer, offset, length);
+        if (read > 0) {
+            mPosition += read;
+        }
+        return read;
+    }
+
+    void close() {
+        SegmentCache.closeQuietly(mInputStream);
+        mConnection.disconnect();
+    }
+
+    private static void skipFully(InputStream inputStream, long count) throws IOException {
+        while (count > 0) {
+            long skipped = inputStream.skip(count);
+            if (skipped <= 0) {
+                if (inputStream.read() < 0) {
+                    throw new IOException("unexpected end of stream");
+                }
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+    }
+
+    /**
+     * Content-Range: bytes 0-99/1000
+     */
+    private static long parseContentRangeLength(String contentRange) {
+        if (contentRange == null) {
+            return -1;
+        }
+        int slash = contentRange.lastIndexOf('/');
+        return slash < 0 ? -1 : parseLong(contentRange.substring(slash + 1));
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package cn.yinxm.media.video.cache;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 播放列表头部预取：在后台把接下来要播放的地址的前 N 字节下载到 {@link SegmentCache}，
+ * 切换视频时经 {@link CacheProxyServer} 直接读缓存，缩短首帧时间
+ * <p>
+ * 1. 有界线程池：并发数、排队数有上限，队列满时丢弃请求
+ * 2. 带宽限制：所有预取任务共享下载速率上限
+ * 3. 当前视频缓冲不足时暂停，避免与正在播放的视频争抢带宽，在段之间检查
+ * 4. 统计播放时头部命中缓存的比例
+ * <p>
+ * 纯 Java 实现，线程安全
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class VideoPrefetcher {
+    public static final int DEFAULT_MAX_CONCURRENCY = 2;
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+    /** 默认预取头部 1MB */
+    public static final long DEFAULT_PREFETCH_BYTES = 1024 * 1024;
+    /** 当前视频已缓冲领先播放位置不足该时长时暂停预取 */
+    public static final int DEFAULT_MIN_BUFFER_AHEAD_MS = 10_000;
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private final SegmentCache mCache;
+    private final ThreadPoolExecutor mExecutor;
+    /**
+     * 播放命中统计：检查缓存可能首次扫描磁盘索引、等待写缓存持有的锁，不在调用方（主线程）执行；
+     * 单线程按调用顺序统计，不与预取任务共用队列，不会被丢弃或排在预取下载之后
+     */
+    private final ExecutorService mStatsExecutor;
+    private final Set<String> mPendingUrls = new HashSet<>();
+    private final Object mPauseLock = new Object();
+    private boolean mPaused;
+    private volatile boolean mShutdown;
+
+    private volatile long mPrefetchBytes = DEFAULT_PREFETCH_BYTES;
+    private volatile int mMinBufferAheadMs = DEFAULT_MIN_BUFFER_AHEAD_MS;
+    /** 带宽上限 bytes/s，<= 0 不限 */
+    private long mMaxBytesPerSecond;
+    private long mNextFreeNanos;
+
+    private final PrefetchStats mStats = new PrefetchStats();
+
+    public VideoPrefetcher(SegmentCache cache) {
+        this(cache, DEFAULT_MAX_CONCURRENCY, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public VideoPrefetcher(SegmentCache cache, int maxConcurrency, int queueCapacity) {
+        mCache = cache;
+        mExecutor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(queueCapacity), new ThreadFactory() {
+            private int mCount;
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "video-prefetch-" + (++mCount));
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+        mExecutor.allowCoreThreadTimeOut(true);
+        mStatsExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "video-prefetch-stats");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * 每个地址预取的字节数，向上取整到段
+     */
+    public void setPrefetchBytes(long prefetchBytes) {
+        mPrefetchBytes = prefetchBytes;
+    }
+
+    /**
+     * 按时长设置预取量，需要给出估计码率
+     *
+     * @param seconds    预取时长
+     * @param bitrateBps 视频码率 bit/s
+     */
+    public void setPrefetchDuration(int seconds, long bitrateBps) {
+        mPrefetchBytes = seconds * bitrateBps / 8;
+    }
+
+    public synchronized void setMaxBytesPerSecond(long maxBytesPerSecond) {
+        mMaxBytesPerSecond = maxBytesPerSecond;
+    }
+
+    public void setMinBufferAheadMs(int minBufferAheadMs) {
+        mMinBufferAheadMs = minBufferAheadMs;
+    }
+
+    /**
+     * 提交预取请求：已在排队或执行中的地址忽略，队列已满时丢弃
+     */
+    public void prefetch(final String url) {
+        if (mShutdown || url == null) {
+            return;
+        }
+        synchronized (mPendingUrls) {
+            if (!mPendingUrls.add(url)) {
+                return;
+            }
+        }
+        try {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        prefetchHead(url);
+                        synchronized (mStats) {
+                            mStats.completedTasks++;
+                        }
+                    } catch (IOException e) {
+                        synchronized (mStats) {
+                            mStats.failedTasks++;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        synchronized (mPendingUrls) {
+                            mPendingUrls.remove(url);
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            synchronized (mPendingUrls) {
+                mPendingUrls.remove(url);
+            }
+            synchronized (mStats) {
+                mStats.rejectedTasks++;
+            }
+        }
+    }
+
+    /**
+     * 当前视频的缓冲进度，缓冲领先播放位置不足 {@link #setMinBufferAheadMs} 时暂停预取
+     *
+     * @param percent    OnBufferingUpdateListener 回调的缓冲百分比
+     * @param positionMs 当前播放位置
+     * @param durationMs 视频时长，未知时按缓冲完成前一直暂停处理
+     */
+    public void onBufferingUpdate(int percent, int positionMs, int durationMs) {
+        boolean paused;
+        if (percent >= 100) {
+            paused = false;
+        } else if (durationMs <= 0) {
+            paused = true;
+        } else {
+            long bufferedMs = (long) durationMs * percent / 100;
+            paused = bufferedMs - positionMs < mMinBufferAheadMs;
+        }
+        setPaused(paused);
+    }
+
+    public void setPaused(boolean paused) {
+        synchronized (mPauseLock) {
+            if (mPaused != paused) {
+                mPaused = paused;
+                if (!paused) {
+                    mPauseLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    public boolean isPaused() {
+        synchronized (mPauseLock) {
+            return mPaused;
+        }
+    }
+
+    /**
+     * 开始播放某个地址时调用，统计头部是否已在缓存中；在后台线程检查缓存，可在主线程调用
+     */
+    public void recordPlay(final String url) {
+        if (mShutdown || url == null) {
+            return;
+        }
+        try {
+            mStatsExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    boolean hit = mCache.contains(SegmentCache.keyOf(url), 0);
+                    synchronized (mStats) {
+                        mStats.playCount++;
+                        if (hit) {
+                            mStats.hitCount++;
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+            // 已关闭
+        }
+    }
+
+    /**
+     * 开始播放已由预加载播放器准备好的地址时调用，代替 {@link #recordPlay}：
+     * 头部由预加载的播放器经代理写入缓存，不是预取的结果，单独计数
+     */
+    public void recordPreloadedPlay() {
+        synchronized (mStats) {
+            mStats.preloadedPlayCount++;
+        }
+    }
+
+    public void getStats(PrefetchStats out) {
+        synchronized (mStats) {
+            out.playCount = mStats.playCount;
+            out.hitCount = mStats.hitCount;
+            out.preloadedPlayCount = mStats.preloadedPlayCount;
+            out.completedTasks = mStats.completedTasks;
+            out.failedTasks = mStats.failedTasks;
+            out.rejectedTasks = mStats.rejectedTasks;
+            out.downloadedSegments = mStats.downloadedSegments;
+            out.downloadedBytes = mStats.downloadedBytes;
+            out.skippedSegments = mStats.skippedSegments;
+        }
+    }
+
+    public PrefetchStats getStats() {
+        PrefetchStats stats = new PrefetchStats();
+        getStats(stats);
+        return stats;
+    }
+
+    /**
+     * 停止所有预取，执行中的下载被中断
+     */
+    public void shutdown() {
+        mShutdown = true;
+        mExecutor.shutdownNow();
+        mStatsExecutor.shutdownNow();
+        setPaused(false);
+    }
+
+    private void prefetchHead(String url) throws IOException, InterruptedException {
+        String key = SegmentCache.keyOf(url);
+        int segmentSize = mCache.getSegmentSize();
+        SegmentCache.Metadata metadata = mCache.getMetadata(key);
+        long length = metadata != null ? metadata.length : -1;
+        int segmentCount = (int) ((mPrefetchBytes + segmentSize - 1) / segmentSize);
+        UpstreamConnection upstream = null;
+        byte[] segment = null;
+        try {
+            for (int index = 0; index < segmentCount; index++) {
+                long segmentStart = (long) index * segmentSize;
+                if (length >= 0 && segmentStart >= length) {
+                    break;
+                }
+                if (mCache.contains(key, index)) {
+                    synchronized (mStats) {
+                        mStats.skippedSegments++;
+                    }
+                    continue;
+                }
+                if (awaitResumed() && upstream != null) {
+                    // 暂停期间连接可能已被源站断开
+                    upstream.close();
+                    upstream = null;
+                }
+                if (mShutdown) {
+                    return;
+                }
+                if (upstream == null || upstream.getPosition() != segmentStart) {
+                    if (upstream != null) {
+                        upstream.close();
+                    }
+                    upstream = UpstreamConnection.open(url, segmentStart);
+                    if (length < 0) {
+                        length = upstream.getLength();
+                        if (length < 0) {
+                            // 长度未知，代理也不会分段缓存
+                            return;
+                        }
+                        mCache.putMetadata(key, length, upstream.getContentType());
+                    }
+                }
+                if (segment == null) {
+                    segment = new byte[segmentSize];
+                }
+                int segmentLength = (int) Math.min(segmentSize, length - segmentStart);
+                readSegment(upstream, segment, segmentLength);
+                mCache.write(key, index, segment, segmentLength);
+                synchronized (mStats) {
+                    mStats.downloadedSegments++;
+                    mStats.downloadedBytes += segmentLength;
+                }
+            }
+        } finally {
+            if (upstream != null) {
+                upstream.close();
+            }
+        }
+    }
+
+    private void readSegment(UpstreamConnection upstream, byte[] segment, int segmentLength)
+            throws IOException, InterruptedException {
+        int filled = 0;
+        while (filled < segmentLength) {
+            int count = Math.min(CHUNK_SIZE, segmentLength - filled);
+            throttle(count);
+            int read = upstream.read(segment, filled, count);
+            if (read < 0) {
+                throw new IOException("unexpected end of upstream");
+            }
+            filled += read;
+        }
+    }
+
+    /**
+     * @return 是否发生了等待
+     */
+    private boolean awaitResumed() throws InterruptedException {
+        synchronized (mPauseLock) {
+            if (!mPaused || mShutdown) {
+                return false;
+            }
+            while (mPaused && !mShutdown) {
+                mPauseLock.wait();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 按带宽上限为本次读取预留时间，超出时睡眠等待
+     */
+    private void throttle(int bytes) throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            if (mMaxBytesPerSecond <= 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            long start = Math.max(now, mNextFreeNanos);
+            mNextFreeNanos = start + bytes * 1_000_000_000L / mMaxBytesPerSecond;
+            waitNanos = start - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package cn.yinxm.media.video.controller;
 
+import cn.yinxm.media.video.player.BufferingStateListener;
+
 /**
  * <p>
  *
@@ -61,4 +63,29 @@ public class SimpleVideoController implements VideoPlayController {
     public int getAudioSessionId() {
         return 0;
     }
+
+    @Override
+    public boolean isBuffering() {
+        return false;
+    }
+
+    @Override
+    public int getStallCount() {
+        return 0;
+    }
+
+    @Override
+    public long getTotalStallTimeMs() {
+        return 0;
+    }
+
+    @Override
+    public float getRebufferRatio() {
+        return 0;
+    }
+
+    @Override
+    public void setBufferingStateListener(BufferingStateListener listener) {
+
+    }
 }
@@ -2,6 +2,8 @@ package cn.yinxm.media.video.controller;
 
 import android.widget.MediaController;
 
+import cn.yinxm.media.video.player.BufferingStateListener;
+
 /**
  * <p>
  *
@@ -9,4 +11,26 @@ import android.widget.MediaController;
  * @date 2019-07-17
  */
 public interface VideoPlayController extends MediaController.MediaPlayerControl {
+
+    /**
+     * @return 是否正在卡顿缓冲
+     */
+    boolean isBuffering();
+
+    /**
+     * @return 当前播放地址的卡顿次数
+     */
+    int getStallCount();
+
+    /**
+     * @return 当前播放地址的累计卡顿时长，包括进行中的卡顿
+     */
+    long getTotalStallTimeMs();
+
+    /**
+     * @return 当前播放地址的卡顿率：卡顿时长 / (播放时长 + 卡顿时长)
+     */
+    float getRebufferRatio();
+
+    void setBufferingStateListener(BufferingStateListener listener);
 }
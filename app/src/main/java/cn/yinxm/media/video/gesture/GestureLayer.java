@@ -1,16 +1,19 @@
 package cn.yinxm.media.video.gesture;
 
 import android.content.Context;
-import android.util.Log;
+import android.os.Build;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.view.ScaleGestureDetector;
+import android.view.WindowManager;
 import android.widget.FrameLayout;
 
+import cn.yinxm.media.video.gesture.metrics.GestureMetrics;
 import cn.yinxm.media.video.gesture.touch.IGestureLayer;
 import cn.yinxm.media.video.gesture.touch.adapter.IVideoTouchAdapter;
 import cn.yinxm.media.video.gesture.touch.handler.VideoTouchScaleHandler;
 import cn.yinxm.media.video.gesture.touch.listener.VideoScaleGestureListener;
+import cn.yinxm.media.video.gesture.trace.GestureTraceRecorder;
 
 
 /**
@@ -35,6 +38,12 @@ public final class GestureLayer implements IGestureLayer, GestureDetector.OnGest
 
 
     private IVideoTouchAdapter mVideoTouchAdapter;
+    /** 触摸轨迹录制，默认关闭 */
+    private GestureTraceRecorder mTraceRecorder;
+    /** 手势性能统计，默认关闭 */
+    private GestureMetrics mGestureMetrics;
+    /** 本次手势是否交给手势检测器处理，手指按下时确定 */
+    private boolean mGestureEnabled;
 
     public GestureLayer(Context context, IVideoTouchAdapter videoTouchAdapter) {
         mContext = context;
@@ -52,6 +61,31 @@ public final class GestureLayer implements IGestureLayer, GestureDetector.OnGest
         return mContext;
     }
 
+    public VideoTouchScaleHandler getScaleHandler() {
+        return mScaleHandler;
+    }
+
+    /**
+     * 设置触摸轨迹录制，null 关闭录制
+     */
+    public void setTraceRecorder(GestureTraceRecorder traceRecorder) {
+        mTraceRecorder = traceRecorder;
+    }
+
+    /**
+     * 设置手势性能统计，null 关闭统计；按当前屏幕刷新率判断丢帧
+     */
+    public void setGestureMetrics(GestureMetrics gestureMetrics) {
+        if (gestureMetrics != null) {
+            WindowManager windowManager = (WindowManager) mContext.getSystemService(Context.WINDOW_SERVICE);
+            if (windowManager != null) {
+                gestureMetrics.setRefreshRate(windowManager.getDefaultDisplay().getRefreshRate());
+            }
+        }
+        mGestureMetrics = gestureMetrics;
+        mScaleHandler.setGestureMetrics(gestureMetrics);
+    }
+
     private void initContainer() {
         mContainer = new FrameLayout(mContext) {
             @Override
@@ -83,6 +117,10 @@ public final class GestureLayer implements IGestureLayer, GestureDetector.OnGest
         // 手势缩放
         mScaleGestureListener = new VideoScaleGestureListener(this);
         mScaleGestureDetector = new ScaleGestureDetector(getContext(), mScaleGestureListener);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            // 单指事件也交给缩放检测器，关闭双击拖动缩放，避免与双击放大冲突
+            mScaleGestureDetector.setQuickScaleEnabled(false);
+        }
 
         // 缩放 处理
         mScaleHandler = new VideoTouchScaleHandler(getContext(), mContainer, mVideoTouchAdapter);
@@ -95,31 +133,51 @@ public final class GestureLayer implements IGestureLayer, GestureDetector.OnGest
         if (mGestureDetector != null) {
             mGestureDetector.setOnDoubleTapListener(null);
         }
+        if (mScaleHandler != null) {
+            mScaleHandler.release();
+        }
     }
 
     @Override
     public boolean onGestureTouchEvent(MotionEvent event) {
-        try {
-            int pointCount = event.getPointerCount();
-            if (pointCount == 1 && event.getAction() == MotionEvent.ACTION_UP) {
-                if (mScaleHandler.isScaled()) {
-                    mScaleHandler.showScaleReset();
-                }
-            }
-            if (pointCount > 1) {
-                boolean isConsume = mScaleGestureDetector.onTouchEvent(event);
-                if (isConsume) {
-                    return true;
-                }
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "", e);
+        if (mTraceRecorder != null) {
+            mTraceRecorder.record(event);
         }
+        int actionMasked = event.getActionMasked();
+        if (actionMasked == MotionEvent.ACTION_DOWN) {
+            // 手势开始时确定是否处理，中途不切换，保证检测器收到完整的事件序列
+            mGestureEnabled = mScaleHandler.isEnabled();
+        }
+        if (!mGestureEnabled) {
+            return false;
+        }
+        if (mGestureMetrics == null) {
+            return dispatchGestureEvent(event, actionMasked);
+        }
+        long start = System.nanoTime();
+        boolean isConsume = dispatchGestureEvent(event, actionMasked);
+        mGestureMetrics.onDispatch(System.nanoTime() - start);
+        return isConsume;
+    }
 
-        if (event.getAction() == MotionEvent.ACTION_DOWN) {
-            return true;
+    /**
+     * 每个事件依次交给两个检测器各一次：
+     * <p>
+     * 1. ScaleGestureDetector 先处理，收到完整的 DOWN → UP 序列，焦点、跨度从第一个手指开始计算；
+     * 双指缩放开始后 VideoTouchScaleHandler 处于缩放状态，同一事件的单指拖动回调直接忽略
+     * 2. GestureDetector 处理单指拖动、惯性滑动、双击
+     */
+    private boolean dispatchGestureEvent(MotionEvent event, int actionMasked) {
+        mScaleGestureListener.onTouchEvent(mScaleGestureDetector, event);
+        boolean isGestureConsume = mGestureDetector.onTouchEvent(event);
+        if (actionMasked == MotionEvent.ACTION_UP || actionMasked == MotionEvent.ACTION_CANCEL) {
+            mScaleHandler.onTouchUp();
+            if (actionMasked == MotionEvent.ACTION_UP && mScaleHandler.isScaled()) {
+                mScaleHandler.showScaleReset();
+            }
         }
-        return false;
+        return actionMasked == MotionEvent.ACTION_DOWN || isGestureConsume
+                || event.getPointerCount() > 1 || mScaleGestureDetector.isInProgress();
     }
 
     @Override
@@ -138,6 +196,7 @@ public final class GestureLayer implements IGestureLayer, GestureDetector.OnGest
 
     @Override
     public boolean onDoubleTap(MotionEvent e) {
+        mScaleHandler.onDoubleTap(e);
         return true;
     }
 
@@ -148,6 +207,7 @@ public final class GestureLayer implements IGestureLayer, GestureDetector.OnGest
 
     @Override
     public boolean onDown(MotionEvent e) {
+        mScaleHandler.onDown(e);
         return false;
     }
 
@@ -164,11 +224,9 @@ public final class GestureLayer implements IGestureLayer, GestureDetector.OnGest
     @Override
     public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
         if (mScaleHandler.isInScaleStatus()) {
-//                    if (mScaleHandler.isScaled()) {
             return mScaleHandler.onScroll(e1, e2, distanceX, distanceY);
-//                    }
         }
-                return false;
+        return false;
     }
 
     @Override
@@ -179,6 +237,9 @@ public final class GestureLayer implements IGestureLayer, GestureDetector.OnGest
     @Override
     public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX,
                            float velocityY) {
+        if (mScaleHandler.isInScaleStatus()) {
+            return mScaleHandler.onFling(e1, e2, velocityX, velocityY);
+        }
         return false;
     }
 
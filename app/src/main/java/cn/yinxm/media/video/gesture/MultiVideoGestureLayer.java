@@ -0,0 +1,286 @@
+package cn.yinxm.media.video.gesture;
+
+import android.content.Context;
+import android.os.Build;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import cn.yinxm.media.video.gesture.touch.IGestureLayer;
+import cn.yinxm.media.video.gesture.touch.adapter.IVideoTouchAdapter;
+import cn.yinxm.media.video.gesture.touch.dispatch.VideoTouchTargets;
+import cn.yinxm.media.video.gesture.touch.handler.VideoTouchScaleHandler;
+import cn.yinxm.media.video.gesture.touch.listener.VideoScaleGestureListener;
+
+
+/**
+ * 多播放器共用的手势 layer 层：宫格、多机位等同屏多个播放器时，只创建一套
+ * GestureDetector、ScaleGestureDetector、{@link VideoTouchScaleHandler} 及还原按钮、比例提示
+ * <p>
+ * 1. 容器覆盖在所有播放器之上，第一个手指按下时按播放器区域命中测试，锁定目标直到手指全部抬起
+ * 2. 事件坐标平移到目标 View 坐标系后分发，处理器切换到目标播放器；各播放器的手势矩阵保存在自己的渲染 View 中，
+ * 还原按钮、比例提示移动到目标播放器区域
+ * 3. 没有命中播放器时不消费事件
+ * <p>
+ * 目标区域只在手势开始时刷新，之后每个事件的分发开销与播放器数量无关
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public final class MultiVideoGestureLayer implements IGestureLayer, GestureDetector.OnGestureListener,
+        GestureDetector.OnDoubleTapListener {
+    private Context mContext;
+    private FrameLayout mContainer;
+
+    private GestureDetector mGestureDetector;
+    private ScaleGestureDetector mScaleGestureDetector;
+    private VideoScaleGestureListener mScaleGestureListener;
+    private VideoTouchScaleHandler mScaleHandler;
+
+    private final VideoTouchTargets<Target> mTargets = new VideoTouchTargets<>();
+    private final int[] mContainerLocation = new int[2];
+    private final int[] mTargetLocation = new int[2];
+
+    /**
+     * 播放器 View 与手势适配
+     */
+    private static final class Target {
+        final View mView;
+        final IVideoTouchAdapter mTouchAdapter;
+
+        Target(View view, IVideoTouchAdapter touchAdapter) {
+            mView = view;
+            mTouchAdapter = touchAdapter;
+        }
+    }
+
+    public MultiVideoGestureLayer(Context context) {
+        mContext = context;
+        initContainer();
+        initTouchHandler();
+    }
+
+    @Override
+    public FrameLayout getContainer() {
+        return mContainer;
+    }
+
+    public VideoTouchScaleHandler getScaleHandler() {
+        return mScaleHandler;
+    }
+
+    /**
+     * 添加播放器
+     *
+     * @param view              播放器在屏幕上的 View，用于命中测试
+     * @param videoTouchAdapter 播放器手势适配
+     */
+    public void addTarget(View view, IVideoTouchAdapter videoTouchAdapter) {
+        if (findTarget(videoTouchAdapter) == VideoTouchTargets.NO_TARGET) {
+            mTargets.add(new Target(view, videoTouchAdapter));
+        }
+    }
+
+    public void removeTarget(IVideoTouchAdapter videoTouchAdapter) {
+        int index = findTarget(videoTouchAdapter);
+        if (index == VideoTouchTargets.NO_TARGET) {
+            return;
+        }
+        mTargets.remove(mTargets.get(index));
+        if (mScaleHandler.getTouchAdapter() == videoTouchAdapter) {
+            mScaleHandler.setTouchAdapter(null);
+        }
+    }
+
+    public int getTargetCount() {
+        return mTargets.size();
+    }
+
+    private int findTarget(IVideoTouchAdapter videoTouchAdapter) {
+        for (int i = 0; i < mTargets.size(); i++) {
+            if (mTargets.get(i).mTouchAdapter == videoTouchAdapter) {
+                return i;
+            }
+        }
+        return VideoTouchTargets.NO_TARGET;
+    }
+
+    private void initContainer() {
+        mContainer = new FrameLayout(mContext) {
+            @Override
+            public boolean onTouchEvent(MotionEvent event) {
+                boolean isConsume = onGestureTouchEvent(event);
+                if (isConsume) {
+                    return true;
+                } else {
+                    return super.onTouchEvent(event);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void initTouchHandler() {
+        mGestureDetector = new GestureDetector(mContext, this);
+        mGestureDetector.setOnDoubleTapListener(this);
+
+        mScaleGestureListener = new VideoScaleGestureListener(this);
+        mScaleGestureDetector = new ScaleGestureDetector(mContext, mScaleGestureListener);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            // 单指事件也交给缩放检测器，关闭双击拖动缩放，避免与双击放大冲突
+            mScaleGestureDetector.setQuickScaleEnabled(false);
+        }
+
+        // 处理器初始不绑定播放器，手势开始时切换到命中的播放器
+        mScaleHandler = new VideoTouchScaleHandler(mContext, mContainer, null);
+        mScaleGestureListener.mScaleHandler = mScaleHandler;
+    }
+
+    @Override
+    public void onLayerRelease() {
+        if (mGestureDetector != null) {
+            mGestureDetector.setOnDoubleTapListener(null);
+        }
+        if (mScaleHandler != null) {
+            mScaleHandler.release();
+        }
+        mTargets.clear();
+    }
+
+    @Override
+    public boolean onGestureTouchEvent(MotionEvent event) {
+        int actionMasked = event.getActionMasked();
+        if (actionMasked == MotionEvent.ACTION_DOWN) {
+            updateTargetBounds();
+            int index = mTargets.capture(event.getX(), event.getY());
+            if (index == VideoTouchTargets.NO_TARGET) {
+                return false;
+            }
+            IVideoTouchAdapter touchAdapter = mTargets.get(index).mTouchAdapter;
+            if (mScaleHandler.getTouchAdapter() != touchAdapter) {
+                cancelGestureDetector(event);
+                mScaleHandler.setTouchAdapter(touchAdapter);
+            }
+            // 还原按钮、比例提示显示在目标播放器区域内，而不是整个手势层
+            mScaleHandler.setOverlayBounds((int) mTargets.getLeft(index), (int) mTargets.getTop(index),
+                    (int) mTargets.getRight(index), (int) mTargets.getBottom(index));
+            if (!mScaleHandler.isEnabled()) {
+                // 目标播放器不处理手势，本次手势不再分发
+                mTargets.release();
+                return false;
+            }
+        }
+        int index = mTargets.getCaptured();
+        if (index == VideoTouchTargets.NO_TARGET) {
+            return false;
+        }
+        // 平移到目标 View 坐标系，缩放中心、双击位置都按播放器画面计算
+        float offsetX = mTargets.getLeft(index);
+        float offsetY = mTargets.getTop(index);
+        event.offsetLocation(-offsetX, -offsetY);
+        boolean isGestureConsume = dispatchToTarget(event, actionMasked);
+        event.offsetLocation(offsetX, offsetY);
+        if (actionMasked == MotionEvent.ACTION_UP || actionMasked == MotionEvent.ACTION_CANCEL) {
+            mTargets.release();
+        }
+        return actionMasked == MotionEvent.ACTION_DOWN || isGestureConsume;
+    }
+
+    /**
+     * 与 GestureLayer 相同：每个事件依次交给 ScaleGestureDetector、GestureDetector 各一次
+     */
+    private boolean dispatchToTarget(MotionEvent event, int actionMasked) {
+        mScaleGestureListener.onTouchEvent(mScaleGestureDetector, event);
+        boolean isGestureConsume = mGestureDetector.onTouchEvent(event);
+        if (actionMasked == MotionEvent.ACTION_UP || actionMasked == MotionEvent.ACTION_CANCEL) {
+            mScaleHandler.onTouchUp();
+            if (actionMasked == MotionEvent.ACTION_UP && mScaleHandler.isScaled()) {
+                mScaleHandler.showScaleReset();
+            }
+        }
+        return isGestureConsume || event.getPointerCount() > 1 || mScaleGestureDetector.isInProgress();
+    }
+
+    /**
+     * 切换播放器时清除上一个播放器的单击状态，避免两个播放器上的先后单击被识别为双击
+     */
+    private void cancelGestureDetector(MotionEvent event) {
+        MotionEvent cancel = MotionEvent.obtain(event);
+        cancel.setAction(MotionEvent.ACTION_CANCEL);
+        mGestureDetector.onTouchEvent(cancel);
+        cancel.recycle();
+    }
+
+    /**
+     * 按播放器 View 当前在窗口中的位置刷新目标区域，坐标相对手势容器
+     */
+    private void updateTargetBounds() {
+        mContainer.getLocationInWindow(mContainerLocation);
+        for (int i = 0; i < mTargets.size(); i++) {
+            View view = mTargets.get(i).mView;
+            if (view.getVisibility() != View.VISIBLE || view.getWindowToken() == null) {
+                mTargets.setBounds(i, 0, 0, 0, 0);
+                continue;
+            }
+            view.getLocationInWindow(mTargetLocation);
+            float left = mTargetLocation[0] - mContainerLocation[0];
+            float top = mTargetLocation[1] - mContainerLocation[1];
+            mTargets.setBounds(i, left, top, left + view.getWidth(), top + view.getHeight());
+        }
+    }
+
+    @Override
+    public boolean onSingleTapConfirmed(MotionEvent e) {
+        return true;
+    }
+
+    @Override
+    public boolean onDoubleTap(MotionEvent e) {
+        mScaleHandler.onDoubleTap(e);
+        return true;
+    }
+
+    @Override
+    public boolean onDoubleTapEvent(MotionEvent e) {
+        return false;
+    }
+
+    @Override
+    public boolean onDown(MotionEvent e) {
+        mScaleHandler.onDown(e);
+        return false;
+    }
+
+    @Override
+    public void onShowPress(MotionEvent e) {
+
+    }
+
+    @Override
+    public boolean onSingleTapUp(MotionEvent e) {
+        return false;
+    }
+
+    @Override
+    public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
+        if (mScaleHandler.isInScaleStatus()) {
+            return mScaleHandler.onScroll(e1, e2, distanceX, distanceY);
+        }
+        return false;
+    }
+
+    @Override
+    public void onLongPress(MotionEvent e) {
+
+    }
+
+    @Override
+    public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
+        if (mScaleHandler.isInScaleStatus()) {
+            return mScaleHandler.onFling(e1, e2, velocityX, velocityY);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,200 @@
+package cn.yinxm.media.video.gesture.metrics;
+
+import android.view.Choreographer;
+
+/**
+ * 手势性能统计，默认不开启，通过 GestureLayer#setGestureMetrics 设置后生效
+ * <p>
+ * 按手势统计：
+ * 1. 触摸事件到 setTransform 的延迟分布，同一帧合并的多个事件按最早的一个计算
+ * 2. 应用到画面的矩阵次数、动画帧数
+ * 3. 手势期间 Choreographer 帧间隔超过 1.5 个刷新周期记为丢帧
+ * 4. 手势层分发每个触摸事件（两个手势检测器及回调）的耗时分布
+ * <p>
+ * MotionEvent 事件时间与 System.nanoTime 为同一单调时钟，事件时间只有 ms 精度，延迟最多偏大 1ms。
+ * 记录过程不分配对象；手势结束时若设置了监听，回调一次快照。需在主线程使用
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class GestureMetrics implements Choreographer.FrameCallback {
+    public static final float DEFAULT_REFRESH_RATE = 60F;
+
+    private static final long NO_EVENT = -1;
+
+    /**
+     * 手势结束回调
+     */
+    public interface OnGestureMetricsListener {
+        void onGestureMetrics(GestureMetricsSnapshot snapshot);
+    }
+
+    private final Choreographer mChoreographer = Choreographer.getInstance();
+    /** 延迟分布，单位 us */
+    private final LatencyHistogram mLatencyHistogram = new LatencyHistogram();
+    /** 事件分发耗时分布，单位 ns */
+    private final LatencyHistogram mDispatchHistogram = new LatencyHistogram();
+    private OnGestureMetricsListener mListener;
+    private long mFrameIntervalNanos;
+
+    private boolean mGestureActive;
+    private long mGestureStartNanos;
+    private long mGestureEndNanos;
+    /** 尚未应用到画面的最早一个触摸事件时间 */
+    private long mPendingEventNanos = NO_EVENT;
+    private int mTransformCount;
+    private int mAnimatorFrameCount;
+    private int mFrameCount;
+    private int mDroppedFrameCount;
+    private long mLastFrameNanos;
+
+    public GestureMetrics() {
+        setRefreshRate(DEFAULT_REFRESH_RATE);
+    }
+
+    /**
+     * 设置屏幕刷新率，用于判断丢帧
+     */
+    public void setRefreshRate(float refreshRate) {
+        if (refreshRate <= 0) {
+            refreshRate = DEFAULT_REFRESH_RATE;
+        }
+        mFrameIntervalNanos = (long) (1_000_000_000L / refreshRate);
+    }
+
+    public void setOnGestureMetricsListener(OnGestureMetricsListener listener) {
+        mListener = listener;
+    }
+
+    public boolean isGestureActive() {
+        return mGestureActive;
+    }
+
+    /**
+     * 手指按下，开始新的一次统计；上次手势未结束时先结束
+     */
+    public void onGestureStart() {
+        if (mGestureActive) {
+            onGestureEnd();
+        }
+        mLatencyHistogram.reset();
+        mDispatchHistogram.reset();
+        mPendingEventNanos = NO_EVENT;
+        mTransformCount = 0;
+        mAnimatorFrameCount = 0;
+        mFrameCount = 0;
+        mDroppedFrameCount = 0;
+        mLastFrameNanos = 0;
+        mGestureStartNanos = System.nanoTime();
+        mGestureEndNanos = 0;
+        mGestureActive = true;
+        mChoreographer.postFrameCallback(this);
+    }
+
+    /**
+     * 触摸事件产生了新的矩阵，等待应用到画面
+     *
+     * @param eventTimeMillis MotionEvent#getEventTime
+     */
+    public void onInputEvent(long eventTimeMillis) {
+        if (mGestureActive && mPendingEventNanos == NO_EVENT) {
+            mPendingEventNanos = eventTimeMillis * 1_000_000L;
+        }
+    }
+
+    /**
+     * 矩阵已 setTransform 到画面
+     */
+    public void onTransformApplied() {
+        if (!mGestureActive) {
+            return;
+        }
+        mTransformCount++;
+        if (mPendingEventNanos != NO_EVENT) {
+            mLatencyHistogram.record((System.nanoTime() - mPendingEventNanos) / 1000);
+            mPendingEventNanos = NO_EVENT;
+        }
+    }
+
+    /**
+     * 手势层分发完一个触摸事件
+     *
+     * @param nanos 分发耗时
+     */
+    public void onDispatch(long nanos) {
+        if (mGestureActive) {
+            mDispatchHistogram.record(nanos);
+        }
+    }
+
+    /**
+     * 结束动画、惯性滑动更新一帧
+     */
+    public void onAnimatorFrame() {
+        if (mGestureActive) {
+            mAnimatorFrameCount++;
+        }
+    }
+
+    /**
+     * 手势结束：手指全部抬起且动画执行完毕
+     */
+    public void onGestureEnd() {
+        if (!mGestureActive) {
+            return;
+        }
+        mGestureActive = false;
+        mGestureEndNanos = System.nanoTime();
+        mChoreographer.removeFrameCallback(this);
+        if (mListener != null) {
+            mListener.onGestureMetrics(snapshot());
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mGestureActive) {
+            return;
+        }
+        if (mLastFrameNanos > 0) {
+            long interval = frameTimeNanos - mLastFrameNanos;
+            if (interval * 2 > mFrameIntervalNanos * 3) {
+                // 四舍五入为经过的刷新周期数，减去本帧
+                mDroppedFrameCount += (int) ((interval + mFrameIntervalNanos / 2) / mFrameIntervalNanos) - 1;
+            }
+        }
+        mLastFrameNanos = frameTimeNanos;
+        mFrameCount++;
+        mChoreographer.postFrameCallback(this);
+    }
+
+    /**
+     * 填充当前手势（或最近一次已结束手势）的统计
+     */
+    public void snapshot(GestureMetricsSnapshot out) {
+        LatencyHistogram histogram = mLatencyHistogram;
+        long endNanos = mGestureActive ? System.nanoTime() : mGestureEndNanos;
+        out.durationMillis = mGestureStartNanos == 0 ? 0 : (endNanos - mGestureStartNanos) / 1_000_000L;
+        out.latencyCount = histogram.getTotalCount();
+        out.latencyP50Micros = histogram.getValueAtPercentile(50);
+        out.latencyP90Micros = histogram.getValueAtPercentile(90);
+        out.latencyP99Micros = histogram.getValueAtPercentile(99);
+        out.latencyMaxMicros = histogram.getMax();
+        out.latencyMeanMicros = histogram.getMean();
+        LatencyHistogram dispatch = mDispatchHistogram;
+        out.dispatchCount = dispatch.getTotalCount();
+        out.dispatchP50Nanos = dispatch.getValueAtPercentile(50);
+        out.dispatchP99Nanos = dispatch.getValueAtPercentile(99);
+        out.dispatchMaxNanos = dispatch.getMax();
+        out.transformCount = mTransformCount;
+        out.animatorFrameCount = mAnimatorFrameCount;
+        out.frameCount = mFrameCount;
+        out.droppedFrameCount = mDroppedFrameCount;
+    }
+
+    public GestureMetricsSnapshot snapshot() {
+        GestureMetricsSnapshot snapshot = new GestureMetricsSnapshot();
+        snapshot(snapshot);
+        return snapshot;
+    }
+}
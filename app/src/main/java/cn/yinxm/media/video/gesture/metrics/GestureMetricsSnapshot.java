@@ -0,0 +1,78 @@
+package cn.yinxm.media.video.gesture.metrics;
+
+/**
+ * 一次手势的统计快照，由 {@link GestureMetrics#snapshot(GestureMetricsSnapshot)} 填充，可直接上报
+ * <p>
+ * 一次手势：手指按下 → 全部抬起 → 惯性滑动、结束动画执行完毕
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class GestureMetricsSnapshot {
+    /** 手势持续时间，单位 ms */
+    public long durationMillis;
+
+    /** 有延迟记录的触摸事件数 */
+    public long latencyCount;
+    /** 触摸事件到 setTransform 的延迟，单位 us */
+    public long latencyP50Micros;
+    public long latencyP90Micros;
+    public long latencyP99Micros;
+    public long latencyMaxMicros;
+    public double latencyMeanMicros;
+
+    /** 分发的触摸事件数 */
+    public long dispatchCount;
+    /** 手势层分发单个触摸事件的耗时，单位 ns */
+    public long dispatchP50Nanos;
+    public long dispatchP99Nanos;
+    public long dispatchMaxNanos;
+
+    /** 应用到画面的矩阵次数，含动画帧 */
+    public int transformCount;
+    /** 结束动画、惯性滑动的帧数 */
+    public int animatorFrameCount;
+    /** 手势期间经过的帧数 */
+    public int frameCount;
+    /** 手势期间的丢帧数 */
+    public int droppedFrameCount;
+
+    public void set(GestureMetricsSnapshot src) {
+        durationMillis = src.durationMillis;
+        latencyCount = src.latencyCount;
+        latencyP50Micros = src.latencyP50Micros;
+        latencyP90Micros = src.latencyP90Micros;
+        latencyP99Micros = src.latencyP99Micros;
+        latencyMaxMicros = src.latencyMaxMicros;
+        latencyMeanMicros = src.latencyMeanMicros;
+        dispatchCount = src.dispatchCount;
+        dispatchP50Nanos = src.dispatchP50Nanos;
+        dispatchP99Nanos = src.dispatchP99Nanos;
+        dispatchMaxNanos = src.dispatchMaxNanos;
+        transformCount = src.transformCount;
+        animatorFrameCount = src.animatorFrameCount;
+        frameCount = src.frameCount;
+        droppedFrameCount = src.droppedFrameCount;
+    }
+
+    @Override
+    public String toString() {
+        return "GestureMetricsSnapshot{"
+                + "durationMillis=" + durationMillis
+                + ", latencyCount=" + latencyCount
+                + ", latencyP50Micros=" + latencyP50Micros
+                + ", latencyP90Micros=" + latencyP90Micros
+                + ", latencyP99Micros=" + latencyP99Micros
+                + ", latencyMaxMicros=" + latencyMaxMicros
+                + ", latencyMeanMicros=" + latencyMeanMicros
+                + ", dispatchCount=" + dispatchCount
+                + ", dispatchP50Nanos=" + dispatchP50Nanos
+                + ", dispatchP99Nanos=" + dispatchP99Nanos
+                + ", dispatchMaxNanos=" + dispatchMaxNanos
+                + ", transformCount=" + transformCount
+                + ", animatorFrameCount=" + animatorFrameCount
+                + ", frameCount=" + frameCount
+                + ", droppedFrameCount=" + droppedFrameCount
+                + '}';
+    }
+}
@@ -0,0 +1,119 @@
+package cn.yinxm.media.video.gesture.metrics;
+
+import java.util.Arrays;
+
+/**
+ * 延迟直方图，HdrHistogram 风格的对数-线性分桶，精度约 1/16（约 6%）
+ * <p>
+ * 小于 32 的值每个值一个桶；之后每个 2 的幂区间均分为 16 个桶。桶数组预分配，记录过程不分配对象
+ * <p>
+ * 纯 Java 实现，非线程安全
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class LatencyHistogram {
+    /** 每个 2 的幂区间的线性子桶数为 2^SUB_BUCKET_BITS */
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /** 可记录的最大值 2^MAX_EXPONENT - 1，超过时记入最后一个桶 */
+    private static final int MAX_EXPONENT = 36;
+
+    private final long[] mCounts;
+    private long mTotalCount;
+    private long mTotal;
+    private long mMin = Long.MAX_VALUE;
+    private long mMax;
+
+    public LatencyHistogram() {
+        mCounts = new long[indexOf((1L << MAX_EXPONENT) - 1) + 1];
+    }
+
+    /**
+     * 记录一个值，负数按 0 记录
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        int index = indexOf(Math.min(value, (1L << MAX_EXPONENT) - 1));
+        mCounts[index]++;
+        mTotalCount++;
+        mTotal += value;
+        if (value < mMin) {
+            mMin = value;
+        }
+        if (value > mMax) {
+            mMax = value;
+        }
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT * 2) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        // top 位于 [SUB_BUCKET_COUNT, 2 * SUB_BUCKET_COUNT)
+        int top = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT * shift + top;
+    }
+
+    /**
+     * 桶内可表示的最大值
+     */
+    private static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT * 2) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        int top = index - SUB_BUCKET_COUNT * shift;
+        return ((long) (top + 1) << shift) - 1;
+    }
+
+    /**
+     * @param percentile 百分位 (0, 100]
+     * @return 该百分位对应的值（桶上界，不超过最大记录值）
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (mTotalCount == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(percentile / 100 * mTotalCount);
+        if (target < 1) {
+            target = 1;
+        }
+        long count = 0;
+        for (int i = 0; i < mCounts.length; i++) {
+            count += mCounts[i];
+            if (count >= target) {
+                return Math.min(highestValueOf(i), mMax);
+            }
+        }
+        return mMax;
+    }
+
+    public long getTotalCount() {
+        return mTotalCount;
+    }
+
+    public long getMin() {
+        return mTotalCount == 0 ? 0 : mMin;
+    }
+
+    public long getMax() {
+        return mMax;
+    }
+
+    public double getMean() {
+        return mTotalCount == 0 ? 0 : (double) mTotal / mTotalCount;
+    }
+
+    public void reset() {
+        Arrays.fill(mCounts, 0);
+        mTotalCount = 0;
+        mTotal = 0;
+        mMin = Long.MAX_VALUE;
+        mMax = 0;
+    }
+}
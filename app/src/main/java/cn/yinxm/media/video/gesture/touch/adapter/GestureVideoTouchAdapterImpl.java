@@ -1,8 +1,7 @@
 package cn.yinxm.media.video.gesture.touch.adapter;
 
-import android.view.TextureView;
-
 import cn.yinxm.media.video.controller.VideoPlayController;
+import cn.yinxm.media.video.surface.IVideoRenderView;
 
 
 /**
@@ -14,17 +13,26 @@ import cn.yinxm.media.video.controller.VideoPlayController;
  */
 public class GestureVideoTouchAdapterImpl implements IVideoTouchAdapter {
     VideoPlayController mPlayController;
+    IVideoRenderView mRenderView;
 
+    /**
+     * 播放器自身即为渲染 View，如 SimpleTextureViewPlayer
+     */
     public GestureVideoTouchAdapterImpl(VideoPlayController playController) {
+        this(playController, playController instanceof IVideoRenderView ? (IVideoRenderView) playController : null);
+    }
+
+    /**
+     * 播放控制与渲染 View 分离，如播放器输出到 GLVideoSurfaceView
+     */
+    public GestureVideoTouchAdapterImpl(VideoPlayController playController, IVideoRenderView renderView) {
         mPlayController = playController;
+        mRenderView = renderView;
     }
 
     @Override
-    public TextureView getTextureView() {
-        if (mPlayController instanceof TextureView) {
-            return (TextureView) mPlayController;
-        }
-        return null;
+    public IVideoRenderView getRenderView() {
+        return mRenderView;
     }
 
     @Override
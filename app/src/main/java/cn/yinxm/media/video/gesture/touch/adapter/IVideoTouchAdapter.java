@@ -1,6 +1,6 @@
 package cn.yinxm.media.video.gesture.touch.adapter;
 
-import android.view.TextureView;
+import cn.yinxm.media.video.surface.IVideoRenderView;
 
 /**
  * 播放器手势触摸适配，手势与播放器之间的适配层
@@ -10,7 +10,10 @@ import android.view.TextureView;
  * @date 2020/5/14
  */
 public interface IVideoTouchAdapter {
-    TextureView getTextureView();
+    /**
+     * 画面渲染 View，决定缩放矩阵的生效方式：TextureView#setTransform 或 GL uniform
+     */
+    IVideoRenderView getRenderView();
 
     boolean isPlaying();
 
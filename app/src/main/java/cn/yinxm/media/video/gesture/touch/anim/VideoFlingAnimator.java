@@ -0,0 +1,94 @@
+package cn.yinxm.media.video.gesture.touch.anim;
+
+import android.view.Choreographer;
+
+import cn.yinxm.media.video.gesture.touch.transform.FlingDecay;
+
+/**
+ * 放大画面的惯性滑动动画
+ * <p>
+ * 由 Choreographer 逐帧驱动 {@link FlingDecay}，每帧回调相对上一帧的位移；
+ * 同一个实例可反复使用，逐帧回调中不分配对象
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public abstract class VideoFlingAnimator implements Choreographer.FrameCallback {
+    private static final String TAG = "VideoFlingAnimator";
+
+    private final Choreographer mChoreographer = Choreographer.getInstance();
+    private final FlingDecay mFlingDecay = new FlingDecay();
+    private float mLastX, mLastY;
+    private boolean mRunning;
+
+    public FlingDecay getFlingDecay() {
+        return mFlingDecay;
+    }
+
+    /**
+     * 开始惯性滑动，位移范围相对当前位置
+     *
+     * @param velocityX 初速度 px/s
+     * @param velocityY 初速度 px/s
+     * @param bounds    可平移范围：{minDx, maxDx, minDy, maxDy}
+     * @return 速度过小无需滑动时返回 false
+     */
+    public boolean start(float velocityX, float velocityY, float[] bounds) {
+        cancel();
+        // Choreographer 帧时间与 System.nanoTime 为同一时钟
+        mFlingDecay.fling(0, 0, velocityX, velocityY,
+                bounds[0], bounds[1], bounds[2], bounds[3], System.nanoTime());
+        if (mFlingDecay.isFinished()) {
+            return false;
+        }
+        mLastX = 0;
+        mLastY = 0;
+        mRunning = true;
+        mChoreographer.postFrameCallback(this);
+        return true;
+    }
+
+    public void cancel() {
+        if (mRunning) {
+            mRunning = false;
+            mFlingDecay.forceFinished();
+            mChoreographer.removeFrameCallback(this);
+        }
+    }
+
+    public boolean isRunning() {
+        return mRunning;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mRunning) {
+            return;
+        }
+        if (mFlingDecay.computeOffset(frameTimeNanos)) {
+            float x = mFlingDecay.getCurrX();
+            float y = mFlingDecay.getCurrY();
+            if (x != mLastX || y != mLastY) {
+                onFlingUpdate(x - mLastX, y - mLastY);
+            }
+            mLastX = x;
+            mLastY = y;
+        }
+        if (mFlingDecay.isFinished()) {
+            mRunning = false;
+            onFlingEnd();
+        } else {
+            mChoreographer.postFrameCallback(this);
+        }
+    }
+
+    /**
+     * 每帧相对上一帧的位移
+     */
+    protected abstract void onFlingUpdate(float dx, float dy);
+
+    /**
+     * 自然结束，被 {@link #cancel()} 取消时不回调
+     */
+    protected abstract void onFlingEnd();
+}
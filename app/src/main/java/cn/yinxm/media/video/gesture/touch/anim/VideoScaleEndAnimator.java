@@ -3,10 +3,16 @@ package cn.yinxm.media.video.gesture.touch.anim;
 import android.animation.ValueAnimator;
 import android.graphics.Matrix;
 
+import cn.yinxm.media.video.gesture.touch.transform.AffineTransform2D;
+import cn.yinxm.media.video.gesture.touch.transform.TransformInterpolator;
+
 /**
  * 缩放动画
  * <p>
- * 在给定时间内从一个矩阵的变化逐渐动画到另一个矩阵的变化
+ * 在给定时间内从一个矩阵的变化逐渐动画到另一个矩阵的变化，缩放、旋转与平移同时插值
+ * <p>
+ * 同一个实例可反复使用：每次通过 {@link #restart} 设置新的起止矩阵并重新开始，
+ * 逐帧回调中不分配对象
  */
 public abstract class VideoScaleEndAnimator extends ValueAnimator implements ValueAnimator.AnimatorUpdateListener {
     private static final String TAG = "VideoScaleEndAnimator";
@@ -16,57 +22,88 @@ public abstract class VideoScaleEndAnimator extends ValueAnimator implements Val
      */
     public static final int SCALE_ANIMATOR_DURATION = 300;
 
-    Matrix mTransMatrix = new Matrix();
-    float[] mTransSpan = new float[2];
-    float mLastValue;
+    private final Matrix mTransMatrix = new Matrix();
+    private final float[] mMatrixValues = new float[9];
+    private final AffineTransform2D mStart = new AffineTransform2D();
+    private final AffineTransform2D mEnd = new AffineTransform2D();
+    private final AffineTransform2D mTransform = new AffineTransform2D();
+    private final TransformInterpolator mInterpolator = new TransformInterpolator();
 
     /**
-     * 构建一个缩放动画
-     * <p>
-     * 从一个矩阵变换到另外一个矩阵
-     *
-     * @param start 开始矩阵
-     * @param end   结束矩阵
+     * 构建一个缩放动画，通过 {@link #restart} 开始
      */
-    public VideoScaleEndAnimator(Matrix start, Matrix end) {
-        this(start, end, SCALE_ANIMATOR_DURATION);
+    public VideoScaleEndAnimator() {
+        this(SCALE_ANIMATOR_DURATION);
     }
 
     /**
-     * 构建一个缩放动画
-     * <p>
-     * 从一个矩阵变换到另外一个矩阵
+     * 构建一个缩放动画，通过 {@link #restart} 开始
      *
-     * @param start    开始矩阵
-     * @param end      结束矩阵
      * @param duration 动画时间
      */
-    public VideoScaleEndAnimator(Matrix start, Matrix end, long duration) {
+    public VideoScaleEndAnimator(long duration) {
         super();
         setFloatValues(0, 1f);
         setDuration(duration);
         addUpdateListener(this);
+    }
+
+    /**
+     * 从一个矩阵变换到另外一个矩阵，正在执行的动画会被取消
+     *
+     * @param start 开始矩阵
+     * @param end   结束矩阵
+     */
+    public void restart(Matrix start, Matrix end) {
+        start.getValues(mMatrixValues);
+        mStart.setValues(mMatrixValues);
+        end.getValues(mMatrixValues);
+        mEnd.setValues(mMatrixValues);
+        restart(mStart, mEnd);
+    }
 
-        float[] startValues = new float[9];
-        float[] endValues = new float[9];
-        start.getValues(startValues);
-        end.getValues(endValues);
-        mTransSpan[0] = endValues[Matrix.MTRANS_X] - startValues[Matrix.MTRANS_X];
-        mTransSpan[1] = endValues[Matrix.MTRANS_Y] - startValues[Matrix.MTRANS_Y];
-        mTransMatrix.set(start);
+    /**
+     * 从一个矩阵变换到另外一个矩阵，正在执行的动画会被取消
+     *
+     * @param start 开始矩阵
+     * @param end   结束矩阵
+     */
+    public void restart(AffineTransform2D start, AffineTransform2D end) {
+        restart(start, end, 0, 0);
+    }
+
+    /**
+     * 从一个矩阵变换到另外一个矩阵，正在执行的动画会被取消
+     *
+     * @param start  开始矩阵
+     * @param end    结束矩阵
+     * @param pivotX 起止旋转角度不同时的旋转中心，变换前的坐标
+     * @param pivotY 同上
+     */
+    public void restart(AffineTransform2D start, AffineTransform2D end, float pivotX, float pivotY) {
+        cancel();
+        mInterpolator.set(start, end, pivotX, pivotY);
+        mTransform.set(start);
+        start();
+    }
+
+    /**
+     * 获取当前动画帧的矩阵，动画被中途取消时可据此接续
+     */
+    public void getCurrentTransform(AffineTransform2D out) {
+        out.set(mTransform);
     }
 
     @Override
     public void onAnimationUpdate(ValueAnimator animation) {
-        // 获取动画进度
-        float value = (Float) animation.getAnimatedValue();
-        // 计算相对于上次位置的偏移量
-        float transX = mTransSpan[0] * (value - mLastValue);
-        float transY = mTransSpan[1] * (value - mLastValue);
-        mTransMatrix.postTranslate(transX, transY);
+        // 获取动画进度，getAnimatedValue 会装箱，这里取 float 类型的进度值
+        float fraction = animation.getAnimatedFraction();
+        // 计算当前进度对应的矩阵
+        mInterpolator.interpolate(fraction, mTransform);
+        mTransform.getValues(mMatrixValues);
+        mTransMatrix.setValues(mMatrixValues);
         updateMatrixToView(mTransMatrix);
-        mLastValue = value;
     }
 
     protected abstract void updateMatrixToView(Matrix transMatrix);
-}
\ No newline at end of file
+}
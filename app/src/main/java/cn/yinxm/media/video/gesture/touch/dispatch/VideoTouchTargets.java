@@ -0,0 +1,168 @@
+package cn.yinxm.media.video.gesture.touch.dispatch;
+
+/**
+ * 多个播放器共用一个手势层时的触摸目标表：按区域命中测试，并在一次手势内锁定目标
+ * <p>
+ * 1. 区域以 {left, top, right, bottom} 连续存放在一个 float 数组中，命中测试按添加顺序倒序查找（后添加的在上层）
+ * 2. 只在手势开始（第一个手指按下）时命中测试一次，之后的事件直接取锁定的目标，每个事件的分发开销与播放器数量无关
+ * <p>
+ * 纯 Java 实现，不依赖 Android，可在 JVM 上压测；添加目标时按需扩容，分发过程不分配对象。需在同一线程使用
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public final class VideoTouchTargets<T> {
+    public static final int NO_TARGET = -1;
+
+    private static final int DEFAULT_CAPACITY = 4;
+
+    private Object[] mTargets;
+    private float[] mBounds;
+    private int mCount;
+    /** 当前手势锁定的目标下标 */
+    private int mCaptured = NO_TARGET;
+
+    public VideoTouchTargets() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public VideoTouchTargets(int capacity) {
+        capacity = Math.max(1, capacity);
+        mTargets = new Object[capacity];
+        mBounds = new float[capacity * 4];
+    }
+
+    /**
+     * 添加目标，区域为空，需通过 {@link #setBounds} 设置
+     *
+     * @return 目标下标；已存在时返回原下标
+     */
+    public int add(T target) {
+        int index = indexOf(target);
+        if (index != NO_TARGET) {
+            return index;
+        }
+        if (mCount == mTargets.length) {
+            int capacity = mTargets.length * 2;
+            Object[] targets = new Object[capacity];
+            float[] bounds = new float[capacity * 4];
+            System.arraycopy(mTargets, 0, targets, 0, mCount);
+            System.arraycopy(mBounds, 0, bounds, 0, mCount * 4);
+            mTargets = targets;
+            mBounds = bounds;
+        }
+        index = mCount++;
+        mTargets[index] = target;
+        setBounds(index, 0, 0, 0, 0);
+        return index;
+    }
+
+    /**
+     * 移除目标，之后的目标下标前移；移除的是锁定目标时取消锁定
+     */
+    public boolean remove(T target) {
+        int index = indexOf(target);
+        if (index == NO_TARGET) {
+            return false;
+        }
+        int moved = mCount - index - 1;
+        System.arraycopy(mTargets, index + 1, mTargets, index, moved);
+        System.arraycopy(mBounds, (index + 1) * 4, mBounds, index * 4, moved * 4);
+        mTargets[--mCount] = null;
+        if (mCaptured == index) {
+            mCaptured = NO_TARGET;
+        } else if (mCaptured > index) {
+            mCaptured--;
+        }
+        return true;
+    }
+
+    public void clear() {
+        for (int i = 0; i < mCount; i++) {
+            mTargets[i] = null;
+        }
+        mCount = 0;
+        mCaptured = NO_TARGET;
+    }
+
+    public int size() {
+        return mCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) mTargets[index];
+    }
+
+    public int indexOf(T target) {
+        for (int i = 0; i < mCount; i++) {
+            if (mTargets[i] == target) {
+                return i;
+            }
+        }
+        return NO_TARGET;
+    }
+
+    /**
+     * 设置目标在手势层坐标系中的区域
+     */
+    public void setBounds(int index, float left, float top, float right, float bottom) {
+        int offset = index * 4;
+        mBounds[offset] = left;
+        mBounds[offset + 1] = top;
+        mBounds[offset + 2] = right;
+        mBounds[offset + 3] = bottom;
+    }
+
+    public float getLeft(int index) {
+        return mBounds[index * 4];
+    }
+
+    public float getTop(int index) {
+        return mBounds[index * 4 + 1];
+    }
+
+    public float getRight(int index) {
+        return mBounds[index * 4 + 2];
+    }
+
+    public float getBottom(int index) {
+        return mBounds[index * 4 + 3];
+    }
+
+    /**
+     * @return 包含 (x, y) 的最上层目标下标，没有时为 {@link #NO_TARGET}
+     */
+    public int hitTest(float x, float y) {
+        float[] bounds = mBounds;
+        for (int i = mCount - 1; i >= 0; i--) {
+            int offset = i * 4;
+            if (x >= bounds[offset] && x < bounds[offset + 2]
+                    && y >= bounds[offset + 1] && y < bounds[offset + 3]) {
+                return i;
+            }
+        }
+        return NO_TARGET;
+    }
+
+    /**
+     * 手势开始：命中测试并锁定目标，直到 {@link #release()}
+     *
+     * @return 锁定的目标下标，没有命中时为 {@link #NO_TARGET}
+     */
+    public int capture(float x, float y) {
+        mCaptured = hitTest(x, y);
+        return mCaptured;
+    }
+
+    public int getCaptured() {
+        return mCaptured;
+    }
+
+    /**
+     * 手势结束，取消锁定
+     */
+    public void release() {
+        mCaptured = NO_TARGET;
+    }
+}
@@ -0,0 +1,117 @@
+package cn.yinxm.media.video.gesture.touch.handler;
+
+import android.graphics.Matrix;
+import android.view.Choreographer;
+
+/**
+ * 矩阵更新按帧合并：同一帧内多次触摸回调只保留最后一次矩阵，在下一个 Choreographer 帧统一应用
+ * <p>
+ * 高采样率触摸屏一帧内可能有多次 onScale 回调，每次都 setTransform 会产生多余的更新，
+ * 这里将它们合并为每帧一次，并统计被合并丢弃的更新次数
+ * <p>
+ * 需在主线程使用
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class TransformFrameScheduler implements Choreographer.FrameCallback {
+
+    /**
+     * 帧回调中应用矩阵
+     */
+    public interface OnApplyTransformListener {
+        void onApplyTransform(Matrix matrix);
+    }
+
+    private final Choreographer mChoreographer;
+    private final OnApplyTransformListener mListener;
+    private final Matrix mPendingMatrix = new Matrix();
+    private boolean mFrameScheduled;
+    /** 正在处理的帧的 vsync 时间，flush 立即应用时为 0 */
+    private long mFrameTimeNanos;
+    private long mAppliedCount;
+    private long mDroppedCount;
+
+    public TransformFrameScheduler(OnApplyTransformListener listener) {
+        mChoreographer = Choreographer.getInstance();
+        mListener = listener;
+    }
+
+    /**
+     * 提交矩阵，下一帧应用；本帧已有待应用矩阵时直接覆盖
+     */
+    public void schedule(Matrix matrix) {
+        mPendingMatrix.set(matrix);
+        if (mFrameScheduled) {
+            mDroppedCount++;
+            return;
+        }
+        mFrameScheduled = true;
+        mChoreographer.postFrameCallback(this);
+    }
+
+    /**
+     * 立即应用待更新的矩阵，用于手势结束、开始动画前保证画面与矩阵一致
+     */
+    public void flush() {
+        if (mFrameScheduled) {
+            mChoreographer.removeFrameCallback(this);
+            apply();
+        }
+    }
+
+    /**
+     * 丢弃待更新的矩阵
+     */
+    public void cancel() {
+        if (mFrameScheduled) {
+            mChoreographer.removeFrameCallback(this);
+            mFrameScheduled = false;
+        }
+    }
+
+    public boolean isScheduled() {
+        return mFrameScheduled;
+    }
+
+    /**
+     * @return 实际应用到画面的次数
+     */
+    public long getAppliedCount() {
+        return mAppliedCount;
+    }
+
+    /**
+     * @return 被合并丢弃的冗余更新次数
+     */
+    public long getDroppedCount() {
+        return mDroppedCount;
+    }
+
+    public void resetCounters() {
+        mAppliedCount = 0;
+        mDroppedCount = 0;
+    }
+
+    /**
+     * 在 {@link OnApplyTransformListener#onApplyTransform} 中调用，获取本帧的 vsync 时间（System.nanoTime 时钟）
+     *
+     * @return 帧回调中为 Choreographer 帧时间，{@link #flush()} 立即应用时为 0
+     */
+    public long getFrameTimeNanos() {
+        return mFrameTimeNanos;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mFrameTimeNanos = frameTimeNanos;
+        apply();
+        mFrameTimeNanos = 0;
+    }
+
+    private void apply() {
+        mFrameScheduled = false;
+        mAppliedCount++;
+        mListener.onApplyTransform(mPendingMatrix);
+    }
+}
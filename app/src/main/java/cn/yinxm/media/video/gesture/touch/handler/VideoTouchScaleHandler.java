@@ -1,19 +1,31 @@
 package cn.yinxm.media.video.gesture.touch.handler;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.content.Context;
 import android.graphics.Matrix;
-import android.graphics.RectF;
 import android.view.MotionEvent;
 import android.view.ScaleGestureDetector;
-import android.view.TextureView;
 import android.view.View;
+import android.view.WindowManager;
 import android.widget.FrameLayout;
-import android.widget.Toast;
 
-import cn.yinxm.lib.utils.log.LogUtil;
+import androidx.core.os.TraceCompat;
+
+import cn.yinxm.media.video.gesture.metrics.GestureMetrics;
 import cn.yinxm.media.video.gesture.touch.adapter.IVideoTouchAdapter;
+import cn.yinxm.media.video.gesture.touch.anim.VideoFlingAnimator;
 import cn.yinxm.media.video.gesture.touch.anim.VideoScaleEndAnimator;
+import cn.yinxm.media.video.gesture.touch.transform.AffineTransform2D;
+import cn.yinxm.media.video.gesture.touch.transform.RotationGestureDetector;
+import cn.yinxm.media.video.gesture.touch.transform.ScaleGestureIntegrator;
+import cn.yinxm.media.video.gesture.touch.transform.ScaleGesturePredictor;
+import cn.yinxm.media.video.gesture.touch.transform.VideoTransformEngine;
+import cn.yinxm.media.video.gesture.touch.ui.TouchScaleRatioView;
 import cn.yinxm.media.video.gesture.touch.ui.TouchScaleResetView;
+import cn.yinxm.media.video.surface.IVideoRenderView;
+import cn.yinxm.media.video.util.FrameLogSampler;
+import cn.yinxm.media.video.util.VideoLog;
 
 
 /**
@@ -24,12 +36,21 @@ import cn.yinxm.media.video.gesture.touch.ui.TouchScaleResetView;
  *  3. 缩放结束后，若为缩小画面，居中动效
  *  4. 缩放结束后，若为放大画面，自动吸附屏幕边缘动效
  *  5. 暂停播放下，实时更新缩放画面
+ *  6. 放大画面下，单指拖动、惯性滑动
+ *  7. 双击以点击位置为中心放大，已缩放时双击还原
+ *  8. 双指旋转（默认关闭），结束后对齐到最近的 90 度并吸边
  *
  * @author yinxuming
  * @date 2020/12/2
  */
 public class VideoTouchScaleHandler implements IVideoTouchHandler, ScaleGestureDetector.OnScaleGestureListener {
     private static final String TAG = "VideoTouchScaleHandler";
+    /** 双击放大默认倍数 */
+    public static final float DEFAULT_DOUBLE_TAP_SCALE = 2F;
+    /** 启动耗时 trace 区段，可在 Perfetto / Macrobenchmark TraceSectionMetric 中统计 */
+    private static final String TRACE_INIT_VIEW = "VideoTouchScaleHandler.initView";
+    private static final long NANOS_PER_MS = 1_000_000L;
+    private static final long DEFAULT_FRAME_INTERVAL_NANOS = 16_666_667L;
 
 
     private Context mContext;
@@ -37,34 +58,80 @@ public class VideoTouchScaleHandler implements IVideoTouchHandler, ScaleGestureD
     private boolean openScaleTouch = true; // 开启缩放
     private boolean mIsScaleTouch;
     private Matrix mScaleTransMatrix; // 缓存了上次的矩阵值，所以需要计算每次变化量
-    private float mStartCenterX, mStartCenterY, mLastCenterX, mLastCenterY, centerX, centerY;
-    private float mStartSpan, mLastSpan, mCurrentSpan;
     private float mScale;
     private float[] mMatrixValue = new float[9];
-    private float mMinScale = 0.1F, mMaxScale = 3F;
     private VideoScaleEndAnimator mScaleAnimator;
+    // 缩放平移计算，mScaleTransform 与 mScaleTransMatrix 保持同步
+    private final VideoTransformEngine mTransformEngine = new VideoTransformEngine();
+    private final AffineTransform2D mScaleTransform = new AffineTransform2D();
+    private final AffineTransform2D mScaleEndTransform = new AffineTransform2D();
+    private final AffineTransform2D mRotationSnapTransform = new AffineTransform2D();
+    // 两指向量 {x, y}，双指旋转使用
+    private final float[] mPointerVector = new float[2];
+    // 两指转动先于距离变化超过阈值时，ScaleGestureDetector 尚未开始，由事件直接驱动手势
+    private boolean mIsRotateTouch;
+    private final RotationGestureDetector mRotationStartDetector = new RotationGestureDetector();
+    // 由事件计算的焦点、跨度 {focusX, focusY, span}
+    private final float[] mEventSample = new float[3];
+    // 双指缩放采样（含批量历史采样）滤波后累积，每帧合并为一次变换
+    private final ScaleGestureIntegrator mScaleIntegrator = new ScaleGestureIntegrator();
+    // 预测显示时间使用的帧间隔
+    private long mFrameIntervalNanos = DEFAULT_FRAME_INTERVAL_NANOS;
+    // 缩放过程中的矩阵按帧合并后再 setTransform
+    private final TransformFrameScheduler mFrameScheduler;
+    // 单指拖动、惯性滑动
+    private boolean mIsScrolling;
+    private VideoFlingAnimator mFlingAnimator;
+    private final float[] mTranslateBounds = new float[4];
+    // 未经手势变换时的实际画面区域，吸边、居中按它计算
+    private final float[] mContentRect = new float[4];
+    // 双击缩放
+    private float mDoubleTapScale = DEFAULT_DOUBLE_TAP_SCALE;
+    private final AffineTransform2D mDoubleTapTransform = new AffineTransform2D();
+    // 手势性能统计，默认关闭
+    private GestureMetrics mGestureMetrics;
+    private boolean mIsTouching;
+    // 手势过程中每帧的画面更新只做采样日志
+    private final FrameLogSampler mTransformLogSampler = new FrameLogSampler(TAG, "transform");
 
     IVideoTouchAdapter mTouchAdapter;
     TouchScaleResetView mScaleRestView;
+    TouchScaleRatioView mScaleRatioView;
 
     public VideoTouchScaleHandler(Context context, FrameLayout container,
                                   IVideoTouchAdapter videoTouchAdapter) {
         mContext = context;
         mContainer = container;
         mTouchAdapter = videoTouchAdapter;
+        mFrameScheduler = new TransformFrameScheduler(new TransformFrameScheduler.OnApplyTransformListener() {
+            @Override
+            public void onApplyTransform(Matrix matrix) {
+                if (applyScaleSamples(getPresentTimeNanos(mFrameScheduler.getFrameTimeNanos()))) {
+                    matrix = mScaleTransMatrix;
+                }
+                updateMatrixToTexture(matrix);
+            }
+        });
         initView();
     }
 
     private void initView() {
-        mScaleRestView = new TouchScaleResetView(mContext, mContainer) {
-            @Override
-            public void clickResetScale() {
-                mScaleRestView.setVisibility(View.GONE);
-                if (isScaled()) {
-                    cancelScale();
+        TraceCompat.beginSection(TRACE_INIT_VIEW);
+        try {
+            // 还原按钮、比例提示第一次显示时才加载布局
+            mScaleRestView = new TouchScaleResetView(mContext, mContainer) {
+                @Override
+                public void clickResetScale() {
+                    mScaleRestView.setVisibility(View.GONE);
+                    if (isScaled()) {
+                        cancelScale();
+                    }
                 }
-            }
-        };
+            };
+            mScaleRatioView = new TouchScaleRatioView(mContext, mContainer);
+        } finally {
+            TraceCompat.endSection();
+        }
     }
 
     private Context getContext() {
@@ -74,155 +141,318 @@ public class VideoTouchScaleHandler implements IVideoTouchHandler, ScaleGestureD
 
     @Override
     public boolean onScaleBegin(ScaleGestureDetector detector) {
+        return onScaleBegin(detector, null);
+    }
 
-        TextureView mTextureView = mTouchAdapter.getTextureView();
-        if (mTextureView != null) {
-            mIsScaleTouch = true;
-            if (mScaleTransMatrix == null) {
-                mScaleTransMatrix = new Matrix(mTextureView.getMatrix());
-                onScaleMatrixUpdate(mScaleTransMatrix);
-            }
+    /**
+     * 双指缩放开始
+     *
+     * @param event 本次分发给 ScaleGestureDetector 的事件，开启旋转时以其两指向量为旋转起点，可为 null
+     */
+    public boolean onScaleBegin(ScaleGestureDetector detector, MotionEvent event) {
+        if (mIsRotateTouch) {
+            // 手势已由旋转开始，跨度与 ScaleGestureDetector 的计算方式一致，沿用积分器状态
+            mIsRotateTouch = false;
+            return true;
+        }
+        IVideoRenderView renderView = mTouchAdapter.getRenderView();
+        if (renderView != null) {
+            startScaleTouch(renderView);
         }
-        mStartCenterX = detector.getFocusX();
-        mStartCenterY = detector.getFocusY();
-        mStartSpan = detector.getCurrentSpan();
+        mScaleIntegrator.begin(detector.getEventTime() * NANOS_PER_MS,
+                detector.getFocusX(), detector.getFocusY(), detector.getCurrentSpan());
+        if (event != null && mScaleIntegrator.isRotationEnabled() && getPointerVector(event, mPointerVector)) {
+            mScaleIntegrator.setPointerVector(mPointerVector[0], mPointerVector[1]);
+        }
+        return true;
+    }
+
+    private void startScaleTouch(IVideoRenderView renderView) {
+        mIsScaleTouch = true;
+        mIsScrolling = false;
+        stopFling();
+        stopScaleAnim();
+        initScaleMatrix(renderView);
+    }
 
-        mLastCenterX = mStartCenterX;
-        mLastCenterY = mStartCenterY;
-        mLastSpan = mStartSpan;
+    /**
+     * 开启旋转时，ScaleGestureDetector 未开始（两指距离变化未超过阈值）期间的事件交给这里：
+     * 两指转动超过阈值时开始手势，由事件计算焦点、跨度，直到 ScaleGestureDetector 开始或手指抬起
+     *
+     * @return 是否处理了事件
+     */
+    public boolean onRotateEvent(MotionEvent event) {
+        int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL
+                || action == MotionEvent.ACTION_POINTER_UP && event.getPointerCount() <= 2) {
+            mRotationStartDetector.reset();
+            if (mIsRotateTouch) {
+                mIsRotateTouch = false;
+                endScaleTouch();
+            }
+            return false;
+        }
+        if (!mScaleIntegrator.isRotationEnabled() || !isEnabled()) {
+            return false;
+        }
+        if (action == MotionEvent.ACTION_POINTER_DOWN && !mIsRotateTouch) {
+            mRotationStartDetector.reset();
+        }
+        if (!getPointerVector(event, mPointerVector)) {
+            return false;
+        }
+        if (!mIsRotateTouch) {
+            mRotationStartDetector.update(mPointerVector[0], mPointerVector[1]);
+            IVideoRenderView renderView = mTouchAdapter.getRenderView();
+            if (!mRotationStartDetector.isRotating() || renderView == null) {
+                return false;
+            }
+            startScaleTouch(renderView);
+            mIsRotateTouch = true;
+            computeSample(event, -1, mEventSample);
+            mScaleIntegrator.begin(event.getEventTime() * NANOS_PER_MS,
+                    mEventSample[0], mEventSample[1], mEventSample[2]);
+            mScaleIntegrator.beginRotation(mPointerVector[0], mPointerVector[1]);
+            return true;
+        }
+        if (action == MotionEvent.ACTION_MOVE && mScaleTransMatrix != null) {
+            addHistoricalSamples(event);
+            computeSample(event, -1, mEventSample);
+            mScaleIntegrator.addSample(event.getEventTime() * NANOS_PER_MS,
+                    mEventSample[0], mEventSample[1], mEventSample[2]);
+            mScaleIntegrator.setPointerVector(mPointerVector[0], mPointerVector[1]);
+            if (mGestureMetrics != null) {
+                mGestureMetrics.onInputEvent(event.getEventTime());
+            }
+            mFrameScheduler.schedule(mScaleTransMatrix);
+        }
         return true;
     }
 
+    private void initScaleMatrix(IVideoRenderView renderView) {
+        if (mScaleTransMatrix == null) {
+            mScaleTransMatrix = renderView.getVideoTransform(new Matrix());
+            mScaleTransMatrix.getValues(mMatrixValue);
+            mScaleTransform.setValues(mMatrixValue);
+            onScaleMatrixUpdate(mScaleTransMatrix);
+        }
+    }
+
     private void updateMatrixToTexture(Matrix newMatrix) {
-        TextureView mTextureView = mTouchAdapter.getTextureView();
-        if (mTextureView != null) {
-            mTextureView.setTransform(newMatrix);
+        IVideoRenderView renderView = mTouchAdapter.getRenderView();
+        if (renderView != null) {
+            renderView.setVideoTransform(newMatrix);
+            mTransformLogSampler.onEvent();
+            if (mGestureMetrics != null) {
+                mGestureMetrics.onTransformApplied();
+            }
         }
         onScaleMatrixUpdate(newMatrix);
     }
 
     @Override
     public boolean onScale(ScaleGestureDetector detector) {
-        if (mIsScaleTouch && openScaleTouch) {
-            mCurrentSpan = detector.getCurrentSpan();
-            centerX = detector.getFocusX();
-            centerY = detector.getFocusY();
-            if (processOnScale(detector)) {
-                mLastCenterX = centerX;
-                mLastCenterY = centerY;
-                mLastSpan = mCurrentSpan;
+        return onScale(detector, null);
+    }
+
+    /**
+     * 双指缩放：记录本次事件的采样，矩阵在下一帧统一计算
+     *
+     * @param event 本次分发给 ScaleGestureDetector 的事件，用于读取批量的历史采样、两指向量，可为 null
+     */
+    public boolean onScale(ScaleGestureDetector detector, MotionEvent event) {
+        if (mIsScaleTouch && openScaleTouch && mTouchAdapter.isFullScreen() && mScaleTransMatrix != null) {
+            if (event != null && event.getActionMasked() == MotionEvent.ACTION_MOVE) {
+                addHistoricalSamples(event);
             }
+            mScaleIntegrator.addSample(detector.getEventTime() * NANOS_PER_MS,
+                    detector.getFocusX(), detector.getFocusY(), detector.getCurrentSpan());
+            // 旋转只需每个事件的最新向量，历史采样的转动已包含在内
+            if (event != null && mScaleIntegrator.isRotationEnabled() && getPointerVector(event, mPointerVector)) {
+                mScaleIntegrator.setPointerVector(mPointerVector[0], mPointerVector[1]);
+            }
+            if (mGestureMetrics != null) {
+                mGestureMetrics.onInputEvent(detector.getEventTime());
+            }
+            // 同一帧内的多次回调合并，下一帧只计算、setTransform 一次
+            mFrameScheduler.schedule(mScaleTransMatrix);
         }
-
         return false;
     }
 
-    private boolean processOnScale(ScaleGestureDetector detector) {
-        float diffScale = mCurrentSpan / mLastSpan;
-        if (mTouchAdapter.isFullScreen()) {
-            if (mScaleTransMatrix != null) {
-                postScale(mScaleTransMatrix, diffScale, mStartCenterX, mStartCenterY);
-                mScaleTransMatrix.postTranslate(detector.getFocusX() - mLastCenterX,
-                        detector.getFocusY() - mLastCenterY);
-                onScaleMatrixUpdate(mScaleTransMatrix);
-                TextureView mTextureView = mTouchAdapter.getTextureView();
-                if (mTextureView != null) {
-                    Matrix matrix = new Matrix(mTextureView.getMatrix());
-                    matrix.set(mScaleTransMatrix);
-                    mTextureView.setTransform(matrix);
-                }
-                int scaleRatio = (int) (mScale * 100);
-                Toast.makeText(getContext(), "" + scaleRatio + "%", Toast.LENGTH_SHORT).show();
-                return true;
-            }
+    /**
+     * 按 ScaleGestureDetector 的方式计算批量历史采样的焦点与跨度：
+     * 焦点为各触点均值，跨度为各触点到焦点的平均距离的 2 倍
+     */
+    private void addHistoricalSamples(MotionEvent event) {
+        int historySize = event.getHistorySize();
+        for (int h = 0; h < historySize; h++) {
+            computeSample(event, h, mEventSample);
+            mScaleIntegrator.addSample(event.getHistoricalEventTime(h) * NANOS_PER_MS,
+                    mEventSample[0], mEventSample[1], mEventSample[2]);
         }
-        return false;
     }
 
-    private void postScale(Matrix matrix, float scale, float x, float y) {
-        matrix.getValues(mMatrixValue);
-        float curScale = mMatrixValue[Matrix.MSCALE_X];
-        if (scale < 1 && Math.abs(curScale - mMinScale) < 0.001F) {
-            scale = 1;
-        } else if (scale > 1 && Math.abs(curScale - mMaxScale) < 0.001F) {
-            scale = 1;
-        } else {
-            curScale *= scale;
-            if (scale < 1 && curScale < mMinScale) {
-                curScale = mMinScale;
-                scale = curScale / mMatrixValue[Matrix.MSCALE_X];
-            } else if (scale > 1 && curScale > mMaxScale) {
-                curScale = mMaxScale;
-                scale = curScale / mMatrixValue[Matrix.MSCALE_X];
+    /**
+     * @param historyPos 历史采样下标，-1 表示事件的当前采样
+     * @param out        {focusX, focusY, span}
+     */
+    private static void computeSample(MotionEvent event, int historyPos, float[] out) {
+        int pointerCount = event.getPointerCount();
+        float sumX = 0;
+        float sumY = 0;
+        for (int p = 0; p < pointerCount; p++) {
+            sumX += historyPos < 0 ? event.getX(p) : event.getHistoricalX(p, historyPos);
+            sumY += historyPos < 0 ? event.getY(p) : event.getHistoricalY(p, historyPos);
+        }
+        float focusX = sumX / pointerCount;
+        float focusY = sumY / pointerCount;
+        float devSumX = 0;
+        float devSumY = 0;
+        for (int p = 0; p < pointerCount; p++) {
+            devSumX += Math.abs((historyPos < 0 ? event.getX(p) : event.getHistoricalX(p, historyPos)) - focusX);
+            devSumY += Math.abs((historyPos < 0 ? event.getY(p) : event.getHistoricalY(p, historyPos)) - focusY);
+        }
+        float spanX = devSumX / pointerCount * 2;
+        float spanY = devSumY / pointerCount * 2;
+        out[0] = focusX;
+        out[1] = focusY;
+        out[2] = (float) Math.hypot(spanX, spanY);
+    }
+
+    /**
+     * 事件中前两个未抬起触点的连线向量
+     *
+     * @param out {x, y}
+     * @return 不足两个触点时返回 false
+     */
+    private static boolean getPointerVector(MotionEvent event, float[] out) {
+        int skipIndex = event.getActionMasked() == MotionEvent.ACTION_POINTER_UP ? event.getActionIndex() : -1;
+        int first = -1;
+        int second = -1;
+        int pointerCount = event.getPointerCount();
+        for (int i = 0; i < pointerCount && second < 0; i++) {
+            if (i == skipIndex) {
+                continue;
             }
-            matrix.postScale(scale, scale, x, y);
+            if (first < 0) {
+                first = i;
+            } else {
+                second = i;
+            }
+        }
+        if (second < 0) {
+            return false;
+        }
+        out[0] = event.getX(second) - event.getX(first);
+        out[1] = event.getY(second) - event.getY(first);
+        return true;
+    }
+
+    /**
+     * 帧回调中本帧矩阵预计显示的时间：setTransform 后在下一个 vsync 上屏
+     *
+     * @param frameTimeNanos 帧回调的 vsync 时间，0 表示立即应用
+     * @return 开启预测时为显示时间，否则为 0
+     */
+    private long getPresentTimeNanos(long frameTimeNanos) {
+        if (frameTimeNanos <= 0 || mScaleIntegrator.getPredictor() == null) {
+            return 0;
         }
+        return frameTimeNanos + mFrameIntervalNanos;
     }
 
+    /**
+     * 帧回调中把累积的缩放采样合并应用到矩阵
+     *
+     * @param presentNanos 预测的目标时间，0 表示不预测
+     *
+     * @return 矩阵是否更新
+     */
+    private boolean applyScaleSamples(long presentNanos) {
+        if (mScaleTransMatrix == null || !mScaleIntegrator.apply(mTransformEngine, mScaleTransform, presentNanos)) {
+            return false;
+        }
+        syncTransformToMatrix(mScaleTransform, mScaleTransMatrix);
+        mScale = mScaleTransform.getScale();
+        mScaleRatioView.showRatio((int) (mScale * 100));
+        return true;
+    }
+
+    /**
+     * 将纯 Java 矩阵的值同步到 Android Matrix
+     */
+    private void syncTransformToMatrix(AffineTransform2D transform, Matrix matrix) {
+        transform.getValues(mMatrixValue);
+        matrix.setValues(mMatrixValue);
+    }
 
     @Override
     public void onScaleEnd(ScaleGestureDetector detector) {
+        endScaleTouch();
+    }
+
+    private void endScaleTouch() {
         if (mIsScaleTouch) { // 取消多手势操作
             mIsScaleTouch = false;
+            mScaleRatioView.hideDelayed();
+            // 先把本帧未应用的矩阵更新到画面，再从该位置开始结束动画
+            mFrameScheduler.flush();
+            // 已应用的是滤波值或预测值时回到手指的实际位置
+            mScaleIntegrator.settle();
+            if (applyScaleSamples(0)) {
+                updateMatrixToTexture(mScaleTransMatrix);
+            }
             doScaleEndAnim();
         }
     }
 
     public void cancelScale() {
-        TextureView mTextureView = mTouchAdapter.getTextureView();
-        if (mScaleTransMatrix != null && mTextureView != null) {
+        IVideoRenderView renderView = mTouchAdapter.getRenderView();
+        if (mScaleTransMatrix != null && renderView != null) {
             mIsScaleTouch = false;
+            mIsRotateTouch = false;
+            mIsScrolling = false;
+            mFrameScheduler.cancel();
+            mScaleIntegrator.cancel();
+            stopFling();
+            if (mScaleAnimator != null) {
+                mScaleAnimator.cancel();
+            }
+            mScaleTransform.reset();
             mScaleTransMatrix.reset();
             onScaleMatrixUpdate(mScaleTransMatrix);
-            Matrix matrix = new Matrix(mTextureView.getMatrix());
-            matrix.reset();
-            mTextureView.setTransform(matrix);
+            renderView.setVideoTransform(mScaleTransMatrix);
         }
     }
 
     /**
      * 计算缩放结束后动画位置：scaleEndAnimMatrix
+     * <p>
+     * 有旋转时先以画面中心对齐到最近的 90 度，再按对齐后的画面包围盒吸边
      */
     private void doScaleEndAnim() {
-        TextureView mTextureView = mTouchAdapter.getTextureView();
-        if (mTextureView == null) {
+        IVideoRenderView renderView = mTouchAdapter.getRenderView();
+        if (renderView == null || mScaleTransMatrix == null) {
             return;
         }
-        Matrix scaleEndAnimMatrix = new Matrix();
-        RectF videoRectF = new RectF(0, 0, mTextureView.getWidth(), mTextureView.getHeight());
-        if (mScale > 0 && mScale <= 1.0f) { // 缩小居中
-            scaleEndAnimMatrix.postScale(mScale, mScale, videoRectF.right / 2, videoRectF.bottom / 2);
-            startTransToAnimEnd(mScaleTransMatrix, scaleEndAnimMatrix);
-        } else if (mScale > 1.0F) { // 放大，检测4边是否有在屏幕内部，有的话自动吸附到屏幕边缘
-            RectF rectF = new RectF(0, 0, mTextureView.getWidth(), mTextureView.getHeight());
-            // 测量经过缩放位移变换后的播放画面位置
-            mScaleTransMatrix.mapRect(rectF);
-            float transAnimX = 0f;
-            float transAnimY = 0f;
-            scaleEndAnimMatrix.set(mScaleTransMatrix);
-            if (rectF.left > videoRectF.left
-                    || rectF.right < videoRectF.right
-                    || rectF.top > videoRectF.top
-                    || rectF.bottom < videoRectF.bottom) { // 放大情况下，有一边缩放后在屏幕内部，自动吸附到屏幕边缘
-                if (rectF.left > videoRectF.left) { // 左移吸边
-                    transAnimX = videoRectF.left - rectF.left;
-                } else if (rectF.right < videoRectF.right) {  // 右移吸边
-                    transAnimX = videoRectF.right - rectF.right;
-                }
-                if (rectF.top > videoRectF.top) {  // 上移吸边
-                    transAnimY = videoRectF.top - rectF.top;
-                } else if (rectF.bottom < videoRectF.bottom) { // 下移吸边
-                    transAnimY = videoRectF.bottom - rectF.bottom;
-                }
-
-                scaleEndAnimMatrix.postTranslate(transAnimX, transAnimY);
-                startTransToAnimEnd(mScaleTransMatrix, scaleEndAnimMatrix);
-            }
+        renderView.getContentRect(mContentRect);
+        boolean rotationSnap = mTransformEngine.computeRotationSnap(mScaleTransform, mContentRect,
+                mRotationSnapTransform);
+        AffineTransform2D snapped = rotationSnap ? mRotationSnapTransform : mScaleTransform;
+        if (mTransformEngine.computeScaleEnd(snapped, mContentRect,
+                renderView.getWidth(), renderView.getHeight(), mScaleEndTransform)) {
+            startTransToAnimEnd(mScaleTransform, mScaleEndTransform);
+        } else if (rotationSnap) {
+            startTransToAnimEnd(mScaleTransform, mRotationSnapTransform);
         }
     }
 
-    private void startTransToAnimEnd(Matrix startMatrix, Matrix endMatrix) {
-        LogUtil.d(TAG, "startTransToAnimEnd \nstart=" + startMatrix + "\nend=" + endMatrix);
+    /**
+     * 开始结束动画，调用前需已将画面区域更新到 mContentRect，起止旋转角度不同时以画面中心旋转
+     */
+    private void startTransToAnimEnd(AffineTransform2D startMatrix, AffineTransform2D endMatrix) {
+        VideoLog.d(TAG, "startTransToAnimEnd \nstart={}\nend={}", startMatrix, endMatrix);
         // 令 A = startMatrix；B = endMatrix
         // 方法1：直接将画面更新为结束矩阵位置B
 //        updateMatrixToView(endMatrix); //
@@ -237,23 +467,190 @@ public class VideoTouchScaleHandler implements IVideoTouchHandler, ScaleGestureD
 //        LogUtil.d(TAG, "transToCenter1 \nstart=" + startMatrix + "\nend" + endMatrix);
 //        updateMatrixToView(startMatrix);
 
-        // 方法3：在方法2基础上，增加动画移动效果
-        if (mScaleAnimator != null) {
-            mScaleAnimator.cancel();
-            mScaleAnimator = null;
-        }
+        // 方法3：在方法2基础上，增加动画移动效果，缩放与平移同时插值；动画对象复用，不重复创建
         if (mScaleAnimator == null) {
-            mScaleAnimator = new VideoScaleEndAnimator(startMatrix, endMatrix) {
+            mScaleAnimator = new VideoScaleEndAnimator() {
 
                 @Override
                 protected void updateMatrixToView(Matrix transMatrix) {
+                    if (mGestureMetrics != null) {
+                        mGestureMetrics.onAnimatorFrame();
+                    }
                     updateMatrixToTexture(transMatrix);
                 }
             };
-            mScaleAnimator.start();
+            mScaleAnimator.addListener(new AnimatorListenerAdapter() {
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    checkGestureIdle();
+                }
+            });
         }
+        mScaleAnimator.restart(startMatrix, endMatrix,
+                (mContentRect[0] + mContentRect[2]) / 2, (mContentRect[1] + mContentRect[3]) / 2);
+
+        mScaleTransform.set(endMatrix);
+        syncTransformToMatrix(mScaleTransform, mScaleTransMatrix);
+    }
+
+    /**
+     * 获取当前缩放平移矩阵；结束动画执行中时为动画终点
+     */
+    public void getScaleTransform(AffineTransform2D out) {
+        out.set(mScaleTransform);
+    }
 
-        mScaleTransMatrix = endMatrix;
+    /**
+     * 双指缩放采样积分器，可调整滤波参数或关闭平滑
+     */
+    public ScaleGestureIntegrator getScaleIntegrator() {
+        return mScaleIntegrator;
+    }
+
+    /**
+     * 开启、关闭缩放预测：把焦点、跨度外推到本帧画面的显示时间（下一个 vsync），减少画面落后手指的距离，
+     * 外推量不超过 {@link ScaleGesturePredictor#setMaxOvershoot}；默认关闭
+     */
+    public void setPredictionEnabled(boolean enabled) {
+        if (!enabled) {
+            mScaleIntegrator.setPredictor(null);
+            return;
+        }
+        if (mScaleIntegrator.getPredictor() == null) {
+            mScaleIntegrator.setPredictor(new ScaleGesturePredictor());
+        }
+        WindowManager windowManager = (WindowManager) mContext.getSystemService(Context.WINDOW_SERVICE);
+        if (windowManager != null) {
+            float refreshRate = windowManager.getDefaultDisplay().getRefreshRate();
+            if (refreshRate > 0) {
+                mFrameIntervalNanos = (long) (1_000_000_000L / refreshRate);
+            }
+        }
+    }
+
+    public boolean isPredictionEnabled() {
+        return mScaleIntegrator.getPredictor() != null;
+    }
+
+    /**
+     * 开启、关闭双指旋转：缩放的同时跟随两指连线转动画面，抬手后对齐到最近的 90 度；默认关闭
+     */
+    public void setRotationEnabled(boolean enabled) {
+        mScaleIntegrator.setRotationEnabled(enabled);
+    }
+
+    public boolean isRotationEnabled() {
+        return mScaleIntegrator.isRotationEnabled();
+    }
+
+    /**
+     * 缩放矩阵按帧合并的调度器，可用于读取合并丢弃的更新次数
+     */
+    public TransformFrameScheduler getFrameScheduler() {
+        return mFrameScheduler;
+    }
+
+    /**
+     * 开启、关闭手势缩放；关闭后手势层不再把事件交给手势检测器
+     */
+    public void setScaleEnabled(boolean enabled) {
+        openScaleTouch = enabled;
+    }
+
+    public boolean isScaleEnabled() {
+        return openScaleTouch;
+    }
+
+    /**
+     * 缩放、拖动、双击等手势是否可处理：已开启缩放，且播放器为全屏
+     */
+    public boolean isEnabled() {
+        return openScaleTouch && mTouchAdapter != null && mTouchAdapter.isFullScreen();
+    }
+
+    public IVideoTouchAdapter getTouchAdapter() {
+        return mTouchAdapter;
+    }
+
+    /**
+     * 切换手势作用的播放器，多个播放器共用一个处理器时在手势开始前调用
+     * <p>
+     * 上一个播放器未完成的矩阵更新、惯性滑动、结束动画直接落到终点，新播放器的缩放状态从它的渲染 View 中读取
+     */
+    public void setTouchAdapter(IVideoTouchAdapter touchAdapter) {
+        if (mTouchAdapter == touchAdapter) {
+            return;
+        }
+        finishTransform();
+        mIsScaleTouch = false;
+        mIsRotateTouch = false;
+        mRotationStartDetector.reset();
+        mIsScrolling = false;
+        if (mScaleRestView != null && mScaleRestView.getVisibility() == View.VISIBLE) {
+            mScaleRestView.setVisibility(View.GONE);
+        }
+        mTouchAdapter = touchAdapter;
+        mScaleTransMatrix = null;
+        mScaleTransform.reset();
+        mScale = 0;
+        IVideoRenderView renderView = touchAdapter != null ? touchAdapter.getRenderView() : null;
+        if (renderView != null) {
+            initScaleMatrix(renderView);
+        }
+    }
+
+    /**
+     * 把当前播放器的画面直接更新到手势终点位置
+     */
+    private void finishTransform() {
+        mFrameScheduler.flush();
+        if (mFlingAnimator != null && mFlingAnimator.isRunning()) {
+            mFlingAnimator.cancel();
+            IVideoRenderView renderView = mTouchAdapter.getRenderView();
+            if (renderView != null && mScaleTransMatrix != null) {
+                renderView.getContentRect(mContentRect);
+                if (mTransformEngine.computeScaleEnd(mScaleTransform, mContentRect,
+                        renderView.getWidth(), renderView.getHeight(), mScaleEndTransform)) {
+                    mScaleTransform.set(mScaleEndTransform);
+                    syncTransformToMatrix(mScaleTransform, mScaleTransMatrix);
+                }
+                updateMatrixToTexture(mScaleTransMatrix);
+            }
+        }
+        if (mScaleAnimator != null && mScaleAnimator.isRunning()) {
+            // end 会以终点矩阵回调一次 updateMatrixToView
+            mScaleAnimator.end();
+        }
+    }
+
+    /**
+     * 设置手势性能统计，null 关闭统计
+     */
+    public void setGestureMetrics(GestureMetrics gestureMetrics) {
+        if (mGestureMetrics != null) {
+            mGestureMetrics.onGestureEnd();
+        }
+        mGestureMetrics = gestureMetrics;
+    }
+
+    public void release() {
+        mFrameScheduler.cancel();
+        stopFling();
+        if (mScaleAnimator != null) {
+            mScaleAnimator.cancel();
+        }
+        mIsTouching = false;
+        if (mGestureMetrics != null) {
+            mGestureMetrics.onGestureEnd();
+        }
+    }
+
+    /**
+     * 设置还原按钮、比例提示所在区域（容器坐标），多个播放器共用一个手势层时为当前播放器的区域
+     */
+    public void setOverlayBounds(int left, int top, int right, int bottom) {
+        mScaleRestView.setBounds(left, top, right, bottom);
+        mScaleRatioView.setBounds(left, top, right, bottom);
     }
 
     public void showScaleReset() {
@@ -264,32 +661,191 @@ public class VideoTouchScaleHandler implements IVideoTouchHandler, ScaleGestureD
         }
     }
 
+    /**
+     * 手指按下：停止惯性滑动、结束动画，画面停在当前位置
+     */
+    public void onDown(MotionEvent e) {
+        mIsTouching = true;
+        stopFling();
+        stopScaleAnim();
+        if (mGestureMetrics != null) {
+            mGestureMetrics.onGestureStart();
+        }
+    }
+
+    /**
+     * 双击缩放：未缩放时以点击位置为中心放大到 {@link #setDoubleTapScale} 倍，已缩放时还原
+     * <p>
+     * 与缩放结束动画共用同一个动画，动画过程中开始双指缩放会取消动画
+     */
+    public boolean onDoubleTap(MotionEvent e) {
+        IVideoRenderView renderView = mTouchAdapter.getRenderView();
+        if (renderView == null || !mTouchAdapter.isFullScreen()) {
+            return false;
+        }
+        stopFling();
+        stopScaleAnim();
+        initScaleMatrix(renderView);
+        mFrameScheduler.flush();
+        renderView.getContentRect(mContentRect);
+        AffineTransform2D target = mDoubleTapTransform;
+        if (isScaled()) {
+            target.reset();
+            if (mScaleRestView != null && mScaleRestView.getVisibility() == View.VISIBLE) {
+                mScaleRestView.setVisibility(View.GONE);
+            }
+        } else {
+            target.setScale(mDoubleTapScale, mDoubleTapScale, e.getX(), e.getY());
+            // 靠近画面边缘点击时，放大后的画面吸附到屏幕边缘
+            if (mTransformEngine.computeScaleEnd(target, mContentRect,
+                    renderView.getWidth(), renderView.getHeight(), mScaleEndTransform)) {
+                target.set(mScaleEndTransform);
+            }
+        }
+        startTransToAnimEnd(mScaleTransform, target);
+        return true;
+    }
+
+    /**
+     * 设置双击放大倍数，限制在缩放范围内
+     */
+    public void setDoubleTapScale(float scale) {
+        mDoubleTapScale = Math.max(mTransformEngine.getMinScale(), Math.min(scale, mTransformEngine.getMaxScale()));
+    }
+
+    public float getDoubleTapScale() {
+        return mDoubleTapScale;
+    }
+
+    /**
+     * 放大模式下，单指拖动画面
+     * <p>
+     * 结束动画（如双击缩放）进行中开始拖动时，先停在动画当前帧，从屏幕上的画面继续拖动，抬手后重新吸边；
+     * 停下后不是放大画面则无法拖动，重新开始结束动画
+     */
     public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
-        //  缩放模式下，是否需要单手滚动
-//        if (isScaled(mScale) && mScaleTransMatrix != null) {
-//            TextureView mTextureView = mTouchAdapter.getTextureView();
-//            if (mTextureView != null) {
-//                postTranslate(mScaleTransMatrix, -distanceX, -distanceY);
-//                onScaleMatrixUpdate(mScaleTransMatrix);
-//                Matrix matrix = new Matrix(mTextureView.getMatrix());
-//                matrix.set(mScaleTransMatrix);
-//                mTextureView.setTransform(matrix);
-//                return true;
-//            }
-//        }
-        return false;
+        if (mIsScaleTouch || e2.getPointerCount() > 1) {
+            return false;
+        }
+        if (stopScaleAnim() && !isZoomed()) {
+            doScaleEndAnim();
+            return false;
+        }
+        if (!isZoomed()) {
+            return false;
+        }
+        mIsScrolling = true;
+        mScaleTransform.postTranslate(-distanceX, -distanceY);
+        syncTransformToMatrix(mScaleTransform, mScaleTransMatrix);
+        if (mGestureMetrics != null) {
+            mGestureMetrics.onInputEvent(e2.getEventTime());
+        }
+        mFrameScheduler.schedule(mScaleTransMatrix);
+        return true;
     }
 
+    /**
+     * 放大模式下，单指快速滑动后惯性滑动，滑动范围限制在吸边位置内
+     */
+    public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
+        if (!mIsScrolling || mIsScaleTouch || !isZoomed()) {
+            return false;
+        }
+        IVideoRenderView renderView = mTouchAdapter.getRenderView();
+        if (renderView == null) {
+            return false;
+        }
+        mFrameScheduler.flush();
+        renderView.getContentRect(mContentRect);
+        mTransformEngine.computeTranslateBounds(mScaleTransform, mContentRect,
+                renderView.getWidth(), renderView.getHeight(), mTranslateBounds);
+        float[] bounds = mTranslateBounds;
+        if (bounds[0] > 0 || bounds[1] < 0 || bounds[2] > 0 || bounds[3] < 0) {
+            // 已拖出边缘，交给抬手后的吸边动画处理
+            return false;
+        }
+        if (mFlingAnimator == null) {
+            mFlingAnimator = new VideoFlingAnimator() {
+                @Override
+                protected void onFlingUpdate(float dx, float dy) {
+                    mScaleTransform.postTranslate(dx, dy);
+                    syncTransformToMatrix(mScaleTransform, mScaleTransMatrix);
+                    if (mGestureMetrics != null) {
+                        mGestureMetrics.onAnimatorFrame();
+                    }
+                    updateMatrixToTexture(mScaleTransMatrix);
+                }
 
+                @Override
+                protected void onFlingEnd() {
+                    doScaleEndAnim();
+                    checkGestureIdle();
+                }
+            };
+        }
+        return mFlingAnimator.start(velocityX, velocityY, bounds);
+    }
+
+    /**
+     * 手指全部抬起：拖动结束且没有惯性滑动时，吸附屏幕边缘
+     */
+    public void onTouchUp() {
+        if (mIsScrolling) {
+            mIsScrolling = false;
+            if (mFlingAnimator == null || !mFlingAnimator.isRunning()) {
+                mFrameScheduler.flush();
+                doScaleEndAnim();
+            }
+        }
+        mIsTouching = false;
+        mTransformLogSampler.reset();
+        checkGestureIdle();
+    }
+
+    /**
+     * 手指已抬起且惯性滑动、结束动画都已停止时，结束本次手势统计
+     */
+    private void checkGestureIdle() {
+        if (mGestureMetrics == null || mIsTouching) {
+            return;
+        }
+        if (mFlingAnimator != null && mFlingAnimator.isRunning()
+                || mScaleAnimator != null && mScaleAnimator.isRunning()) {
+            return;
+        }
+        mGestureMetrics.onGestureEnd();
+    }
+
+    private void stopFling() {
+        if (mFlingAnimator != null) {
+            mFlingAnimator.cancel();
+        }
+    }
+
+    /**
+     * 中途取消结束动画，以动画当前帧作为新的起点
+     *
+     * @return 是否取消了正在执行的动画
+     */
+    private boolean stopScaleAnim() {
+        if (mScaleAnimator != null && mScaleAnimator.isRunning()) {
+            mScaleAnimator.cancel();
+            mScaleAnimator.getCurrentTransform(mScaleTransform);
+            syncTransformToMatrix(mScaleTransform, mScaleTransMatrix);
+            mScale = mScaleTransform.getScale();
+            return true;
+        }
+        return false;
+    }
 
     private void onScaleMatrixUpdate(Matrix matrix) {
         matrix.getValues(mMatrixValue);
-        mScale = mMatrixValue[Matrix.MSCALE_X];
+        mScale = (float) Math.hypot(mMatrixValue[Matrix.MSCALE_X], mMatrixValue[Matrix.MSKEW_Y]);
         // 暂停下，实时更新缩放画面
         if (!mTouchAdapter.isPlaying()) {
-            TextureView mTextureView = mTouchAdapter.getTextureView();
-            if (mTextureView != null) {
-                mTextureView.invalidate();
+            IVideoRenderView renderView = mTouchAdapter.getRenderView();
+            if (renderView != null) {
+                renderView.invalidate();
             }
         }
     }
@@ -300,11 +856,28 @@ public class VideoTouchScaleHandler implements IVideoTouchHandler, ScaleGestureD
      * @return
      */
     public boolean isInScaleStatus() {
-        return isScaled(mScale) || mIsScaleTouch;
+        return isScaled() || mIsScaleTouch;
     }
 
+    /**
+     * 是否已缩放或旋转
+     */
     public boolean isScaled() {
-        return isScaled(mScale);
+        return isScaled(mScale) || isRotated();
+    }
+
+    /**
+     * 是否有旋转，结束动画会对齐到 90 度，判断精确值即可
+     */
+    private boolean isRotated() {
+        return mScaleTransMatrix != null && (mScaleTransform.getSkewY() != 0 || mScaleTransform.getScaleX() < 0);
+    }
+
+    /**
+     * 是否为放大画面，放大时才可单指拖动
+     */
+    private boolean isZoomed() {
+        return mScaleTransMatrix != null && mScaleTransform.getScale() >= 1.01F;
     }
 
     private boolean isScaled(float scale) {
@@ -1,8 +1,8 @@
 package cn.yinxm.media.video.gesture.touch.listener;
 
+import android.view.MotionEvent;
 import android.view.ScaleGestureDetector;
 
-import cn.yinxm.lib.utils.log.LogUtil;
 import cn.yinxm.media.video.gesture.touch.IGestureLayer;
 import cn.yinxm.media.video.gesture.touch.handler.VideoTouchScaleHandler;
 
@@ -13,15 +13,31 @@ public class VideoScaleGestureListener implements ScaleGestureDetector.OnScaleGe
     private static final String TAG = "VideoScaleGestureListener";
     private IGestureLayer mGestureLayer;
     public VideoTouchScaleHandler mScaleHandler;
+    /** 正在分发给 ScaleGestureDetector 的事件，onScaleBegin、onScale 时从中读取批量的历史采样、两指向量 */
+    private MotionEvent mCurrentEvent;
 
     public VideoScaleGestureListener(IGestureLayer gestureLayer) {
         mGestureLayer = gestureLayer;
     }
 
+    /**
+     * 将事件交给缩放检测器，代替直接调用 {@link ScaleGestureDetector#onTouchEvent}；
+     * 缩放检测器未开始时同时交给旋转识别，两指只转动、距离不变也能开始手势
+     */
+    public boolean onTouchEvent(ScaleGestureDetector detector, MotionEvent event) {
+        mCurrentEvent = event;
+        boolean isConsume = detector.onTouchEvent(event);
+        mCurrentEvent = null;
+        if (mScaleHandler != null && !detector.isInProgress()) {
+            isConsume |= mScaleHandler.onRotateEvent(event);
+        }
+        return isConsume;
+    }
+
     @Override
     public boolean onScale(ScaleGestureDetector detector) {
         if (mScaleHandler != null) {
-            return mScaleHandler.onScale(detector);
+            return mScaleHandler.onScale(detector, mCurrentEvent);
         }
         return false;
     }
@@ -29,7 +45,7 @@ public class VideoScaleGestureListener implements ScaleGestureDetector.OnScaleGe
     @Override
     public boolean onScaleBegin(ScaleGestureDetector detector) {
         if (mScaleHandler != null) {
-            boolean isConsume = mScaleHandler.onScaleBegin(detector);
+            boolean isConsume = mScaleHandler.onScaleBegin(detector, mCurrentEvent);
             if (isConsume) {
                 return true;
             }
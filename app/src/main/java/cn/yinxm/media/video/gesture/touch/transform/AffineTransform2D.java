@@ -0,0 +1,297 @@
+package cn.yinxm.media.video.gesture.touch.transform;
+
+/**
+ * 纯 Java 的 3x3 仿射矩阵，不依赖 Android，可在 JVM 上测试、压测
+ * <p>
+ * 数值布局、post/pre 语义与 {@code android.graphics.Matrix} 一致：
+ * <pre>
+ * | scaleX  skewX   transX |
+ * | skewY   scaleY  transY |
+ * | 0       0       1      |
+ * </pre>
+ * 透视分量恒为 (0, 0, 1)，所有操作只读写基本类型字段，不分配对象
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class AffineTransform2D {
+    /** 与 android.graphics.Matrix 的数组下标保持一致 */
+    public static final int MSCALE_X = 0;
+    public static final int MSKEW_X = 1;
+    public static final int MTRANS_X = 2;
+    public static final int MSKEW_Y = 3;
+    public static final int MSCALE_Y = 4;
+    public static final int MTRANS_Y = 5;
+    public static final int MPERSP_0 = 6;
+    public static final int MPERSP_1 = 7;
+    public static final int MPERSP_2 = 8;
+
+    private float mScaleX, mSkewX, mTransX;
+    private float mSkewY, mScaleY, mTransY;
+
+    public AffineTransform2D() {
+        reset();
+    }
+
+    public AffineTransform2D(AffineTransform2D src) {
+        set(src);
+    }
+
+    /**
+     * 重置为单位矩阵
+     */
+    public void reset() {
+        mScaleX = 1;
+        mSkewX = 0;
+        mTransX = 0;
+        mSkewY = 0;
+        mScaleY = 1;
+        mTransY = 0;
+    }
+
+    public boolean isIdentity() {
+        return mScaleX == 1 && mSkewX == 0 && mTransX == 0
+                && mSkewY == 0 && mScaleY == 1 && mTransY == 0;
+    }
+
+    public void set(AffineTransform2D src) {
+        if (src == null) {
+            reset();
+            return;
+        }
+        mScaleX = src.mScaleX;
+        mSkewX = src.mSkewX;
+        mTransX = src.mTransX;
+        mSkewY = src.mSkewY;
+        mScaleY = src.mScaleY;
+        mTransY = src.mTransY;
+    }
+
+    public void set(float scaleX, float skewX, float transX, float skewY, float scaleY, float transY) {
+        mScaleX = scaleX;
+        mSkewX = skewX;
+        mTransX = transX;
+        mSkewY = skewY;
+        mScaleY = scaleY;
+        mTransY = transY;
+    }
+
+    /**
+     * 从 9 元数组读取，忽略透视分量
+     */
+    public void setValues(float[] values) {
+        mScaleX = values[MSCALE_X];
+        mSkewX = values[MSKEW_X];
+        mTransX = values[MTRANS_X];
+        mSkewY = values[MSKEW_Y];
+        mScaleY = values[MSCALE_Y];
+        mTransY = values[MTRANS_Y];
+    }
+
+    /**
+     * 写入 9 元数组，可直接用于 {@code Matrix.setValues}
+     */
+    public void getValues(float[] values) {
+        values[MSCALE_X] = mScaleX;
+        values[MSKEW_X] = mSkewX;
+        values[MTRANS_X] = mTransX;
+        values[MSKEW_Y] = mSkewY;
+        values[MSCALE_Y] = mScaleY;
+        values[MTRANS_Y] = mTransY;
+        values[MPERSP_0] = 0;
+        values[MPERSP_1] = 0;
+        values[MPERSP_2] = 1;
+    }
+
+    public float getScaleX() {
+        return mScaleX;
+    }
+
+    public float getSkewX() {
+        return mSkewX;
+    }
+
+    public float getTransX() {
+        return mTransX;
+    }
+
+    public float getSkewY() {
+        return mSkewY;
+    }
+
+    public float getScaleY() {
+        return mScaleY;
+    }
+
+    public float getTransY() {
+        return mTransY;
+    }
+
+    /**
+     * 相似变换（等比缩放 + 旋转）的缩放倍数 sqrt(scaleX² + skewY²)，未旋转时等于 scaleX
+     */
+    public float getScale() {
+        return (float) Math.sqrt(mScaleX * mScaleX + mSkewY * mSkewY);
+    }
+
+    /**
+     * M = S(sx, sy, px, py)
+     */
+    public void setScale(float sx, float sy, float px, float py) {
+        set(sx, 0, px - sx * px, 0, sy, py - sy * py);
+    }
+
+    /**
+     * M = R(degrees, px, py)，以 (px, py) 为中心顺时针旋转（y 轴向下），与 Matrix#setRotate 一致；
+     * 90 度的整数倍取精确值，避免三角函数误差
+     */
+    public void setRotate(float degrees, float px, float py) {
+        float sin;
+        float cos;
+        float normalized = degrees % 360;
+        if (normalized < 0) {
+            normalized += 360;
+        }
+        if (normalized == 0) {
+            sin = 0;
+            cos = 1;
+        } else if (normalized == 90) {
+            sin = 1;
+            cos = 0;
+        } else if (normalized == 180) {
+            sin = 0;
+            cos = -1;
+        } else if (normalized == 270) {
+            sin = -1;
+            cos = 0;
+        } else {
+            double radians = Math.toRadians(degrees);
+            sin = (float) Math.sin(radians);
+            cos = (float) Math.cos(radians);
+        }
+        set(cos, -sin, px - cos * px + sin * py, sin, cos, py - sin * px - cos * py);
+    }
+
+    /**
+     * M' = T(dx, dy) * M
+     */
+    public void postTranslate(float dx, float dy) {
+        mTransX += dx;
+        mTransY += dy;
+    }
+
+    /**
+     * M' = S(sx, sy) * M
+     */
+    public void postScale(float sx, float sy) {
+        postScale(sx, sy, 0, 0);
+    }
+
+    /**
+     * M' = S(sx, sy, px, py) * M，以 (px, py) 为中心缩放
+     */
+    public void postScale(float sx, float sy, float px, float py) {
+        mScaleX *= sx;
+        mSkewX *= sx;
+        mTransX = sx * mTransX + (px - sx * px);
+        mSkewY *= sy;
+        mScaleY *= sy;
+        mTransY = sy * mTransY + (py - sy * py);
+    }
+
+    /**
+     * M' = R * M，R 为以 (px, py) 为中心的旋转，由调用方给出 cos、sin（如向量的点积、叉积归一化），不做三角函数计算
+     */
+    public void postRotate(float cos, float sin, float px, float py) {
+        concat(cos, -sin, px - cos * px + sin * py, sin, cos, py - sin * px - cos * py,
+                mScaleX, mSkewX, mTransX, mSkewY, mScaleY, mTransY);
+    }
+
+    /**
+     * M' = other * M
+     */
+    public void postConcat(AffineTransform2D other) {
+        concat(other.mScaleX, other.mSkewX, other.mTransX, other.mSkewY, other.mScaleY, other.mTransY,
+                mScaleX, mSkewX, mTransX, mSkewY, mScaleY, mTransY);
+    }
+
+    /**
+     * M' = M * other
+     */
+    public void preConcat(AffineTransform2D other) {
+        concat(mScaleX, mSkewX, mTransX, mSkewY, mScaleY, mTransY,
+                other.mScaleX, other.mSkewX, other.mTransX, other.mSkewY, other.mScaleY, other.mTransY);
+    }
+
+    /**
+     * 求逆矩阵，与 {@code Matrix.invert} 一致
+     *
+     * @param out 逆矩阵，可以是 this；不可逆时不修改
+     * @return 是否可逆
+     */
+    public boolean invert(AffineTransform2D out) {
+        float det = mScaleX * mScaleY - mSkewX * mSkewY;
+        if (det == 0) {
+            return false;
+        }
+        float invDet = 1 / det;
+        float scaleX = mScaleY * invDet;
+        float skewX = -mSkewX * invDet;
+        float skewY = -mSkewY * invDet;
+        float scaleY = mScaleX * invDet;
+        out.set(scaleX, skewX, -(scaleX * mTransX + skewX * mTransY),
+                skewY, scaleY, -(skewY * mTransX + scaleY * mTransY));
+        return true;
+    }
+
+    /**
+     * this = A * B
+     */
+    private void concat(float a0, float a1, float a2, float a3, float a4, float a5,
+                        float b0, float b1, float b2, float b3, float b4, float b5) {
+        mScaleX = a0 * b0 + a1 * b3;
+        mSkewX = a0 * b1 + a1 * b4;
+        mTransX = a0 * b2 + a1 * b5 + a2;
+        mSkewY = a3 * b0 + a4 * b3;
+        mScaleY = a3 * b1 + a4 * b4;
+        mTransY = a3 * b2 + a4 * b5 + a5;
+    }
+
+    /**
+     * 变换点，与 {@code Matrix.mapPoints} 一致
+     *
+     * @param point {x, y}，原地修改
+     */
+    public void mapPoint(float[] point) {
+        float x = point[0], y = point[1];
+        point[0] = mScaleX * x + mSkewX * y + mTransX;
+        point[1] = mSkewY * x + mScaleY * y + mTransY;
+    }
+
+    /**
+     * 变换矩形，结果为变换后 4 个顶点的包围盒，与 {@code Matrix.mapRect} 一致
+     *
+     * @param rect {left, top, right, bottom}，原地修改
+     */
+    public void mapRect(float[] rect) {
+        float l = rect[0], t = rect[1], r = rect[2], b = rect[3];
+        float x0 = mScaleX * l + mSkewX * t + mTransX;
+        float y0 = mSkewY * l + mScaleY * t + mTransY;
+        float x1 = mScaleX * r + mSkewX * t + mTransX;
+        float y1 = mSkewY * r + mScaleY * t + mTransY;
+        float x2 = mScaleX * l + mSkewX * b + mTransX;
+        float y2 = mSkewY * l + mScaleY * b + mTransY;
+        float x3 = mScaleX * r + mSkewX * b + mTransX;
+        float y3 = mSkewY * r + mScaleY * b + mTransY;
+        rect[0] = Math.min(Math.min(x0, x1), Math.min(x2, x3));
+        rect[1] = Math.min(Math.min(y0, y1), Math.min(y2, y3));
+        rect[2] = Math.max(Math.max(x0, x1), Math.max(x2, x3));
+        rect[3] = Math.max(Math.max(y0, y1), Math.max(y2, y3));
+    }
+
+    @Override
+    public String toString() {
+        return "AffineTransform2D{[" + mScaleX + ", " + mSkewX + ", " + mTransX + "]["
+                + mSkewY + ", " + mScaleY + ", " + mTransY + "][0.0, 0.0, 1.0]}";
+    }
+}
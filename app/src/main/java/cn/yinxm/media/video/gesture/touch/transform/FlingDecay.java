@@ -0,0 +1,133 @@
+package cn.yinxm.media.video.gesture.touch.transform;
+
+/**
+ * 惯性滑动衰减计算，类似 OverScroller.fling，但不回弹：到达边界后该方向停止
+ * <p>
+ * 速度按指数衰减：v(t) = v0 * e^(-t/τ)，位移 x(t) = x0 + v0 * τ * (1 - e^(-t/τ))，
+ * 每帧只做一次 exp 计算，不分配对象，可在 JVM 上用模拟速度测试
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class FlingDecay {
+    /** 默认衰减时间常数，单位 s */
+    public static final float DEFAULT_TIME_CONSTANT = 0.325F;
+    /** 默认停止速度，单位 px/s */
+    public static final float DEFAULT_MIN_VELOCITY = 50F;
+
+    private static final float NANOS_PER_SECOND = 1000000000F;
+
+    private float mTimeConstant = DEFAULT_TIME_CONSTANT;
+    private float mMinVelocity = DEFAULT_MIN_VELOCITY;
+
+    private long mStartTimeNanos;
+    private float mDuration;
+    private float mStartX, mStartY;
+    private float mVelocityX, mVelocityY;
+    private float mMinX, mMaxX, mMinY, mMaxY;
+    private float mCurrX, mCurrY;
+    private boolean mFinished = true;
+
+    /**
+     * @param timeConstant 衰减时间常数（s），越大滑得越远
+     * @param minVelocity  速度低于该值时停止（px/s）
+     */
+    public void setFriction(float timeConstant, float minVelocity) {
+        mTimeConstant = timeConstant;
+        mMinVelocity = minVelocity;
+    }
+
+    /**
+     * 开始惯性滑动
+     *
+     * @param startX         起始位置
+     * @param startY         起始位置
+     * @param velocityX      初速度 px/s
+     * @param velocityY      初速度 px/s
+     * @param minX           x 方向边界
+     * @param maxX           x 方向边界
+     * @param minY           y 方向边界
+     * @param maxY           y 方向边界
+     * @param startTimeNanos 开始时间，与 {@link #computeOffset(long)} 使用同一时钟
+     */
+    public void fling(float startX, float startY, float velocityX, float velocityY,
+                      float minX, float maxX, float minY, float maxY, long startTimeNanos) {
+        mStartX = mCurrX = startX;
+        mStartY = mCurrY = startY;
+        mVelocityX = velocityX;
+        mVelocityY = velocityY;
+        mMinX = minX;
+        mMaxX = maxX;
+        mMinY = minY;
+        mMaxY = maxY;
+        mStartTimeNanos = startTimeNanos;
+        float velocity = Math.max(Math.abs(velocityX), Math.abs(velocityY));
+        if (velocity <= mMinVelocity) {
+            mDuration = 0;
+            mFinished = true;
+        } else {
+            // 速度衰减到 minVelocity 所需时间
+            mDuration = mTimeConstant * (float) Math.log(velocity / mMinVelocity);
+            mFinished = false;
+        }
+    }
+
+    /**
+     * 计算当前时刻的位置
+     *
+     * @return false 表示滑动已结束
+     */
+    public boolean computeOffset(long timeNanos) {
+        if (mFinished) {
+            return false;
+        }
+        float t = (timeNanos - mStartTimeNanos) / NANOS_PER_SECOND;
+        if (t >= mDuration) {
+            t = mDuration;
+            mFinished = true;
+        } else if (t < 0) {
+            t = 0;
+        }
+        float distance = mTimeConstant * (1 - (float) Math.exp(-t / mTimeConstant));
+        float x = mStartX + mVelocityX * distance;
+        float y = mStartY + mVelocityY * distance;
+        boolean clampX = false, clampY = false;
+        if (x <= mMinX) {
+            x = mMinX;
+            clampX = mVelocityX <= 0;
+        } else if (x >= mMaxX) {
+            x = mMaxX;
+            clampX = mVelocityX >= 0;
+        }
+        if (y <= mMinY) {
+            y = mMinY;
+            clampY = mVelocityY <= 0;
+        } else if (y >= mMaxY) {
+            y = mMaxY;
+            clampY = mVelocityY >= 0;
+        }
+        mCurrX = x;
+        mCurrY = y;
+        // 两个方向都已到达边界，提前结束
+        if ((clampX || mVelocityX == 0) && (clampY || mVelocityY == 0)) {
+            mFinished = true;
+        }
+        return true;
+    }
+
+    public float getCurrX() {
+        return mCurrX;
+    }
+
+    public float getCurrY() {
+        return mCurrY;
+    }
+
+    public boolean isFinished() {
+        return mFinished;
+    }
+
+    public void forceFinished() {
+        mFinished = true;
+    }
+}
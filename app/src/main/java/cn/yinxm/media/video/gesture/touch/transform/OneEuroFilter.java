@@ -0,0 +1,116 @@
+package cn.yinxm.media.video.gesture.touch.transform;
+
+/**
+ * One Euro 自适应低通滤波（Casiez et al., CHI 2012）
+ * <p>
+ * 截止频率随变化速度自适应：cutoff = minCutoff + beta * |速度|。
+ * 手指缓慢移动时截止频率低，滤除触摸屏采样抖动；快速移动时截止频率升高，减小跟手延迟
+ * <p>
+ * 纯 Java 实现，只读写基本类型字段，不分配对象
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public final class OneEuroFilter {
+    public static final float DEFAULT_MIN_CUTOFF = 1F;
+    public static final float DEFAULT_BETA = 0.02F;
+    public static final float DEFAULT_DERIVATE_CUTOFF = 1F;
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000D;
+    private static final double TWO_PI = 2 * Math.PI;
+
+    private float mMinCutoff = DEFAULT_MIN_CUTOFF;
+    private float mBeta = DEFAULT_BETA;
+    private float mDerivateCutoff = DEFAULT_DERIVATE_CUTOFF;
+
+    private boolean mInitialized;
+    private long mLastTimeNanos;
+    private double mLastDt;
+    private double mValue;
+    private double mDerivate;
+
+    public OneEuroFilter() {
+    }
+
+    public OneEuroFilter(float minCutoff, float beta, float derivateCutoff) {
+        setParams(minCutoff, beta, derivateCutoff);
+    }
+
+    /**
+     * @param minCutoff      最小截止频率 Hz，越小静止时越平滑、延迟越大
+     * @param beta           速度系数，越大快速移动时延迟越小
+     * @param derivateCutoff 速度的截止频率 Hz
+     */
+    public void setParams(float minCutoff, float beta, float derivateCutoff) {
+        mMinCutoff = minCutoff;
+        mBeta = beta;
+        mDerivateCutoff = derivateCutoff;
+    }
+
+    /**
+     * 清除状态，下一个采样作为初始值
+     */
+    public void reset() {
+        mInitialized = false;
+        mDerivate = 0;
+        mLastDt = 0;
+    }
+
+    /**
+     * 以指定值开始滤波
+     */
+    public void reset(float value, long timeNanos) {
+        reset();
+        mValue = value;
+        mLastTimeNanos = timeNanos;
+        mInitialized = true;
+    }
+
+    /**
+     * @param value     采样值
+     * @param timeNanos 采样时间，同一时刻的多个采样（时间戳精度不足）沿用上一次的采样间隔
+     * @return 滤波后的值
+     */
+    public float filter(float value, long timeNanos) {
+        if (!mInitialized) {
+            reset(value, timeNanos);
+            return value;
+        }
+        double dt = (timeNanos - mLastTimeNanos) / NANOS_PER_SECOND;
+        if (dt <= 0) {
+            if (mLastDt <= 0) {
+                // 还没有有效的采样间隔，直接替换当前值
+                mValue = value;
+                return value;
+            }
+            dt = mLastDt;
+        } else {
+            mLastTimeNanos = timeNanos;
+            mLastDt = dt;
+        }
+        double derivate = (value - mValue) / dt;
+        mDerivate += alpha(mDerivateCutoff, dt) * (derivate - mDerivate);
+        double cutoff = mMinCutoff + mBeta * Math.abs(mDerivate);
+        mValue += alpha(cutoff, dt) * (value - mValue);
+        return (float) mValue;
+    }
+
+    public float getValue() {
+        return (float) mValue;
+    }
+
+    /**
+     * @return 滤波后的变化速度，单位 /s
+     */
+    public float getDerivate() {
+        return (float) mDerivate;
+    }
+
+    /**
+     * 一阶低通的平滑系数：alpha = 1 / (1 + tau / dt)，tau = 1 / (2π * cutoff)
+     */
+    private static double alpha(double cutoff, double dt) {
+        double tau = 1 / (TWO_PI * cutoff);
+        return 1 / (1 + tau / dt);
+    }
+}
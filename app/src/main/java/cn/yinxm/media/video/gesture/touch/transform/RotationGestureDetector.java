@@ -0,0 +1,115 @@
+package cn.yinxm.media.video.gesture.touch.transform;
+
+/**
+ * 双指旋转识别：与 ScaleGestureDetector 并行，跟踪两指连线向量的转动
+ * <p>
+ * 1. 起始向量与当前向量的夹角超过 {@link #setSlop 阈值} 后才进入旋转，进入时以当前向量为基准，画面不跳变
+ * 2. 旋转量以 cos、sin 给出：上次消费时的向量与当前向量归一化后的点积、叉积，每次只需一次开方，
+ * 不做反三角、三角函数计算；相邻两次消费的旋转连乘等于总旋转，不累积角度误差
+ * <p>
+ * 坐标系 y 轴向下，sin 为正表示顺时针，与 {@link AffineTransform2D#setRotate} 一致。
+ * 纯 Java 实现，不分配对象
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public final class RotationGestureDetector {
+    public static final float DEFAULT_SLOP_DEGREES = 8F;
+    /** 两指距离过近时向量方向不可靠，忽略该采样 */
+    private static final float MIN_VECTOR_LENGTH = 1F;
+
+    /** 阈值角的 cos，夹角的 cos 小于该值即超过阈值 */
+    private float mCosSlop = (float) Math.cos(Math.toRadians(DEFAULT_SLOP_DEGREES));
+
+    private boolean mStarted;
+    private boolean mRotating;
+    /** 手势开始时的两指向量 */
+    private float mStartX, mStartY;
+    /** 上次消费时的两指向量 */
+    private float mAppliedX, mAppliedY;
+    /** 最新的两指向量 */
+    private float mX, mY;
+
+    /**
+     * @param degrees 进入旋转的最小角度，0 表示立即跟随
+     */
+    public void setSlop(float degrees) {
+        mCosSlop = (float) Math.cos(Math.toRadians(Math.max(0, Math.min(degrees, 180))));
+    }
+
+    public void reset() {
+        mStarted = false;
+        mRotating = false;
+    }
+
+    /**
+     * 以该向量为起点直接进入旋转，用于已由其他检测确认转动超过阈值的场景
+     */
+    public void startRotating(float vectorX, float vectorY) {
+        mStarted = true;
+        mRotating = true;
+        mStartX = vectorX;
+        mStartY = vectorY;
+        mAppliedX = vectorX;
+        mAppliedY = vectorY;
+        mX = vectorX;
+        mY = vectorY;
+    }
+
+    /**
+     * 更新两指向量（第二指坐标 - 第一指坐标），手势开始后的第一个采样作为起始向量
+     */
+    public void update(float vectorX, float vectorY) {
+        float lengthSquared = vectorX * vectorX + vectorY * vectorY;
+        if (lengthSquared < MIN_VECTOR_LENGTH * MIN_VECTOR_LENGTH) {
+            return;
+        }
+        mX = vectorX;
+        mY = vectorY;
+        if (!mStarted) {
+            mStarted = true;
+            mStartX = vectorX;
+            mStartY = vectorY;
+            // 阈值为 0 时从起始向量开始跟随
+            mRotating = mCosSlop >= 1;
+            mAppliedX = vectorX;
+            mAppliedY = vectorY;
+            return;
+        }
+        if (!mRotating) {
+            float startLengthSquared = mStartX * mStartX + mStartY * mStartY;
+            float dot = mStartX * vectorX + mStartY * vectorY;
+            float cos = dot / (float) Math.sqrt(startLengthSquared * lengthSquared);
+            if (cos < mCosSlop) {
+                mRotating = true;
+                mAppliedX = vectorX;
+                mAppliedY = vectorY;
+            }
+        }
+    }
+
+    /**
+     * @return 是否已超过阈值进入旋转
+     */
+    public boolean isRotating() {
+        return mRotating;
+    }
+
+    /**
+     * 取出上次消费后的旋转量
+     *
+     * @param out {cos, sin}
+     * @return 是否有旋转
+     */
+    public boolean consume(float[] out) {
+        if (!mRotating || (mX == mAppliedX && mY == mAppliedY)) {
+            return false;
+        }
+        float length = (float) Math.sqrt((mAppliedX * mAppliedX + mAppliedY * mAppliedY) * (mX * mX + mY * mY));
+        out[0] = (mAppliedX * mX + mAppliedY * mY) / length;
+        out[1] = (mAppliedX * mY - mAppliedY * mX) / length;
+        mAppliedX = mX;
+        mAppliedY = mY;
+        return true;
+    }
+}
@@ -0,0 +1,283 @@
+package cn.yinxm.media.video.gesture.touch.transform;
+
+/**
+ * 双指缩放采样积分：逐个接收焦点、跨度采样（含 MotionEvent 批量的历史采样），滤波后累积，每帧合并为一次变换
+ * <p>
+ * 1. 焦点 x、y 与跨度分别经过 {@link OneEuroFilter}，去除高采样率触摸屏的抖动
+ * 2. 相邻采样的缩放倍数连乘、焦点位移累加后，等于最新滤波值相对上次应用时的比值与差值，
+ * 因此只需记录上次应用时的滤波值，每帧 {@link #apply} 调用一次 {@link VideoTransformEngine#applyScale}
+ * 3. 可选 {@link ScaleGesturePredictor}：应用时把滤波值外推到画面显示时间；下一帧从外推值继续计算，
+ * 预测偏差在后续帧中自动修正，立即应用（显示时间为 0）时回到实际值
+ * 4. 可选双指旋转：{@link #setPointerVector} 送入两指向量，由 {@link RotationGestureDetector} 给出上次应用后的旋转，
+ * 与缩放平移合并为一次相似变换，以应用后的焦点为中心旋转；旋转不做预测
+ * 5. 滤波值滞后于手指，手势结束时 {@link #settle} 把滤波器重置为最后一个原始采样，再应用一次即停在手指的实际位置
+ * <p>
+ * 纯 Java 实现，采样、应用过程不分配对象
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public final class ScaleGestureIntegrator {
+    private final OneEuroFilter mFocusXFilter = new OneEuroFilter();
+    private final OneEuroFilter mFocusYFilter = new OneEuroFilter();
+    private final OneEuroFilter mSpanFilter = new OneEuroFilter();
+    private boolean mSmoothingEnabled = true;
+    private ScaleGesturePredictor mPredictor;
+    private final float[] mPredicted = new float[3];
+    /** 上次应用的是外推值 */
+    private boolean mAppliedPredicted;
+    private final RotationGestureDetector mRotationDetector = new RotationGestureDetector();
+    private boolean mRotationEnabled;
+    /** {cos, sin} */
+    private final float[] mRotation = new float[2];
+
+    /** 缩放中心：手势开始时的焦点 */
+    private float mStartFocusX, mStartFocusY;
+    /** 最新采样的滤波值 */
+    private float mFocusX, mFocusY, mSpan;
+    /** 最新采样的原始值 */
+    private float mRawFocusX, mRawFocusY, mRawSpan;
+    /** 上次应用到矩阵时的滤波值 */
+    private float mAppliedFocusX, mAppliedFocusY, mAppliedSpan;
+    private long mLastSampleNanos;
+    private int mPendingCount;
+    private int mSampleCount;
+
+    /**
+     * 关闭后直接使用原始采样
+     */
+    public void setSmoothingEnabled(boolean enabled) {
+        mSmoothingEnabled = enabled;
+    }
+
+    public boolean isSmoothingEnabled() {
+        return mSmoothingEnabled;
+    }
+
+    /**
+     * 设置预测，null 关闭
+     */
+    public void setPredictor(ScaleGesturePredictor predictor) {
+        mPredictor = predictor;
+    }
+
+    public ScaleGesturePredictor getPredictor() {
+        return mPredictor;
+    }
+
+    /**
+     * 开启后 {@link #setPointerVector} 送入的两指转动会应用到矩阵
+     */
+    public void setRotationEnabled(boolean enabled) {
+        mRotationEnabled = enabled;
+    }
+
+    public boolean isRotationEnabled() {
+        return mRotationEnabled;
+    }
+
+    public RotationGestureDetector getRotationDetector() {
+        return mRotationDetector;
+    }
+
+    /**
+     * 设置焦点与跨度的滤波参数，见 {@link OneEuroFilter#setParams}
+     */
+    public void setFilterParams(float minCutoff, float beta, float derivateCutoff) {
+        mFocusXFilter.setParams(minCutoff, beta, derivateCutoff);
+        mFocusYFilter.setParams(minCutoff, beta, derivateCutoff);
+        mSpanFilter.setParams(minCutoff, beta, derivateCutoff);
+    }
+
+    /**
+     * 手势开始，以该采样为缩放中心与初始值
+     */
+    public void begin(long timeNanos, float focusX, float focusY, float span) {
+        mFocusXFilter.reset(focusX, timeNanos);
+        mFocusYFilter.reset(focusY, timeNanos);
+        mSpanFilter.reset(span, timeNanos);
+        mStartFocusX = focusX;
+        mStartFocusY = focusY;
+        mFocusX = focusX;
+        mFocusY = focusY;
+        mSpan = span;
+        mRawFocusX = focusX;
+        mRawFocusY = focusY;
+        mRawSpan = span;
+        mAppliedFocusX = focusX;
+        mAppliedFocusY = focusY;
+        mAppliedSpan = span;
+        mLastSampleNanos = timeNanos;
+        mPendingCount = 0;
+        mSampleCount = 1;
+        mAppliedPredicted = false;
+        mRotationDetector.reset();
+        if (mPredictor != null) {
+            mPredictor.reset();
+            mPredictor.addSample(timeNanos, focusX, focusY, span);
+        }
+    }
+
+    /**
+     * 添加一个采样，时间早于上一个采样时忽略（同一事件重复提交）
+     */
+    public void addSample(long timeNanos, float focusX, float focusY, float span) {
+        if (timeNanos < mLastSampleNanos) {
+            return;
+        }
+        mLastSampleNanos = timeNanos;
+        mRawFocusX = focusX;
+        mRawFocusY = focusY;
+        mRawSpan = span;
+        if (mSmoothingEnabled) {
+            mFocusX = mFocusXFilter.filter(focusX, timeNanos);
+            mFocusY = mFocusYFilter.filter(focusY, timeNanos);
+            mSpan = mSpanFilter.filter(span, timeNanos);
+        } else {
+            mFocusX = focusX;
+            mFocusY = focusY;
+            mSpan = span;
+        }
+        mPendingCount++;
+        mSampleCount++;
+        if (mPredictor != null) {
+            mPredictor.addSample(timeNanos, mFocusX, mFocusY, mSpan);
+        }
+    }
+
+    /**
+     * 更新两指向量（第二指坐标 - 第一指坐标），每个事件只需送入最新值；手势开始后的第一个向量为旋转起点
+     */
+    public void setPointerVector(float vectorX, float vectorY) {
+        if (mRotationEnabled) {
+            mRotationDetector.update(vectorX, vectorY);
+        }
+    }
+
+    /**
+     * 手势因两指转动开始时，在 {@link #begin} 之后调用，以该向量为起点直接跟随旋转
+     */
+    public void beginRotation(float vectorX, float vectorY) {
+        if (mRotationEnabled) {
+            mRotationDetector.startRotating(vectorX, vectorY);
+        }
+    }
+
+    /**
+     * 手势结束时调用：滤波器重置为最后一个原始采样，滤波值与原始值不同时留待下一次 {@link #apply} 应用，
+     * 使最终的缩放倍数与焦点位移等于手指的实际值
+     */
+    public void settle() {
+        mFocusXFilter.reset(mRawFocusX, mLastSampleNanos);
+        mFocusYFilter.reset(mRawFocusY, mLastSampleNanos);
+        mSpanFilter.reset(mRawSpan, mLastSampleNanos);
+        if (mFocusX != mRawFocusX || mFocusY != mRawFocusY || mSpan != mRawSpan) {
+            mFocusX = mRawFocusX;
+            mFocusY = mRawFocusY;
+            mSpan = mRawSpan;
+            mPendingCount++;
+        }
+    }
+
+    /**
+     * @return 是否有未应用的采样
+     */
+    public boolean hasPending() {
+        return mPendingCount > 0;
+    }
+
+    /**
+     * 将上次应用后的所有采样合并为一次缩放平移（及旋转），不做预测
+     *
+     * @return 是否有变换
+     */
+    public boolean apply(VideoTransformEngine engine, AffineTransform2D matrix) {
+        return apply(engine, matrix, 0);
+    }
+
+    /**
+     * 将上次应用后的所有采样合并为一次缩放平移（及旋转）
+     *
+     * @param presentNanos 画面预计显示的时间，设置了预测时外推到该时间；0 表示立即应用实际值，
+     *                     上次应用的是外推值时即使没有新采样也会回到实际值
+     * @return 是否有变换
+     */
+    public boolean apply(VideoTransformEngine engine, AffineTransform2D matrix, long presentNanos) {
+        if (mPendingCount == 0 && !(presentNanos == 0 && mAppliedPredicted)) {
+            return false;
+        }
+        mPendingCount = 0;
+        float focusX = mFocusX;
+        float focusY = mFocusY;
+        float span = mSpan;
+        boolean predicted = presentNanos > 0 && mPredictor != null && mPredictor.predict(presentNanos, mPredicted);
+        if (predicted) {
+            focusX = mPredicted[0];
+            focusY = mPredicted[1];
+            span = mPredicted[2];
+        }
+        if (mAppliedSpan <= 0 || span <= 0) {
+            return false;
+        }
+        engine.applyScale(matrix, span / mAppliedSpan, mStartFocusX, mStartFocusY,
+                focusX - mAppliedFocusX, focusY - mAppliedFocusY);
+        if (mRotationEnabled && mRotationDetector.consume(mRotation)) {
+            matrix.postRotate(mRotation[0], mRotation[1], focusX, focusY);
+        }
+        mAppliedFocusX = focusX;
+        mAppliedFocusY = focusY;
+        mAppliedSpan = span;
+        mAppliedPredicted = predicted;
+        return true;
+    }
+
+    /**
+     * 丢弃未应用的采样
+     */
+    public void cancel() {
+        mPendingCount = 0;
+        mAppliedPredicted = false;
+        mAppliedFocusX = mFocusX;
+        mAppliedFocusY = mFocusY;
+        mAppliedSpan = mSpan;
+        mRotationDetector.consume(mRotation);
+    }
+
+    public float getFocusX() {
+        return mFocusX;
+    }
+
+    public float getFocusY() {
+        return mFocusY;
+    }
+
+    public float getSpan() {
+        return mSpan;
+    }
+
+    /**
+     * @return 上次应用到矩阵的焦点，开启预测时为外推值
+     */
+    public float getAppliedFocusX() {
+        return mAppliedFocusX;
+    }
+
+    public float getAppliedFocusY() {
+        return mAppliedFocusY;
+    }
+
+    public float getAppliedSpan() {
+        return mAppliedSpan;
+    }
+
+    public long getLastSampleNanos() {
+        return mLastSampleNanos;
+    }
+
+    /**
+     * @return 本次手势的采样数，含开始采样
+     */
+    public int getSampleCount() {
+        return mSampleCount;
+    }
+}
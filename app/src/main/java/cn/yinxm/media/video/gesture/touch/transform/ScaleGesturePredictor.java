@@ -0,0 +1,157 @@
+package cn.yinxm.media.video.gesture.touch.transform;
+
+/**
+ * 双指缩放预测：把焦点、跨度外推到画面预计显示的时间，抵消触摸到上屏约一帧的延迟
+ * <p>
+ * 1. 速度：最近 {@link #setWindow 时间窗口} 内采样的最小二乘斜率，比相邻两点差分更抗噪
+ * 2. 外推：预测值 = 最新采样 + 速度 * 预测时长，预测时长不超过 {@link #setMaxHorizon 上限}
+ * 3. 过冲限制：外推量的绝对值不超过 {@link #setMaxOvershoot 上限}，手指急停、反向时画面最多超出该距离
+ * <p>
+ * 时间戳与 MotionEvent#getEventTime、Choreographer 帧时间为同一单调时钟，单位 ns。
+ * 纯 Java 实现，采样保存在定长环形数组中，不分配对象
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public final class ScaleGesturePredictor {
+    public static final long DEFAULT_WINDOW_NANOS = 40_000_000L;
+    public static final long DEFAULT_MAX_HORIZON_NANOS = 25_000_000L;
+    public static final float DEFAULT_MAX_OVERSHOOT = 24F;
+
+    private static final int CAPACITY = 16;
+    private static final double NANOS_PER_SECOND = 1_000_000_000D;
+
+    private final long[] mTimes = new long[CAPACITY];
+    private final float[] mFocusX = new float[CAPACITY];
+    private final float[] mFocusY = new float[CAPACITY];
+    private final float[] mSpan = new float[CAPACITY];
+    private int mHead;
+    private int mCount;
+
+    private long mWindowNanos = DEFAULT_WINDOW_NANOS;
+    private long mMaxHorizonNanos = DEFAULT_MAX_HORIZON_NANOS;
+    private float mMaxOvershoot = DEFAULT_MAX_OVERSHOOT;
+
+    /**
+     * @param windowNanos 估算速度使用的采样时间范围
+     */
+    public void setWindow(long windowNanos) {
+        mWindowNanos = windowNanos;
+    }
+
+    /**
+     * @param maxHorizonNanos 最多向后预测的时长，超出部分不再外推
+     */
+    public void setMaxHorizon(long maxHorizonNanos) {
+        mMaxHorizonNanos = maxHorizonNanos;
+    }
+
+    /**
+     * @param maxOvershoot 焦点、跨度外推量的上限，单位 px
+     */
+    public void setMaxOvershoot(float maxOvershoot) {
+        mMaxOvershoot = maxOvershoot;
+    }
+
+    public void reset() {
+        mHead = 0;
+        mCount = 0;
+    }
+
+    /**
+     * 添加采样，时间早于最新采样时忽略；与最新采样同一时间时替换
+     */
+    public void addSample(long timeNanos, float focusX, float focusY, float span) {
+        if (mCount > 0) {
+            int last = (mHead - 1 + CAPACITY) % CAPACITY;
+            if (timeNanos < mTimes[last]) {
+                return;
+            }
+            if (timeNanos == mTimes[last]) {
+                mFocusX[last] = focusX;
+                mFocusY[last] = focusY;
+                mSpan[last] = span;
+                return;
+            }
+        }
+        mTimes[mHead] = timeNanos;
+        mFocusX[mHead] = focusX;
+        mFocusY[mHead] = focusY;
+        mSpan[mHead] = span;
+        mHead = (mHead + 1) % CAPACITY;
+        if (mCount < CAPACITY) {
+            mCount++;
+        }
+    }
+
+    public int getSampleCount() {
+        return mCount;
+    }
+
+    /**
+     * 预测 targetNanos 时刻的焦点与跨度
+     *
+     * @param out {focusX, focusY, span}；采样不足两个或目标时间不晚于最新采样时为最新采样
+     * @return 是否做了外推
+     */
+    public boolean predict(long targetNanos, float[] out) {
+        if (mCount == 0) {
+            return false;
+        }
+        int last = (mHead - 1 + CAPACITY) % CAPACITY;
+        long lastTime = mTimes[last];
+        out[0] = mFocusX[last];
+        out[1] = mFocusY[last];
+        out[2] = mSpan[last];
+        long horizon = Math.min(targetNanos - lastTime, mMaxHorizonNanos);
+        if (mCount < 2 || horizon <= 0) {
+            return false;
+        }
+        // 窗口内采样，时间取相对最新采样的秒数，避免大数相减损失精度
+        int n = 0;
+        double sumT = 0;
+        double sumX = 0;
+        double sumY = 0;
+        double sumS = 0;
+        for (int i = 0; i < mCount; i++) {
+            int index = (last - i + CAPACITY) % CAPACITY;
+            long age = lastTime - mTimes[index];
+            if (age > mWindowNanos && n >= 2) {
+                break;
+            }
+            sumT += -age / NANOS_PER_SECOND;
+            sumX += mFocusX[index];
+            sumY += mFocusY[index];
+            sumS += mSpan[index];
+            n++;
+        }
+        double meanT = sumT / n;
+        double meanX = sumX / n;
+        double meanY = sumY / n;
+        double meanS = sumS / n;
+        double varT = 0;
+        double covX = 0;
+        double covY = 0;
+        double covS = 0;
+        for (int i = 0; i < n; i++) {
+            int index = (last - i + CAPACITY) % CAPACITY;
+            double dt = -(lastTime - mTimes[index]) / NANOS_PER_SECOND - meanT;
+            varT += dt * dt;
+            covX += dt * (mFocusX[index] - meanX);
+            covY += dt * (mFocusY[index] - meanY);
+            covS += dt * (mSpan[index] - meanS);
+        }
+        if (varT <= 0) {
+            return false;
+        }
+        double seconds = horizon / NANOS_PER_SECOND;
+        out[0] += clamp(covX / varT * seconds);
+        out[1] += clamp(covY / varT * seconds);
+        out[2] = Math.max(out[2] + clamp(covS / varT * seconds), 1F);
+        return true;
+    }
+
+    private float clamp(double offset) {
+        return (float) Math.max(-mMaxOvershoot, Math.min(offset, mMaxOvershoot));
+    }
+}
@@ -0,0 +1,147 @@
+package cn.yinxm.media.video.gesture.touch.transform;
+
+/**
+ * 缩放预测误差评估：按帧回放双指轨迹，对比预测值与轨迹中显示时间上的实际值
+ * <p>
+ * 每个 vsync 先送入该时间之前的采样，与 VideoTouchScaleHandler 一样经 {@link ScaleGestureIntegrator}（滤波、预测）
+ * 得到本帧应用的焦点、跨度，与显示时间（下一个 vsync）的实际采样（相邻采样线性插值）比较；
+ * 同时统计不预测时的误差作为对照
+ * <p>
+ * 纯 Java 实现，可在 JVM 上对录制的轨迹离线评估
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public final class ScalePredictionEvaluator {
+
+    /**
+     * 评估结果，误差单位 px
+     */
+    public static class Result {
+        /** 参与评估的帧数 */
+        public int frameCount;
+        /** 预测后的焦点误差（欧氏距离） */
+        public double focusMeanError;
+        public double focusMaxError;
+        /** 预测后的跨度误差 */
+        public double spanMeanError;
+        public double spanMaxError;
+        /** 不预测时的焦点、跨度误差 */
+        public double holdFocusMeanError;
+        public double holdFocusMaxError;
+        public double holdSpanMeanError;
+        public double holdSpanMaxError;
+
+        @Override
+        public String toString() {
+            return "Result{"
+                    + "frameCount=" + frameCount
+                    + ", focusMeanError=" + focusMeanError
+                    + ", focusMaxError=" + focusMaxError
+                    + ", spanMeanError=" + spanMeanError
+                    + ", spanMaxError=" + spanMaxError
+                    + ", holdFocusMeanError=" + holdFocusMeanError
+                    + ", holdFocusMaxError=" + holdFocusMaxError
+                    + ", holdSpanMeanError=" + holdSpanMeanError
+                    + ", holdSpanMaxError=" + holdSpanMaxError
+                    + '}';
+        }
+    }
+
+    private final ScaleGestureIntegrator mIntegrator = new ScaleGestureIntegrator();
+    private final ScaleGestureIntegrator mHoldIntegrator = new ScaleGestureIntegrator();
+    private final VideoTransformEngine mEngine = new VideoTransformEngine();
+    private final AffineTransform2D mMatrix = new AffineTransform2D();
+    private final AffineTransform2D mHoldMatrix = new AffineTransform2D();
+    private final float[] mActual = new float[3];
+
+    /**
+     * @param predictor 被评估的预测参数
+     * @param smoothing 是否开启 One Euro 滤波，与线上配置一致
+     */
+    public ScalePredictionEvaluator(ScaleGesturePredictor predictor, boolean smoothing) {
+        mIntegrator.setPredictor(predictor);
+        mIntegrator.setSmoothingEnabled(smoothing);
+        mHoldIntegrator.setSmoothingEnabled(smoothing);
+    }
+
+    /**
+     * 回放一次双指缩放轨迹
+     *
+     * @param timeNanos       采样时间，递增
+     * @param focusX          焦点
+     * @param focusY          焦点
+     * @param span            跨度
+     * @param size            采样数
+     * @param frameIntervalNanos 帧间隔，画面在帧回调后的下一个 vsync 显示
+     */
+    public Result evaluate(long[] timeNanos, float[] focusX, float[] focusY, float[] span, int size,
+                           long frameIntervalNanos) {
+        Result result = new Result();
+        if (size < 2) {
+            return result;
+        }
+        mMatrix.reset();
+        mHoldMatrix.reset();
+        mIntegrator.begin(timeNanos[0], focusX[0], focusY[0], span[0]);
+        mHoldIntegrator.begin(timeNanos[0], focusX[0], focusY[0], span[0]);
+        long lastTime = timeNanos[size - 1];
+        int next = 1;
+        for (long frameTime = timeNanos[0] + frameIntervalNanos; ; frameTime += frameIntervalNanos) {
+            long presentTime = frameTime + frameIntervalNanos;
+            if (presentTime > lastTime) {
+                break;
+            }
+            while (next < size && timeNanos[next] <= frameTime) {
+                mIntegrator.addSample(timeNanos[next], focusX[next], focusY[next], span[next]);
+                mHoldIntegrator.addSample(timeNanos[next], focusX[next], focusY[next], span[next]);
+                next++;
+            }
+            // 预测值与不预测的值都按实际应用时的方式计算，保留上一帧的修正效果
+            mIntegrator.apply(mEngine, mMatrix, presentTime);
+            mHoldIntegrator.apply(mEngine, mHoldMatrix, 0);
+            interpolate(timeNanos, focusX, focusY, span, size, presentTime, mActual);
+
+            double focusError = Math.hypot(mIntegrator.getAppliedFocusX() - mActual[0],
+                    mIntegrator.getAppliedFocusY() - mActual[1]);
+            double spanError = Math.abs(mIntegrator.getAppliedSpan() - mActual[2]);
+            double holdFocusError = Math.hypot(mHoldIntegrator.getAppliedFocusX() - mActual[0],
+                    mHoldIntegrator.getAppliedFocusY() - mActual[1]);
+            double holdSpanError = Math.abs(mHoldIntegrator.getAppliedSpan() - mActual[2]);
+
+            result.frameCount++;
+            result.focusMeanError += focusError;
+            result.focusMaxError = Math.max(result.focusMaxError, focusError);
+            result.spanMeanError += spanError;
+            result.spanMaxError = Math.max(result.spanMaxError, spanError);
+            result.holdFocusMeanError += holdFocusError;
+            result.holdFocusMaxError = Math.max(result.holdFocusMaxError, holdFocusError);
+            result.holdSpanMeanError += holdSpanError;
+            result.holdSpanMaxError = Math.max(result.holdSpanMaxError, holdSpanError);
+        }
+        if (result.frameCount > 0) {
+            result.focusMeanError /= result.frameCount;
+            result.spanMeanError /= result.frameCount;
+            result.holdFocusMeanError /= result.frameCount;
+            result.holdSpanMeanError /= result.frameCount;
+        }
+        return result;
+    }
+
+    /**
+     * 轨迹在 time 时刻的值，相邻采样线性插值
+     */
+    private static void interpolate(long[] timeNanos, float[] focusX, float[] focusY, float[] span, int size,
+                                    long time, float[] out) {
+        int i = 1;
+        while (i < size - 1 && timeNanos[i] < time) {
+            i++;
+        }
+        long t0 = timeNanos[i - 1];
+        long t1 = timeNanos[i];
+        float fraction = t1 > t0 ? Math.max(0, Math.min(1, (float) (time - t0) / (t1 - t0))) : 1;
+        out[0] = focusX[i - 1] + (focusX[i] - focusX[i - 1]) * fraction;
+        out[1] = focusY[i - 1] + (focusY[i] - focusY[i - 1]) * fraction;
+        out[2] = span[i - 1] + (span[i] - span[i - 1]) * fraction;
+    }
+}
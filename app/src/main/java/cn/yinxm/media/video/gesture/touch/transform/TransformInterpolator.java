@@ -0,0 +1,131 @@
+package cn.yinxm.media.video.gesture.touch.transform;
+
+/**
+ * 缩放结束动画的逐帧插值计算
+ * <p>
+ * 从 VideoScaleEndAnimator 中抽出：对矩阵的缩放、平移分量同时线性插值，
+ * 起点与终点缩放不同时（如缩小居中、双击缩放）画面也能连续过渡
+ * <p>
+ * 起点与终点旋转角度不同时（双指旋转结束对齐 90 度），逐分量插值会使画面中途变小、变形，
+ * 改为对缩放倍数、旋转角度、旋转中心的位置分别插值
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class TransformInterpolator {
+    /** 视为角度相同的误差，弧度 */
+    private static final double ANGLE_EPSILON = 1e-4;
+
+    private final AffineTransform2D mStart = new AffineTransform2D();
+    private final AffineTransform2D mEnd = new AffineTransform2D();
+
+    /** 起止角度不同，按缩放、旋转、中心位置插值 */
+    private boolean mRotate;
+    private float mStartScale, mEndScale;
+    private double mStartAngle, mDeltaAngle;
+    /** 旋转中心（变换前坐标）及其在起点、终点矩阵下的位置 */
+    private float mPivotX, mPivotY;
+    private float mStartPivotX, mStartPivotY;
+    private float mEndPivotX, mEndPivotY;
+
+    /**
+     * 设置插值起点、终点，以 (0, 0) 为旋转中心
+     */
+    public void set(AffineTransform2D start, AffineTransform2D end) {
+        set(start, end, 0, 0);
+    }
+
+    /**
+     * 设置插值起点、终点
+     *
+     * @param pivotX 起止角度不同时的旋转中心，变换前的坐标，一般为画面中心
+     * @param pivotY 同上
+     */
+    public void set(AffineTransform2D start, AffineTransform2D end, float pivotX, float pivotY) {
+        mStart.set(start);
+        mEnd.set(end);
+        mRotate = false;
+        if (start.getSkewY() == 0 && end.getSkewY() == 0 && start.getScaleX() * end.getScaleX() >= 0) {
+            return;
+        }
+        // 每次动画只计算一次角度
+        double startAngle = Math.atan2(start.getSkewY(), start.getScaleX());
+        double delta = Math.atan2(end.getSkewY(), end.getScaleX()) - startAngle;
+        // 取较小的转向
+        if (delta > Math.PI) {
+            delta -= 2 * Math.PI;
+        } else if (delta < -Math.PI) {
+            delta += 2 * Math.PI;
+        }
+        if (Math.abs(delta) < ANGLE_EPSILON) {
+            return;
+        }
+        mRotate = true;
+        mStartAngle = startAngle;
+        mDeltaAngle = delta;
+        mStartScale = start.getScale();
+        mEndScale = end.getScale();
+        mPivotX = pivotX;
+        mPivotY = pivotY;
+        mStartPivotX = mapX(start, pivotX, pivotY);
+        mStartPivotY = mapY(start, pivotX, pivotY);
+        mEndPivotX = mapX(end, pivotX, pivotY);
+        mEndPivotY = mapY(end, pivotX, pivotY);
+    }
+
+    public AffineTransform2D getStart() {
+        return mStart;
+    }
+
+    public AffineTransform2D getEnd() {
+        return mEnd;
+    }
+
+    /**
+     * 计算动画进度对应的矩阵
+     *
+     * @param fraction 动画进度 [0, 1]
+     * @param out      输出矩阵
+     */
+    public void interpolate(float fraction, AffineTransform2D out) {
+        if (mRotate) {
+            interpolateRotate(fraction, out);
+            return;
+        }
+        AffineTransform2D s = mStart;
+        AffineTransform2D e = mEnd;
+        out.set(lerp(s.getScaleX(), e.getScaleX(), fraction),
+                lerp(s.getSkewX(), e.getSkewX(), fraction),
+                lerp(s.getTransX(), e.getTransX(), fraction),
+                lerp(s.getSkewY(), e.getSkewY(), fraction),
+                lerp(s.getScaleY(), e.getScaleY(), fraction),
+                lerp(s.getTransY(), e.getTransY(), fraction));
+    }
+
+    private void interpolateRotate(float fraction, AffineTransform2D out) {
+        if (fraction >= 1) {
+            out.set(mEnd);
+            return;
+        }
+        double angle = mStartAngle + mDeltaAngle * fraction;
+        float scale = lerp(mStartScale, mEndScale, fraction);
+        float cos = (float) Math.cos(angle) * scale;
+        float sin = (float) Math.sin(angle) * scale;
+        float pivotX = lerp(mStartPivotX, mEndPivotX, fraction);
+        float pivotY = lerp(mStartPivotY, mEndPivotY, fraction);
+        out.set(cos, -sin, pivotX - cos * mPivotX + sin * mPivotY,
+                sin, cos, pivotY - sin * mPivotX - cos * mPivotY);
+    }
+
+    private static float mapX(AffineTransform2D m, float x, float y) {
+        return m.getScaleX() * x + m.getSkewX() * y + m.getTransX();
+    }
+
+    private static float mapY(AffineTransform2D m, float x, float y) {
+        return m.getSkewY() * x + m.getScaleY() * y + m.getTransY();
+    }
+
+    private static float lerp(float start, float end, float fraction) {
+        return start + (end - start) * fraction;
+    }
+}
@@ -0,0 +1,229 @@
+package cn.yinxm.media.video.gesture.touch.transform;
+
+/**
+ * 画面缩放平移计算：缩放上下限约束、焦点平移、缩放结束后的旋转对齐与吸边/居中位置
+ * <p>
+ * 从 VideoTouchScaleHandler 中抽出，只依赖 {@link AffineTransform2D}，可在 JVM 上测试、压测
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class VideoTransformEngine {
+    public static final float DEFAULT_MIN_SCALE = 0.1F;
+    public static final float DEFAULT_MAX_SCALE = 3F;
+
+    /** 判断已到达缩放边界的误差 */
+    private static final float SCALE_EPSILON = 0.001F;
+
+    private float mMinScale = DEFAULT_MIN_SCALE;
+    private float mMaxScale = DEFAULT_MAX_SCALE;
+    /** 复用的矩形缓存：{left, top, right, bottom} */
+    private final float[] mRect = new float[4];
+    private final float[] mViewRect = new float[4];
+
+    public void setScaleRange(float minScale, float maxScale) {
+        mMinScale = minScale;
+        mMaxScale = maxScale;
+    }
+
+    public float getMinScale() {
+        return mMinScale;
+    }
+
+    public float getMaxScale() {
+        return mMaxScale;
+    }
+
+    /**
+     * 以 (x, y) 为中心缩放，缩放后的比例限制在 [minScale, maxScale]，画面有旋转时按 {@link AffineTransform2D#getScale()} 计算
+     *
+     * @return 实际生效的缩放倍数，1 表示已在边界上未缩放
+     */
+    public float postScale(AffineTransform2D matrix, float scale, float x, float y) {
+        float curScale = matrix.getScale();
+        if (scale < 1 && Math.abs(curScale - mMinScale) < SCALE_EPSILON) {
+            return 1;
+        } else if (scale > 1 && Math.abs(curScale - mMaxScale) < SCALE_EPSILON) {
+            return 1;
+        }
+        float newScale = curScale * scale;
+        if (scale < 1 && newScale < mMinScale) {
+            scale = mMinScale / curScale;
+        } else if (scale > 1 && newScale > mMaxScale) {
+            scale = mMaxScale / curScale;
+        }
+        matrix.postScale(scale, scale, x, y);
+        return scale;
+    }
+
+    /**
+     * 双指缩放一次回调的变换：以起始焦点缩放，再跟随焦点移动平移
+     *
+     * @param diffScale    相对上次回调的缩放倍数
+     * @param scaleCenterX 缩放中心
+     * @param scaleCenterY 缩放中心
+     * @param focusDx      焦点相对上次回调的位移
+     * @param focusDy      焦点相对上次回调的位移
+     */
+    public void applyScale(AffineTransform2D matrix, float diffScale, float scaleCenterX, float scaleCenterY,
+                           float focusDx, float focusDy) {
+        postScale(matrix, diffScale, scaleCenterX, scaleCenterY);
+        matrix.postTranslate(focusDx, focusDy);
+    }
+
+    /**
+     * 画面铺满 View 时的 {@link #computeScaleEnd(AffineTransform2D, float[], float, float, AffineTransform2D)}
+     */
+    public boolean computeScaleEnd(AffineTransform2D current, float width, float height, AffineTransform2D out) {
+        setViewRect(width, height);
+        return computeScaleEnd(current, mViewRect, width, height, out);
+    }
+
+    /**
+     * 计算缩放结束后动画终点，按实际画面区域（不含黑边）计算：
+     * <p>
+     * 1. 某个方向上画面小于 View：该方向居中
+     * 2. 某个方向上画面大于 View：若有边缘移入 View 内部，平移吸附到 View 边缘
+     * <p>
+     * 缩小（scale <= 1）时总是执行结束动画
+     *
+     * @param current     当前变换
+     * @param contentRect 未经手势变换时画面在 View 中的区域 {left, top, right, bottom}，不会被修改
+     * @param width       View 宽度
+     * @param height      View 高度
+     * @param out         动画终点矩阵
+     * @return 是否需要执行结束动画
+     */
+    public boolean computeScaleEnd(AffineTransform2D current, float[] contentRect, float width, float height,
+                                   AffineTransform2D out) {
+        float scale = current.getScale();
+        if (scale <= 0) {
+            return false;
+        }
+        float[] rect = mapContentRect(current, contentRect);
+        float transX = computeSnap(rect[0], rect[2], width);
+        float transY = computeSnap(rect[1], rect[3], height);
+        if (scale <= 1.0F || transX != 0 || transY != 0) {
+            out.set(current);
+            out.postTranslate(transX, transY);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 计算双指旋转结束后对齐到最近 90 度的矩阵：缩放倍数不变，画面中心位置不变
+     * <p>
+     * 比较 |cos|、|sin| 即可确定最近的 90 度，不需要计算角度；结果的旋转分量为精确值，
+     * 之后可按 {@link #computeScaleEnd} 计算吸边
+     *
+     * @param current     当前变换
+     * @param contentRect 未经手势变换时画面在 View 中的区域，以其中心为旋转中心，不会被修改
+     * @param out         对齐后的矩阵
+     * @return 是否需要旋转对齐，当前已对齐时返回 false
+     */
+    public boolean computeRotationSnap(AffineTransform2D current, float[] contentRect, AffineTransform2D out) {
+        float a = current.getScaleX();
+        float b = current.getSkewX();
+        float c = current.getSkewY();
+        float d = current.getScaleY();
+        // 已是 90 度的整数倍
+        if (b == 0 && c == 0 && a == d || a == 0 && d == 0 && b == -c) {
+            return false;
+        }
+        float scale = current.getScale();
+        if (scale <= 0) {
+            return false;
+        }
+        float cos;
+        float sin;
+        if (Math.abs(a) >= Math.abs(c)) {
+            cos = Math.signum(a);
+            sin = 0;
+        } else {
+            cos = 0;
+            sin = Math.signum(c);
+        }
+        float scaleX = scale * cos;
+        float skewX = -scale * sin;
+        float skewY = scale * sin;
+        float scaleY = scale * cos;
+        // 画面中心变换前后位置不变
+        float cx = (contentRect[0] + contentRect[2]) / 2;
+        float cy = (contentRect[1] + contentRect[3]) / 2;
+        float px = a * cx + b * cy + current.getTransX();
+        float py = c * cx + d * cy + current.getTransY();
+        out.set(scaleX, skewX, px - scaleX * cx - skewX * cy, skewY, scaleY, py - skewY * cx - scaleY * cy);
+        return true;
+    }
+
+    /**
+     * 画面铺满 View 时的 {@link #computeTranslateBounds(AffineTransform2D, float[], float, float, float[])}
+     */
+    public void computeTranslateBounds(AffineTransform2D current, float width, float height, float[] out) {
+        setViewRect(width, height);
+        computeTranslateBounds(current, mViewRect, width, height, out);
+    }
+
+    /**
+     * 计算放大画面可平移的范围：平移后画面边缘不进入 View 内部，即与 {@link #computeScaleEnd} 吸边后的位置一致
+     * <p>
+     * 画面在某个方向上小于 View 时，该方向不可平移
+     *
+     * @param current     当前变换
+     * @param contentRect 未经手势变换时画面在 View 中的区域，不会被修改
+     * @param width       View 宽度
+     * @param height      View 高度
+     * @param out         相对当前位置的平移范围：{minDx, maxDx, minDy, maxDy}
+     */
+    public void computeTranslateBounds(AffineTransform2D current, float[] contentRect, float width, float height,
+                                       float[] out) {
+        float[] rect = mapContentRect(current, contentRect);
+        if (rect[2] - rect[0] >= width) {
+            out[0] = width - rect[2];
+            out[1] = -rect[0];
+        } else {
+            out[0] = 0;
+            out[1] = 0;
+        }
+        if (rect[3] - rect[1] >= height) {
+            out[2] = height - rect[3];
+            out[3] = -rect[1];
+        } else {
+            out[2] = 0;
+            out[3] = 0;
+        }
+    }
+
+    /**
+     * 一个方向上的吸边/居中平移量
+     */
+    private static float computeSnap(float start, float end, float size) {
+        if (end - start <= size) { // 小于 View，居中
+            return (size - start - end) / 2;
+        } else if (start > 0) { // 起始边移入内部，吸附到起始边
+            return -start;
+        } else if (end < size) { // 结束边移入内部，吸附到结束边
+            return size - end;
+        }
+        return 0;
+    }
+
+    private float[] mapContentRect(AffineTransform2D current, float[] contentRect) {
+        float[] rect = mRect;
+        rect[0] = contentRect[0];
+        rect[1] = contentRect[1];
+        rect[2] = contentRect[2];
+        rect[3] = contentRect[3];
+        // 测量经过缩放位移变换后的播放画面位置
+        current.mapRect(rect);
+        return rect;
+    }
+
+    private void setViewRect(float width, float height) {
+        mViewRect[0] = 0;
+        mViewRect[1] = 0;
+        mViewRect[2] = width;
+        mViewRect[3] = height;
+    }
+}
@@ -0,0 +1,52 @@
+package cn.yinxm.media.video.gesture.touch.ui;
+
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * 还原按钮、比例提示在容器中的区域
+ * <p>
+ * 多个播放器共用一个手势层时，提示要落在当前手势的播放器上，而不是整个手势层居中；
+ * 区域为空时铺满容器，与单播放器时一致。布局加载前只记录区域，加载后再应用
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+final class TouchOverlayBounds {
+    private final Rect mBounds = new Rect();
+
+    /**
+     * @return 区域是否变化
+     */
+    boolean set(int left, int top, int right, int bottom) {
+        if (mBounds.left == left && mBounds.top == top && mBounds.right == right && mBounds.bottom == bottom) {
+            return false;
+        }
+        mBounds.set(left, top, right, bottom);
+        return true;
+    }
+
+    /**
+     * 按区域设置 View 的宽高与左上边距，容器需为 FrameLayout 等使用 MarginLayoutParams 的布局
+     */
+    void apply(View content) {
+        ViewGroup.LayoutParams params = content.getLayoutParams();
+        if (!(params instanceof ViewGroup.MarginLayoutParams)) {
+            return;
+        }
+        ViewGroup.MarginLayoutParams marginParams = (ViewGroup.MarginLayoutParams) params;
+        if (mBounds.isEmpty()) {
+            marginParams.width = ViewGroup.LayoutParams.MATCH_PARENT;
+            marginParams.height = ViewGroup.LayoutParams.MATCH_PARENT;
+            marginParams.leftMargin = 0;
+            marginParams.topMargin = 0;
+        } else {
+            marginParams.width = mBounds.width();
+            marginParams.height = mBounds.height();
+            marginParams.leftMargin = mBounds.left;
+            marginParams.topMargin = mBounds.top;
+        }
+        content.setLayoutParams(marginParams);
+    }
+}
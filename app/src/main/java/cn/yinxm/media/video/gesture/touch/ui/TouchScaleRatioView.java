@@ -0,0 +1,127 @@
+package cn.yinxm.media.video.gesture.touch.ui;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.core.os.TraceCompat;
+
+import cn.yinxm.media.video.R;
+
+/**
+ * 缩放比例提示：替代每次 onScale 都创建 Toast
+ * <p>
+ * 文本写入复用的 char 数组，比例值不变时不刷新，缩放过程中不产生对象分配；
+ * 与还原按钮一样第一次显示时才 inflate 布局，播放器启动时不加载
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class TouchScaleRatioView {
+    /** 缩放结束后提示停留时间 */
+    private static final int HIDE_DELAY = 1000;
+    private static final String TRACE_INFLATE = "TouchScaleRatioView.inflate";
+
+    private Context mContext;
+    private ViewGroup mContainer;
+    private View mScaleRatioContent;
+    private TextView mScaleRatioView;
+    private final TouchOverlayBounds mBounds = new TouchOverlayBounds();
+    private final char[] mRatioChars = new char[12];
+    private int mLastRatio = -1;
+
+    private final Runnable mHideRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mScaleRatioContent.setVisibility(View.GONE);
+        }
+    };
+
+    public TouchScaleRatioView(Context context, ViewGroup container) {
+        mContext = context;
+        mContainer = container;
+    }
+
+    private void inflate() {
+        TraceCompat.beginSection(TRACE_INFLATE);
+        try {
+            View view = LayoutInflater.from(mContext).inflate(R.layout.touch_scale_ratio_view, mContainer);
+            mScaleRatioContent = view.findViewById(R.id.view_scale_ratio);
+            mScaleRatioView = view.findViewById(R.id.tv_scale_ratio);
+            mBounds.apply(mScaleRatioContent);
+        } finally {
+            TraceCompat.endSection();
+        }
+    }
+
+    /**
+     * 是否已加载布局
+     */
+    public boolean isInflated() {
+        return mScaleRatioContent != null;
+    }
+
+    /**
+     * 设置提示所在区域（容器坐标），多个播放器共用容器时为当前手势的播放器区域；区域为空时铺满容器
+     */
+    public void setBounds(int left, int top, int right, int bottom) {
+        if (mBounds.set(left, top, right, bottom) && mScaleRatioContent != null) {
+            mBounds.apply(mScaleRatioContent);
+        }
+    }
+
+    /**
+     * 显示缩放比例，第一次显示时加载布局
+     *
+     * @param ratio 百分比，如 150 表示 150%，非负
+     */
+    public void showRatio(int ratio) {
+        if (mScaleRatioContent == null) {
+            inflate();
+        }
+        mScaleRatioContent.removeCallbacks(mHideRunnable);
+        if (mScaleRatioContent.getVisibility() != View.VISIBLE) {
+            mScaleRatioContent.setVisibility(View.VISIBLE);
+        }
+        if (ratio == mLastRatio) {
+            return;
+        }
+        mLastRatio = ratio;
+        int len = formatRatio(ratio, mRatioChars);
+        mScaleRatioView.setText(mRatioChars, 0, len);
+    }
+
+    /**
+     * 延迟隐藏比例提示，未加载布局时不做处理
+     */
+    public void hideDelayed() {
+        if (mScaleRatioContent == null) {
+            return;
+        }
+        mScaleRatioContent.removeCallbacks(mHideRunnable);
+        mScaleRatioContent.postDelayed(mHideRunnable, HIDE_DELAY);
+    }
+
+    /**
+     * 将比例值格式化为 "xx%"，写入 out
+     *
+     * @return 写入的字符数
+     */
+    private static int formatRatio(int ratio, char[] out) {
+        int len = 0;
+        do {
+            out[len++] = (char) ('0' + ratio % 10);
+            ratio /= 10;
+        } while (ratio > 0 && len < out.length - 1);
+        // 数字逆序写入，翻转
+        for (int i = 0, j = len - 1; i < j; i++, j--) {
+            char c = out[i];
+            out[i] = out[j];
+            out[j] = c;
+        }
+        out[len++] = '%';
+        return len;
+    }
+}
@@ -5,33 +5,80 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import androidx.core.os.TraceCompat;
+
 import cn.yinxm.media.video.R;
 
 /**
+ * 缩放还原按钮
  * <p>
+ * 按钮很少显示，与 ViewStub 一样延迟到第一次显示时才 inflate 布局并加入容器，
+ * 播放器启动时不产生布局加载开销，未显示前也不参与容器的 measure/layout
  *
  * @author yinxuming
  * @date 2020/11/25
  */
 public abstract class TouchScaleResetView implements View.OnClickListener {
+    private static final String TRACE_INFLATE = "TouchScaleResetView.inflate";
+
     private Context mContext;
+    private ViewGroup mContainer;
     private View mScaleResetContent;
     private View mScaleResetView;
+    private final TouchOverlayBounds mBounds = new TouchOverlayBounds();
 
     public TouchScaleResetView(Context context, ViewGroup container) {
         mContext = context;
-        View view = LayoutInflater.from(mContext).inflate(R.layout.touch_scale_rest_view, container);
-        mScaleResetContent = view.findViewById(R.id.view_scale_reset);
-        mScaleResetView = view.findViewById(R.id.tv_scale_reset);
-        mScaleResetView.setOnClickListener(this);
+        mContainer = container;
+    }
+
+    private void inflate() {
+        TraceCompat.beginSection(TRACE_INFLATE);
+        try {
+            View view = LayoutInflater.from(mContext).inflate(R.layout.touch_scale_rest_view, mContainer);
+            mScaleResetContent = view.findViewById(R.id.view_scale_reset);
+            mScaleResetView = view.findViewById(R.id.tv_scale_reset);
+            mScaleResetView.setOnClickListener(this);
+            mBounds.apply(mScaleResetContent);
+        } finally {
+            TraceCompat.endSection();
+        }
     }
 
+    /**
+     * 是否已加载布局
+     */
+    public boolean isInflated() {
+        return mScaleResetContent != null;
+    }
+
+    /**
+     * 设置按钮所在区域（容器坐标），多个播放器共用容器时为当前手势的播放器区域；区域为空时铺满容器
+     */
+    public void setBounds(int left, int top, int right, int bottom) {
+        if (mBounds.set(left, top, right, bottom) && mScaleResetContent != null) {
+            mBounds.apply(mScaleResetContent);
+        }
+    }
+
+    /**
+     * 第一次设置为 VISIBLE 时加载布局；未加载时隐藏不做任何处理
+     */
     public void setVisibility(int visibility) {
+        if (mScaleResetContent == null) {
+            if (visibility != View.VISIBLE) {
+                return;
+            }
+            inflate();
+        }
         mScaleResetContent.setVisibility(visibility);
     }
 
+    /**
+     * @return 未加载布局时为 GONE，与布局中的初始状态一致
+     */
     public int getVisibility() {
-        return mScaleResetContent.getVisibility();
+        return mScaleResetContent != null ? mScaleResetContent.getVisibility() : View.GONE;
     }
 
     @Override
@@ -0,0 +1,191 @@
+package cn.yinxm.media.video.gesture.trace;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 触摸轨迹：按时间顺序保存 MotionEvent 的每个采样（含历史采样）
+ * <p>
+ * 每条记录对应一个采样：时间、action、各触点 id 与坐标；同一个 MotionEvent 的历史采样与当前采样
+ * 连续存放，除第一条外带 {@link #FLAG_BATCHED} 标记，回放时据此还原 MotionEvent 的批量结构
+ * <p>
+ * 纯 Java 实现，二进制格式：
+ * <pre>
+ * int magic "GTRC", int version, int size,
+ * size * { long eventTime, short action, byte flags, byte pointerCount,
+ *          pointerCount * { byte pointerId, float x, float y } }
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class GestureTrace {
+    /** 每条记录最多保存的触点数，覆盖常见触摸屏同时上报的 10 个触点 */
+    public static final int MAX_POINTERS = 10;
+    /** 该采样与上一条记录属于同一个 MotionEvent */
+    public static final int FLAG_BATCHED = 1;
+    /** 该采样的触点数超过 {@link #MAX_POINTERS}，只保存了前 MAX_POINTERS 个 */
+    public static final int FLAG_POINTERS_DROPPED = 1 << 1;
+
+    private static final int MAGIC = 0x47545243; // "GTRC"
+    private static final int VERSION = 1;
+
+    final long[] mEventTimes;
+    final short[] mActions;
+    final byte[] mFlags;
+    final byte[] mPointerCounts;
+    final byte[] mPointerIds;
+    final float[] mXs;
+    final float[] mYs;
+    int mSize;
+
+    public GestureTrace(int capacity) {
+        mEventTimes = new long[capacity];
+        mActions = new short[capacity];
+        mFlags = new byte[capacity];
+        mPointerCounts = new byte[capacity];
+        mPointerIds = new byte[capacity * MAX_POINTERS];
+        mXs = new float[capacity * MAX_POINTERS];
+        mYs = new float[capacity * MAX_POINTERS];
+    }
+
+    public int getCapacity() {
+        return mEventTimes.length;
+    }
+
+    public int getSize() {
+        return mSize;
+    }
+
+    public void clear() {
+        mSize = 0;
+    }
+
+    /**
+     * 追加一条采样记录，容量已满时忽略
+     *
+     * @return 记录下标，容量已满返回 -1
+     */
+    public int add(long eventTime, int action, int flags, int pointerCount) {
+        if (mSize >= mEventTimes.length) {
+            return -1;
+        }
+        int index = mSize++;
+        set(index, eventTime, action, flags, pointerCount);
+        return index;
+    }
+
+    void set(int index, long eventTime, int action, int flags, int pointerCount) {
+        mEventTimes[index] = eventTime;
+        mActions[index] = (short) action;
+        mFlags[index] = (byte) flags;
+        mPointerCounts[index] = (byte) Math.min(pointerCount, MAX_POINTERS);
+    }
+
+    public void setPointer(int index, int pointer, int pointerId, float x, float y) {
+        int offset = index * MAX_POINTERS + pointer;
+        mPointerIds[offset] = (byte) pointerId;
+        mXs[offset] = x;
+        mYs[offset] = y;
+    }
+
+    public long getEventTime(int index) {
+        return mEventTimes[index];
+    }
+
+    public int getAction(int index) {
+        return mActions[index] & 0xFFFF;
+    }
+
+    public int getActionMasked(int index) {
+        return mActions[index] & 0xFF;
+    }
+
+    public boolean isBatched(int index) {
+        return (mFlags[index] & FLAG_BATCHED) != 0;
+    }
+
+    public boolean isPointersDropped(int index) {
+        return (mFlags[index] & FLAG_POINTERS_DROPPED) != 0;
+    }
+
+    public int getPointerCount(int index) {
+        return mPointerCounts[index];
+    }
+
+    public int getPointerId(int index, int pointer) {
+        return mPointerIds[index * MAX_POINTERS + pointer];
+    }
+
+    public float getX(int index, int pointer) {
+        return mXs[index * MAX_POINTERS + pointer];
+    }
+
+    public float getY(int index, int pointer) {
+        return mYs[index * MAX_POINTERS + pointer];
+    }
+
+    /**
+     * 从 src 拷贝一条记录到 index
+     */
+    void copyRecord(GestureTrace src, int srcIndex, int index) {
+        mEventTimes[index] = src.mEventTimes[srcIndex];
+        mActions[index] = src.mActions[srcIndex];
+        mFlags[index] = src.mFlags[srcIndex];
+        mPointerCounts[index] = src.mPointerCounts[srcIndex];
+        System.arraycopy(src.mPointerIds, srcIndex * MAX_POINTERS, mPointerIds, index * MAX_POINTERS, MAX_POINTERS);
+        System.arraycopy(src.mXs, srcIndex * MAX_POINTERS, mXs, index * MAX_POINTERS, MAX_POINTERS);
+        System.arraycopy(src.mYs, srcIndex * MAX_POINTERS, mYs, index * MAX_POINTERS, MAX_POINTERS);
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(mSize);
+        for (int i = 0; i < mSize; i++) {
+            out.writeLong(mEventTimes[i]);
+            out.writeShort(mActions[i]);
+            out.writeByte(mFlags[i]);
+            int pointerCount = mPointerCounts[i];
+            out.writeByte(pointerCount);
+            for (int p = 0; p < pointerCount; p++) {
+                int offset = i * MAX_POINTERS + p;
+                out.writeByte(mPointerIds[offset]);
+                out.writeFloat(mXs[offset]);
+                out.writeFloat(mYs[offset]);
+            }
+        }
+        out.flush();
+    }
+
+    public static GestureTrace readFrom(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a gesture trace");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("unsupported gesture trace version: " + version);
+        }
+        int size = in.readInt();
+        GestureTrace trace = new GestureTrace(size);
+        for (int i = 0; i < size; i++) {
+            long eventTime = in.readLong();
+            short action = in.readShort();
+            byte flags = in.readByte();
+            int pointerCount = in.readByte();
+            if (pointerCount < 0 || pointerCount > MAX_POINTERS) {
+                throw new IOException("invalid pointer count: " + pointerCount);
+            }
+            trace.add(eventTime, action, flags, pointerCount);
+            for (int p = 0; p < pointerCount; p++) {
+                trace.setPointer(i, p, in.readByte(), in.readFloat(), in.readFloat());
+            }
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,146 @@
+package cn.yinxm.media.video.gesture.trace;
+
+import android.view.MotionEvent;
+
+import cn.yinxm.media.video.util.VideoLog;
+
+/**
+ * 触摸轨迹录制：将 MotionEvent 的触点数据写入预分配的环形缓冲区
+ * <p>
+ * 录制过程不分配对象，缓冲区写满后覆盖最早的采样；需要导出时通过 {@link #snapshot} 按时间顺序拷出
+ * <p>
+ * 触点数超过 {@link GestureTrace#MAX_POINTERS} 时只保存前 MAX_POINTERS 个，记录带
+ * {@link GestureTrace#FLAG_POINTERS_DROPPED} 标记并计数，每次手势输出一次警告日志
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class GestureTraceRecorder {
+    private static final String TAG = "GestureTraceRecorder";
+    /** 默认缓冲采样数，120Hz 下约 30s */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final GestureTrace mRing;
+    private int mHead;
+    private int mCount;
+    private boolean mEnabled = true;
+    /** 丢弃过触点的 MotionEvent 个数 */
+    private int mDroppedEventCount;
+    /** 本次手势是否已输出过丢弃触点的日志 */
+    private boolean mDropLogged;
+
+    public GestureTraceRecorder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public GestureTraceRecorder(int capacity) {
+        mRing = new GestureTrace(capacity);
+    }
+
+    public void setEnabled(boolean enabled) {
+        mEnabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * 录制一个触摸事件，包含其历史采样
+     */
+    public void record(MotionEvent event) {
+        if (!mEnabled) {
+            return;
+        }
+        int action = event.getAction();
+        int actionMasked = event.getActionMasked();
+        if (actionMasked == MotionEvent.ACTION_DOWN) {
+            mDropLogged = false;
+        }
+        int pointerCount = event.getPointerCount();
+        int dropFlag = 0;
+        if (pointerCount > GestureTrace.MAX_POINTERS) {
+            dropFlag = GestureTrace.FLAG_POINTERS_DROPPED;
+            mDroppedEventCount++;
+            if (!mDropLogged) {
+                mDropLogged = true;
+                VideoLog.w(TAG, "pointer count {} exceeds trace limit, extra pointers dropped", pointerCount);
+            }
+            // 按下、抬起的触点未被保存时，回放中无法还原该触点，记为 MOVE
+            if ((actionMasked == MotionEvent.ACTION_POINTER_DOWN || actionMasked == MotionEvent.ACTION_POINTER_UP)
+                    && event.getActionIndex() >= GestureTrace.MAX_POINTERS) {
+                action = MotionEvent.ACTION_MOVE;
+            }
+            pointerCount = GestureTrace.MAX_POINTERS;
+        }
+        int historySize = event.getHistorySize();
+        for (int h = 0; h < historySize; h++) {
+            int index = next(event.getHistoricalEventTime(h), action,
+                    (h == 0 ? 0 : GestureTrace.FLAG_BATCHED) | dropFlag, pointerCount);
+            for (int p = 0; p < pointerCount; p++) {
+                mRing.setPointer(index, p, event.getPointerId(p),
+                        event.getHistoricalX(p, h), event.getHistoricalY(p, h));
+            }
+        }
+        int index = next(event.getEventTime(), action,
+                (historySize == 0 ? 0 : GestureTrace.FLAG_BATCHED) | dropFlag, pointerCount);
+        for (int p = 0; p < pointerCount; p++) {
+            mRing.setPointer(index, p, event.getPointerId(p), event.getX(p), event.getY(p));
+        }
+    }
+
+    private int next(long eventTime, int action, int flags, int pointerCount) {
+        int capacity = mRing.getCapacity();
+        int index = (mHead + mCount) % capacity;
+        if (mCount < capacity) {
+            mCount++;
+        } else {
+            mHead = (mHead + 1) % capacity;
+        }
+        mRing.set(index, eventTime, action, flags, pointerCount);
+        return index;
+    }
+
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * @return 因触点数超过 {@link GestureTrace#MAX_POINTERS} 而丢弃过触点的 MotionEvent 个数，非 0 时回放与实际触摸不完全一致
+     */
+    public int getDroppedEventCount() {
+        return mDroppedEventCount;
+    }
+
+    public void clear() {
+        mHead = 0;
+        mCount = 0;
+        mDroppedEventCount = 0;
+    }
+
+    /**
+     * 按时间顺序导出当前缓冲的采样
+     * <p>
+     * 缓冲区被覆盖时，开头可能是某个 MotionEvent 被截断的批量采样，导出时跳过
+     *
+     * @param out 输出轨迹，容量不足时只导出最新的部分
+     */
+    public void snapshot(GestureTrace out) {
+        out.clear();
+        int capacity = mRing.getCapacity();
+        int skip = Math.max(0, mCount - out.getCapacity());
+        int start = skip;
+        while (start < mCount && mRing.isBatched((mHead + start) % capacity)) {
+            start++;
+        }
+        for (int i = start; i < mCount; i++) {
+            out.copyRecord(mRing, (mHead + i) % capacity, out.mSize++);
+        }
+    }
+
+    public GestureTrace snapshot() {
+        GestureTrace trace = new GestureTrace(mCount);
+        snapshot(trace);
+        return trace;
+    }
+}
@@ -0,0 +1,112 @@
+package cn.yinxm.media.video.gesture.trace;
+
+import android.view.InputDevice;
+import android.view.MotionEvent;
+
+import cn.yinxm.media.video.gesture.touch.IGestureLayer;
+
+/**
+ * 触摸轨迹回放：将 {@link GestureTrace} 还原为 MotionEvent，依次分发给 {@link IGestureLayer}
+ * <p>
+ * 经 GestureLayer → ScaleGestureDetector → VideoScaleGestureListener → VideoTouchScaleHandler
+ * 完整走一遍手势流程，记录每个事件的分发耗时，用于 Robolectric/JVM 测试中复现问题、对比不同版本的行为与性能
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class GestureTraceReplayer {
+
+    /**
+     * 回放结果
+     */
+    public static class Result {
+        /** 每个 MotionEvent 的分发耗时，单位 ns */
+        public final long[] eventNanos;
+        /** 回放的 MotionEvent 个数 */
+        public int eventCount;
+        /** 总耗时，单位 ns */
+        public long totalNanos;
+        /** 单个事件最大耗时，单位 ns */
+        public long maxNanos;
+
+        Result(int capacity) {
+            eventNanos = new long[capacity];
+        }
+
+        public long getAverageNanos() {
+            return eventCount == 0 ? 0 : totalNanos / eventCount;
+        }
+    }
+
+    private final MotionEvent.PointerProperties[] mPointerProperties =
+            new MotionEvent.PointerProperties[GestureTrace.MAX_POINTERS];
+    private final MotionEvent.PointerCoords[] mPointerCoords =
+            new MotionEvent.PointerCoords[GestureTrace.MAX_POINTERS];
+
+    public GestureTraceReplayer() {
+        for (int i = 0; i < GestureTrace.MAX_POINTERS; i++) {
+            mPointerProperties[i] = new MotionEvent.PointerProperties();
+            mPointerProperties[i].toolType = MotionEvent.TOOL_TYPE_FINGER;
+            mPointerCoords[i] = new MotionEvent.PointerCoords();
+        }
+    }
+
+    /**
+     * 回放轨迹
+     *
+     * @param trace        轨迹
+     * @param gestureLayer 接收事件的手势层
+     * @return 每个事件的耗时，最终矩阵可通过手势层的缩放处理器读取
+     */
+    public Result replay(GestureTrace trace, IGestureLayer gestureLayer) {
+        int size = trace.getSize();
+        Result result = new Result(size);
+        long downTime = size > 0 ? trace.getEventTime(0) : 0;
+        int i = 0;
+        while (i < size) {
+            // 同一个 MotionEvent 的记录：第一条 + 后续 FLAG_BATCHED 记录
+            int end = i + 1;
+            while (end < size && trace.isBatched(end)) {
+                end++;
+            }
+            if (trace.getActionMasked(i) == MotionEvent.ACTION_DOWN) {
+                downTime = trace.getEventTime(i);
+            }
+            MotionEvent event = obtain(trace, i, end, downTime);
+            long start = System.nanoTime();
+            gestureLayer.onGestureTouchEvent(event);
+            long cost = System.nanoTime() - start;
+            event.recycle();
+
+            result.eventNanos[result.eventCount++] = cost;
+            result.totalNanos += cost;
+            result.maxNanos = Math.max(result.maxNanos, cost);
+            i = end;
+        }
+        return result;
+    }
+
+    private MotionEvent obtain(GestureTrace trace, int start, int end, long downTime) {
+        int pointerCount = trace.getPointerCount(start);
+        fillPointers(trace, start, pointerCount);
+        MotionEvent event = MotionEvent.obtain(downTime, trace.getEventTime(start), trace.getAction(start),
+                pointerCount, mPointerProperties, mPointerCoords,
+                0, 0, 1f, 1f, 0, 0, InputDevice.SOURCE_TOUCHSCREEN, 0);
+        for (int i = start + 1; i < end; i++) {
+            fillPointers(trace, i, pointerCount);
+            event.addBatch(trace.getEventTime(i), mPointerCoords, 0);
+        }
+        return event;
+    }
+
+    private void fillPointers(GestureTrace trace, int index, int pointerCount) {
+        for (int p = 0; p < pointerCount; p++) {
+            mPointerProperties[p].id = trace.getPointerId(index, p);
+            MotionEvent.PointerCoords coords = mPointerCoords[p];
+            coords.x = trace.getX(index, p);
+            coords.y = trace.getY(index, p);
+            coords.pressure = 1f;
+            coords.size = 1f;
+        }
+    }
+}
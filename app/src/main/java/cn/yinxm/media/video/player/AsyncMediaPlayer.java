@@ -0,0 +1,564 @@
+package cn.yinxm.media.video.player;
+
+import android.media.MediaPlayer;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Message;
+import android.os.SystemClock;
+import android.view.Surface;
+
+import cn.yinxm.media.video.util.VideoLog;
+
+/**
+ * 在独立的播放控制线程中管理 MediaPlayer 的完整生命周期
+ * <p>
+ * 创建、setDataSource、prepareAsync、reset、release 等耗时调用都在播放线程执行，主线程只投递消息；
+ * MediaPlayer 的回调在播放线程产生，经状态机更新后转发到主线程的 {@link PlayerCallback}
+ * <p>
+ * 每次 {@link #startPlay(String)} 生成新的播放序号，切换地址后旧地址的回调不再下发
+ * <p>
+ * 播放进度同样由播放线程读取后发布，{@link #getCurrentPosition()} 在调用线程只读取发布值，播放中按经过时间外推
+ * <p>
+ * 多个实例可共用一个播放线程（见 {@link PlayerPool}），同一线程内的消息按投递顺序执行
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class AsyncMediaPlayer {
+    private static final String TAG = "AsyncMediaPlayer";
+
+    // 播放线程消息
+    private static final int MSG_OPEN = 1;
+    private static final int MSG_SET_SURFACE = 2;
+    private static final int MSG_START = 3;
+    private static final int MSG_PAUSE = 4;
+    private static final int MSG_SEEK = 5;
+    private static final int MSG_RELEASE = 6;
+    private static final int MSG_RESET = 7;
+    private static final int MSG_UPDATE_POSITION = 8;
+
+    // 主线程回调消息，arg2 为播放序号
+    private static final int CB_STATE = 101;
+    private static final int CB_PREPARED = 102;
+    private static final int CB_COMPLETION = 103;
+    private static final int CB_VIDEO_SIZE = 104;
+    private static final int CB_BUFFERING = 105;
+    private static final int CB_ERROR = 106;
+    private static final int CB_BUFFERING_START = 107;
+    private static final int CB_BUFFERING_END = 108;
+
+    private static final PlayerState[] STATES = PlayerState.values();
+    /** 播放中发布进度的间隔，两次发布之间按经过时间外推 */
+    private static final int POSITION_UPDATE_INTERVAL_MS = 500;
+
+    /** 独占的播放线程，共用外部线程时为 null */
+    private final HandlerThread mPlayerThread;
+    private final Handler mPlayerHandler;
+    private final Handler mMainHandler;
+    private PlayerCallback mCallback;
+
+    /** 只在播放线程创建、调用 */
+    private MediaPlayer mMediaPlayer;
+    private Surface mSurface;
+    /** 当前 MediaPlayer 对应的播放序号，回调中据此判断属于哪次播放 */
+    private int mOpenGeneration;
+
+    private volatile PlayerState mState = PlayerState.IDLE;
+    private volatile int mGeneration;
+    private volatile int mDuration;
+    private volatile String mPlayUrl;
+    private volatile int mVideoWidth, mVideoHeight;
+    private volatile int mBufferPercent;
+    /** 播放中因数据不足卡顿，MEDIA_INFO_BUFFERING_START 到 END 之间 */
+    private volatile boolean mBuffering;
+    private boolean mReleased;
+    /** 播放线程发布的进度及发布时的 uptime，两个值一起读写 */
+    private final Object mPositionLock = new Object();
+    private int mPosition;
+    private long mPositionUptimeMs;
+
+    /** 主线程：本次播放已分发给回调的状态、准备完成与卡顿，补发状态后据此忽略重复的排队消息 */
+    private PlayerState mDispatchedState;
+    private boolean mPreparedDispatched;
+    private boolean mBufferingDispatched;
+
+    public AsyncMediaPlayer() {
+        this(null);
+    }
+
+    /**
+     * @param playerLooper 播放线程，null 时创建独占的播放线程
+     */
+    public AsyncMediaPlayer(Looper playerLooper) {
+        if (playerLooper == null) {
+            mPlayerThread = new HandlerThread("video-player");
+            mPlayerThread.start();
+            playerLooper = mPlayerThread.getLooper();
+        } else {
+            mPlayerThread = null;
+        }
+        mPlayerHandler = new Handler(playerLooper, new Handler.Callback() {
+            @Override
+            public boolean handleMessage(Message msg) {
+                handlePlayerMessage(msg);
+                return true;
+            }
+        });
+        mMainHandler = new Handler(Looper.getMainLooper(), new Handler.Callback() {
+            @Override
+            public boolean handleMessage(Message msg) {
+                dispatchCallback(msg);
+                return true;
+            }
+        });
+    }
+
+    public void setCallback(PlayerCallback callback) {
+        mCallback = callback;
+    }
+
+    /**
+     * 设置回调并补发未设置回调期间（如预加载）错过的尺寸、状态、卡顿与准备完成
+     * <p>
+     * 补发的是当前快照，此前已排队的尺寸、状态、卡顿、准备完成消息随之移除；快照之后才排队的同一状态、
+     * 准备完成不会重复分发
+     */
+    public void attachCallback(PlayerCallback callback) {
+        mCallback = callback;
+        mMainHandler.removeMessages(CB_STATE);
+        mMainHandler.removeMessages(CB_PREPARED);
+        mMainHandler.removeMessages(CB_VIDEO_SIZE);
+        mMainHandler.removeMessages(CB_BUFFERING_START);
+        mMainHandler.removeMessages(CB_BUFFERING_END);
+        if (callback == null) {
+            return;
+        }
+        if (mVideoWidth > 0 && mVideoHeight > 0) {
+            callback.onVideoSizeChanged(mVideoWidth, mVideoHeight);
+        }
+        PlayerState state = mState;
+        dispatchState(callback, state);
+        if (mBuffering) {
+            dispatchBuffering(callback, true);
+        }
+        if (state == PlayerState.PREPARED) {
+            dispatchPrepared(callback);
+        }
+    }
+
+    public PlayerState getState() {
+        return mState;
+    }
+
+    public boolean isInPlaybackState() {
+        return mState.isInPlaybackState();
+    }
+
+    public boolean isPlaying() {
+        return mState == PlayerState.STARTED;
+    }
+
+    public String getPlayUrl() {
+        return mPlayUrl;
+    }
+
+    /**
+     * @return 准备完成后的时长，未准备好时为 0
+     */
+    public int getDuration() {
+        return isInPlaybackState() ? mDuration : 0;
+    }
+
+    /**
+     * @return 最近一次回调的视频宽度，用于未设置回调期间（如预加载）错过的尺寸
+     */
+    public int getVideoWidth() {
+        return mVideoWidth;
+    }
+
+    public int getVideoHeight() {
+        return mVideoHeight;
+    }
+
+    /**
+     * @return 最近一次回调的缓冲百分比
+     */
+    public int getBufferPercentage() {
+        return mBufferPercent;
+    }
+
+    public boolean isBuffering() {
+        return mBuffering;
+    }
+
+    /**
+     * 不访问 MediaPlayer，可在任意线程调用：返回播放线程最近发布的进度，播放中（未卡顿）加上发布后经过的时间
+     */
+    public int getCurrentPosition() {
+        if (!isInPlaybackState()) {
+            return 0;
+        }
+        long position;
+        synchronized (mPositionLock) {
+            position = mPosition;
+            if (mState == PlayerState.STARTED && !mBuffering) {
+                position += SystemClock.uptimeMillis() - mPositionUptimeMs;
+            }
+        }
+        int duration = mDuration;
+        if (duration > 0 && position > duration) {
+            position = duration;
+        }
+        return (int) position;
+    }
+
+    /**
+     * 切换播放地址：复用 MediaPlayer 重置后重新准备，在播放线程执行
+     */
+    public void startPlay(String url) {
+        if (mReleased) {
+            return;
+        }
+        mPlayUrl = url;
+        int generation = ++mGeneration;
+        resetDispatched();
+        mPlayerHandler.obtainMessage(MSG_OPEN, generation, 0, url).sendToTarget();
+    }
+
+    public void setSurface(Surface surface) {
+        if (mReleased) {
+            return;
+        }
+        mPlayerHandler.obtainMessage(MSG_SET_SURFACE, surface).sendToTarget();
+    }
+
+    public void start() {
+        sendPlayerMessage(MSG_START, 0);
+    }
+
+    public void pause() {
+        sendPlayerMessage(MSG_PAUSE, 0);
+    }
+
+    public void seekTo(int pos) {
+        if (mReleased) {
+            return;
+        }
+        if (isInPlaybackState()) {
+            // 进度条拖动后立即读取进度时返回目标位置
+            publishPosition(pos);
+        }
+        sendPlayerMessage(MSG_SEEK, pos);
+    }
+
+    /**
+     * 停止播放并重置为 IDLE，保留 MediaPlayer 实例以便复用
+     */
+    public void reset() {
+        if (mReleased) {
+            return;
+        }
+        mPlayUrl = null;
+        int generation = ++mGeneration;
+        resetDispatched();
+        mPlayerHandler.obtainMessage(MSG_RESET, generation, 0).sendToTarget();
+    }
+
+    /**
+     * 释放播放器，独占的播放线程随之结束；释放后不可再使用
+     */
+    public void release() {
+        if (mReleased) {
+            return;
+        }
+        mReleased = true;
+        mGeneration++;
+        resetDispatched();
+        mPlayerHandler.removeCallbacksAndMessages(null);
+        mMainHandler.removeCallbacksAndMessages(null);
+        mPlayerHandler.sendEmptyMessage(MSG_RELEASE);
+    }
+
+    private void sendPlayerMessage(int what, int arg) {
+        if (mReleased) {
+            return;
+        }
+        mPlayerHandler.obtainMessage(what, arg, mGeneration).sendToTarget();
+    }
+
+    // ------------------------ 播放线程 ------------------------
+
+    private void handlePlayerMessage(Message msg) {
+        switch (msg.what) {
+            case MSG_OPEN:
+                open(msg.arg1, (String) msg.obj);
+                break;
+            case MSG_SET_SURFACE:
+                mSurface = (Surface) msg.obj;
+                if (mMediaPlayer != null) {
+                    mMediaPlayer.setSurface(mSurface);
+                }
+                break;
+            case MSG_START:
+                if (msg.arg2 == mGeneration && mMediaPlayer != null && mState.isInPlaybackState()) {
+                    mMediaPlayer.start();
+                    setState(PlayerState.STARTED, msg.arg2);
+                    updatePosition();
+                }
+                break;
+            case MSG_PAUSE:
+                if (msg.arg2 == mGeneration && mMediaPlayer != null && mState == PlayerState.STARTED) {
+                    mMediaPlayer.pause();
+                    setState(PlayerState.PAUSED, msg.arg2);
+                    updatePosition();
+                }
+                break;
+            case MSG_SEEK:
+                if (msg.arg2 == mGeneration && mMediaPlayer != null && mState.isInPlaybackState()) {
+                    mMediaPlayer.seekTo(msg.arg1);
+                    publishPosition(msg.arg1);
+                }
+                break;
+            case MSG_UPDATE_POSITION:
+                updatePosition();
+                break;
+            case MSG_RESET:
+                if (msg.arg1 == mGeneration && mMediaPlayer != null) {
+                    mMediaPlayer.reset();
+                    mOpenGeneration = msg.arg1;
+                    mDuration = 0;
+                    mVideoWidth = 0;
+                    mVideoHeight = 0;
+                    mBufferPercent = 0;
+                    mBuffering = false;
+                    publishPosition(0);
+                    setState(PlayerState.IDLE, msg.arg1);
+                }
+                break;
+            case MSG_RELEASE:
+                if (mMediaPlayer != null) {
+                    mMediaPlayer.release();
+                    mMediaPlayer = null;
+                }
+                mSurface = null;
+                mState = PlayerState.IDLE;
+                if (mPlayerThread != null) {
+                    Looper.myLooper().quit();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void open(int generation, String url) {
+        if (generation != mGeneration) {
+            // 已有更新的播放地址
+            return;
+        }
+        MediaPlayer mediaPlayer = mMediaPlayer;
+        if (mediaPlayer == null) {
+            mediaPlayer = createMediaPlayer();
+            mMediaPlayer = mediaPlayer;
+        } else {
+            mediaPlayer.reset();
+        }
+        mDuration = 0;
+        mVideoWidth = 0;
+        mVideoHeight = 0;
+        mBufferPercent = 0;
+        mBuffering = false;
+        publishPosition(0);
+        setState(PlayerState.IDLE, generation);
+        mOpenGeneration = generation;
+        try {
+            mediaPlayer.setSurface(mSurface);
+            mediaPlayer.setDataSource(url);
+            mediaPlayer.prepareAsync();
+            setState(PlayerState.PREPARING, generation);
+        } catch (Exception e) {
+            VideoLog.e(TAG, "open " + url, e);
+            setState(PlayerState.ERROR, generation);
+            postCallback(CB_ERROR, MediaPlayer.MEDIA_ERROR_UNKNOWN, generation, null);
+        }
+    }
+
+    private MediaPlayer createMediaPlayer() {
+        MediaPlayer mediaPlayer = new MediaPlayer();
+        mediaPlayer.setOnPreparedListener(new MediaPlayer.OnPreparedListener() {
+            @Override
+            public void onPrepared(MediaPlayer mp) {
+                mDuration = mp.getDuration();
+                setState(PlayerState.PREPARED, mOpenGeneration);
+                updatePosition();
+                postCallback(CB_PREPARED, 0, mOpenGeneration, null);
+            }
+        });
+        mediaPlayer.setOnErrorListener(new MediaPlayer.OnErrorListener() {
+            @Override
+            public boolean onError(MediaPlayer mp, int what, int extra) {
+                VideoLog.e(TAG, "onError {}, what={}, extra={}", mp, what, extra);
+                setState(PlayerState.ERROR, mOpenGeneration);
+                postCallback(CB_ERROR, what, mOpenGeneration, extra);
+                return true;
+            }
+        });
+        mediaPlayer.setOnBufferingUpdateListener(new MediaPlayer.OnBufferingUpdateListener() {
+            @Override
+            public void onBufferingUpdate(MediaPlayer mp, int percent) {
+                mBufferPercent = percent;
+                postCallback(CB_BUFFERING, percent, mOpenGeneration, null);
+            }
+        });
+        mediaPlayer.setOnInfoListener(new MediaPlayer.OnInfoListener() {
+            @Override
+            public boolean onInfo(MediaPlayer mp, int what, int extra) {
+                if (what == MediaPlayer.MEDIA_INFO_BUFFERING_START) {
+                    // 卡顿期间进度不外推
+                    updatePosition();
+                    mBuffering = true;
+                    postCallback(CB_BUFFERING_START, 0, mOpenGeneration, null);
+                    return true;
+                } else if (what == MediaPlayer.MEDIA_INFO_BUFFERING_END) {
+                    // 从恢复时的实际进度开始外推，不计入卡顿时长
+                    updatePosition();
+                    mBuffering = false;
+                    postCallback(CB_BUFFERING_END, 0, mOpenGeneration, null);
+                    return true;
+                }
+                return false;
+            }
+        });
+        mediaPlayer.setOnCompletionListener(new MediaPlayer.OnCompletionListener() {
+            @Override
+            public void onCompletion(MediaPlayer mp) {
+                if (mState == PlayerState.ERROR) {
+                    return;
+                }
+                setState(PlayerState.COMPLETED, mOpenGeneration);
+                publishPosition(mDuration);
+                postCallback(CB_COMPLETION, 0, mOpenGeneration, null);
+            }
+        });
+        mediaPlayer.setOnVideoSizeChangedListener(new MediaPlayer.OnVideoSizeChangedListener() {
+            @Override
+            public void onVideoSizeChanged(MediaPlayer mp, int width, int height) {
+                mVideoWidth = width;
+                mVideoHeight = height;
+                Message msg = mMainHandler.obtainMessage(CB_VIDEO_SIZE, width, mOpenGeneration, height);
+                mMainHandler.sendMessage(msg);
+            }
+        });
+        return mediaPlayer;
+    }
+
+    /**
+     * 播放线程：读取 MediaPlayer 的进度并发布，播放中按间隔继续更新
+     */
+    private void updatePosition() {
+        mPlayerHandler.removeMessages(MSG_UPDATE_POSITION);
+        MediaPlayer mediaPlayer = mMediaPlayer;
+        if (mediaPlayer == null || !mState.isInPlaybackState()) {
+            return;
+        }
+        try {
+            publishPosition(mediaPlayer.getCurrentPosition());
+        } catch (IllegalStateException e) {
+            return;
+        }
+        if (mState == PlayerState.STARTED) {
+            mPlayerHandler.sendEmptyMessageDelayed(MSG_UPDATE_POSITION, POSITION_UPDATE_INTERVAL_MS);
+        }
+    }
+
+    private void publishPosition(int position) {
+        synchronized (mPositionLock) {
+            mPosition = position;
+            mPositionUptimeMs = SystemClock.uptimeMillis();
+        }
+    }
+
+    private void setState(PlayerState state, int generation) {
+        if (generation != mGeneration || mState == state) {
+            return;
+        }
+        mState = state;
+        postCallback(CB_STATE, state.ordinal(), generation, null);
+    }
+
+    private void postCallback(int what, int arg1, int generation, Object obj) {
+        mMainHandler.obtainMessage(what, arg1, generation, obj).sendToTarget();
+    }
+
+    // ------------------------ 主线程 ------------------------
+
+    private void dispatchCallback(Message msg) {
+        PlayerCallback callback = mCallback;
+        if (callback == null || msg.arg2 != mGeneration) {
+            return;
+        }
+        switch (msg.what) {
+            case CB_STATE:
+                dispatchState(callback, STATES[msg.arg1]);
+                break;
+            case CB_PREPARED:
+                dispatchPrepared(callback);
+                break;
+            case CB_COMPLETION:
+                callback.onCompletion();
+                break;
+            case CB_VIDEO_SIZE:
+                callback.onVideoSizeChanged(msg.arg1, (Integer) msg.obj);
+                break;
+            case CB_BUFFERING:
+                callback.onBufferingUpdate(msg.arg1);
+                break;
+            case CB_BUFFERING_START:
+                dispatchBuffering(callback, true);
+                break;
+            case CB_BUFFERING_END:
+                dispatchBuffering(callback, false);
+                break;
+            case CB_ERROR:
+                callback.onError(msg.arg1, msg.obj instanceof Integer ? (Integer) msg.obj : 0);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void dispatchState(PlayerCallback callback, PlayerState state) {
+        if (state == mDispatchedState) {
+            return;
+        }
+        mDispatchedState = state;
+        callback.onStateChanged(state);
+    }
+
+    private void dispatchPrepared(PlayerCallback callback) {
+        if (mPreparedDispatched) {
+            return;
+        }
+        mPreparedDispatched = true;
+        callback.onPrepared();
+    }
+
+    private void dispatchBuffering(PlayerCallback callback, boolean buffering) {
+        if (buffering == mBufferingDispatched) {
+            return;
+        }
+        mBufferingDispatched = buffering;
+        if (buffering) {
+            callback.onBufferingStart();
+        } else {
+            callback.onBufferingEnd();
+        }
+    }
+
+    private void resetDispatched() {
+        mDispatchedState = null;
+        mPreparedDispatched = false;
+        mBufferingDispatched = false;
+    }
+}
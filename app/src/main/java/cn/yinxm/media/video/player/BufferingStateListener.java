@@ -0,0 +1,35 @@
+package cn.yinxm.media.video.player;
+
+/**
+ * 播放中卡顿（缓冲）状态回调，均在主线程执行，按需重写
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public abstract class BufferingStateListener {
+
+    /**
+     * 缓冲进度变化
+     *
+     * @param percent 已缓冲的百分比
+     */
+    public void onBufferingUpdate(int percent) {
+    }
+
+    /**
+     * 开始卡顿
+     *
+     * @param stallCount 本次会话累计卡顿次数，包括本次
+     */
+    public void onStallStart(int stallCount) {
+    }
+
+    /**
+     * 卡顿结束
+     *
+     * @param stallDurationMs 本次卡顿时长
+     * @param totalStallMs    本次会话累计卡顿时长
+     */
+    public void onStallEnd(long stallDurationMs, long totalStallMs) {
+    }
+}
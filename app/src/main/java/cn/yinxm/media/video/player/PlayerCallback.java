@@ -0,0 +1,40 @@
+package cn.yinxm.media.video.player;
+
+/**
+ * 播放器回调，均在主线程执行，按需重写
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public abstract class PlayerCallback {
+
+    public void onStateChanged(PlayerState state) {
+    }
+
+    public void onPrepared() {
+    }
+
+    public void onCompletion() {
+    }
+
+    public void onVideoSizeChanged(int width, int height) {
+    }
+
+    public void onBufferingUpdate(int percent) {
+    }
+
+    /**
+     * 播放中数据不足开始卡顿，对应 MEDIA_INFO_BUFFERING_START
+     */
+    public void onBufferingStart() {
+    }
+
+    /**
+     * 卡顿结束，对应 MEDIA_INFO_BUFFERING_END
+     */
+    public void onBufferingEnd() {
+    }
+
+    public void onError(int what, int extra) {
+    }
+}
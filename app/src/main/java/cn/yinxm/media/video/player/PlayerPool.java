@@ -0,0 +1,146 @@
+package cn.yinxm.media.video.player;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 预热播放器池：提前在后台 prepare 接下来要播放的地址，切换时直接换 Surface 开播，避免重新准备造成的黑屏
+ * <p>
+ * 池中所有播放器共用一个播放线程，旧播放器解绑 Surface 与新播放器绑定 Surface 按投递顺序执行，
+ * 同一个 Surface 不会同时连接两个解码器
+ * <p>
+ * 需在主线程使用
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class PlayerPool {
+    /** 默认预加载的播放器个数 */
+    public static final int DEFAULT_POOL_SIZE = 1;
+
+    private final HandlerThread mPlayerThread;
+    /** 已预加载的播放器，按预加载顺序 */
+    private final List<AsyncMediaPlayer> mPreloadedPlayers = new ArrayList<>();
+    /** 已重置、可复用的播放器 */
+    private final List<AsyncMediaPlayer> mIdlePlayers = new ArrayList<>();
+    private int mPoolSize = DEFAULT_POOL_SIZE;
+    private boolean mReleased;
+
+    public PlayerPool() {
+        mPlayerThread = new HandlerThread("video-player-pool");
+        mPlayerThread.start();
+    }
+
+    /**
+     * 设置预加载的播放器个数，0 关闭预加载；超出的预加载播放器被回收
+     */
+    public void setPoolSize(int poolSize) {
+        mPoolSize = Math.max(0, poolSize);
+        while (mPreloadedPlayers.size() > mPoolSize) {
+            recycle(mPreloadedPlayers.remove(0));
+        }
+    }
+
+    public int getPoolSize() {
+        return mPoolSize;
+    }
+
+    /**
+     * 获取一个播放器，优先复用空闲播放器
+     */
+    public AsyncMediaPlayer obtain() {
+        if (!mIdlePlayers.isEmpty()) {
+            return mIdlePlayers.remove(mIdlePlayers.size() - 1);
+        }
+        return new AsyncMediaPlayer(mPlayerThread.getLooper());
+    }
+
+    /**
+     * 预加载地址：已预加载或池已满时忽略；池满时淘汰最早的预加载
+     */
+    public void preload(String url) {
+        if (mReleased || mPoolSize == 0 || url == null || isPreloaded(url)) {
+            return;
+        }
+        if (mPreloadedPlayers.size() >= mPoolSize) {
+            recycle(mPreloadedPlayers.remove(0));
+        }
+        AsyncMediaPlayer player = obtain();
+        player.setCallback(null);
+        player.startPlay(url);
+        mPreloadedPlayers.add(player);
+    }
+
+    public boolean isPreloaded(String url) {
+        for (int i = 0; i < mPreloadedPlayers.size(); i++) {
+            if (url.equals(mPreloadedPlayers.get(i).getPlayUrl())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 取出已预加载该地址的播放器，没有或预加载出错时返回 null
+     */
+    public AsyncMediaPlayer take(String url) {
+        for (int i = 0; i < mPreloadedPlayers.size(); i++) {
+            AsyncMediaPlayer player = mPreloadedPlayers.get(i);
+            if (url.equals(player.getPlayUrl())) {
+                mPreloadedPlayers.remove(i);
+                if (player.getState() == PlayerState.ERROR) {
+                    recycle(player);
+                    return null;
+                }
+                return player;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 回收播放器：解绑 Surface 并重置，保留 MediaPlayer 实例供下次复用
+     */
+    public void recycle(AsyncMediaPlayer player) {
+        player.setCallback(null);
+        if (mReleased) {
+            player.release();
+            return;
+        }
+        player.setSurface(null);
+        player.reset();
+        if (mIdlePlayers.size() < mPoolSize) {
+            mIdlePlayers.add(player);
+        } else {
+            player.release();
+        }
+    }
+
+    /**
+     * 释放池中所有播放器并结束播放线程；正在使用的播放器需调用方在此之前释放
+     */
+    public void release() {
+        if (mReleased) {
+            return;
+        }
+        mReleased = true;
+        for (int i = 0; i < mPreloadedPlayers.size(); i++) {
+            mPreloadedPlayers.get(i).release();
+        }
+        for (int i = 0; i < mIdlePlayers.size(); i++) {
+            mIdlePlayers.get(i).release();
+        }
+        mPreloadedPlayers.clear();
+        mIdlePlayers.clear();
+        // 已投递的释放消息执行完再结束线程
+        new Handler(mPlayerThread.getLooper()).post(new Runnable() {
+            @Override
+            public void run() {
+                mPlayerThread.quit();
+            }
+        });
+    }
+}
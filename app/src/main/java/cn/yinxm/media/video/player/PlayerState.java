@@ -0,0 +1,31 @@
+package cn.yinxm.media.video.player;
+
+/**
+ * 播放器状态，与 MediaPlayer 的状态机对应
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public enum PlayerState {
+    /** 未设置播放地址，或已重置 */
+    IDLE,
+    /** 已调用 prepareAsync，等待准备完成 */
+    PREPARING,
+    /** 准备完成，可以开始播放 */
+    PREPARED,
+    /** 播放中 */
+    STARTED,
+    /** 已暂停 */
+    PAUSED,
+    /** 播放完成 */
+    COMPLETED,
+    /** 出错，需要重新设置播放地址 */
+    ERROR;
+
+    /**
+     * 是否可以 start/pause/seekTo，以及读取时长、进度
+     */
+    public boolean isInPlaybackState() {
+        return this == PREPARED || this == STARTED || this == PAUSED || this == COMPLETED;
+    }
+}
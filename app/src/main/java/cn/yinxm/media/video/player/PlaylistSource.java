@@ -0,0 +1,15 @@
+package cn.yinxm.media.video.player;
+
+/**
+ * 播放列表，用于预加载下一个播放地址
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public interface PlaylistSource {
+    /**
+     * @param currentUrl 当前播放地址
+     * @return 下一个播放地址，没有下一个时返回 null
+     */
+    String getNextUrl(String currentUrl);
+}
@@ -0,0 +1,115 @@
+package cn.yinxm.media.video.player;
+
+/**
+ * 统计一次播放会话（一个播放地址）内的卡顿：卡顿次数、累计卡顿时长、有效播放时长
+ * <p>
+ * 卡顿区间由 MEDIA_INFO_BUFFERING_START / END 界定，播放时长只统计播放中且未卡顿的时间，
+ * 卡顿率 = 卡顿时长 / (播放时长 + 卡顿时长)
+ * <p>
+ * 时间由调用方传入，纯 Java 实现，只在主线程使用
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class StallTracker {
+    private boolean mPlaying;
+    private boolean mStalled;
+    private int mStallCount;
+    private long mStallTimeMs;
+    private long mPlayTimeMs;
+    private long mStallStartMs;
+    private long mPlayStartMs;
+
+    /**
+     * 开始新的会话，清空统计
+     */
+    public void reset() {
+        mPlaying = false;
+        mStalled = false;
+        mStallCount = 0;
+        mStallTimeMs = 0;
+        mPlayTimeMs = 0;
+        mStallStartMs = 0;
+        mPlayStartMs = 0;
+    }
+
+    /**
+     * 播放器是否处于播放状态（STARTED）
+     */
+    public void setPlaying(boolean playing, long nowMs) {
+        if (mPlaying == playing) {
+            return;
+        }
+        if (!mStalled) {
+            if (playing) {
+                mPlayStartMs = nowMs;
+            } else {
+                mPlayTimeMs += nowMs - mPlayStartMs;
+            }
+        }
+        mPlaying = playing;
+    }
+
+    /**
+     * @return 是否是新的卡顿，重复的开始事件返回 false
+     */
+    public boolean onStallStart(long nowMs) {
+        if (mStalled) {
+            return false;
+        }
+        if (mPlaying) {
+            mPlayTimeMs += nowMs - mPlayStartMs;
+        }
+        mStalled = true;
+        mStallCount++;
+        mStallStartMs = nowMs;
+        return true;
+    }
+
+    /**
+     * @return 本次卡顿时长，没有处于卡顿时返回 -1
+     */
+    public long onStallEnd(long nowMs) {
+        if (!mStalled) {
+            return -1;
+        }
+        long duration = nowMs - mStallStartMs;
+        mStallTimeMs += duration;
+        mStalled = false;
+        if (mPlaying) {
+            mPlayStartMs = nowMs;
+        }
+        return duration;
+    }
+
+    public boolean isStalled() {
+        return mStalled;
+    }
+
+    public int getStallCount() {
+        return mStallCount;
+    }
+
+    /**
+     * @return 累计卡顿时长，包括进行中的卡顿
+     */
+    public long getStallTimeMs(long nowMs) {
+        return mStalled ? mStallTimeMs + nowMs - mStallStartMs : mStallTimeMs;
+    }
+
+    /**
+     * @return 累计有效播放时长，不含卡顿
+     */
+    public long getPlayTimeMs(long nowMs) {
+        return mPlaying && !mStalled ? mPlayTimeMs + nowMs - mPlayStartMs : mPlayTimeMs;
+    }
+
+    /**
+     * @return 卡顿率，没有播放时为 0
+     */
+    public float getRebufferRatio(long nowMs) {
+        long stall = getStallTimeMs(nowMs);
+        long total = stall + getPlayTimeMs(nowMs);
+        return total <= 0 ? 0 : (float) stall / total;
+    }
+}
@@ -0,0 +1,58 @@
+package cn.yinxm.media.video.surface;
+
+import android.graphics.Matrix;
+
+/**
+ * 视频画面渲染 View，手势缩放通过它更新画面变换，不依赖具体的渲染方式：
+ * <p>
+ * 1. {@link SimpleTextureViewPlayer}：TextureView#setTransform，由系统合成
+ * 2. {@link cn.yinxm.media.video.surface.gl.GLVideoSurfaceView}：变换矩阵作为 uniform 传给 GLES2 着色器
+ * <p>
+ * 宽高、invalidate 与 View 的同名方法一致
+ * <p>
+ * 画面依次经过适配（{@link VideoScaleType}）、旋转、手势三层变换，由渲染 View 通过 {@link VideoTransformComposer} 组合，
+ * {@link #setVideoTransform(Matrix)} / {@link #getVideoTransform(Matrix)} 读写的只是手势矩阵
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public interface IVideoRenderView {
+    int getWidth();
+
+    int getHeight();
+
+    /**
+     * 设置手势变换矩阵，坐标为 View 像素坐标，与 TextureView#setTransform 一致，作用在适配后的画面上；矩阵会被拷贝
+     */
+    void setVideoTransform(Matrix transform);
+
+    /**
+     * 读取当前手势变换矩阵
+     */
+    Matrix getVideoTransform(Matrix transform);
+
+    /**
+     * 视频尺寸变化时调用，只重新计算适配矩阵，不触发布局
+     */
+    void setVideoSize(int width, int height);
+
+    void setScaleType(VideoScaleType scaleType);
+
+    VideoScaleType getScaleType();
+
+    /**
+     * 以 View 中心顺时针旋转画面，取最接近的 90 的整数倍，旋转后按交换宽高的尺寸适配
+     */
+    void setVideoRotation(int degrees);
+
+    int getVideoRotation();
+
+    /**
+     * 未经手势变换时画面在 View 中的实际区域（不含黑边），用于吸边、居中计算
+     *
+     * @param out {left, top, right, bottom}
+     */
+    void getContentRect(float[] out);
+
+    void invalidate();
+}
@@ -1,44 +1,156 @@
 package cn.yinxm.media.video.surface;
 
 import android.content.Context;
+import android.graphics.Matrix;
 import android.graphics.SurfaceTexture;
-import android.media.MediaPlayer;
+import android.os.SystemClock;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.view.KeyEvent;
 import android.view.MotionEvent;
 import android.view.Surface;
 import android.view.TextureView;
-import android.view.ViewGroup;
 import android.widget.MediaController;
 
-import java.io.IOException;
-
-import cn.yinxm.lib.utils.log.LogUtil;
+import cn.yinxm.media.video.cache.CacheProxyServer;
+import cn.yinxm.media.video.cache.VideoPrefetcher;
 import cn.yinxm.media.video.controller.VideoPlayController;
+import cn.yinxm.media.video.player.AsyncMediaPlayer;
+import cn.yinxm.media.video.player.BufferingStateListener;
+import cn.yinxm.media.video.player.PlayerCallback;
+import cn.yinxm.media.video.player.PlayerPool;
+import cn.yinxm.media.video.player.PlayerState;
+import cn.yinxm.media.video.player.PlaylistSource;
+import cn.yinxm.media.video.player.StallTracker;
+import cn.yinxm.media.video.surface.stats.FrameStatsCollector;
+import cn.yinxm.media.video.util.FrameLogSampler;
+import cn.yinxm.media.video.util.VideoLog;
 
 /**
  * MediaPlayer + TextureView 播放视频
  * <p>
+ * MediaPlayer 由 {@link AsyncMediaPlayer} 在播放控制线程中管理，主线程只接收状态与回调
  *
  * @author yinxuming
  * @date 2020/7/6
  */
 public class SimpleTextureViewPlayer extends TextureView implements TextureView.SurfaceTextureListener,
-        VideoPlayController {
+        VideoPlayController, IVideoRenderView {
     private static final String TAG = "SimpleTextureViewPlayer";
 
-    private MediaPlayer mMediaPlayer;
+    /** 播放控制线程中的 MediaPlayer */
+    private AsyncMediaPlayer mPlayer;
+    /** 预加载播放器池，与 mPlayer 共用播放线程 */
+    private PlayerPool mPlayerPool;
+    private PlaylistSource mPlaylistSource;
+    /** 本地缓存代理，为 null 时直接播放原地址 */
+    private CacheProxyServer mCacheProxy;
+    /** 播放列表头部预取，为 null 时不预取 */
+    private VideoPrefetcher mPrefetcher;
+    private int mPrefetchCount;
     SurfaceTexture mSurfaceTexture;
     Surface mSurface;
     String mPlayUrl;
     private int mVideoWidth, mVideoHeight;
+    /** 手势矩阵 * 适配矩阵，视频尺寸变化只改变换矩阵，不重新布局 */
+    private final VideoTransformComposer mTransformComposer = new VideoTransformComposer();
+    private final float[] mMatrixValues = new float[9];
+    private final Matrix mDisplayMatrix = new Matrix();
     private MediaController mMediaController;
 
 
-    private MediaPlayer.OnPreparedListener mOnPreparedListener;
-    private MediaPlayer.OnCompletionListener mOnCompletionListener;
-    private MediaPlayer.OnVideoSizeChangedListener mOnVideoSizeChangedListener;
+    private PlayerCallback mPlayerCallback;
+    private BufferingStateListener mBufferingStateListener;
+    /** 当前播放地址的卡顿统计 */
+    private final StallTracker mStallTracker = new StallTracker();
+    /** 每个解码帧都会回调 onSurfaceTextureUpdated，只做采样日志 */
+    private final FrameLogSampler mFrameLogSampler = new FrameLogSampler(TAG, "surface update");
+    /** 播放帧统计，设置监听后创建 */
+    private FrameStatsCollector mFrameStats;
+    /** 转发当前播放器的回调 */
+    private final PlayerCallback mInnerCallback = new PlayerCallback() {
+        @Override
+        public void onPrepared() {
+            if (mPlayerCallback != null) {
+                mPlayerCallback.onPrepared();
+            }
+            // 当前地址准备完成后再预加载，避免与当前地址争抢带宽；先预加载，预取跳过已预加载的地址
+            preloadNext();
+            prefetchNext();
+        }
+
+        @Override
+        public void onStateChanged(PlayerState state) {
+            mStallTracker.setPlaying(state == PlayerState.STARTED, SystemClock.elapsedRealtime());
+            if (mPlayerCallback != null) {
+                mPlayerCallback.onStateChanged(state);
+            }
+        }
+
+        @Override
+        public void onCompletion() {
+            VideoLog.d(TAG, "onCompletion {}", mPlayUrl);
+            if (mPlayerCallback != null) {
+                mPlayerCallback.onCompletion();
+            }
+        }
+
+        @Override
+        public void onVideoSizeChanged(int width, int height) {
+            VideoLog.d(TAG, "onVideoSizeChanged w={}, h={}", width, height);
+            mVideoWidth = width;
+            mVideoHeight = height;
+            setVideoSize(width, height);
+            if (mPlayerCallback != null) {
+                mPlayerCallback.onVideoSizeChanged(width, height);
+            }
+        }
+
+        @Override
+        public void onBufferingUpdate(int percent) {
+            if (mPrefetcher != null) {
+                mPrefetcher.onBufferingUpdate(percent, getCurrentPosition(), getDuration());
+            }
+            if (mPlayerCallback != null) {
+                mPlayerCallback.onBufferingUpdate(percent);
+            }
+            if (mBufferingStateListener != null) {
+                mBufferingStateListener.onBufferingUpdate(percent);
+            }
+        }
+
+        @Override
+        public void onBufferingStart() {
+            if (!mStallTracker.onStallStart(SystemClock.elapsedRealtime())) {
+                return;
+            }
+            VideoLog.d(TAG, "stall start {}, count={}", mPlayUrl, mStallTracker.getStallCount());
+            if (mPrefetcher != null) {
+                // 卡顿时把带宽让给当前视频，恢复由之后的缓冲进度决定
+                mPrefetcher.setPaused(true);
+            }
+            if (mPlayerCallback != null) {
+                mPlayerCallback.onBufferingStart();
+            }
+            if (mBufferingStateListener != null) {
+                mBufferingStateListener.onStallStart(mStallTracker.getStallCount());
+            }
+        }
+
+        @Override
+        public void onBufferingEnd() {
+            endStall();
+            if (mPlayerCallback != null) {
+                mPlayerCallback.onBufferingEnd();
+            }
+        }
+
+        @Override
+        public void onError(int what, int extra) {
+            if (mPlayerCallback != null) {
+                mPlayerCallback.onError(what, extra);
+            }
+        }
+    };
 
 
     public SimpleTextureViewPlayer(Context context) {
@@ -56,82 +168,14 @@ public class SimpleTextureViewPlayer extends TextureView implements TextureView.
 
     private void init(Context context) {
         setSurfaceTextureListener(this);
-    }
-
-    private void initMedia() {
-
-        if (mMediaPlayer != null) {
-            try {
-                mMediaPlayer.release();
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-            mMediaPlayer = null;
-        }
-
-        mMediaPlayer = new MediaPlayer();
-        updateSurface(mSurface);
-        mMediaPlayer.setOnPreparedListener(new MediaPlayer.OnPreparedListener() {
-            @Override
-            public void onPrepared(MediaPlayer mp) {
-//                if (getVisibility() != VISIBLE) {
-//                    setVisibility(View.VISIBLE);
-////                    mTextureView.requestLayout(mp.getVideoWidth(), mp.getVideoHeight());
-//                }
-//                mp.start();
-
-                if (mOnPreparedListener != null) {
-                    mOnPreparedListener.onPrepared(mp);
-                }
-            }
-        });
-        mMediaPlayer.setOnErrorListener(new MediaPlayer.OnErrorListener() {
-            @Override
-            public boolean onError(MediaPlayer mp, int what, int extra) {
-                Log.e(TAG, "onError " + mp + ", what=" + what + ", " + extra);
-
-                return true;
-            }
-        });
-
-        mMediaPlayer.setOnBufferingUpdateListener(new MediaPlayer.OnBufferingUpdateListener() {
-            @Override
-            public void onBufferingUpdate(MediaPlayer mp, int percent) {
-                //此方法获取的是缓冲的状态
-                Log.e(TAG, "缓冲中:" + percent);
-            }
-        });
-
-        //播放完成的监听
-        mMediaPlayer.setOnCompletionListener(new MediaPlayer.OnCompletionListener() {
-            @Override
-            public void onCompletion(MediaPlayer mp) {
-                Log.d(TAG, "onCompletion " + mp);
-//                    mState = VideoState.init;
-                if (mOnCompletionListener != null) {
-                    mOnCompletionListener.onCompletion(mp);
-                }
-            }
-        });
-
-        mMediaPlayer.setOnVideoSizeChangedListener(new MediaPlayer.OnVideoSizeChangedListener() {
-            @Override
-            public void onVideoSizeChanged(MediaPlayer mp, int width, int height) {
-                LogUtil.d(TAG, "onVideoSizeChanged w=" + width + ", h=" + height);
-                mVideoWidth = mp.getVideoWidth();
-                mVideoHeight = mp.getVideoHeight();
-                if (mOnVideoSizeChangedListener != null) {
-                    mOnVideoSizeChangedListener.onVideoSizeChanged(mp, width, height);
-                }/* else {
-                    updateVideoSize(mVideoWidth, mVideoHeight);
-                }*/
-            }
-        });
+        mPlayerPool = new PlayerPool();
+        mPlayer = mPlayerPool.obtain();
+        mPlayer.setCallback(mInnerCallback);
     }
 
     @Override
     public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
-        Log.e(TAG, "onSurfaceTextureAvailable surface=" + surface + ", w=" + width + ", h=" + height);
+        VideoLog.d(TAG, "onSurfaceTextureAvailable surface={}, w={}, h={}", surface, width, height);
         mSurfaceTexture = surface;
         mSurface = new Surface(mSurfaceTexture);
         updateSurface(mSurface);
@@ -139,69 +183,183 @@ public class SimpleTextureViewPlayer extends TextureView implements TextureView.
 
     @Override
     public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
-        Log.e(TAG, "onSurfaceTextureSizeChanged surface=" + surface + ", w=" + width + ", h=" + height);
+        VideoLog.d(TAG, "onSurfaceTextureSizeChanged surface={}, w={}, h={}", surface, width, height);
 
     }
 
     @Override
     public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
-        Log.e(TAG, "onSurfaceTextureDestroyed surface=" + surface);
+        VideoLog.d(TAG, "onSurfaceTextureDestroyed surface={}", surface);
         updateSurface(null);
         return false;
     }
 
     @Override
     public void onSurfaceTextureUpdated(SurfaceTexture surface) {
-        Log.d(TAG, "onSurfaceTextureUpdated surface=" + surface); // 会不断回调
+        mFrameLogSampler.onEvent(); // 每帧回调
+        if (mFrameStats != null) {
+            mFrameStats.onFrame(surface.getTimestamp(), System.nanoTime());
+        }
 
     }
 
     private void updateSurface(Surface surface) {
-        if (mMediaPlayer == null) {
-            return;
+        mPlayer.setSurface(surface);
+    }
+
+    @Override
+    public void setVideoTransform(Matrix transform) {
+        transform.getValues(mMatrixValues);
+        mTransformComposer.setUserValues(mMatrixValues);
+        applyTransform();
+    }
+
+    @Override
+    public Matrix getVideoTransform(Matrix transform) {
+        if (transform == null) {
+            transform = new Matrix();
+        }
+        mTransformComposer.getUserValues(mMatrixValues);
+        transform.setValues(mMatrixValues);
+        return transform;
+    }
+
+    /**
+     * 视频尺寸变化，按适配方式更新变换矩阵
+     */
+    @Override
+    public void setVideoSize(int width, int height) {
+        if (mTransformComposer.setVideoSize(width, height)) {
+            applyTransform();
+        }
+    }
+
+    /**
+     * 设置画面适配方式，默认 {@link VideoScaleType#FIT}
+     */
+    @Override
+    public void setScaleType(VideoScaleType scaleType) {
+        if (mTransformComposer.setScaleType(scaleType)) {
+            applyTransform();
         }
-        mMediaPlayer.setSurface(surface);
+    }
+
+    @Override
+    public VideoScaleType getScaleType() {
+        return mTransformComposer.getScaleType();
+    }
+
+    @Override
+    public void setVideoRotation(int degrees) {
+        if (mTransformComposer.setRotation(degrees)) {
+            applyTransform();
+        }
+    }
+
+    @Override
+    public int getVideoRotation() {
+        return mTransformComposer.getRotation();
+    }
+
+    @Override
+    public void getContentRect(float[] out) {
+        mTransformComposer.getContentRect(out);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (mTransformComposer.setViewSize(w, h)) {
+            applyTransform();
+        }
+    }
+
+    private void applyTransform() {
+        mTransformComposer.getDisplayValues(mMatrixValues);
+        mDisplayMatrix.setValues(mMatrixValues);
+        setTransform(mDisplayMatrix);
     }
 
     @Override
     public void start() {
-        if (isPlayerReady()) {
-            mMediaPlayer.start();
+        if (isInPlaybackState()) {
+            mPlayer.start();
         }
     }
 
     @Override
     public void pause() {
         if (isPlaying()) {
-            mMediaPlayer.pause();
+            mPlayer.pause();
+            onFrameDiscontinuity();
         }
     }
 
     @Override
     public int getDuration() {
-        return isPlayerReady() ? mMediaPlayer.getDuration() : 0;
+        return mPlayer.getDuration();
     }
 
     @Override
     public int getCurrentPosition() {
-        return isPlayerReady() ? mMediaPlayer.getCurrentPosition() : 0;
+        return mPlayer.getCurrentPosition();
     }
 
     @Override
     public void seekTo(int pos) {
-        if (isPlayerReady()) {
-            mMediaPlayer.seekTo(pos);
+        if (isInPlaybackState()) {
+            mPlayer.seekTo(pos);
+            onFrameDiscontinuity();
         }
     }
 
     @Override
     public boolean isPlaying() {
-        return isPlayerReady() && mMediaPlayer.isPlaying();
+        return mPlayer.isPlaying();
     }
 
     @Override
     public int getBufferPercentage() {
-        return 0;
+        return mPlayer.getBufferPercentage();
+    }
+
+    @Override
+    public boolean isBuffering() {
+        return mStallTracker.isStalled();
+    }
+
+    @Override
+    public int getStallCount() {
+        return mStallTracker.getStallCount();
+    }
+
+    @Override
+    public long getTotalStallTimeMs() {
+        return mStallTracker.getStallTimeMs(SystemClock.elapsedRealtime());
+    }
+
+    @Override
+    public float getRebufferRatio() {
+        return mStallTracker.getRebufferRatio(SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * 卡顿状态回调，在主线程执行；统计按播放地址区分，{@link #startPlay(String)} 时清空
+     */
+    @Override
+    public void setBufferingStateListener(BufferingStateListener listener) {
+        mBufferingStateListener = listener;
+    }
+
+    private void endStall() {
+        long duration = mStallTracker.onStallEnd(SystemClock.elapsedRealtime());
+        if (duration < 0) {
+            return;
+        }
+        VideoLog.d(TAG, "stall end {}, duration={}", mPlayUrl, duration);
+        if (mBufferingStateListener != null) {
+            mBufferingStateListener.onStallEnd(duration, mStallTracker.getStallTimeMs(SystemClock.elapsedRealtime()));
+        }
     }
 
     @Override
@@ -229,61 +387,166 @@ public class SimpleTextureViewPlayer extends TextureView implements TextureView.
 //        mTextureView.setSurfaceTextureListener(this);
 //    }
 
+    /**
+     * 切换播放地址，创建、重置、准备播放器都在播放控制线程执行，不阻塞主线程；
+     * 该地址已预加载时直接切换到预加载的播放器
+     */
     public void startPlay(String url) {
+        // 上一个地址的卡顿在切换时结束，开始新的统计
+        endStall();
+        mStallTracker.reset();
+        if (mFrameStats != null) {
+            mFrameStats.reset();
+        }
         mPlayUrl = url;
-        try {
-            initMedia();
-            mMediaPlayer.setDataSource(mPlayUrl);
-        } catch (IOException e) {
-            e.printStackTrace();
+        String dataSource = toDataSource(url);
+        AsyncMediaPlayer preloaded = mPlayerPool.take(dataSource);
+        if (mPrefetcher != null) {
+            if (preloaded != null) {
+                mPrefetcher.recordPreloadedPlay();
+            } else {
+                mPrefetcher.recordPlay(url);
+            }
+        }
+        if (preloaded != null) {
+            switchPlayer(preloaded);
+        } else {
+            mPlayer.startPlay(dataSource);
         }
-        mMediaPlayer.prepareAsync();
-        updateSurface(mSurface);
     }
 
-    public String getPlayUrl() {
-        return mPlayUrl;
+    /**
+     * 设置本地缓存代理，之后播放、预加载的地址都经代理读缓存或回源
+     */
+    public void setCacheProxy(CacheProxyServer cacheProxy) {
+        mCacheProxy = cacheProxy;
     }
 
-    public void setOnCompletionListener(MediaPlayer.OnCompletionListener onCompletionListener) {
-        mOnCompletionListener = onCompletionListener;
+    /**
+     * 播放器实际使用的地址
+     */
+    private String toDataSource(String url) {
+        return mCacheProxy != null ? mCacheProxy.getProxyUrl(url) : url;
     }
 
-    public void setOnPreparedListener(MediaPlayer.OnPreparedListener onPreparedListener) {
-        mOnPreparedListener = onPreparedListener;
+    /**
+     * 切换到已预加载的播放器：旧播放器解绑 Surface 后回收，新播放器绑定 Surface
+     */
+    private void switchPlayer(AsyncMediaPlayer player) {
+        AsyncMediaPlayer old = mPlayer;
+        mPlayer = player;
+        mPlayerPool.recycle(old);
+        player.setSurface(mSurface);
+        // 预加载期间没有设置回调，补发已错过的状态，已排队的回调不会重复分发
+        player.attachCallback(mInnerCallback);
     }
 
-    public void setOnVideoSizeChangedListener(MediaPlayer.OnVideoSizeChangedListener onVideoSizeChangedListener) {
-        mOnVideoSizeChangedListener = onVideoSizeChangedListener;
+    /**
+     * 设置播放列表，设置后当前地址准备完成时自动预加载后续地址
+     */
+    public void setPlaylistSource(PlaylistSource playlistSource) {
+        mPlaylistSource = playlistSource;
     }
 
     /**
-     * 缩放画面尺寸：根据视频匡高比例，以及显示区域匡高比例，取最小比例值，缩放
-     *
-     * @param width
-     * @param height
+     * 设置预加载的播放器个数，默认 {@link PlayerPool#DEFAULT_POOL_SIZE}，0 关闭预加载
      */
-    public void updateVideoSize(int width, int height) {
-        if (width <= 0 || height <= 0) {
+    public void setPreloadCount(int count) {
+        mPlayerPool.setPoolSize(count);
+    }
+
+    /**
+     * 按播放列表预加载当前地址之后的地址
+     */
+    public void preloadNext() {
+        if (mPlaylistSource == null) {
             return;
         }
-        int surWidth = getWidth();
-        int surHeight = getHeight();
-        if (surHeight <= 0 || surHeight <= 0) {
+        String url = mPlayUrl;
+        for (int i = 0; i < mPlayerPool.getPoolSize(); i++) {
+            url = mPlaylistSource.getNextUrl(url);
+            if (url == null || url.equals(mPlayUrl)) {
+                break;
+            }
+            mPlayerPool.preload(toDataSource(url));
+        }
+    }
+
+    /**
+     * 设置头部预取，当前地址准备完成后预取播放列表中之后的 count 个地址，需要同时设置缓存代理才能命中；
+     * 已由播放器池预加载的地址不预取，避免同一地址的头部同时下载两次
+     */
+    public void setPrefetcher(VideoPrefetcher prefetcher, int count) {
+        mPrefetcher = prefetcher;
+        mPrefetchCount = count;
+    }
+
+    /**
+     * 按播放列表预取当前地址之后地址的头部
+     */
+    public void prefetchNext() {
+        if (mPrefetcher == null || mPlaylistSource == null) {
+            return;
+        }
+        String url = mPlayUrl;
+        for (int i = 0; i < mPrefetchCount; i++) {
+            url = mPlaylistSource.getNextUrl(url);
+            if (url == null || url.equals(mPlayUrl)) {
+                break;
+            }
+            if (mPlayerPool.isPreloaded(toDataSource(url))) {
+                continue;
+            }
+            mPrefetcher.prefetch(url);
+        }
+    }
+
+    /**
+     * 设置播放帧统计回调，按 {@link FrameStatsCollector#DEFAULT_REPORT_INTERVAL_MS} 周期在主线程回调；
+     * 传 null 关闭统计
+     */
+    public void setOnFrameStatsListener(FrameStatsCollector.OnFrameStatsListener listener) {
+        if (listener == null) {
+            mFrameStats = null;
             return;
         }
-        LogUtil.d(TAG, "video:(" + width + ", " + height + "), view:(" + surWidth + ", " + surHeight + ")");
-        // 等比例缩放
-        int wSca = surWidth / width;
-        int hSca = surHeight / height;
+        if (mFrameStats == null) {
+            mFrameStats = new FrameStatsCollector();
+        }
+        mFrameStats.setOnFrameStatsListener(listener);
+    }
 
-        int scale = Math.min(wSca, hSca);
-        ViewGroup.LayoutParams params = getLayoutParams();
-        params.width = scale * width;
-        params.height = scale * height;
-        setLayoutParams(params);
+    /**
+     * 暂停、seek 后帧间隔不连续，不计入丢帧与抖动
+     */
+    private void onFrameDiscontinuity() {
+        if (mFrameStats != null) {
+            mFrameStats.discontinuity();
+        }
     }
 
+    public String getPlayUrl() {
+        return mPlayUrl;
+    }
+
+    public PlayerState getPlayerState() {
+        return mPlayer.getState();
+    }
+
+    /**
+     * 播放器回调，均在主线程执行
+     */
+    public void setPlayerCallback(PlayerCallback playerCallback) {
+        mPlayerCallback = playerCallback;
+    }
+
+    /**
+     * 释放播放器，页面销毁时调用
+     */
+    public void release() {
+        mPlayer.release();
+        mPlayerPool.release();
+    }
 
     // 按键相关
     public void setMediaController(MediaController controller) {
@@ -302,7 +565,7 @@ public class SimpleTextureViewPlayer extends TextureView implements TextureView.
         if (isInPlaybackState() && isKeyCodeSupported && mMediaController != null) {
             if (keyCode == KeyEvent.KEYCODE_HEADSETHOOK ||
                     keyCode == KeyEvent.KEYCODE_MEDIA_PLAY_PAUSE) {
-                if (mMediaPlayer.isPlaying()) {
+                if (isPlaying()) {
                     pause();
                     mMediaController.show();
                 } else {
@@ -311,14 +574,14 @@ public class SimpleTextureViewPlayer extends TextureView implements TextureView.
                 }
                 return true;
             } else if (keyCode == KeyEvent.KEYCODE_MEDIA_PLAY) {
-                if (!mMediaPlayer.isPlaying()) {
+                if (!isPlaying()) {
                     start();
                     mMediaController.hide();
                 }
                 return true;
             } else if (keyCode == KeyEvent.KEYCODE_MEDIA_STOP
                     || keyCode == KeyEvent.KEYCODE_MEDIA_PAUSE) {
-                if (mMediaPlayer.isPlaying()) {
+                if (isPlaying()) {
                     pause();
                     mMediaController.show();
                 }
@@ -350,7 +613,7 @@ public class SimpleTextureViewPlayer extends TextureView implements TextureView.
     }
 
     private boolean isInPlaybackState() {
-        return true;
+        return mPlayer.isInPlaybackState();
     }
 
     private void toggleMediaControlsVisiblity() {
@@ -360,8 +623,4 @@ public class SimpleTextureViewPlayer extends TextureView implements TextureView.
             mMediaController.show();
         }
     }
-
-    private boolean isPlayerReady() {
-        return mMediaPlayer != null;
-    }
 }
@@ -0,0 +1,93 @@
+package cn.yinxm.media.video.surface;
+
+import cn.yinxm.media.video.gesture.touch.transform.AffineTransform2D;
+
+/**
+ * 按 {@link VideoScaleType} 计算画面适配矩阵
+ * <p>
+ * 渲染 View 不设置变换时，视频被拉伸铺满整个 View；适配矩阵把铺满的画面缩放到目标尺寸并居中：
+ * <pre>
+ * scaleX = 显示宽度 / View 宽度，transX = (View 宽度 - 显示宽度) / 2，y 方向同理
+ * </pre>
+ * 只改变变换矩阵，不改变 View 尺寸，视频尺寸变化不触发重新布局。纯 Java 实现，计算过程不分配对象
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public final class VideoFitCalculator {
+
+    private VideoFitCalculator() {
+    }
+
+    /**
+     * @param out 适配矩阵；尺寸无效时为单位矩阵
+     * @return 尺寸是否有效
+     */
+    public static boolean compute(VideoScaleType scaleType, int videoWidth, int videoHeight,
+                                  int viewWidth, int viewHeight, AffineTransform2D out) {
+        return compute(scaleType, videoWidth, videoHeight, viewWidth, viewHeight, 0, out);
+    }
+
+    /**
+     * 画面之后还会以 View 中心旋转 rotation 度时的适配矩阵：旋转 90、270 度时按交换宽高后的视频尺寸适配，
+     * 旋转前的画面尺寸为适配结果交换宽高
+     *
+     * @param rotation 顺时针旋转角度，只支持 90 的整数倍
+     * @param out      适配矩阵；尺寸无效时为单位矩阵
+     * @return 尺寸是否有效
+     */
+    public static boolean compute(VideoScaleType scaleType, int videoWidth, int videoHeight,
+                                  int viewWidth, int viewHeight, int rotation, AffineTransform2D out) {
+        out.reset();
+        if (videoWidth <= 0 || videoHeight <= 0 || viewWidth <= 0 || viewHeight <= 0) {
+            return false;
+        }
+        boolean swap = isQuarterTurn(rotation);
+        if (swap) {
+            int temp = videoWidth;
+            videoWidth = videoHeight;
+            videoHeight = temp;
+        }
+        float displayWidth;
+        float displayHeight;
+        switch (scaleType) {
+            case FILL:
+                displayWidth = viewWidth;
+                displayHeight = viewHeight;
+                break;
+            case ORIGINAL:
+                displayWidth = videoWidth;
+                displayHeight = videoHeight;
+                break;
+            case CROP: {
+                float scale = Math.max((float) viewWidth / videoWidth, (float) viewHeight / videoHeight);
+                displayWidth = videoWidth * scale;
+                displayHeight = videoHeight * scale;
+                break;
+            }
+            case FIT:
+            default: {
+                float scale = Math.min((float) viewWidth / videoWidth, (float) viewHeight / videoHeight);
+                displayWidth = videoWidth * scale;
+                displayHeight = videoHeight * scale;
+                break;
+            }
+        }
+        if (swap) {
+            float temp = displayWidth;
+            displayWidth = displayHeight;
+            displayHeight = temp;
+        }
+        out.set(displayWidth / viewWidth, 0, (viewWidth - displayWidth) / 2,
+                0, displayHeight / viewHeight, (viewHeight - displayHeight) / 2);
+        return true;
+    }
+
+    /**
+     * @return 是否旋转 90 或 270 度
+     */
+    public static boolean isQuarterTurn(int rotation) {
+        int normalized = ((rotation % 360) + 360) % 360;
+        return normalized == 90 || normalized == 270;
+    }
+}
@@ -0,0 +1,18 @@
+package cn.yinxm.media.video.surface;
+
+/**
+ * 视频画面在渲染 View 中的适配方式，由 {@link VideoFitCalculator} 计算为画面变换矩阵
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public enum VideoScaleType {
+    /** 等比缩放，完整显示在 View 内，可能留黑边 */
+    FIT,
+    /** 拉伸铺满 View，不保持宽高比；TextureView 不设置变换时的效果 */
+    FILL,
+    /** 等比缩放铺满 View，超出部分裁剪 */
+    CROP,
+    /** 按视频原始像素尺寸居中显示，不缩放 */
+    ORIGINAL
+}
@@ -0,0 +1,150 @@
+package cn.yinxm.media.video.surface;
+
+import cn.yinxm.media.video.gesture.touch.transform.AffineTransform2D;
+
+/**
+ * 分层组合画面变换，依次作用：
+ * <pre>
+ * 显示矩阵 = 用户矩阵（手势缩放平移） * 旋转矩阵（以 View 中心旋转） * 适配矩阵（{@link VideoScaleType}）
+ * </pre>
+ * 适配、旋转两层合并为基础矩阵缓存，只在视频尺寸、View 尺寸、适配方式、旋转角度变化时重新计算；
+ * 显示矩阵在读取时按需重新组合，手势每帧只做一次矩阵乘法
+ * <p>
+ * 手势只读写用户矩阵，坐标仍为 View 像素坐标，不感知适配与旋转；吸边等计算通过 {@link #getContentRect(float[])}
+ * 获取基础矩阵作用后的实际画面区域。纯 Java 实现，计算过程不分配对象
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public final class VideoTransformComposer {
+    private VideoScaleType mScaleType = VideoScaleType.FIT;
+    private int mVideoWidth, mVideoHeight;
+    private int mViewWidth, mViewHeight;
+    /** 顺时针旋转角度，90 的整数倍 */
+    private int mRotation;
+
+    private final AffineTransform2D mFit = new AffineTransform2D();
+    private final AffineTransform2D mRotate = new AffineTransform2D();
+    private final AffineTransform2D mUser = new AffineTransform2D();
+    /** 旋转 * 适配 */
+    private final AffineTransform2D mBase = new AffineTransform2D();
+    private final AffineTransform2D mDisplay = new AffineTransform2D();
+    private boolean mBaseDirty;
+    private boolean mDisplayDirty;
+
+    /**
+     * @return 是否变化，变化后需要重新应用显示矩阵
+     */
+    public boolean setScaleType(VideoScaleType scaleType) {
+        if (scaleType == null || mScaleType == scaleType) {
+            return false;
+        }
+        mScaleType = scaleType;
+        invalidateBase();
+        return true;
+    }
+
+    public VideoScaleType getScaleType() {
+        return mScaleType;
+    }
+
+    public boolean setVideoSize(int width, int height) {
+        if (mVideoWidth == width && mVideoHeight == height) {
+            return false;
+        }
+        mVideoWidth = width;
+        mVideoHeight = height;
+        invalidateBase();
+        return true;
+    }
+
+    public boolean setViewSize(int width, int height) {
+        if (mViewWidth == width && mViewHeight == height) {
+            return false;
+        }
+        mViewWidth = width;
+        mViewHeight = height;
+        invalidateBase();
+        return true;
+    }
+
+    /**
+     * @param degrees 顺时针旋转角度，取最接近的 90 的整数倍
+     */
+    public boolean setRotation(int degrees) {
+        int rotation = Math.round(degrees / 90F) * 90 % 360;
+        if (rotation < 0) {
+            rotation += 360;
+        }
+        if (mRotation == rotation) {
+            return false;
+        }
+        mRotation = rotation;
+        invalidateBase();
+        return true;
+    }
+
+    public int getRotation() {
+        return mRotation;
+    }
+
+    /**
+     * @param values Matrix#getValues 的 9 个值
+     */
+    public void setUserValues(float[] values) {
+        mUser.setValues(values);
+        mDisplayDirty = true;
+    }
+
+    public void getUserValues(float[] values) {
+        mUser.getValues(values);
+    }
+
+    /**
+     * @return 基础矩阵（旋转 * 适配），只读
+     */
+    public AffineTransform2D getBaseTransform() {
+        updateBase();
+        return mBase;
+    }
+
+    /**
+     * 未经手势变换时画面在 View 中的实际区域（不含黑边）
+     *
+     * @param out {left, top, right, bottom}
+     */
+    public void getContentRect(float[] out) {
+        updateBase();
+        out[0] = 0;
+        out[1] = 0;
+        out[2] = mViewWidth;
+        out[3] = mViewHeight;
+        mBase.mapRect(out);
+    }
+
+    public void getDisplayValues(float[] values) {
+        if (mDisplayDirty) {
+            updateBase();
+            mDisplay.set(mBase);
+            mDisplay.postConcat(mUser);
+            mDisplayDirty = false;
+        }
+        mDisplay.getValues(values);
+    }
+
+    private void invalidateBase() {
+        mBaseDirty = true;
+        mDisplayDirty = true;
+    }
+
+    private void updateBase() {
+        if (!mBaseDirty) {
+            return;
+        }
+        VideoFitCalculator.compute(mScaleType, mVideoWidth, mVideoHeight, mViewWidth, mViewHeight, mRotation, mFit);
+        mRotate.setRotate(mRotation, mViewWidth / 2F, mViewHeight / 2F);
+        mBase.set(mFit);
+        mBase.postConcat(mRotate);
+        mBaseDirty = false;
+    }
+}
@@ -0,0 +1,180 @@
+package cn.yinxm.media.video.surface.gl;
+
+import android.content.Context;
+import android.graphics.Matrix;
+import android.opengl.GLSurfaceView;
+import android.util.AttributeSet;
+import android.view.Surface;
+
+import cn.yinxm.media.video.surface.IVideoRenderView;
+import cn.yinxm.media.video.surface.VideoScaleType;
+import cn.yinxm.media.video.surface.VideoTransformComposer;
+
+/**
+ * GLSurfaceView + GLES2 渲染视频，TextureView 之外的另一种渲染方式
+ * <p>
+ * 画面由独立的 Surface 合成，不经过 TextureView 的额外合成与拷贝；缩放平移矩阵作为着色器 uniform 生效。
+ * 播放器通过 {@link OnVideoSurfaceListener} 拿到解码输出的 Surface，例如 MediaPlayer#setSurface
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class GLVideoSurfaceView extends GLSurfaceView implements IVideoRenderView {
+
+    /**
+     * 视频输出 Surface 回调，在主线程执行
+     */
+    public interface OnVideoSurfaceListener {
+        void onVideoSurfaceCreated(Surface surface);
+
+        void onVideoSurfaceDestroyed();
+    }
+
+    private final VideoGLRenderer mRenderer;
+    private final float[] mMatrixValues = new float[9];
+    /** 手势矩阵 * 适配矩阵 */
+    private final VideoTransformComposer mTransformComposer = new VideoTransformComposer();
+    private OnVideoSurfaceListener mOnVideoSurfaceListener;
+    private Surface mSurface;
+
+    public GLVideoSurfaceView(Context context) {
+        this(context, null);
+    }
+
+    public GLVideoSurfaceView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        setEGLContextClientVersion(2);
+        mRenderer = new VideoGLRenderer(this);
+        mRenderer.setOnSurfaceListener(new VideoGLRenderer.OnSurfaceListener() {
+            @Override
+            public void onSurfaceCreated(final Surface surface) {
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        mSurface = surface;
+                        if (mOnVideoSurfaceListener != null) {
+                            mOnVideoSurfaceListener.onVideoSurfaceCreated(surface);
+                        }
+                    }
+                });
+            }
+
+            @Override
+            public void onSurfaceDestroyed() {
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        mSurface = null;
+                        if (mOnVideoSurfaceListener != null) {
+                            mOnVideoSurfaceListener.onVideoSurfaceDestroyed();
+                        }
+                    }
+                });
+            }
+        });
+        setRenderer(mRenderer);
+        // 有新的视频帧或矩阵变化时才绘制
+        setRenderMode(RENDERMODE_WHEN_DIRTY);
+    }
+
+    public void setOnVideoSurfaceListener(OnVideoSurfaceListener onVideoSurfaceListener) {
+        mOnVideoSurfaceListener = onVideoSurfaceListener;
+        if (mSurface != null && onVideoSurfaceListener != null) {
+            onVideoSurfaceListener.onVideoSurfaceCreated(mSurface);
+        }
+    }
+
+    /**
+     * @return 解码输出的 Surface，GL 环境未创建时为 null
+     */
+    public Surface getSurface() {
+        return mSurface;
+    }
+
+    @Override
+    public void setVideoTransform(Matrix transform) {
+        transform.getValues(mMatrixValues);
+        mTransformComposer.setUserValues(mMatrixValues);
+        applyTransform();
+    }
+
+    @Override
+    public Matrix getVideoTransform(Matrix transform) {
+        if (transform == null) {
+            transform = new Matrix();
+        }
+        mTransformComposer.getUserValues(mMatrixValues);
+        transform.setValues(mMatrixValues);
+        return transform;
+    }
+
+    @Override
+    public void setVideoSize(int width, int height) {
+        if (mTransformComposer.setVideoSize(width, height)) {
+            applyTransform();
+        }
+    }
+
+    @Override
+    public void setScaleType(VideoScaleType scaleType) {
+        if (mTransformComposer.setScaleType(scaleType)) {
+            applyTransform();
+        }
+    }
+
+    @Override
+    public VideoScaleType getScaleType() {
+        return mTransformComposer.getScaleType();
+    }
+
+    @Override
+    public void setVideoRotation(int degrees) {
+        if (mTransformComposer.setRotation(degrees)) {
+            applyTransform();
+        }
+    }
+
+    @Override
+    public int getVideoRotation() {
+        return mTransformComposer.getRotation();
+    }
+
+    @Override
+    public void getContentRect(float[] out) {
+        mTransformComposer.getContentRect(out);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (mTransformComposer.setViewSize(w, h)) {
+            applyTransform();
+        }
+    }
+
+    private void applyTransform() {
+        mTransformComposer.getDisplayValues(mMatrixValues);
+        mRenderer.setTransform(mMatrixValues);
+        requestRender();
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        // 暂停时没有新的视频帧，需要主动重绘；父类构造过程中 GL 线程尚未创建
+        if (mRenderer != null) {
+            requestRender();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        queueEvent(new Runnable() {
+            @Override
+            public void run() {
+                mRenderer.releaseSurface();
+            }
+        });
+        super.onDetachedFromWindow();
+    }
+}
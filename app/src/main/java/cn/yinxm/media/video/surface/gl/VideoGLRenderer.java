@@ -0,0 +1,266 @@
+package cn.yinxm.media.video.surface.gl;
+
+import android.graphics.SurfaceTexture;
+import android.opengl.GLES11Ext;
+import android.opengl.GLES20;
+import android.opengl.GLSurfaceView;
+import android.view.Surface;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import javax.microedition.khronos.egl.EGLConfig;
+import javax.microedition.khronos.opengles.GL10;
+
+import cn.yinxm.media.video.util.FrameLogSampler;
+import cn.yinxm.media.video.util.VideoLog;
+
+/**
+ * GLES2 视频渲染：解码器输出到 SurfaceTexture（OES 外部纹理），每帧绘制一个全屏四边形
+ * <p>
+ * 缩放平移矩阵由主线程通过 {@link #setTransform(float[])} 提交，在 GL 线程换算为 uniform，
+ * 画面变换只是顶点着色器中的一次矩阵乘法，不需要额外的合成
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public class VideoGLRenderer implements GLSurfaceView.Renderer, SurfaceTexture.OnFrameAvailableListener {
+    private static final String TAG = "VideoGLRenderer";
+
+    private static final String VERTEX_SHADER =
+            "uniform mat4 uMVPMatrix;\n"
+                    + "uniform mat4 uSTMatrix;\n"
+                    + "attribute vec4 aPosition;\n"
+                    + "attribute vec4 aTextureCoord;\n"
+                    + "varying vec2 vTextureCoord;\n"
+                    + "void main() {\n"
+                    + "    gl_Position = uMVPMatrix * aPosition;\n"
+                    + "    vTextureCoord = (uSTMatrix * aTextureCoord).xy;\n"
+                    + "}\n";
+
+    private static final String FRAGMENT_SHADER =
+            "#extension GL_OES_EGL_image_external : require\n"
+                    + "precision mediump float;\n"
+                    + "varying vec2 vTextureCoord;\n"
+                    + "uniform samplerExternalOES sTexture;\n"
+                    + "void main() {\n"
+                    + "    gl_FragColor = texture2D(sTexture, vTextureCoord);\n"
+                    + "}\n";
+
+    /** 全屏四边形：x, y, u, v */
+    private static final float[] QUAD_VERTICES = {
+            -1f, -1f, 0f, 0f,
+            1f, -1f, 1f, 0f,
+            -1f, 1f, 0f, 1f,
+            1f, 1f, 1f, 1f,
+    };
+    private static final int FLOAT_SIZE = 4;
+    private static final int VERTEX_STRIDE = 4 * FLOAT_SIZE;
+
+    /**
+     * 视频输出 Surface 创建、销毁回调，在 GL 线程执行
+     */
+    public interface OnSurfaceListener {
+        void onSurfaceCreated(Surface surface);
+
+        void onSurfaceDestroyed();
+    }
+
+    private final GLSurfaceView mGLSurfaceView;
+    private final FloatBuffer mVertexBuffer;
+    private final float[] mSTMatrix = new float[16];
+    private final VideoTransformUniform mTransformUniform = new VideoTransformUniform();
+    /** 主线程提交的矩阵，加锁拷贝 */
+    private final float[] mPendingTransform = new float[9];
+    private final float[] mDrawTransform = new float[9];
+    private boolean mTransformDirty;
+    private OnSurfaceListener mOnSurfaceListener;
+
+    private int mProgram;
+    private int mTextureId;
+    private int muMVPMatrixHandle;
+    private int muSTMatrixHandle;
+    private int maPositionHandle;
+    private int maTextureHandle;
+    private int mWidth, mHeight;
+
+    private SurfaceTexture mSurfaceTexture;
+    private Surface mSurface;
+    private boolean mFrameAvailable;
+    /** GL 线程每帧调用，只做采样日志 */
+    private final FrameLogSampler mFrameLogSampler = new FrameLogSampler(TAG, "draw frame");
+
+    public VideoGLRenderer(GLSurfaceView glSurfaceView) {
+        mGLSurfaceView = glSurfaceView;
+        mVertexBuffer = ByteBuffer.allocateDirect(QUAD_VERTICES.length * FLOAT_SIZE)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+        mVertexBuffer.put(QUAD_VERTICES).position(0);
+        android.opengl.Matrix.setIdentityM(mSTMatrix, 0);
+        mPendingTransform[0] = 1;
+        mPendingTransform[4] = 1;
+        mPendingTransform[8] = 1;
+        mTransformDirty = true;
+    }
+
+    public void setOnSurfaceListener(OnSurfaceListener onSurfaceListener) {
+        mOnSurfaceListener = onSurfaceListener;
+    }
+
+    /**
+     * 提交画面变换矩阵，任意线程调用
+     *
+     * @param matrixValues Matrix#getValues 的 9 个值
+     */
+    public void setTransform(float[] matrixValues) {
+        synchronized (mPendingTransform) {
+            System.arraycopy(matrixValues, 0, mPendingTransform, 0, 9);
+            mTransformDirty = true;
+        }
+    }
+
+    public void getTransform(float[] matrixValues) {
+        synchronized (mPendingTransform) {
+            System.arraycopy(mPendingTransform, 0, matrixValues, 0, 9);
+        }
+    }
+
+    @Override
+    public void onSurfaceCreated(GL10 gl, EGLConfig config) {
+        mProgram = createProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        maPositionHandle = GLES20.glGetAttribLocation(mProgram, "aPosition");
+        maTextureHandle = GLES20.glGetAttribLocation(mProgram, "aTextureCoord");
+        muMVPMatrixHandle = GLES20.glGetUniformLocation(mProgram, "uMVPMatrix");
+        muSTMatrixHandle = GLES20.glGetUniformLocation(mProgram, "uSTMatrix");
+
+        int[] textures = new int[1];
+        GLES20.glGenTextures(1, textures, 0);
+        mTextureId = textures[0];
+        GLES20.glBindTexture(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, mTextureId);
+        GLES20.glTexParameteri(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_LINEAR);
+        GLES20.glTexParameteri(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_LINEAR);
+        GLES20.glTexParameteri(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, GLES20.GL_TEXTURE_WRAP_S, GLES20.GL_CLAMP_TO_EDGE);
+        GLES20.glTexParameteri(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, GLES20.GL_TEXTURE_WRAP_T, GLES20.GL_CLAMP_TO_EDGE);
+
+        // EGL 上下文重建时旧的 SurfaceTexture 已失效
+        releaseSurface();
+        mSurfaceTexture = new SurfaceTexture(mTextureId);
+        mSurfaceTexture.setOnFrameAvailableListener(this);
+        mSurface = new Surface(mSurfaceTexture);
+        synchronized (this) {
+            mFrameAvailable = false;
+        }
+        if (mOnSurfaceListener != null) {
+            mOnSurfaceListener.onSurfaceCreated(mSurface);
+        }
+    }
+
+    @Override
+    public void onSurfaceChanged(GL10 gl, int width, int height) {
+        GLES20.glViewport(0, 0, width, height);
+        mWidth = width;
+        mHeight = height;
+        synchronized (mPendingTransform) {
+            mTransformDirty = true;
+        }
+    }
+
+    @Override
+    public void onDrawFrame(GL10 gl) {
+        boolean updateTexImage;
+        synchronized (this) {
+            updateTexImage = mFrameAvailable;
+            mFrameAvailable = false;
+        }
+        if (updateTexImage && mSurfaceTexture != null) {
+            mSurfaceTexture.updateTexImage();
+            mSurfaceTexture.getTransformMatrix(mSTMatrix);
+            mFrameLogSampler.onEvent();
+        }
+        boolean transformDirty;
+        synchronized (mPendingTransform) {
+            transformDirty = mTransformDirty;
+            if (transformDirty) {
+                System.arraycopy(mPendingTransform, 0, mDrawTransform, 0, 9);
+                mTransformDirty = false;
+            }
+        }
+        if (transformDirty) {
+            mTransformUniform.set(mDrawTransform, mWidth, mHeight);
+        }
+
+        GLES20.glClearColor(0f, 0f, 0f, 1f);
+        GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT);
+        GLES20.glUseProgram(mProgram);
+        GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
+        GLES20.glBindTexture(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, mTextureId);
+
+        mVertexBuffer.position(0);
+        GLES20.glVertexAttribPointer(maPositionHandle, 2, GLES20.GL_FLOAT, false, VERTEX_STRIDE, mVertexBuffer);
+        GLES20.glEnableVertexAttribArray(maPositionHandle);
+        mVertexBuffer.position(2);
+        GLES20.glVertexAttribPointer(maTextureHandle, 2, GLES20.GL_FLOAT, false, VERTEX_STRIDE, mVertexBuffer);
+        GLES20.glEnableVertexAttribArray(maTextureHandle);
+
+        GLES20.glUniformMatrix4fv(muMVPMatrixHandle, 1, false, mTransformUniform.getValues(), 0);
+        GLES20.glUniformMatrix4fv(muSTMatrixHandle, 1, false, mSTMatrix, 0);
+        GLES20.glDrawArrays(GLES20.GL_TRIANGLE_STRIP, 0, 4);
+    }
+
+    @Override
+    public void onFrameAvailable(SurfaceTexture surfaceTexture) {
+        synchronized (this) {
+            mFrameAvailable = true;
+        }
+        mGLSurfaceView.requestRender();
+    }
+
+    /**
+     * 释放视频 Surface，需在 GL 线程调用
+     */
+    public void releaseSurface() {
+        if (mSurface != null) {
+            if (mOnSurfaceListener != null) {
+                mOnSurfaceListener.onSurfaceDestroyed();
+            }
+            mSurface.release();
+            mSurface = null;
+        }
+        if (mSurfaceTexture != null) {
+            mSurfaceTexture.release();
+            mSurfaceTexture = null;
+        }
+    }
+
+    private static int createProgram(String vertexSource, String fragmentSource) {
+        int vertexShader = loadShader(GLES20.GL_VERTEX_SHADER, vertexSource);
+        int fragmentShader = loadShader(GLES20.GL_FRAGMENT_SHADER, fragmentSource);
+        int program = GLES20.glCreateProgram();
+        GLES20.glAttachShader(program, vertexShader);
+        GLES20.glAttachShader(program, fragmentShader);
+        GLES20.glLinkProgram(program);
+        int[] linkStatus = new int[1];
+        GLES20.glGetProgramiv(program, GLES20.GL_LINK_STATUS, linkStatus, 0);
+        if (linkStatus[0] != GLES20.GL_TRUE) {
+            VideoLog.e(TAG, "link program failed: {}", GLES20.glGetProgramInfoLog(program));
+            GLES20.glDeleteProgram(program);
+            program = 0;
+        }
+        GLES20.glDeleteShader(vertexShader);
+        GLES20.glDeleteShader(fragmentShader);
+        return program;
+    }
+
+    private static int loadShader(int type, String source) {
+        int shader = GLES20.glCreateShader(type);
+        GLES20.glShaderSource(shader, source);
+        GLES20.glCompileShader(shader);
+        int[] compiled = new int[1];
+        GLES20.glGetShaderiv(shader, GLES20.GL_COMPILE_STATUS, compiled, 0);
+        if (compiled[0] == 0) {
+            VideoLog.e(TAG, "compile shader {} failed: {}", type, GLES20.glGetShaderInfoLog(shader));
+        }
+        return shader;
+    }
+}
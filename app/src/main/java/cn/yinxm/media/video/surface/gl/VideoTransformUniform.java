@@ -0,0 +1,96 @@
+package cn.yinxm.media.video.surface.gl;
+
+import cn.yinxm.media.video.gesture.touch.transform.AffineTransform2D;
+
+/**
+ * 将 View 像素坐标下的 2D 仿射变换（与 TextureView#setTransform 一致，y 轴向下）
+ * 换算为 GLES 顶点着色器使用的 4x4 uniform 矩阵（列主序，作用于 NDC 坐标，y 轴向上）
+ * <p>
+ * 记像素坐标到 NDC 的映射为 P，画面变换为 M，则 uniform = P * M * P^-1：
+ * <pre>
+ * | a  -b*h/w  0  tx |      tx = a + b*h/w + 2c/w - 1
+ * | -d*w/h  e  0  ty |      ty = 1 - d*w/h - e - 2f/h
+ * | 0   0      1  0  |
+ * | 0   0      0  1  |
+ * </pre>
+ * 其中 a、b、c、d、e、f 为 Matrix 的 MSCALE_X、MSKEW_X、MTRANS_X、MSKEW_Y、MSCALE_Y、MTRANS_Y
+ * <p>
+ * 纯 Java 实现，可在 JVM 上测试，不依赖 GPU；计算过程不分配对象
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class VideoTransformUniform {
+    private final float[] mValues = new float[16];
+
+    public VideoTransformUniform() {
+        setIdentity(mValues);
+    }
+
+    /**
+     * @return 列主序 4x4 矩阵，可直接传给 glUniformMatrix4fv
+     */
+    public float[] getValues() {
+        return mValues;
+    }
+
+    /**
+     * @param matrixValues Matrix#getValues 的 9 个值
+     * @param width        View 宽度
+     * @param height       View 高度
+     */
+    public void set(float[] matrixValues, float width, float height) {
+        set(matrixValues[AffineTransform2D.MSCALE_X], matrixValues[AffineTransform2D.MSKEW_X],
+                matrixValues[AffineTransform2D.MTRANS_X], matrixValues[AffineTransform2D.MSKEW_Y],
+                matrixValues[AffineTransform2D.MSCALE_Y], matrixValues[AffineTransform2D.MTRANS_Y],
+                width, height);
+    }
+
+    public void set(AffineTransform2D transform, float width, float height) {
+        set(transform.getScaleX(), transform.getSkewX(), transform.getTransX(),
+                transform.getSkewY(), transform.getScaleY(), transform.getTransY(), width, height);
+    }
+
+    private void set(float a, float b, float c, float d, float e, float f, float width, float height) {
+        float[] m = mValues;
+        if (width <= 0 || height <= 0) {
+            setIdentity(m);
+            return;
+        }
+        float hw = height / width;
+        float wh = width / height;
+        m[0] = a;
+        m[1] = -d * wh;
+        m[2] = 0;
+        m[3] = 0;
+        m[4] = -b * hw;
+        m[5] = e;
+        m[6] = 0;
+        m[7] = 0;
+        m[8] = 0;
+        m[9] = 0;
+        m[10] = 1;
+        m[11] = 0;
+        m[12] = a + b * hw + 2 * c / width - 1;
+        m[13] = 1 - d * wh - e - 2 * f / height;
+        m[14] = 0;
+        m[15] = 1;
+    }
+
+    private static void setIdentity(float[] m) {
+        for (int i = 0; i < 16; i++) {
+            m[i] = i % 5 == 0 ? 1 : 0;
+        }
+    }
+
+    /**
+     * 将 NDC 坐标 {x, y} 按 uniform 矩阵变换，供测试校验
+     */
+    public void mapPoint(float[] point) {
+        float[] m = mValues;
+        float x = point[0];
+        float y = point[1];
+        point[0] = m[0] * x + m[4] * y + m[12];
+        point[1] = m[1] * x + m[5] * y + m[13];
+    }
+}
@@ -0,0 +1,211 @@
+package cn.yinxm.media.video.surface.stats;
+
+/**
+ * 播放帧统计：每个送显帧调用一次 {@link #onFrame(long, long)}，按周期汇总后回调快照
+ * <p>
+ * 1. 送显帧率、送显间隔的均值与标准差（抖动）
+ * 2. 丢帧：相邻两帧内容时间戳的间隔超过内容帧间隔时，按间隔倍数计算丢失的帧数；
+ * 内容帧率可通过 {@link #setContentFrameRate(float)} 指定，否则取周期内最小的时间戳间隔估算
+ * 3. 延迟：送显回调时间 - 帧时间戳（SurfaceTexture#getTimestamp，MediaPlayer 输出的帧为期望显示的单调时钟时间）
+ * <p>
+ * 每帧的间隔、延迟记录在定长的基本类型环形数组中，记录过程不分配对象；
+ * 周期内帧数超过数组容量时，间隔与延迟只统计最近的帧。纯 Java 实现，需在同一线程使用
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class FrameStatsCollector {
+    public static final int DEFAULT_CAPACITY = 256;
+    public static final long DEFAULT_REPORT_INTERVAL_MS = 1000;
+
+    private static final long NANOS_PER_MS = 1_000_000L;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    /** 延迟超出该范围认为时间戳不是同一时钟，不计入 */
+    private static final long MAX_VALID_LATENCY_NANOS = NANOS_PER_SECOND;
+    /** 小于该值的时间戳间隔视为重复帧，不参与内容帧率估算 */
+    private static final long MIN_CONTENT_INTERVAL_NANOS = NANOS_PER_MS;
+
+    /**
+     * 周期快照回调，快照对象会被复用，需要保留时复制
+     */
+    public interface OnFrameStatsListener {
+        void onFrameStats(FrameStatsSnapshot snapshot);
+    }
+
+    private final int mCapacity;
+    /** 与上一帧的送显间隔 */
+    private final long[] mIntervals;
+    /** 与上一帧的内容时间戳间隔 */
+    private final long[] mContentIntervals;
+    /** 送显延迟，无效时为 -1 */
+    private final long[] mLatencies;
+    private final FrameStatsSnapshot mSnapshot = new FrameStatsSnapshot();
+
+    private OnFrameStatsListener mListener;
+    private long mReportIntervalNanos = DEFAULT_REPORT_INTERVAL_MS * NANOS_PER_MS;
+    private long mContentIntervalNanos;
+
+    private int mHead;
+    /** 周期内的帧数，可能超过容量 */
+    private int mWindowCount;
+    private long mWindowStartNanos;
+    private long mLastArrivalNanos;
+    private long mLastTimestampNanos;
+    private boolean mHasLastFrame;
+    private long mTotalDropped;
+
+    public FrameStatsCollector() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FrameStatsCollector(int capacity) {
+        mCapacity = capacity;
+        mIntervals = new long[capacity];
+        mContentIntervals = new long[capacity];
+        mLatencies = new long[capacity];
+    }
+
+    public void setOnFrameStatsListener(OnFrameStatsListener listener) {
+        mListener = listener;
+    }
+
+    public void setReportInterval(long intervalMs) {
+        mReportIntervalNanos = intervalMs * NANOS_PER_MS;
+    }
+
+    /**
+     * 指定视频内容帧率，<= 0 时按时间戳估算
+     */
+    public void setContentFrameRate(float fps) {
+        mContentIntervalNanos = fps > 0 ? (long) (NANOS_PER_SECOND / fps) : 0;
+    }
+
+    /**
+     * 清空统计，切换播放地址时调用
+     */
+    public void reset() {
+        discontinuity();
+        mTotalDropped = 0;
+    }
+
+    /**
+     * 播放不连续（暂停、seek）时调用，丢弃当前周期，下一帧重新开始计算间隔
+     */
+    public void discontinuity() {
+        mHead = 0;
+        mWindowCount = 0;
+        mHasLastFrame = false;
+    }
+
+    /**
+     * 记录一个送显帧
+     *
+     * @param timestampNanos 帧时间戳，SurfaceTexture#getTimestamp
+     * @param nowNanos       送显回调时间，System.nanoTime
+     */
+    public void onFrame(long timestampNanos, long nowNanos) {
+        if (mHasLastFrame && timestampNanos < mLastTimestampNanos) {
+            // 时间戳回退：seek 或切换了视频
+            discontinuity();
+        }
+        if (!mHasLastFrame) {
+            mHasLastFrame = true;
+            mLastArrivalNanos = nowNanos;
+            mLastTimestampNanos = timestampNanos;
+            mWindowStartNanos = nowNanos;
+            return;
+        }
+        long latency = nowNanos - timestampNanos;
+        mIntervals[mHead] = nowNanos - mLastArrivalNanos;
+        mContentIntervals[mHead] = timestampNanos - mLastTimestampNanos;
+        mLatencies[mHead] = latency >= 0 && latency < MAX_VALID_LATENCY_NANOS ? latency : -1;
+        mHead = (mHead + 1) % mCapacity;
+        mWindowCount++;
+        mLastArrivalNanos = nowNanos;
+        mLastTimestampNanos = timestampNanos;
+
+        if (nowNanos - mWindowStartNanos >= mReportIntervalNanos) {
+            computeSnapshot(nowNanos, mSnapshot);
+            mTotalDropped = mSnapshot.totalDroppedFrameCount;
+            mWindowStartNanos = nowNanos;
+            mWindowCount = 0;
+            mHead = 0;
+            if (mListener != null) {
+                mListener.onFrameStats(mSnapshot);
+            }
+        }
+    }
+
+    /**
+     * 计算当前周期的统计，不结束周期
+     */
+    public void snapshot(long nowNanos, FrameStatsSnapshot out) {
+        computeSnapshot(nowNanos, out);
+    }
+
+    private void computeSnapshot(long nowNanos, FrameStatsSnapshot out) {
+        int samples = Math.min(mWindowCount, mCapacity);
+        int start = (mHead - samples + mCapacity) % mCapacity;
+
+        long contentInterval = mContentIntervalNanos;
+        if (contentInterval <= 0) {
+            contentInterval = Long.MAX_VALUE;
+            for (int i = 0; i < samples; i++) {
+                long interval = mContentIntervals[(start + i) % mCapacity];
+                if (interval >= MIN_CONTENT_INTERVAL_NANOS && interval < contentInterval) {
+                    contentInterval = interval;
+                }
+            }
+            if (contentInterval == Long.MAX_VALUE) {
+                contentInterval = 0;
+            }
+        }
+
+        long intervalSum = 0;
+        long intervalMax = 0;
+        long latencySum = 0;
+        long latencyMax = 0;
+        int latencyCount = 0;
+        int dropped = 0;
+        for (int i = 0; i < samples; i++) {
+            int index = (start + i) % mCapacity;
+            long interval = mIntervals[index];
+            intervalSum += interval;
+            intervalMax = Math.max(intervalMax, interval);
+            long latency = mLatencies[index];
+            if (latency >= 0) {
+                latencySum += latency;
+                latencyMax = Math.max(latencyMax, latency);
+                latencyCount++;
+            }
+            if (contentInterval > 0) {
+                // 间隔为内容帧间隔的 n 倍时，中间丢了 n - 1 帧
+                long missed = (mContentIntervals[index] + contentInterval / 2) / contentInterval - 1;
+                if (missed > 0) {
+                    dropped += missed;
+                }
+            }
+        }
+        double intervalMean = samples > 0 ? (double) intervalSum / samples : 0;
+        double variance = 0;
+        for (int i = 0; i < samples; i++) {
+            double diff = mIntervals[(start + i) % mCapacity] - intervalMean;
+            variance += diff * diff;
+        }
+        variance = samples > 0 ? variance / samples : 0;
+
+        long windowNanos = nowNanos - mWindowStartNanos;
+        out.windowMillis = windowNanos / NANOS_PER_MS;
+        out.frameCount = mWindowCount;
+        out.fps = windowNanos > 0 ? (float) ((double) mWindowCount * NANOS_PER_SECOND / windowNanos) : 0;
+        out.contentFps = contentInterval > 0 ? (float) ((double) NANOS_PER_SECOND / contentInterval) : 0;
+        out.droppedFrameCount = dropped;
+        out.totalDroppedFrameCount = mTotalDropped + dropped;
+        out.intervalMeanMillis = (float) (intervalMean / NANOS_PER_MS);
+        out.intervalJitterMillis = (float) (Math.sqrt(variance) / NANOS_PER_MS);
+        out.intervalMaxMillis = (float) intervalMax / NANOS_PER_MS;
+        out.latencyCount = latencyCount;
+        out.latencyMeanMillis = latencyCount > 0 ? (float) latencySum / latencyCount / NANOS_PER_MS : 0;
+        out.latencyMaxMillis = (float) latencyMax / NANOS_PER_MS;
+    }
+}
@@ -0,0 +1,65 @@
+package cn.yinxm.media.video.surface.stats;
+
+/**
+ * 一个统计周期内的播放帧统计，由 {@link FrameStatsCollector} 填充
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class FrameStatsSnapshot {
+    /** 统计周期时长，单位 ms */
+    public long windowMillis;
+    /** 周期内送显的帧数 */
+    public int frameCount;
+    /** 实际送显帧率 */
+    public float fps;
+    /** 视频内容帧率，未设置时由帧时间戳间隔估算 */
+    public float contentFps;
+    /** 周期内相对内容帧率丢失的帧数 */
+    public int droppedFrameCount;
+    /** 本次播放累计丢帧数 */
+    public long totalDroppedFrameCount;
+
+    /** 送显间隔的均值、标准差（抖动）、最大值，单位 ms */
+    public float intervalMeanMillis;
+    public float intervalJitterMillis;
+    public float intervalMaxMillis;
+
+    /** 帧时间戳到送显回调的延迟，单位 ms；latencyCount 为有效样本数 */
+    public int latencyCount;
+    public float latencyMeanMillis;
+    public float latencyMaxMillis;
+
+    public void set(FrameStatsSnapshot src) {
+        windowMillis = src.windowMillis;
+        frameCount = src.frameCount;
+        fps = src.fps;
+        contentFps = src.contentFps;
+        droppedFrameCount = src.droppedFrameCount;
+        totalDroppedFrameCount = src.totalDroppedFrameCount;
+        intervalMeanMillis = src.intervalMeanMillis;
+        intervalJitterMillis = src.intervalJitterMillis;
+        intervalMaxMillis = src.intervalMaxMillis;
+        latencyCount = src.latencyCount;
+        latencyMeanMillis = src.latencyMeanMillis;
+        latencyMaxMillis = src.latencyMaxMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameStatsSnapshot{"
+                + "windowMillis=" + windowMillis
+                + ", frameCount=" + frameCount
+                + ", fps=" + fps
+                + ", contentFps=" + contentFps
+                + ", droppedFrameCount=" + droppedFrameCount
+                + ", totalDroppedFrameCount=" + totalDroppedFrameCount
+                + ", intervalMeanMillis=" + intervalMeanMillis
+                + ", intervalJitterMillis=" + intervalJitterMillis
+                + ", intervalMaxMillis=" + intervalMaxMillis
+                + ", latencyCount=" + latencyCount
+                + ", latencyMeanMillis=" + latencyMeanMillis
+                + ", latencyMaxMillis=" + latencyMaxMillis
+                + '}';
+    }
+}
@@ -0,0 +1,63 @@
+package cn.yinxm.media.video.util;
+
+import android.os.SystemClock;
+
+/**
+ * 高频事件的采样日志：每个事件只计数，按时间窗口汇总输出一次事件数、帧率与最大间隔
+ * <p>
+ * 日志关闭时 {@link #onEvent()} 直接返回；开启时记录一次事件只做几次算术，不分配对象。
+ * 非线程安全，每个实例只在一个线程使用
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class FrameLogSampler {
+    public static final long DEFAULT_INTERVAL_MS = 1000;
+
+    private final String mTag;
+    private final String mName;
+    private final long mIntervalMs;
+
+    private long mWindowStartMs;
+    private long mLastEventMs;
+    private long mMaxGapMs;
+    private int mCount;
+
+    public FrameLogSampler(String tag, String name) {
+        this(tag, name, DEFAULT_INTERVAL_MS);
+    }
+
+    public FrameLogSampler(String tag, String name, long intervalMs) {
+        mTag = tag;
+        mName = name;
+        mIntervalMs = intervalMs;
+    }
+
+    public void onEvent() {
+        if (!VideoLog.DEBUG_ENABLED || !VideoLog.isLoggable(VideoLog.DEBUG)) {
+            return;
+        }
+        long now = SystemClock.uptimeMillis();
+        if (mCount == 0) {
+            mWindowStartMs = now;
+        } else {
+            mMaxGapMs = Math.max(mMaxGapMs, now - mLastEventMs);
+        }
+        mLastEventMs = now;
+        mCount++;
+        long elapsed = now - mWindowStartMs;
+        if (elapsed >= mIntervalMs) {
+            VideoLog.d(mTag, "{} count={}, fps={}, maxGapMs={}", mName, mCount,
+                    (int) (mCount * 1000L / elapsed), (int) mMaxGapMs);
+            reset();
+        }
+    }
+
+    /**
+     * 丢弃当前窗口，事件流中断（如暂停、手势结束）后调用，避免把中断时间算进间隔
+     */
+    public void reset() {
+        mCount = 0;
+        mMaxGapMs = 0;
+    }
+}
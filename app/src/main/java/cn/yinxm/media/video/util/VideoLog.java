@@ -0,0 +1,213 @@
+package cn.yinxm.media.video.util;
+
+import android.util.Log;
+
+import cn.yinxm.media.video.BuildConfig;
+
+/**
+ * cn.yinxm.media.video 包内统一的日志入口
+ * <p>
+ * 1. 编译期开关：{@link #DEBUG_ENABLED} 为常量，release 包中 v/d/i 调用整段被编译器去除
+ * 2. 运行期开关：{@link #setLevel(int)}，低于该级别的日志直接返回
+ * 3. 参数化重载：消息模板中的 {} 依次替换为参数，只有确定输出时才拼接字符串；
+ * 基本类型参数有专门的重载，关闭时调用不产生装箱与分配
+ * <p>
+ * 高频回调（每帧、每个触摸事件）不要直接打日志，使用 {@link FrameLogSampler} 按时间窗口汇总输出
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public final class VideoLog {
+    public static final int VERBOSE = Log.VERBOSE;
+    public static final int DEBUG = Log.DEBUG;
+    public static final int INFO = Log.INFO;
+    public static final int WARN = Log.WARN;
+    public static final int ERROR = Log.ERROR;
+    /** 关闭所有日志 */
+    public static final int NONE = Integer.MAX_VALUE;
+
+    /** 编译期开关，只作用于 v/d/i */
+    public static final boolean DEBUG_ENABLED = BuildConfig.DEBUG;
+
+    private static final String PLACEHOLDER = "{}";
+
+    private static volatile int sLevel = DEBUG_ENABLED ? DEBUG : WARN;
+
+    private VideoLog() {
+    }
+
+    public static void setLevel(int level) {
+        sLevel = level;
+    }
+
+    public static int getLevel() {
+        return sLevel;
+    }
+
+    public static boolean isLoggable(int level) {
+        return level >= sLevel && (level >= WARN || DEBUG_ENABLED);
+    }
+
+    public static void v(String tag, String msg) {
+        if (DEBUG_ENABLED && isLoggable(VERBOSE)) {
+            Log.v(tag, msg);
+        }
+    }
+
+    public static void d(String tag, String msg) {
+        if (DEBUG_ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, msg);
+        }
+    }
+
+    public static void d(String tag, String template, Object arg) {
+        if (DEBUG_ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, format(template, arg, null, null, null));
+        }
+    }
+
+    public static void d(String tag, String template, Object arg1, Object arg2) {
+        if (DEBUG_ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, format(template, arg1, arg2, null, null));
+        }
+    }
+
+    public static void d(String tag, String template, Object arg1, Object arg2, Object arg3) {
+        if (DEBUG_ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, format(template, arg1, arg2, arg3, null));
+        }
+    }
+
+    public static void d(String tag, String template, int arg) {
+        if (DEBUG_ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, format(template, String.valueOf(arg), null, null, null));
+        }
+    }
+
+    public static void d(String tag, String template, long arg) {
+        if (DEBUG_ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, format(template, String.valueOf(arg), null, null, null));
+        }
+    }
+
+    public static void d(String tag, String template, float arg) {
+        if (DEBUG_ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, format(template, String.valueOf(arg), null, null, null));
+        }
+    }
+
+    public static void d(String tag, String template, int arg1, int arg2) {
+        if (DEBUG_ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, format(template, String.valueOf(arg1), String.valueOf(arg2), null, null));
+        }
+    }
+
+    public static void d(String tag, String template, Object arg1, int arg2) {
+        if (DEBUG_ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, format(template, arg1, String.valueOf(arg2), null, null));
+        }
+    }
+
+    public static void d(String tag, String template, Object arg1, long arg2) {
+        if (DEBUG_ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, format(template, arg1, String.valueOf(arg2), null, null));
+        }
+    }
+
+    public static void d(String tag, String template, Object arg1, int arg2, int arg3) {
+        if (DEBUG_ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, format(template, arg1, String.valueOf(arg2), String.valueOf(arg3), null));
+        }
+    }
+
+    public static void d(String tag, String template, Object arg1, int arg2, int arg3, int arg4) {
+        if (DEBUG_ENABLED && isLoggable(DEBUG)) {
+            Log.d(tag, format(template, arg1, String.valueOf(arg2), String.valueOf(arg3), String.valueOf(arg4)));
+        }
+    }
+
+    public static void i(String tag, String msg) {
+        if (DEBUG_ENABLED && isLoggable(INFO)) {
+            Log.i(tag, msg);
+        }
+    }
+
+    public static void i(String tag, String template, Object arg) {
+        if (DEBUG_ENABLED && isLoggable(INFO)) {
+            Log.i(tag, format(template, arg, null, null, null));
+        }
+    }
+
+    public static void w(String tag, String msg) {
+        if (isLoggable(WARN)) {
+            Log.w(tag, msg);
+        }
+    }
+
+    public static void w(String tag, String template, Object arg) {
+        if (isLoggable(WARN)) {
+            Log.w(tag, format(template, arg, null, null, null));
+        }
+    }
+
+    public static void e(String tag, String msg) {
+        if (isLoggable(ERROR)) {
+            Log.e(tag, msg);
+        }
+    }
+
+    public static void e(String tag, String msg, Throwable tr) {
+        if (isLoggable(ERROR)) {
+            Log.e(tag, msg, tr);
+        }
+    }
+
+    public static void e(String tag, String template, Object arg) {
+        if (isLoggable(ERROR)) {
+            Log.e(tag, format(template, arg, null, null, null));
+        }
+    }
+
+    public static void e(String tag, String template, Object arg1, Object arg2) {
+        if (isLoggable(ERROR)) {
+            Log.e(tag, format(template, arg1, arg2, null, null));
+        }
+    }
+
+    public static void e(String tag, String template, Object arg1, int arg2, int arg3) {
+        if (isLoggable(ERROR)) {
+            Log.e(tag, format(template, arg1, String.valueOf(arg2), String.valueOf(arg3), null));
+        }
+    }
+
+    /**
+     * 依次用参数替换模板中的 {}，参数多于占位符时忽略多余参数
+     */
+    static String format(String template, Object arg1, Object arg2, Object arg3, Object arg4) {
+        StringBuilder sb = new StringBuilder(template.length() + 32);
+        int start = 0;
+        int argIndex = 0;
+        int index;
+        while (argIndex < 4 && (index = template.indexOf(PLACEHOLDER, start)) >= 0) {
+            sb.append(template, start, index);
+            switch (argIndex) {
+                case 0:
+                    sb.append(arg1);
+                    break;
+                case 1:
+                    sb.append(arg2);
+                    break;
+                case 2:
+                    sb.append(arg3);
+                    break;
+                default:
+                    sb.append(arg4);
+                    break;
+            }
+            argIndex++;
+            start = index + PLACEHOLDER.length();
+        }
+        sb.append(template, start, template.length());
+        return sb.toString();
+    }
+}
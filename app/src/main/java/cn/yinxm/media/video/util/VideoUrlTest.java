@@ -19,6 +19,10 @@ public class VideoUrlTest {
         return URLS[index];
     }
 
+    public static int getUrlCount() {
+        return URLS.length;
+    }
+
     public static String getNextUrl(String playUrl) {
         if (!TextUtils.isEmpty(playUrl)) {
             for (int i = 0; i < URLS.length; i++) {
@@ -0,0 +1,101 @@
+package cn.yinxm.media.video.gesture.touch.handler;
+
+import android.content.Context;
+import android.os.Build;
+import android.view.View;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import cn.yinxm.media.video.R;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 还原按钮、比例提示延迟加载：创建处理器时容器中没有任何 View，第一次显示时才加载各自的布局
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P)
+public class OverlayInflateTest {
+    private Context mContext;
+    private FrameLayout mContainer;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mContainer = new FrameLayout(mContext);
+    }
+
+    @Test
+    public void constructionInflatesNothing() {
+        VideoTouchScaleHandler handler = new VideoTouchScaleHandler(mContext, mContainer, null);
+        assertEquals(0, mContainer.getChildCount());
+        assertFalse(handler.mScaleRatioView.isInflated());
+        assertFalse(handler.mScaleRestView.isInflated());
+        // 未加载时隐藏不加载布局
+        handler.mScaleRatioView.hideDelayed();
+        handler.mScaleRestView.setVisibility(View.GONE);
+        assertEquals(0, mContainer.getChildCount());
+    }
+
+    @Test
+    public void firstShowInflatesOnce() {
+        VideoTouchScaleHandler handler = new VideoTouchScaleHandler(mContext, mContainer, null);
+        handler.mScaleRatioView.showRatio(150);
+        handler.mScaleRatioView.showRatio(160);
+        assertTrue(handler.mScaleRatioView.isInflated());
+        assertEquals(1, mContainer.getChildCount());
+        TextView ratio = mContainer.findViewById(R.id.tv_scale_ratio);
+        assertEquals("160%", ratio.getText().toString());
+        assertEquals(View.VISIBLE, mContainer.findViewById(R.id.view_scale_ratio).getVisibility());
+
+        handler.mScaleRestView.setVisibility(View.VISIBLE);
+        handler.mScaleRestView.setVisibility(View.GONE);
+        handler.mScaleRestView.setVisibility(View.VISIBLE);
+        assertEquals(2, mContainer.getChildCount());
+    }
+
+    @Test
+    public void overlayFollowsTargetBounds() {
+        VideoTouchScaleHandler handler = new VideoTouchScaleHandler(mContext, mContainer, null);
+        // 加载前设置的区域在加载时应用
+        handler.setOverlayBounds(600, 0, 1200, 400);
+        handler.mScaleRatioView.showRatio(150);
+        assertBounds(mContainer.findViewById(R.id.view_scale_ratio), 600, 0, 600, 400);
+
+        // 加载后切换到另一个播放器区域
+        handler.setOverlayBounds(0, 400, 600, 800);
+        handler.mScaleRestView.setVisibility(View.VISIBLE);
+        assertBounds(mContainer.findViewById(R.id.view_scale_ratio), 0, 400, 600, 400);
+        assertBounds(mContainer.findViewById(R.id.view_scale_reset), 0, 400, 600, 400);
+
+        // 区域为空时铺满容器
+        handler.setOverlayBounds(0, 0, 0, 0);
+        FrameLayout.LayoutParams params =
+                (FrameLayout.LayoutParams) mContainer.findViewById(R.id.view_scale_reset).getLayoutParams();
+        assertEquals(FrameLayout.LayoutParams.MATCH_PARENT, params.width);
+        assertEquals(FrameLayout.LayoutParams.MATCH_PARENT, params.height);
+        assertEquals(0, params.leftMargin);
+        assertEquals(0, params.topMargin);
+    }
+
+    private static void assertBounds(View view, int left, int top, int width, int height) {
+        FrameLayout.LayoutParams params = (FrameLayout.LayoutParams) view.getLayoutParams();
+        assertEquals(left, params.leftMargin);
+        assertEquals(top, params.topMargin);
+        assertEquals(width, params.width);
+        assertEquals(height, params.height);
+    }
+}
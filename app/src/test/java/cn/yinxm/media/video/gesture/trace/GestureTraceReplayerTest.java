@@ -0,0 +1,252 @@
+package cn.yinxm.media.video.gesture.trace;
+
+import android.content.Context;
+import android.graphics.Matrix;
+import android.os.Build;
+import android.view.InputDevice;
+import android.view.MotionEvent;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import cn.yinxm.media.video.gesture.GestureLayer;
+import cn.yinxm.media.video.gesture.touch.adapter.IVideoTouchAdapter;
+import cn.yinxm.media.video.gesture.touch.transform.AffineTransform2D;
+import cn.yinxm.media.video.surface.IVideoRenderView;
+import cn.yinxm.media.video.surface.VideoScaleType;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 录制一段双指放大拖动的轨迹，经 GestureLayer → VideoTouchScaleHandler 完整回放两次，最终矩阵应完全一致
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P)
+public class GestureTraceReplayerTest {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 608;
+    /** 120Hz 的事件，每个事件带一个历史采样，即 240Hz 采样 */
+    private static final long EVENT_INTERVAL_MS = 8;
+    private static final int MOVE_COUNT = 40;
+    private static final long DOWN_TIME = 1000;
+
+    private final MotionEvent.PointerProperties[] mProperties = new MotionEvent.PointerProperties[11];
+    private final MotionEvent.PointerCoords[] mCoords = new MotionEvent.PointerCoords[11];
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        for (int i = 0; i < mProperties.length; i++) {
+            mProperties[i] = new MotionEvent.PointerProperties();
+            mProperties[i].id = i;
+            mProperties[i].toolType = MotionEvent.TOOL_TYPE_FINGER;
+            mCoords[i] = new MotionEvent.PointerCoords();
+        }
+    }
+
+    @Test
+    public void replayTwiceGivesIdenticalMatrix() throws IOException {
+        GestureTrace trace = recordPinch();
+        assertTrue(trace.getSize() > MOVE_COUNT);
+
+        float[] first = replay(trace);
+        float[] second = replay(trace);
+        // 双指放大并拖到边缘外，结束后吸边
+        assertTrue(first[Matrix.MSCALE_X] > 1.5F);
+        assertArrayEquals(first, second, 0);
+
+        // 经二进制格式导出再读回，回放结果不变
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trace.writeTo(out);
+        GestureTrace copy = GestureTrace.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertArrayEquals(first, replay(copy), 0);
+    }
+
+    @Test
+    public void recorderFlagsDroppedPointers() {
+        GestureTraceRecorder recorder = new GestureTraceRecorder();
+        int pointerCount = GestureTrace.MAX_POINTERS + 1;
+        long time = DOWN_TIME;
+        record(recorder, time, MotionEvent.ACTION_DOWN, 1);
+        for (int p = 1; p < pointerCount; p++) {
+            record(recorder, time, MotionEvent.ACTION_POINTER_DOWN
+                    | (p << MotionEvent.ACTION_POINTER_INDEX_SHIFT), p + 1);
+        }
+        record(recorder, time + EVENT_INTERVAL_MS, MotionEvent.ACTION_MOVE, pointerCount);
+        assertEquals(2, recorder.getDroppedEventCount());
+
+        GestureTrace trace = recorder.snapshot();
+        int last = trace.getSize() - 1;
+        assertFalse(trace.isPointersDropped(last - 2));
+        assertEquals(GestureTrace.MAX_POINTERS, trace.getPointerCount(last));
+        assertTrue(trace.isPointersDropped(last));
+        // 未保存的触点按下记为 MOVE
+        assertTrue(trace.isPointersDropped(last - 1));
+        assertEquals(MotionEvent.ACTION_MOVE, trace.getActionMasked(last - 1));
+    }
+
+    private float[] replay(GestureTrace trace) {
+        GestureLayer gestureLayer = new GestureLayer(mContext, new FakeTouchAdapter());
+        new GestureTraceReplayer().replay(trace, gestureLayer);
+        // 执行完结束动画
+        ShadowLooper.idleMainLooper(5, TimeUnit.SECONDS);
+        AffineTransform2D transform = new AffineTransform2D();
+        gestureLayer.getScaleHandler().getScaleTransform(transform);
+        gestureLayer.onLayerRelease();
+        float[] values = new float[9];
+        transform.getValues(values);
+        return values;
+    }
+
+    /**
+     * 两指从画面中心向左右张开，同时整体向右下移动
+     */
+    private GestureTrace recordPinch() {
+        GestureTraceRecorder recorder = new GestureTraceRecorder();
+        long time = DOWN_TIME;
+        setPointer(0, 500, 300);
+        record(recorder, time, MotionEvent.ACTION_DOWN, 1);
+        time += EVENT_INTERVAL_MS;
+        setPointer(1, 580, 300);
+        record(recorder, time, MotionEvent.ACTION_POINTER_DOWN | (1 << MotionEvent.ACTION_POINTER_INDEX_SHIFT), 2);
+        for (int i = 1; i <= MOVE_COUNT; i++) {
+            long eventTime = time + i * EVENT_INTERVAL_MS;
+            setPinch(i * 2 - 1);
+            MotionEvent event = obtain(eventTime - EVENT_INTERVAL_MS / 2, MotionEvent.ACTION_MOVE, 2);
+            setPinch(i * 2);
+            event.addBatch(eventTime, mCoords, 0);
+            recorder.record(event);
+            event.recycle();
+        }
+        time += (MOVE_COUNT + 1) * EVENT_INTERVAL_MS;
+        record(recorder, time, MotionEvent.ACTION_POINTER_UP | (1 << MotionEvent.ACTION_POINTER_INDEX_SHIFT), 2);
+        record(recorder, time + EVENT_INTERVAL_MS, MotionEvent.ACTION_UP, 1);
+        return recorder.snapshot();
+    }
+
+    private void setPinch(int step) {
+        float spread = step * 6;
+        float shift = step * 3;
+        setPointer(0, 500 - spread + shift, 300 + shift / 2);
+        setPointer(1, 580 + spread + shift, 300 + shift / 2);
+    }
+
+    private void setPointer(int pointer, float x, float y) {
+        mCoords[pointer].x = x;
+        mCoords[pointer].y = y;
+        mCoords[pointer].pressure = 1f;
+        mCoords[pointer].size = 1f;
+    }
+
+    private void record(GestureTraceRecorder recorder, long time, int action, int pointerCount) {
+        for (int p = 0; p < pointerCount; p++) {
+            if (mCoords[p].pressure == 0) {
+                setPointer(p, 100 + p * 50, 200);
+            }
+        }
+        MotionEvent event = obtain(time, action, pointerCount);
+        recorder.record(event);
+        event.recycle();
+    }
+
+    private MotionEvent obtain(long eventTime, int action, int pointerCount) {
+        return MotionEvent.obtain(DOWN_TIME, eventTime, action, pointerCount, mProperties, mCoords,
+                0, 0, 1f, 1f, 0, 0, InputDevice.SOURCE_TOUCHSCREEN, 0);
+    }
+
+    private static class FakeTouchAdapter implements IVideoTouchAdapter {
+        private final FakeRenderView mRenderView = new FakeRenderView();
+
+        @Override
+        public IVideoRenderView getRenderView() {
+            return mRenderView;
+        }
+
+        @Override
+        public boolean isPlaying() {
+            return true;
+        }
+
+        @Override
+        public boolean isFullScreen() {
+            return true;
+        }
+    }
+
+    private static class FakeRenderView implements IVideoRenderView {
+        private final Matrix mTransform = new Matrix();
+
+        @Override
+        public int getWidth() {
+            return WIDTH;
+        }
+
+        @Override
+        public int getHeight() {
+            return HEIGHT;
+        }
+
+        @Override
+        public void setVideoTransform(Matrix transform) {
+            mTransform.set(transform);
+        }
+
+        @Override
+        public Matrix getVideoTransform(Matrix transform) {
+            transform.set(mTransform);
+            return transform;
+        }
+
+        @Override
+        public void setVideoSize(int width, int height) {
+        }
+
+        @Override
+        public void setScaleType(VideoScaleType scaleType) {
+        }
+
+        @Override
+        public VideoScaleType getScaleType() {
+            return VideoScaleType.FIT;
+        }
+
+        @Override
+        public void setVideoRotation(int degrees) {
+        }
+
+        @Override
+        public int getVideoRotation() {
+            return 0;
+        }
+
+        @Override
+        public void getContentRect(float[] out) {
+            out[0] = 0;
+            out[1] = 0;
+            out[2] = WIDTH;
+            out[3] = HEIGHT;
+        }
+
+        @Override
+        public void invalidate() {
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package cn.yinxm.media.video.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import cn.yinxm.media.video.gesture.touch.transform.AffineTransform2D;
+import cn.yinxm.media.video.gesture.touch.transform.VideoTransformEngine;
+
+/**
+ * VideoTouchScaleHandler.doScaleEndAnim 的吸边/居中终点计算
+ * <p>
+ * 以轨迹回放过程中每个事件后的矩阵作为缩放结束状态，覆盖缩小、放大吸边、放大无需吸边等分支
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EdgeSnapBenchmark {
+
+    @Param({GestureTrace.PINCH_OUT_PAN_120HZ, GestureTrace.PINCH_IN_120HZ, GestureTrace.PINCH_OUT_FAST_240HZ})
+    public String trace;
+
+    private final VideoTransformEngine mEngine = new VideoTransformEngine();
+    private final AffineTransform2D mEnd = new AffineTransform2D();
+    private AffineTransform2D[] mStates;
+    private int mIndex;
+
+    @Setup
+    public void setUp() {
+        GestureTrace t = GestureTrace.load(trace);
+        AffineTransform2D matrix = new AffineTransform2D();
+        mStates = new AffineTransform2D[t.size - 1];
+        for (int i = 1; i < t.size; i++) {
+            mEngine.applyScale(matrix, t.span[i] / t.span[i - 1], t.focusX[0], t.focusY[0],
+                    t.focusX[i] - t.focusX[i - 1], t.focusY[i] - t.focusY[i - 1]);
+            mStates[i - 1] = new AffineTransform2D(matrix);
+        }
+        mIndex = 0;
+    }
+
+    @Benchmark
+    public void computeScaleEnd(Blackhole bh) {
+        int i = mIndex;
+        bh.consume(mEngine.computeScaleEnd(mStates[i],
+                GestureTrace.VIEW_WIDTH, GestureTrace.VIEW_HEIGHT, mEnd));
+        bh.consume(mEnd);
+        mIndex = i + 1 == mStates.length ? 0 : i + 1;
+    }
+}
@@ -0,0 +1,80 @@
+package cn.yinxm.media.video.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 双指手势轨迹，从 src/jmh/resources/traces 加载
+ * <p>
+ * 每行：eventTimeMs,x0,y0,x1,y1；加载时预先计算 ScaleGestureDetector 语义下的焦点与跨度
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+public final class GestureTrace {
+    public static final String PINCH_OUT_PAN_120HZ = "pinch_out_pan_120hz";
+    public static final String PINCH_IN_120HZ = "pinch_in_120hz";
+    public static final String PINCH_OUT_FAST_240HZ = "pinch_out_fast_240hz";
+
+    /** 轨迹录制时的画面尺寸 */
+    public static final float VIEW_WIDTH = 1920;
+    public static final float VIEW_HEIGHT = 1080;
+
+    public final String name;
+    public final int size;
+    public final float[] eventTime;
+    public final float[] focusX;
+    public final float[] focusY;
+    public final float[] span;
+
+    private GestureTrace(String name, float[][] rows) {
+        this.name = name;
+        size = rows.length;
+        eventTime = new float[size];
+        focusX = new float[size];
+        focusY = new float[size];
+        span = new float[size];
+        for (int i = 0; i < size; i++) {
+            float[] row = rows[i];
+            eventTime[i] = row[0];
+            focusX[i] = (row[1] + row[3]) / 2;
+            focusY[i] = (row[2] + row[4]) / 2;
+            // 与 ScaleGestureDetector 一致：跨度为各触点到焦点平均距离的 2 倍
+            float devX = (Math.abs(row[1] - focusX[i]) + Math.abs(row[3] - focusX[i])) / 2;
+            float devY = (Math.abs(row[2] - focusY[i]) + Math.abs(row[4] - focusY[i])) / 2;
+            span[i] = (float) Math.hypot(devX * 2, devY * 2);
+        }
+    }
+
+    public static GestureTrace load(String name) {
+        String path = "/traces/" + name + ".csv";
+        InputStream in = GestureTrace.class.getResourceAsStream(path);
+        if (in == null) {
+            throw new IllegalArgumentException("trace not found: " + path);
+        }
+        List<float[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                float[] row = new float[5];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = Float.parseFloat(parts[i]);
+                }
+                rows.add(row);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("read trace failed: " + path, e);
+        }
+        return new GestureTrace(name, rows.toArray(new float[0][]));
+    }
+}
@@ -0,0 +1,107 @@
+package cn.yinxm.media.video.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import cn.yinxm.media.video.gesture.touch.dispatch.VideoTouchTargets;
+import cn.yinxm.media.video.gesture.touch.transform.AffineTransform2D;
+import cn.yinxm.media.video.gesture.touch.transform.VideoTransformEngine;
+
+/**
+ * MultiVideoGestureLayer 的事件分发：多个播放器按宫格铺满 1920x1080，共用一个 {@link VideoTouchTargets} 与
+ * {@link VideoTransformEngine}，每个播放器只保留自己的矩阵
+ * <p>
+ * 1. dispatchEvent：回放轨迹，手势开始时命中测试锁定播放器，之后每个事件平移到播放器坐标系后缩放平移；
+ * 每次手势轮换到下一个播放器，ns/op 应与播放器数量无关
+ * 2. hitTest：手势开始时的命中测试，命中最先添加的播放器，即倒序查找的最坏情况
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MultiTargetDispatchBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int players;
+
+    private final VideoTouchTargets<AffineTransform2D> mTargets = new VideoTouchTargets<>();
+    private final VideoTransformEngine mEngine = new VideoTransformEngine();
+    private GestureTrace mTrace;
+    /** 轨迹缩放到单个播放器尺寸后的焦点 */
+    private float[] mFocusX;
+    private float[] mFocusY;
+    private float[] mCellLeft;
+    private float[] mCellTop;
+    private int mIndex;
+    private int mGesture;
+
+    @Setup
+    public void setUp() {
+        int columns = (int) Math.ceil(Math.sqrt(players));
+        int rows = (players + columns - 1) / columns;
+        float cellWidth = GestureTrace.VIEW_WIDTH / columns;
+        float cellHeight = GestureTrace.VIEW_HEIGHT / rows;
+        mTargets.clear();
+        mCellLeft = new float[players];
+        mCellTop = new float[players];
+        for (int i = 0; i < players; i++) {
+            mCellLeft[i] = i % columns * cellWidth;
+            mCellTop[i] = i / columns * cellHeight;
+            int index = mTargets.add(new AffineTransform2D());
+            mTargets.setBounds(index, mCellLeft[i], mCellTop[i], mCellLeft[i] + cellWidth, mCellTop[i] + cellHeight);
+        }
+        mTrace = GestureTrace.load(GestureTrace.PINCH_OUT_PAN_120HZ);
+        mFocusX = new float[mTrace.size];
+        mFocusY = new float[mTrace.size];
+        for (int i = 0; i < mTrace.size; i++) {
+            mFocusX[i] = mTrace.focusX[i] * cellWidth / GestureTrace.VIEW_WIDTH;
+            mFocusY[i] = mTrace.focusY[i] * cellHeight / GestureTrace.VIEW_HEIGHT;
+        }
+        mIndex = 0;
+        mGesture = 0;
+    }
+
+    @Benchmark
+    public AffineTransform2D dispatchEvent() {
+        GestureTrace t = mTrace;
+        VideoTouchTargets<AffineTransform2D> targets = mTargets;
+        int i = mIndex;
+        int cell = mGesture;
+        // 事件坐标为手势层坐标
+        float x = mCellLeft[cell] + mFocusX[i];
+        float y = mCellTop[cell] + mFocusY[i];
+        int target = i == 0 ? targets.capture(x, y) : targets.getCaptured();
+        AffineTransform2D matrix = targets.get(target);
+        x -= targets.getLeft(target);
+        y -= targets.getTop(target);
+        if (i == 0) {
+            matrix.reset();
+        } else {
+            mEngine.applyScale(matrix, t.span[i] / t.span[i - 1], mFocusX[0], mFocusY[0],
+                    x - mFocusX[i - 1], y - mFocusY[i - 1]);
+        }
+        if (i + 1 == t.size) {
+            targets.release();
+            mIndex = 0;
+            mGesture = cell + 1 == players ? 0 : cell + 1;
+        } else {
+            mIndex = i + 1;
+        }
+        return matrix;
+    }
+
+    @Benchmark
+    public int hitTest() {
+        return mTargets.capture(mCellLeft[0] + 1, mCellTop[0] + 1);
+    }
+}
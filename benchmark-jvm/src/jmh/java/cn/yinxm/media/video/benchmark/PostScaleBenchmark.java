@@ -0,0 +1,58 @@
+package cn.yinxm.media.video.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import cn.yinxm.media.video.gesture.touch.transform.AffineTransform2D;
+import cn.yinxm.media.video.gesture.touch.transform.VideoTransformEngine;
+
+/**
+ * VideoTouchScaleHandler.processOnScale 单次 onScale 回调的计算开销：缩放上下限约束 + 焦点平移
+ * <p>
+ * 每次调用回放轨迹中的一个事件，轨迹结束后重置矩阵重新开始
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PostScaleBenchmark {
+
+    @Param({GestureTrace.PINCH_OUT_PAN_120HZ, GestureTrace.PINCH_IN_120HZ, GestureTrace.PINCH_OUT_FAST_240HZ})
+    public String trace;
+
+    private GestureTrace mTrace;
+    private final VideoTransformEngine mEngine = new VideoTransformEngine();
+    private final AffineTransform2D mMatrix = new AffineTransform2D();
+    private int mIndex;
+
+    @Setup
+    public void setUp() {
+        mTrace = GestureTrace.load(trace);
+        mMatrix.reset();
+        mIndex = 1;
+    }
+
+    @Benchmark
+    public AffineTransform2D onScaleEvent() {
+        GestureTrace t = mTrace;
+        int i = mIndex;
+        if (i >= t.size) {
+            mMatrix.reset();
+            i = 1;
+        }
+        mEngine.applyScale(mMatrix, t.span[i] / t.span[i - 1], t.focusX[0], t.focusY[0],
+                t.focusX[i] - t.focusX[i - 1], t.focusY[i] - t.focusY[i - 1]);
+        mIndex = i + 1;
+        return mMatrix;
+    }
+}
@@ -0,0 +1,54 @@
+package cn.yinxm.media.video.benchmark;
+
+import java.util.Locale;
+
+import cn.yinxm.media.video.gesture.touch.transform.ScaleGesturePredictor;
+import cn.yinxm.media.video.gesture.touch.transform.ScalePredictionEvaluator;
+
+/**
+ * 缩放预测误差报告：用 {@link ScalePredictionEvaluator} 回放各条轨迹，输出预测与不预测时，
+ * 画面显示时刻的焦点、跨度误差
+ * <p>
+ * 运行：./gradlew :benchmark-jvm:predictionReport
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public final class PredictionErrorReport {
+    private static final long NANOS_PER_MS = 1_000_000L;
+    private static final long[] FRAME_INTERVALS = {16_666_667L, 8_333_333L};
+    private static final float[] MAX_OVERSHOOTS = {8F, ScaleGesturePredictor.DEFAULT_MAX_OVERSHOOT, 64F};
+
+    private PredictionErrorReport() {
+    }
+
+    public static void main(String[] args) {
+        String[] traces = {GestureTrace.PINCH_OUT_PAN_120HZ, GestureTrace.PINCH_IN_120HZ,
+                GestureTrace.PINCH_OUT_FAST_240HZ};
+        System.out.println(String.format(Locale.US, "%-22s %6s %5s %9s %6s | %13s %13s | %13s %13s",
+                "trace", "vsync", "smooth", "overshoot", "frames",
+                "focus mean/max", "hold mean/max", "span mean/max", "hold mean/max"));
+        for (String name : traces) {
+            GestureTrace trace = GestureTrace.load(name);
+            long[] times = new long[trace.size];
+            for (int i = 0; i < trace.size; i++) {
+                times[i] = (long) (trace.eventTime[i] * NANOS_PER_MS);
+            }
+            for (long frameInterval : FRAME_INTERVALS) {
+                for (boolean smoothing : new boolean[]{true, false}) {
+                    for (float maxOvershoot : MAX_OVERSHOOTS) {
+                        ScaleGesturePredictor predictor = new ScaleGesturePredictor();
+                        predictor.setMaxOvershoot(maxOvershoot);
+                        ScalePredictionEvaluator.Result r = new ScalePredictionEvaluator(predictor, smoothing)
+                                .evaluate(times, trace.focusX, trace.focusY, trace.span, trace.size, frameInterval);
+                        System.out.println(String.format(Locale.US,
+                                "%-22s %4dHz %5b %9.0f %6d | %6.2f/%6.2f %6.2f/%6.2f | %6.2f/%6.2f %6.2f/%6.2f",
+                                name, Math.round(1e9 / frameInterval), smoothing, maxOvershoot, r.frameCount,
+                                r.focusMeanError, r.focusMaxError, r.holdFocusMeanError, r.holdFocusMaxError,
+                                r.spanMeanError, r.spanMaxError, r.holdSpanMeanError, r.holdSpanMaxError));
+                    }
+                }
+            }
+        }
+    }
+}
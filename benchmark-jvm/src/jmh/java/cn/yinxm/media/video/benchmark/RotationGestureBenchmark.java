@@ -0,0 +1,159 @@
+package cn.yinxm.media.video.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import cn.yinxm.media.video.gesture.touch.transform.AffineTransform2D;
+import cn.yinxm.media.video.gesture.touch.transform.ScaleGestureIntegrator;
+import cn.yinxm.media.video.gesture.touch.transform.TransformInterpolator;
+import cn.yinxm.media.video.gesture.touch.transform.VideoTransformEngine;
+
+/**
+ * 双指旋转：缩放轨迹上叠加匀速转动的两指向量
+ * <p>
+ * 1. onFrame：与 ScaleIntegratorBenchmark 相同的每帧积分，额外送入两指向量并合并旋转，可直接对比旋转的开销
+ * 2. onGestureEnd：抬手时对齐 90 度并吸边
+ * 3. onSnapAnimationUpdate：对齐动画的逐帧插值（起止角度不同）
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RotationGestureBenchmark {
+    private static final float FRAME_INTERVAL_MS = 1000F / 60;
+    private static final long NANOS_PER_MS = 1_000_000L;
+    /** 整条轨迹转过的角度 */
+    private static final double TWIST_DEGREES = 60;
+    /** 300ms 动画在 60fps 下的帧数 */
+    private static final int ANIM_FRAME_COUNT = 18;
+
+    @Param({GestureTrace.PINCH_OUT_PAN_120HZ, GestureTrace.PINCH_IN_120HZ, GestureTrace.PINCH_OUT_FAST_240HZ})
+    public String trace;
+
+    private GestureTrace mTrace;
+    private float[] mVectorX;
+    private float[] mVectorY;
+    private final VideoTransformEngine mEngine = new VideoTransformEngine();
+    private final ScaleGestureIntegrator mIntegrator = new ScaleGestureIntegrator();
+    private final AffineTransform2D mMatrix = new AffineTransform2D();
+    /** 每帧最后一个采样之后的下标 */
+    private int[] mFrameEnds;
+    private int mFrame;
+
+    private final float[] mContentRect = new float[4];
+    /** 轨迹回放结束时的矩阵 */
+    private final AffineTransform2D mEndOfGesture = new AffineTransform2D();
+    private final AffineTransform2D mSnap = new AffineTransform2D();
+    private final AffineTransform2D mScaleEnd = new AffineTransform2D();
+
+    private final TransformInterpolator mInterpolator = new TransformInterpolator();
+    private final AffineTransform2D mAnimFrame = new AffineTransform2D();
+    private final float[] mFractions = new float[ANIM_FRAME_COUNT];
+    private int mAnimIndex;
+
+    @Setup
+    public void setUp() {
+        mTrace = GestureTrace.load(trace);
+        GestureTrace t = mTrace;
+        // 两指向量：长度为跨度，方向随时间匀速转动，三角函数只在准备阶段计算
+        mVectorX = new float[t.size];
+        mVectorY = new float[t.size];
+        for (int i = 0; i < t.size; i++) {
+            double radians = Math.toRadians(TWIST_DEGREES * i / (t.size - 1));
+            mVectorX[i] = (float) (t.span[i] * Math.cos(radians));
+            mVectorY[i] = (float) (t.span[i] * Math.sin(radians));
+        }
+        mIntegrator.setRotationEnabled(true);
+        int[] frameEnds = new int[t.size];
+        int frames = 0;
+        float frameEnd = t.eventTime[0] + FRAME_INTERVAL_MS;
+        for (int i = 1; i < t.size; i++) {
+            if (t.eventTime[i] >= frameEnd) {
+                frameEnds[frames++] = i;
+                while (t.eventTime[i] >= frameEnd) {
+                    frameEnd += FRAME_INTERVAL_MS;
+                }
+            }
+        }
+        frameEnds[frames++] = t.size;
+        mFrameEnds = Arrays.copyOf(frameEnds, frames);
+
+        mContentRect[2] = GestureTrace.VIEW_WIDTH;
+        mContentRect[3] = GestureTrace.VIEW_HEIGHT;
+        restart();
+        for (int i = 0; i < mFrameEnds.length; i++) {
+            onFrame();
+        }
+        mEndOfGesture.set(mMatrix);
+        AffineTransform2D snapped = mEngine.computeRotationSnap(mEndOfGesture, mContentRect, mSnap)
+                ? mSnap : mEndOfGesture;
+        if (!mEngine.computeScaleEnd(snapped, mContentRect, GestureTrace.VIEW_WIDTH, GestureTrace.VIEW_HEIGHT,
+                mScaleEnd)) {
+            mScaleEnd.set(snapped);
+        }
+        mInterpolator.set(mEndOfGesture, mScaleEnd, GestureTrace.VIEW_WIDTH / 2F, GestureTrace.VIEW_HEIGHT / 2F);
+        for (int i = 0; i < ANIM_FRAME_COUNT; i++) {
+            mFractions[i] = (i + 1) / (float) ANIM_FRAME_COUNT;
+        }
+        mAnimIndex = 0;
+        restart();
+    }
+
+    private void restart() {
+        GestureTrace t = mTrace;
+        mMatrix.reset();
+        mIntegrator.begin((long) (t.eventTime[0] * NANOS_PER_MS), t.focusX[0], t.focusY[0], t.span[0]);
+        mIntegrator.setPointerVector(mVectorX[0], mVectorY[0]);
+        mFrame = 0;
+    }
+
+    @Benchmark
+    public AffineTransform2D onFrame() {
+        GestureTrace t = mTrace;
+        int frame = mFrame;
+        int start = frame == 0 ? 1 : mFrameEnds[frame - 1];
+        int end = mFrameEnds[frame];
+        for (int i = start; i < end; i++) {
+            mIntegrator.addSample((long) (t.eventTime[i] * NANOS_PER_MS), t.focusX[i], t.focusY[i], t.span[i]);
+        }
+        // 旋转只取每帧最后一个事件的向量
+        mIntegrator.setPointerVector(mVectorX[end - 1], mVectorY[end - 1]);
+        mIntegrator.apply(mEngine, mMatrix);
+        if (frame + 1 == mFrameEnds.length) {
+            restart();
+        } else {
+            mFrame = frame + 1;
+        }
+        return mMatrix;
+    }
+
+    @Benchmark
+    public AffineTransform2D onGestureEnd() {
+        AffineTransform2D snapped = mEngine.computeRotationSnap(mEndOfGesture, mContentRect, mSnap)
+                ? mSnap : mEndOfGesture;
+        if (mEngine.computeScaleEnd(snapped, mContentRect, GestureTrace.VIEW_WIDTH, GestureTrace.VIEW_HEIGHT,
+                mScaleEnd)) {
+            return mScaleEnd;
+        }
+        return snapped;
+    }
+
+    @Benchmark
+    public AffineTransform2D onSnapAnimationUpdate() {
+        int i = mAnimIndex;
+        mInterpolator.interpolate(mFractions[i], mAnimFrame);
+        mAnimIndex = i + 1 == ANIM_FRAME_COUNT ? 0 : i + 1;
+        return mAnimFrame;
+    }
+}
@@ -0,0 +1,68 @@
+package cn.yinxm.media.video.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import cn.yinxm.media.video.gesture.touch.transform.AffineTransform2D;
+import cn.yinxm.media.video.gesture.touch.transform.TransformInterpolator;
+import cn.yinxm.media.video.gesture.touch.transform.VideoTransformEngine;
+
+/**
+ * VideoScaleEndAnimator.onAnimationUpdate 的逐帧插值
+ * <p>
+ * 起点为轨迹回放结束时的矩阵，终点为对应的吸边/居中矩阵，按 60fps 的动画进度循环插值
+ *
+ * @author agent
+ * @date 2026/10/17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScaleEndInterpolationBenchmark {
+    /** 300ms 动画在 60fps 下的帧数 */
+    private static final int FRAME_COUNT = 18;
+
+    @Param({GestureTrace.PINCH_OUT_PAN_120HZ, GestureTrace.PINCH_IN_120HZ, GestureTrace.PINCH_OUT_FAST_240HZ})
+    public String trace;
+
+    private final TransformInterpolator mInterpolator = new TransformInterpolator();
+    private final AffineTransform2D mFrame = new AffineTransform2D();
+    private final float[] mFractions = new float[FRAME_COUNT];
+    private int mIndex;
+
+    @Setup
+    public void setUp() {
+        GestureTrace t = GestureTrace.load(trace);
+        VideoTransformEngine engine = new VideoTransformEngine();
+        AffineTransform2D start = new AffineTransform2D();
+        for (int i = 1; i < t.size; i++) {
+            engine.applyScale(start, t.span[i] / t.span[i - 1], t.focusX[0], t.focusY[0],
+                    t.focusX[i] - t.focusX[i - 1], t.focusY[i] - t.focusY[i - 1]);
+        }
+        AffineTransform2D end = new AffineTransform2D();
+        if (!engine.computeScaleEnd(start, GestureTrace.VIEW_WIDTH, GestureTrace.VIEW_HEIGHT, end)) {
+            end.set(start);
+        }
+        mInterpolator.set(start, end);
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            mFractions[i] = (i + 1) / (float) FRAME_COUNT;
+        }
+        mIndex = 0;
+    }
+
+    @Benchmark
+    public AffineTransform2D onAnimationUpdate() {
+        int i = mIndex;
+        mInterpolator.interpolate(mFractions[i], mFrame);
+        mIndex = i + 1 == FRAME_COUNT ? 0 : i + 1;
+        return mFrame;
+    }
+}
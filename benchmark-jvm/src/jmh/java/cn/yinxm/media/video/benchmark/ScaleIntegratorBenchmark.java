@@ -0,0 +1,93 @@
+package cn.yinxm.media.video.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import cn.yinxm.media.video.gesture.touch.transform.AffineTransform2D;
+import cn.yinxm.media.video.gesture.touch.transform.ScaleGestureIntegrator;
+import cn.yinxm.media.video.gesture.touch.transform.VideoTransformEngine;
+
+/**
+ * VideoTouchScaleHandler 的双指缩放积分：每次调用处理 60Hz 的一帧，
+ * 该帧内的所有采样经 One Euro 滤波后累积，再合并为一次 applyScale
+ * <p>
+ * 高采样率轨迹每帧有多个采样，ns/op 为一帧的总开销，可与逐事件计算的 PostScaleBenchmark 对比
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScaleIntegratorBenchmark {
+    private static final float FRAME_INTERVAL_MS = 1000F / 60;
+    private static final long NANOS_PER_MS = 1_000_000L;
+
+    @Param({GestureTrace.PINCH_OUT_PAN_120HZ, GestureTrace.PINCH_IN_120HZ, GestureTrace.PINCH_OUT_FAST_240HZ})
+    public String trace;
+
+    @Param({"true", "false"})
+    public boolean smoothing;
+
+    private GestureTrace mTrace;
+    private final VideoTransformEngine mEngine = new VideoTransformEngine();
+    private final ScaleGestureIntegrator mIntegrator = new ScaleGestureIntegrator();
+    private final AffineTransform2D mMatrix = new AffineTransform2D();
+    /** 每帧最后一个采样之后的下标 */
+    private int[] mFrameEnds;
+    private int mFrame;
+
+    @Setup
+    public void setUp() {
+        mTrace = GestureTrace.load(trace);
+        mIntegrator.setSmoothingEnabled(smoothing);
+        int[] frameEnds = new int[mTrace.size];
+        int frames = 0;
+        float frameEnd = mTrace.eventTime[0] + FRAME_INTERVAL_MS;
+        for (int i = 1; i < mTrace.size; i++) {
+            if (mTrace.eventTime[i] >= frameEnd) {
+                frameEnds[frames++] = i;
+                while (mTrace.eventTime[i] >= frameEnd) {
+                    frameEnd += FRAME_INTERVAL_MS;
+                }
+            }
+        }
+        frameEnds[frames++] = mTrace.size;
+        mFrameEnds = Arrays.copyOf(frameEnds, frames);
+        restart();
+    }
+
+    private void restart() {
+        GestureTrace t = mTrace;
+        mMatrix.reset();
+        mIntegrator.begin((long) (t.eventTime[0] * NANOS_PER_MS), t.focusX[0], t.focusY[0], t.span[0]);
+        mFrame = 0;
+    }
+
+    @Benchmark
+    public AffineTransform2D onFrame() {
+        GestureTrace t = mTrace;
+        int frame = mFrame;
+        int start = frame == 0 ? 1 : mFrameEnds[frame - 1];
+        int end = mFrameEnds[frame];
+        for (int i = start; i < end; i++) {
+            mIntegrator.addSample((long) (t.eventTime[i] * NANOS_PER_MS), t.focusX[i], t.focusY[i], t.span[i]);
+        }
+        mIntegrator.apply(mEngine, mMatrix);
+        if (frame + 1 == mFrameEnds.length) {
+            restart();
+        } else {
+            mFrame = frame + 1;
+        }
+        return mMatrix;
+    }
+}
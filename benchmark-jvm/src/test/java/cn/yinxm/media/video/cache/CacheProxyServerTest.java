@@ -0,0 +1,345 @@
+package cn.yinxm.media.video.cache;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link CacheProxyServer}：本地 HttpServer 充当源站，验证 Range 请求、部分下载后的缓存命中与淘汰
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class CacheProxyServerTest {
+    private static final int SEGMENT_SIZE = 4096;
+    /** 4 个完整段 + 最后一段 100 字节 */
+    private static final int FILE_LENGTH = 4 * SEGMENT_SIZE + 100;
+    private static final int LAST_SEGMENT = 4;
+    private static final long AWAIT_TIMEOUT_MS = 5000;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private HttpServer mOrigin;
+    /** 源站收到的请求：路径与 Range 头 */
+    private final List<String> mOriginRequests = new ArrayList<>();
+    private final byte[] mFileA = content(1);
+    private final byte[] mFileB = content(2);
+    private File mCacheDir;
+    private CacheProxyServer mProxy;
+
+    @Before
+    public void setUp() throws IOException {
+        mOrigin = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        mOrigin.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                serveOrigin(exchange);
+            }
+        });
+        mOrigin.start();
+        mCacheDir = mFolder.newFolder("cache");
+    }
+
+    @After
+    public void tearDown() {
+        if (mProxy != null) {
+            mProxy.stop();
+        }
+        mOrigin.stop(0);
+    }
+
+    @Test
+    public void fullRequestThenCacheHit() throws IOException {
+        startProxy(16 * SEGMENT_SIZE);
+        Response first = get(urlA(), null);
+        assertEquals(200, first.code);
+        assertEquals("video/mp4", first.contentType);
+        assertArrayEquals(mFileA, first.body);
+        assertEquals(1, originRequestCount());
+        awaitCached(urlA(), LAST_SEGMENT);
+
+        Response second = get(urlA(), null);
+        assertEquals(200, second.code);
+        assertArrayEquals(mFileA, second.body);
+        // 全部命中缓存，不再回源
+        assertEquals(1, originRequestCount());
+    }
+
+    @Test
+    public void rangedRequest() throws IOException {
+        startProxy(16 * SEGMENT_SIZE);
+        Response response = get(urlA(), "bytes=5000-9999");
+        assertEquals(206, response.code);
+        assertEquals("bytes 5000-9999/" + FILE_LENGTH, response.contentRange);
+        assertArrayEquals(Arrays.copyOfRange(mFileA, 5000, 10000), response.body);
+        // 从请求起点所在段的起点回源
+        assertEquals("/a.mp4 bytes=" + SEGMENT_SIZE + "-", mOriginRequests.get(0));
+
+        Response open = get(urlA(), "bytes=" + (FILE_LENGTH - 10) + "-");
+        assertEquals(206, open.code);
+        assertArrayEquals(Arrays.copyOfRange(mFileA, FILE_LENGTH - 10, FILE_LENGTH), open.body);
+
+        Response beyond = get(urlA(), "bytes=" + FILE_LENGTH + "-");
+        assertEquals(416, beyond.code);
+        assertEquals("bytes */" + FILE_LENGTH, beyond.contentRange);
+    }
+
+    @Test
+    public void suffixRange() throws IOException {
+        startProxy(16 * SEGMENT_SIZE);
+        Response tail = get(urlA(), "bytes=-300");
+        assertEquals(206, tail.code);
+        assertEquals("bytes " + (FILE_LENGTH - 300) + "-" + (FILE_LENGTH - 1) + "/" + FILE_LENGTH,
+                tail.contentRange);
+        assertArrayEquals(Arrays.copyOfRange(mFileA, FILE_LENGTH - 300, FILE_LENGTH), tail.body);
+
+        Response whole = get(urlA(), "bytes=-" + (FILE_LENGTH * 2));
+        assertEquals(206, whole.code);
+        assertArrayEquals(mFileA, whole.body);
+
+        assertEquals(416, get(urlA(), "bytes=-0").code);
+    }
+
+    @Test
+    public void cacheHitAfterPartialDownload() throws IOException {
+        startProxy(16 * SEGMENT_SIZE);
+        // 只请求第 0 段的前 100 字节，代理仍下载完整的第 0 段写入缓存
+        Response partial = get(urlA(), "bytes=0-99");
+        assertArrayEquals(Arrays.copyOfRange(mFileA, 0, 100), partial.body);
+        assertEquals(1, originRequestCount());
+        awaitCached(urlA(), 0);
+
+        // 第 0 段命中缓存，只从第 1 段的起点回源
+        Response response = get(urlA(), "bytes=100-" + (2 * SEGMENT_SIZE - 1));
+        assertArrayEquals(Arrays.copyOfRange(mFileA, 100, 2 * SEGMENT_SIZE), response.body);
+        assertEquals(2, originRequestCount());
+        assertEquals("/a.mp4 bytes=" + SEGMENT_SIZE + "-", mOriginRequests.get(1));
+        awaitCached(urlA(), 1);
+
+        // 前两段都已缓存
+        Response cached = get(urlA(), "bytes=0-" + (2 * SEGMENT_SIZE - 1));
+        assertArrayEquals(Arrays.copyOfRange(mFileA, 0, 2 * SEGMENT_SIZE), cached.body);
+        assertEquals(2, originRequestCount());
+    }
+
+    @Test
+    public void evictionKeepsCacheWithinLimit() throws IOException {
+        startProxy(3 * SEGMENT_SIZE);
+        assertArrayEquals(mFileA, get(urlA(), null).body);
+        awaitCached(urlA(), LAST_SEGMENT);
+        SegmentCache cache = mProxy.getCache();
+        assertTrue(cache.getTotalBytes() <= 3 * SEGMENT_SIZE);
+        String keyA = SegmentCache.keyOf(urlA());
+        // 最早写入的段已被淘汰
+        assertFalse(cache.contains(keyA, 0));
+
+        // 播放另一个文件，a 的段全部被淘汰，meta 随之删除
+        assertArrayEquals(mFileB, get(urlB(), null).body);
+        awaitCached(urlB(), LAST_SEGMENT);
+        assertTrue(cache.getTotalBytes() <= 3 * SEGMENT_SIZE);
+        for (int i = 0; i <= LAST_SEGMENT; i++) {
+            assertFalse(cache.contains(keyA, i));
+        }
+        assertFalse(new File(new File(mCacheDir, keyA), "meta").exists());
+
+        // 被淘汰后重新回源，内容仍正确
+        int requests = originRequestCount();
+        assertArrayEquals(mFileA, get(urlA(), null).body);
+        assertTrue(originRequestCount() > requests);
+    }
+
+    @Test
+    public void headReturnsLengthOnly() throws IOException {
+        startProxy(16 * SEGMENT_SIZE);
+        HttpURLConnection connection = (HttpURLConnection) new URL(mProxy.getProxyUrl(urlA())).openConnection();
+        connection.setRequestMethod("HEAD");
+        try {
+            assertEquals(200, connection.getResponseCode());
+            assertEquals(String.valueOf(FILE_LENGTH), connection.getHeaderField("Content-Length"));
+            assertEquals("bytes", connection.getHeaderField("Accept-Ranges"));
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    public void unsupportedSchemeIsBadRequest() throws IOException {
+        startProxy(16 * SEGMENT_SIZE);
+        // getProxyUrl 不转换其他协议，直接构造代理地址
+        assertEquals(400, request(proxyUrl("file:///etc/hosts"), null).code);
+        assertEquals(400, request(proxyUrl("ftp://127.0.0.1/a.mp4"), null).code);
+        assertEquals(0, originRequestCount());
+    }
+
+    @Test
+    public void malformedEscapeIsBadRequest() throws IOException {
+        startProxy(16 * SEGMENT_SIZE);
+        assertEquals(400, request("http://127.0.0.1:" + mProxy.getPort() + "/http%3A%2F%2Fa%zz", null).code);
+        // 代理仍可继续处理请求
+        assertArrayEquals(mFileA, get(urlA(), null).body);
+    }
+
+    @Test
+    public void unreachableOriginIsBadGateway() throws IOException {
+        startProxy(16 * SEGMENT_SIZE);
+        ServerSocket closed = new ServerSocket(0);
+        int port = closed.getLocalPort();
+        closed.close();
+        Response response = get("http://127.0.0.1:" + port + "/a.mp4", "bytes=0-99");
+        assertEquals(502, response.code);
+        assertEquals(0, response.body.length);
+    }
+
+    private void startProxy(long maxBytes) throws IOException {
+        mProxy = new CacheProxyServer(new SegmentCache(mCacheDir, maxBytes, SEGMENT_SIZE));
+        mProxy.start();
+    }
+
+    private String urlA() {
+        return "http://127.0.0.1:" + mOrigin.getAddress().getPort() + "/a.mp4";
+    }
+
+    private String urlB() {
+        return "http://127.0.0.1:" + mOrigin.getAddress().getPort() + "/b.mp4";
+    }
+
+    /**
+     * 代理先把数据返回给播放器，再把整段写入缓存，客户端读完响应时缓存可能还未写入
+     */
+    private void awaitCached(String url, int index) {
+        String key = SegmentCache.keyOf(url);
+        long deadline = System.currentTimeMillis() + AWAIT_TIMEOUT_MS;
+        while (!mProxy.getCache().contains(key, index)) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("segment " + index + " of " + url + " not cached");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("interrupted");
+            }
+        }
+    }
+
+    private int originRequestCount() {
+        synchronized (mOriginRequests) {
+            return mOriginRequests.size();
+        }
+    }
+
+    /**
+     * 源站：支持 bytes=start- 形式的 Range
+     */
+    private void serveOrigin(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        synchronized (mOriginRequests) {
+            mOriginRequests.add(path + (range != null ? " " + range : ""));
+        }
+        byte[] file = "/a.mp4".equals(path) ? mFileA : "/b.mp4".equals(path) ? mFileB : null;
+        if (file == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        int start = 0;
+        if (range != null && range.startsWith("bytes=") && range.endsWith("-")) {
+            start = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+        }
+        exchange.getResponseHeaders().set("Content-Type", "video/mp4");
+        exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+        if (range != null) {
+            exchange.getResponseHeaders().set("Content-Range",
+                    "bytes " + start + "-" + (file.length - 1) + "/" + file.length);
+            exchange.sendResponseHeaders(206, file.length - start);
+        } else {
+            exchange.sendResponseHeaders(200, file.length);
+        }
+        OutputStream out = exchange.getResponseBody();
+        try {
+            out.write(file, start, file.length - start);
+        } catch (IOException ignored) {
+            // 代理读完所需的段后会提前断开
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String proxyUrl(String url) throws IOException {
+        return "http://127.0.0.1:" + mProxy.getPort() + "/" + URLEncoder.encode(url, "UTF-8");
+    }
+
+    private Response get(String url, String range) throws IOException {
+        return request(mProxy.getProxyUrl(url), range);
+    }
+
+    private Response request(String proxyUrl, String range) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(proxyUrl).openConnection();
+        if (range != null) {
+            connection.setRequestProperty("Range", range);
+        }
+        try {
+            Response response = new Response();
+            response.code = connection.getResponseCode();
+            response.contentType = connection.getContentType();
+            response.contentRange = connection.getHeaderField("Content-Range");
+            InputStream in = response.code < 400 ? connection.getInputStream() : connection.getErrorStream();
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            if (in != null) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    body.write(buffer, 0, read);
+                }
+                in.close();
+            }
+            response.body = body.toByteArray();
+            return response;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static byte[] content(int seed) {
+        byte[] data = new byte[FILE_LENGTH];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (seed * 131 + i * 7 + (i >> 8));
+        }
+        return data;
+    }
+
+    private static class Response {
+        int code;
+        String contentType;
+        String contentRange;
+        byte[] body;
+    }
+}
@@ -0,0 +1,149 @@
+package cn.yinxm.media.video.cache;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link SegmentCache}：读写、LRU 淘汰，段全部淘汰后 meta 文件与内存中的 meta 一并删除
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class SegmentCacheTest {
+    private static final int SEGMENT_SIZE = 1024;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private File mCacheDir;
+
+    @Before
+    public void setUp() throws IOException {
+        mCacheDir = mFolder.newFolder("cache");
+    }
+
+    @Test
+    public void writeThenRead() throws IOException {
+        SegmentCache cache = new SegmentCache(mCacheDir, 10 * SEGMENT_SIZE, SEGMENT_SIZE);
+        byte[] data = segment(7, SEGMENT_SIZE);
+        cache.write("a", 0, data, 100);
+        assertTrue(cache.contains("a", 0));
+        assertFalse(cache.contains("a", 1));
+
+        ByteBuffer buffer = cache.read("a", 0);
+        assertNotNull(buffer);
+        assertEquals(100, buffer.remaining());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(data[i], buffer.get(i));
+        }
+        assertNull(cache.read("a", 1));
+        assertEquals(100, cache.getTotalBytes());
+    }
+
+    @Test
+    public void trimEvictsLeastRecentlyUsed() throws IOException {
+        SegmentCache cache = new SegmentCache(mCacheDir, 3 * SEGMENT_SIZE, SEGMENT_SIZE);
+        cache.write("a", 0, segment(1, SEGMENT_SIZE), SEGMENT_SIZE);
+        cache.write("a", 1, segment(2, SEGMENT_SIZE), SEGMENT_SIZE);
+        cache.write("a", 2, segment(3, SEGMENT_SIZE), SEGMENT_SIZE);
+        // 访问第 0 段，第 1 段变为最久未访问
+        assertNotNull(cache.read("a", 0));
+        cache.write("a", 3, segment(4, SEGMENT_SIZE), SEGMENT_SIZE);
+
+        assertTrue(cache.contains("a", 0));
+        assertFalse(cache.contains("a", 1));
+        assertFalse(new File(new File(mCacheDir, "a"), "1.seg").exists());
+        assertEquals(3 * SEGMENT_SIZE, cache.getTotalBytes());
+    }
+
+    @Test
+    public void evictingLastSegmentDeletesMeta() throws IOException {
+        SegmentCache cache = new SegmentCache(mCacheDir, 2 * SEGMENT_SIZE, SEGMENT_SIZE);
+        cache.putMetadata("a", 2 * SEGMENT_SIZE, "video/mp4");
+        cache.write("a", 0, segment(1, SEGMENT_SIZE), SEGMENT_SIZE);
+        cache.write("a", 1, segment(2, SEGMENT_SIZE), SEGMENT_SIZE);
+        File meta = new File(new File(mCacheDir, "a"), "meta");
+        assertTrue(meta.exists());
+
+        // 淘汰 a 的第 0 段，a 仍有段，meta 保留
+        cache.putMetadata("b", 2 * SEGMENT_SIZE, "video/mp4");
+        cache.write("b", 0, segment(3, SEGMENT_SIZE), SEGMENT_SIZE);
+        assertFalse(cache.contains("a", 0));
+        assertTrue(meta.exists());
+        assertNotNull(cache.getMetadata("a"));
+
+        // 淘汰 a 的最后一段，meta 文件与内存中的 meta 都删除
+        cache.write("b", 1, segment(4, SEGMENT_SIZE), SEGMENT_SIZE);
+        assertFalse(cache.contains("a", 1));
+        assertFalse(meta.exists());
+        assertNull(cache.getMetadata("a"));
+        assertEquals("video/mp4", cache.getMetadata("b").contentType);
+    }
+
+    @Test
+    public void reloadRestoresIndexAndDropsOrphanMeta() throws IOException {
+        SegmentCache cache = new SegmentCache(mCacheDir, 4 * SEGMENT_SIZE, SEGMENT_SIZE);
+        cache.putMetadata("a", 3 * SEGMENT_SIZE, "video/mp4");
+        cache.write("a", 0, segment(1, SEGMENT_SIZE), SEGMENT_SIZE);
+        cache.write("a", 1, segment(2, 100), 100);
+        // 旧版本淘汰段时遗留的只有 meta 的目录
+        SegmentCache old = new SegmentCache(mCacheDir, 4 * SEGMENT_SIZE, SEGMENT_SIZE);
+        old.putMetadata("orphan", 10, "video/mp4");
+        File orphanDir = new File(mCacheDir, "orphan");
+        assertTrue(orphanDir.exists());
+
+        SegmentCache reloaded = new SegmentCache(mCacheDir, 4 * SEGMENT_SIZE, SEGMENT_SIZE);
+        assertEquals(SEGMENT_SIZE + 100, reloaded.getTotalBytes());
+        assertTrue(reloaded.contains("a", 0));
+        assertTrue(reloaded.contains("a", 1));
+        assertEquals(3 * SEGMENT_SIZE, reloaded.getMetadata("a").length);
+        assertFalse(orphanDir.exists());
+        assertNull(reloaded.getMetadata("orphan"));
+    }
+
+    @Test
+    public void reloadWithSmallerLimitTrims() throws IOException {
+        SegmentCache cache = new SegmentCache(mCacheDir, 4 * SEGMENT_SIZE, SEGMENT_SIZE);
+        cache.putMetadata("a", 2 * SEGMENT_SIZE, "video/mp4");
+        cache.write("a", 0, segment(1, SEGMENT_SIZE), SEGMENT_SIZE);
+        cache.write("a", 1, segment(2, SEGMENT_SIZE), SEGMENT_SIZE);
+
+        SegmentCache reloaded = new SegmentCache(mCacheDir, SEGMENT_SIZE / 2, SEGMENT_SIZE);
+        assertEquals(0, reloaded.getTotalBytes());
+        assertNull(reloaded.getMetadata("a"));
+        assertFalse(new File(new File(mCacheDir, "a"), "meta").exists());
+    }
+
+    @Test
+    public void clearRemovesEverything() throws IOException {
+        SegmentCache cache = new SegmentCache(mCacheDir, 4 * SEGMENT_SIZE, SEGMENT_SIZE);
+        cache.putMetadata("a", SEGMENT_SIZE, "video/mp4");
+        cache.write("a", 0, segment(1, SEGMENT_SIZE), SEGMENT_SIZE);
+        cache.clear();
+        assertEquals(0, cache.getTotalBytes());
+        assertFalse(cache.contains("a", 0));
+        assertNull(cache.getMetadata("a"));
+        String[] files = mCacheDir.list();
+        assertEquals(0, files == null ? 0 : files.length);
+    }
+
+    private static byte[] segment(int seed, int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (seed * 31 + i);
+        }
+        return data;
+    }
+}
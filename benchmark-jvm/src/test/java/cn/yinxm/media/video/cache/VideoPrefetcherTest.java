@@ -0,0 +1,101 @@
+package cn.yinxm.media.video.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link VideoPrefetcher#recordPlay}：缓存被占用（扫描索引、写段）时调用方不阻塞，统计在后台完成
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class VideoPrefetcherTest {
+    private static final String URL = "http://127.0.0.1/a.mp4";
+    private static final long AWAIT_TIMEOUT_MS = 5000;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private SegmentCache mCache;
+    private VideoPrefetcher mPrefetcher;
+
+    @Before
+    public void setUp() throws IOException {
+        mCache = new SegmentCache(mFolder.newFolder("cache"), 1024 * 1024, 1024);
+        mPrefetcher = new VideoPrefetcher(mCache);
+    }
+
+    @After
+    public void tearDown() {
+        mPrefetcher.shutdown();
+    }
+
+    @Test
+    public void recordPlayDoesNotWaitForCacheLock() throws Exception {
+        mCache.write(SegmentCache.keyOf(URL), 0, new byte[1024], 1024);
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                // 模拟写缓存期间持有锁
+                synchronized (mCache) {
+                    locked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        });
+        holder.start();
+        assertTrue(locked.await(AWAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        long start = System.nanoTime();
+        mPrefetcher.recordPlay(URL);
+        mPrefetcher.recordPlay("http://127.0.0.1/b.mp4");
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(0, mPrefetcher.getStats().playCount);
+
+        release.countDown();
+        holder.join();
+        awaitPlayCount(2);
+        PrefetchStats stats = mPrefetcher.getStats();
+        assertEquals(1, stats.hitCount);
+    }
+
+    @Test
+    public void preloadedPlayIsNotCountedAsHit() throws Exception {
+        // 预加载的播放器经代理写入的缓存
+        mCache.write(SegmentCache.keyOf(URL), 0, new byte[1024], 1024);
+        mPrefetcher.recordPreloadedPlay();
+        mPrefetcher.recordPlay("http://127.0.0.1/b.mp4");
+        awaitPlayCount(1);
+        PrefetchStats stats = mPrefetcher.getStats();
+        assertEquals(1, stats.preloadedPlayCount);
+        assertEquals(0, stats.hitCount);
+        assertEquals(0, stats.getHitRate(), 0);
+    }
+
+    private void awaitPlayCount(long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + AWAIT_TIMEOUT_MS;
+        while (mPrefetcher.getStats().playCount < count) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("play not recorded");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
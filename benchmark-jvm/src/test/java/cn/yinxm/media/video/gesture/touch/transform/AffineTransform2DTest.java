@@ -0,0 +1,222 @@
+package cn.yinxm.media.video.gesture.touch.transform;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link AffineTransform2D} 与 android.graphics.Matrix 的语义一致性：期望值按 Matrix 的定义手工计算
+ * <p>
+ * post 为左乘（M' = T * M），pre 为右乘（M' = M * T），旋转在 y 轴向下的坐标系中顺时针
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class AffineTransform2DTest {
+    private static final float EPSILON = 1e-4F;
+
+    @Test
+    public void resetIsIdentity() {
+        AffineTransform2D m = new AffineTransform2D();
+        m.set(2, 3, 4, 5, 6, 7);
+        m.reset();
+        assertTrue(m.isIdentity());
+        assertMatrix(m, 1, 0, 0, 0, 1, 0);
+    }
+
+    @Test
+    public void valuesUseMatrixLayout() {
+        AffineTransform2D m = new AffineTransform2D();
+        m.set(1, 2, 3, 4, 5, 6);
+        float[] values = new float[9];
+        m.getValues(values);
+        assertArrayEquals(new float[]{1, 2, 3, 4, 5, 6, 0, 0, 1}, values, 0);
+
+        AffineTransform2D copy = new AffineTransform2D();
+        copy.setValues(values);
+        assertMatrix(copy, 1, 2, 3, 4, 5, 6);
+    }
+
+    @Test
+    public void setScaleWithPivot() {
+        AffineTransform2D m = new AffineTransform2D();
+        m.setScale(2, 3, 10, 20);
+        // 中心点不动：T(10, 20) * S(2, 3) * T(-10, -20)
+        assertMatrix(m, 2, 0, -10, 0, 3, -40);
+        assertPoint(m, 10, 20, 10, 20);
+    }
+
+    @Test
+    public void setRotateWithPivot() {
+        AffineTransform2D m = new AffineTransform2D();
+        m.setRotate(90, 100, 50);
+        // 90 度取精确值
+        assertMatrix(m, 0, -1, 150, 1, 0, -50);
+        assertPoint(m, 100, 50, 100, 50);
+        // 中心右侧的点顺时针转到中心下方
+        assertPoint(m, 110, 50, 100, 60);
+
+        m.setRotate(30, 0, 0);
+        float cos = (float) Math.cos(Math.toRadians(30));
+        assertMatrix(m, cos, -0.5F, 0, 0.5F, cos, 0);
+
+        m.setRotate(-90, 0, 0);
+        assertMatrix(m, 0, 1, 0, -1, 0, 0);
+        m.setRotate(540, 0, 0);
+        assertMatrix(m, -1, 0, 0, 0, -1, 0);
+    }
+
+    @Test
+    public void postTranslateAndPostScale() {
+        AffineTransform2D m = new AffineTransform2D();
+        m.setScale(2, 2, 0, 0);
+        m.postTranslate(10, 20);
+        assertMatrix(m, 2, 0, 10, 0, 2, 20);
+        // S(3, 3, 5, 5) * M
+        m.postScale(3, 3, 5, 5);
+        assertMatrix(m, 6, 0, 20, 0, 6, 50);
+        m.postScale(0.5F, 0.5F);
+        assertMatrix(m, 3, 0, 10, 0, 3, 25);
+    }
+
+    @Test
+    public void postConcatIsLeftMultiply() {
+        AffineTransform2D translate = new AffineTransform2D();
+        translate.postTranslate(10, 0);
+        AffineTransform2D scale = new AffineTransform2D();
+        scale.setScale(2, 2, 0, 0);
+
+        // post：先平移再缩放，x -> 2 * (x + 10)
+        AffineTransform2D post = new AffineTransform2D(translate);
+        post.postConcat(scale);
+        assertMatrix(post, 2, 0, 20, 0, 2, 0);
+
+        // pre：先缩放再平移，x -> 2 * x + 10
+        AffineTransform2D pre = new AffineTransform2D(translate);
+        pre.preConcat(scale);
+        assertMatrix(pre, 2, 0, 10, 0, 2, 0);
+    }
+
+    @Test
+    public void concatWithRotation() {
+        AffineTransform2D rotate = new AffineTransform2D();
+        rotate.setRotate(90, 0, 0);
+        AffineTransform2D m = new AffineTransform2D();
+        m.set(1, 0, 5, 0, 2, 7);
+
+        // R * M
+        AffineTransform2D post = new AffineTransform2D(m);
+        post.postConcat(rotate);
+        assertMatrix(post, 0, -2, -7, 1, 0, 5);
+
+        // M * R
+        AffineTransform2D pre = new AffineTransform2D(m);
+        pre.preConcat(rotate);
+        assertMatrix(pre, 0, -1, 5, 2, 0, 7);
+    }
+
+    @Test
+    public void postRotateMatchesSetRotateConcat() {
+        AffineTransform2D m = new AffineTransform2D();
+        m.setScale(1.5F, 1.5F, 100, 50);
+        m.postTranslate(10, 20);
+        AffineTransform2D expected = new AffineTransform2D(m);
+        AffineTransform2D rotate = new AffineTransform2D();
+        rotate.setRotate(30, 300, 200);
+        expected.postConcat(rotate);
+
+        double radians = Math.toRadians(30);
+        m.postRotate((float) Math.cos(radians), (float) Math.sin(radians), 300, 200);
+        assertMatrix(m, expected.getScaleX(), expected.getSkewX(), expected.getTransX(),
+                expected.getSkewY(), expected.getScaleY(), expected.getTransY());
+        assertEquals(1.5F, m.getScale(), EPSILON);
+    }
+
+    @Test
+    public void mapRectReturnsBoundingBox() {
+        AffineTransform2D m = new AffineTransform2D();
+        m.setScale(2, 3, 0, 0);
+        m.postTranslate(10, 20);
+        float[] rect = {0, 0, 100, 50};
+        m.mapRect(rect);
+        assertArrayEquals(new float[]{10, 20, 210, 170}, rect, EPSILON);
+
+        // 旋转 90 度：(x, y) -> (-y, x)
+        m.setRotate(90, 0, 0);
+        rect = new float[]{0, 0, 100, 50};
+        m.mapRect(rect);
+        assertArrayEquals(new float[]{-50, 0, 0, 100}, rect, EPSILON);
+
+        // 旋转 45 度：包围盒为对角线长度
+        m.setRotate(45, 0, 0);
+        rect = new float[]{0, 0, 100, 100};
+        m.mapRect(rect);
+        float half = (float) (100 * Math.sqrt(2) / 2);
+        assertArrayEquals(new float[]{-half, 0, half, 2 * half}, rect, EPSILON);
+    }
+
+    @Test
+    public void invert() {
+        AffineTransform2D m = new AffineTransform2D();
+        m.set(2, 0, 10, 0, 4, 20);
+        AffineTransform2D inverse = new AffineTransform2D();
+        assertTrue(m.invert(inverse));
+        assertMatrix(inverse, 0.5F, 0, -5, 0, 0.25F, -5);
+
+        // 任意仿射矩阵：M * M^-1 = I
+        m.setRotate(30, 100, 50);
+        m.postScale(1.5F, 0.5F, 20, 10);
+        m.postTranslate(-7, 3);
+        assertTrue(m.invert(inverse));
+        AffineTransform2D product = new AffineTransform2D(m);
+        product.preConcat(inverse);
+        assertMatrix(product, 1, 0, 0, 0, 1, 0);
+
+        // 可以原地求逆
+        AffineTransform2D self = new AffineTransform2D(m);
+        assertTrue(self.invert(self));
+        assertMatrix(self, inverse.getScaleX(), inverse.getSkewX(), inverse.getTransX(),
+                inverse.getSkewY(), inverse.getScaleY(), inverse.getTransY());
+    }
+
+    @Test
+    public void invertSingularLeavesOutUnchanged() {
+        AffineTransform2D m = new AffineTransform2D();
+        m.set(1, 2, 3, 2, 4, 5);
+        AffineTransform2D out = new AffineTransform2D();
+        out.set(9, 8, 7, 6, 5, 4);
+        assertFalse(m.invert(out));
+        assertMatrix(out, 9, 8, 7, 6, 5, 4);
+    }
+
+    @Test
+    public void getScaleOfSimilarity() {
+        AffineTransform2D m = new AffineTransform2D();
+        m.setRotate(37, 10, 10);
+        m.postScale(2.5F, 2.5F, 0, 0);
+        assertEquals(2.5F, m.getScale(), EPSILON);
+        m.setRotate(180, 0, 0);
+        assertEquals(1F, m.getScale(), 0);
+    }
+
+    static void assertMatrix(AffineTransform2D m, float scaleX, float skewX, float transX,
+                             float skewY, float scaleY, float transY) {
+        String message = m.toString();
+        assertEquals(message, scaleX, m.getScaleX(), EPSILON);
+        assertEquals(message, skewX, m.getSkewX(), EPSILON);
+        assertEquals(message, transX, m.getTransX(), EPSILON);
+        assertEquals(message, skewY, m.getSkewY(), EPSILON);
+        assertEquals(message, scaleY, m.getScaleY(), EPSILON);
+        assertEquals(message, transY, m.getTransY(), EPSILON);
+    }
+
+    private static void assertPoint(AffineTransform2D m, float x, float y, float expectedX, float expectedY) {
+        float[] rect = {x, y, x, y};
+        m.mapRect(rect);
+        assertEquals(expectedX, rect[0], EPSILON);
+        assertEquals(expectedY, rect[1], EPSILON);
+    }
+}
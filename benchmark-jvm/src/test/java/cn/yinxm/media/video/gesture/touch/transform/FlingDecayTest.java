@@ -0,0 +1,155 @@
+package cn.yinxm.media.video.gesture.touch.transform;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link FlingDecay}：用模拟速度验证位移公式、停止条件与边界截断
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class FlingDecayTest {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long FRAME_NANOS = 16_666_667L;
+    private static final float TAU = FlingDecay.DEFAULT_TIME_CONSTANT;
+    private static final float MIN_VELOCITY = FlingDecay.DEFAULT_MIN_VELOCITY;
+    private static final float FAR = 1_000_000;
+    private static final float EPSILON = 0.01F;
+
+    @Test
+    public void displacementFollowsExponentialDecay() {
+        FlingDecay decay = new FlingDecay();
+        long start = 5 * NANOS_PER_SECOND;
+        decay.fling(10, 20, 2000, -1000, -FAR, FAR, -FAR, FAR, start);
+        assertFalse(decay.isFinished());
+
+        // t = τ：x = x0 + v0 * τ * (1 - 1/e)
+        long t = start + (long) (TAU * NANOS_PER_SECOND);
+        assertTrue(decay.computeOffset(t));
+        double ratio = TAU * (1 - Math.exp(-1));
+        assertEquals(10 + 2000 * ratio, decay.getCurrX(), EPSILON);
+        assertEquals(20 - 1000 * ratio, decay.getCurrY(), EPSILON);
+
+        // 早于开始时间按 t = 0 处理
+        decay.fling(10, 20, 2000, -1000, -FAR, FAR, -FAR, FAR, start);
+        assertTrue(decay.computeOffset(start - FRAME_NANOS));
+        assertEquals(10, decay.getCurrX(), 0);
+        assertEquals(20, decay.getCurrY(), 0);
+    }
+
+    @Test
+    public void stopsWhenVelocityDecaysToMinimum() {
+        FlingDecay decay = new FlingDecay();
+        float velocity = 3000;
+        decay.fling(0, 0, velocity, velocity / 2, -FAR, FAR, -FAR, FAR, 0);
+        // 时长 τ * ln(v0 / vMin)，结束时速度衰减到 vMin，位移为 τ * (v0 - vMin)
+        double duration = TAU * Math.log(velocity / MIN_VELOCITY);
+
+        long t = 0;
+        int frames = 0;
+        float lastX = 0;
+        while (decay.computeOffset(t)) {
+            // 单调前进
+            assertTrue(decay.getCurrX() >= lastX);
+            lastX = decay.getCurrX();
+            t += FRAME_NANOS;
+            frames++;
+        }
+        assertTrue(decay.isFinished());
+        // t = 0 起每帧一次，直到第一个不早于结束时间的帧
+        assertEquals(Math.ceil(duration * NANOS_PER_SECOND / FRAME_NANOS) + 1, frames, 1);
+        assertEquals(TAU * (velocity - MIN_VELOCITY), decay.getCurrX(), 0.5F);
+        assertEquals(TAU * (velocity / 2 - MIN_VELOCITY / 2), decay.getCurrY(), 0.5F);
+        // 结束后位置不再变化
+        assertFalse(decay.computeOffset(t + NANOS_PER_SECOND));
+        assertEquals(lastX, decay.getCurrX(), 0);
+    }
+
+    @Test
+    public void slowVelocityDoesNotStart() {
+        FlingDecay decay = new FlingDecay();
+        decay.fling(5, 6, MIN_VELOCITY, -MIN_VELOCITY, -FAR, FAR, -FAR, FAR, 0);
+        assertTrue(decay.isFinished());
+        assertFalse(decay.computeOffset(FRAME_NANOS));
+        assertEquals(5, decay.getCurrX(), 0);
+        assertEquals(6, decay.getCurrY(), 0);
+    }
+
+    @Test
+    public void frictionChangesDistance() {
+        FlingDecay decay = new FlingDecay();
+        decay.setFriction(0.5F, 100);
+        decay.fling(0, 0, 1000, 0, -FAR, FAR, -FAR, FAR, 0);
+        assertTrue(decay.computeOffset(10 * NANOS_PER_SECOND));
+        assertTrue(decay.isFinished());
+        assertEquals(0.5F * (1000 - 100), decay.getCurrX(), 0.5F);
+    }
+
+    @Test
+    public void clampsAtBoundsAndFinishesWhenBothAxesStop() {
+        FlingDecay decay = new FlingDecay();
+        // x 方向 0.1s 内到达边界 100，y 方向滑向 -50
+        decay.fling(0, 0, 4000, -4000, -200, 100, -50, 200, 0);
+        long t = 0;
+        while (decay.computeOffset(t)) {
+            assertTrue(decay.getCurrX() <= 100);
+            assertTrue(decay.getCurrY() >= -50);
+            t += FRAME_NANOS;
+        }
+        assertEquals(100, decay.getCurrX(), 0);
+        assertEquals(-50, decay.getCurrY(), 0);
+        // 远早于自然停止时间 τ * ln(80) ≈ 1.42s 结束
+        assertTrue(t < NANOS_PER_SECOND / 2);
+    }
+
+    @Test
+    public void clampedAxisStopsWhileOtherAxisContinues() {
+        FlingDecay decay = new FlingDecay();
+        decay.fling(0, 0, 3000, 1000, -10, 10, -FAR, FAR, 0);
+        assertTrue(decay.computeOffset(NANOS_PER_SECOND / 10));
+        assertEquals(10, decay.getCurrX(), 0);
+        // y 方向未到边界，继续滑动
+        assertFalse(decay.isFinished());
+        float y = decay.getCurrY();
+        assertTrue(decay.computeOffset(NANOS_PER_SECOND / 5));
+        assertEquals(10, decay.getCurrX(), 0);
+        assertTrue(decay.getCurrY() > y);
+    }
+
+    @Test
+    public void zeroVelocityAxisFinishesWithClampedAxis() {
+        FlingDecay decay = new FlingDecay();
+        decay.fling(0, 7, -3000, 0, -20, 20, -FAR, FAR, 0);
+        assertTrue(decay.computeOffset(NANOS_PER_SECOND / 10));
+        assertEquals(-20, decay.getCurrX(), 0);
+        assertEquals(7, decay.getCurrY(), 0);
+        assertTrue(decay.isFinished());
+    }
+
+    @Test
+    public void flingAwayFromBoundaryIsNotClamped() {
+        FlingDecay decay = new FlingDecay();
+        // 起点位于上边界，向下滑动不算到达边界
+        decay.fling(0, 0, 0, 2000, -FAR, FAR, 0, FAR, 0);
+        assertTrue(decay.computeOffset(0));
+        assertFalse(decay.isFinished());
+        assertTrue(decay.computeOffset(NANOS_PER_SECOND / 10));
+        assertTrue(decay.getCurrY() > 0);
+    }
+
+    @Test
+    public void forceFinishedStopsImmediately() {
+        FlingDecay decay = new FlingDecay();
+        decay.fling(0, 0, 3000, 0, -FAR, FAR, -FAR, FAR, 0);
+        assertTrue(decay.computeOffset(FRAME_NANOS));
+        float x = decay.getCurrX();
+        decay.forceFinished();
+        assertTrue(decay.isFinished());
+        assertFalse(decay.computeOffset(2 * FRAME_NANOS));
+        assertEquals(x, decay.getCurrX(), 0);
+    }
+}
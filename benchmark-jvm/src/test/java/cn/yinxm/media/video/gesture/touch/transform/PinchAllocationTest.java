@@ -0,0 +1,153 @@
+package cn.yinxm.media.video.gesture.touch.transform;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 双指缩放逐事件路径的内存分配：用线程分配计数器统计每个事件分配的字节数，要求为 0
+ * <p>
+ * 覆盖 VideoTouchScaleHandler 中的纯 Java 计算：采样滤波、预测、每帧合并的缩放平移旋转、结束吸边与动画插值、
+ * 惯性滑动；与 jmhCheck 中 gc.alloc.rate.norm 的阈值互为补充
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class PinchAllocationTest {
+    private static final int EVENT_COUNT = 20_000;
+    private static final int WARMUP_COUNT = 5;
+    private static final long EVENT_INTERVAL_NANOS = 4_166_667L; // 240Hz
+    private static final long FRAME_INTERVAL_NANOS = 16_666_667L;
+
+    private com.sun.management.ThreadMXBean mThreadBean;
+    private long mThreadId;
+
+    @Before
+    public void setUp() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue("thread allocation counter not supported",
+                bean instanceof com.sun.management.ThreadMXBean
+                        && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported());
+        mThreadBean = (com.sun.management.ThreadMXBean) bean;
+        mThreadBean.setThreadAllocatedMemoryEnabled(true);
+        mThreadId = Thread.currentThread().getId();
+    }
+
+    @Test
+    public void applyScalePerEventAllocatesNothing() {
+        final VideoTransformEngine engine = new VideoTransformEngine();
+        final AffineTransform2D matrix = new AffineTransform2D();
+        assertEquals(0, measure(new Runnable() {
+            @Override
+            public void run() {
+                matrix.reset();
+                for (int i = 1; i < EVENT_COUNT; i++) {
+                    engine.applyScale(matrix, spanAt(i) / spanAt(i - 1), 960, 540, 0.25F, -0.1F);
+                }
+            }
+        }));
+    }
+
+    @Test
+    public void integratorPerEventAllocatesNothing() {
+        final VideoTransformEngine engine = new VideoTransformEngine();
+        final AffineTransform2D matrix = new AffineTransform2D();
+        final ScaleGestureIntegrator integrator = new ScaleGestureIntegrator();
+        integrator.setPredictor(new ScaleGesturePredictor());
+        integrator.setRotationEnabled(true);
+        assertEquals(0, measure(new Runnable() {
+            @Override
+            public void run() {
+                matrix.reset();
+                integrator.begin(0, 960, 540, spanAt(0));
+                integrator.setPointerVector(spanAt(0), 0);
+                long nextFrame = FRAME_INTERVAL_NANOS;
+                for (int i = 1; i < EVENT_COUNT; i++) {
+                    long time = i * EVENT_INTERVAL_NANOS;
+                    integrator.addSample(time, 960 + i * 0.01F, 540, spanAt(i));
+                    integrator.setPointerVector(spanAt(i), i * 0.05F);
+                    if (time >= nextFrame) {
+                        integrator.apply(engine, matrix, time + FRAME_INTERVAL_NANOS);
+                        nextFrame += FRAME_INTERVAL_NANOS;
+                    }
+                }
+                integrator.settle();
+                integrator.apply(engine, matrix, 0);
+            }
+        }));
+    }
+
+    @Test
+    public void scaleEndAndAnimationAllocateNothing() {
+        final VideoTransformEngine engine = new VideoTransformEngine();
+        final TransformInterpolator interpolator = new TransformInterpolator();
+        final AffineTransform2D current = new AffineTransform2D();
+        final AffineTransform2D snap = new AffineTransform2D();
+        final AffineTransform2D end = new AffineTransform2D();
+        final AffineTransform2D frame = new AffineTransform2D();
+        final float[] contentRect = {0, 0, 1920, 1080};
+        final float[] bounds = new float[4];
+        assertEquals(0, measure(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < EVENT_COUNT / 100; i++) {
+                    current.setRotate(i % 60, 700, 500);
+                    current.postScale(1.5F, 1.5F, 960, 540);
+                    AffineTransform2D snapped = engine.computeRotationSnap(current, contentRect, snap) ? snap : current;
+                    if (!engine.computeScaleEnd(snapped, contentRect, 1920, 1080, end)) {
+                        end.set(snapped);
+                    }
+                    engine.computeTranslateBounds(end, contentRect, 1920, 1080, bounds);
+                    interpolator.set(current, end, 960, 540);
+                    for (int f = 1; f <= 18; f++) {
+                        interpolator.interpolate(f / 18F, frame);
+                    }
+                }
+            }
+        }));
+    }
+
+    @Test
+    public void flingPerFrameAllocatesNothing() {
+        final FlingDecay decay = new FlingDecay();
+        assertEquals(0, measure(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < EVENT_COUNT / 100; i++) {
+                    decay.fling(0, 0, 3000, -2000, -2000, 2000, -2000, 2000, 0);
+                    for (long t = 0; decay.computeOffset(t); t += FRAME_INTERVAL_NANOS) {
+                        decay.getCurrX();
+                    }
+                }
+            }
+        }));
+    }
+
+    private static float spanAt(int i) {
+        return 300 + (i % 400) * 0.5F;
+    }
+
+    /**
+     * 先预热（类加载、JIT 编译与栈上替换会有一次性的分配），再统计最后一次执行的分配字节数，扣除计数器调用本身的开销
+     */
+    private long measure(Runnable path) {
+        for (int i = 0; i < WARMUP_COUNT; i++) {
+            path.run();
+        }
+        long overheadStart = allocatedBytes();
+        long overheadEnd = allocatedBytes();
+        long overhead = overheadEnd - overheadStart;
+        long start = allocatedBytes();
+        path.run();
+        long end = allocatedBytes();
+        return Math.max(0, end - start - overhead);
+    }
+
+    private long allocatedBytes() {
+        return mThreadBean.getThreadAllocatedBytes(mThreadId);
+    }
+}
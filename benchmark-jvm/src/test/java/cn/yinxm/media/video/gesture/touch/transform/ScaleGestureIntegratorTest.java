@@ -0,0 +1,164 @@
+package cn.yinxm.media.video.gesture.touch.transform;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link ScaleGestureIntegrator}：120Hz、240Hz 触摸屏的批量采样按 60Hz 帧合并应用，
+ * 验证滤波去抖，以及手势结束 {@link ScaleGestureIntegrator#settle} 后缩放倍数等于手指的实际跨度比
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class ScaleGestureIntegratorTest {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long FRAME_NANOS = NANOS_PER_SECOND / 60;
+    private static final float FOCUS_X = 960;
+    private static final float FOCUS_Y = 540;
+    private static final float START_SPAN = 400;
+    private static final float END_SPAN = 800;
+    /** 跨度从 START_SPAN 匀速张开到 END_SPAN 的时间 */
+    private static final long PINCH_NANOS = 300_000_000L;
+    /** 张开后手指停住、只有采样抖动的时间 */
+    private static final long HOLD_NANOS = 1_000_000_000L;
+    /** 停住后只统计后半段，此时滤波器的速度估计已衰减 */
+    private static final long MEASURE_FROM_NANOS = PINCH_NANOS + HOLD_NANOS / 2;
+    /** 触摸屏采样抖动，像素 */
+    private static final float JITTER = 3;
+    private static final float EPSILON = 1e-4F;
+
+    @Test
+    public void smoothingReducesJitterAt120Hz() {
+        assertSmoothingReducesJitter(120);
+    }
+
+    @Test
+    public void smoothingReducesJitterAt240Hz() {
+        assertSmoothingReducesJitter(240);
+    }
+
+    @Test
+    public void settleAppliesRawScaleAt120Hz() {
+        assertSettleAppliesRawScale(120);
+    }
+
+    @Test
+    public void settleAppliesRawScaleAt240Hz() {
+        assertSettleAppliesRawScale(240);
+    }
+
+    @Test
+    public void settleWithoutSmoothingChangesNothing() {
+        ScaleGestureIntegrator integrator = new ScaleGestureIntegrator();
+        integrator.setSmoothingEnabled(false);
+        Pinch pinch = new Pinch(integrator, 240, 0);
+        pinch.run(PINCH_NANOS);
+        integrator.settle();
+        assertFalse(integrator.hasPending());
+        assertEquals(pinch.mLastSpan / START_SPAN, pinch.mMatrix.getScale(), EPSILON);
+    }
+
+    /**
+     * 停住阶段每帧缩放倍数的波动：滤波后应明显小于原始采样
+     */
+    private static void assertSmoothingReducesJitter(int sampleRate) {
+        ScaleGestureIntegrator smoothed = new ScaleGestureIntegrator();
+        ScaleGestureIntegrator raw = new ScaleGestureIntegrator();
+        raw.setSmoothingEnabled(false);
+        double smoothedJitter = new Pinch(smoothed, sampleRate, JITTER).run(PINCH_NANOS + HOLD_NANOS);
+        double rawJitter = new Pinch(raw, sampleRate, JITTER).run(PINCH_NANOS + HOLD_NANOS);
+        assertTrue("raw " + rawJitter + " smoothed " + smoothedJitter, smoothedJitter < rawJitter / 2);
+    }
+
+    /**
+     * 张开过程中抬起手指：滤波值滞后于手指，settle 后最终缩放等于最后一个原始采样的跨度比，焦点回到原始值
+     */
+    private static void assertSettleAppliesRawScale(int sampleRate) {
+        ScaleGestureIntegrator integrator = new ScaleGestureIntegrator();
+        Pinch pinch = new Pinch(integrator, sampleRate, JITTER);
+        pinch.run(PINCH_NANOS);
+        float expected = pinch.mLastSpan / START_SPAN;
+        VideoTransformEngine engine = pinch.mEngine;
+        AffineTransform2D matrix = pinch.mMatrix;
+
+        integrator.apply(engine, matrix);
+        // 滤波值仍落后于张开中的手指，相差数个像素的跨度
+        assertTrue(expected - matrix.getScale() > 0.005F);
+
+        integrator.settle();
+        assertTrue(integrator.hasPending());
+        assertTrue(integrator.apply(engine, matrix));
+        assertEquals(expected, matrix.getScale(), EPSILON);
+        assertEquals(pinch.mLastSpan, integrator.getAppliedSpan(), 0);
+        assertEquals(pinch.mLastFocusX, integrator.getAppliedFocusX(), 0);
+        assertEquals(pinch.mLastFocusY, integrator.getAppliedFocusY(), 0);
+
+        // 已停在实际值，再次 settle 不产生新的变换
+        integrator.settle();
+        assertFalse(integrator.apply(engine, matrix));
+    }
+
+    /**
+     * 按采样率生成双指张开的采样，每个 60Hz 帧合并应用一次（120Hz 每帧 2 个采样，240Hz 每帧 4 个）
+     */
+    private static class Pinch {
+        final ScaleGestureIntegrator mIntegrator;
+        final VideoTransformEngine mEngine = new VideoTransformEngine();
+        final AffineTransform2D mMatrix = new AffineTransform2D();
+        final long mSampleNanos;
+        final float mJitter;
+        final Random mRandom = new Random(42);
+        float mLastFocusX, mLastFocusY, mLastSpan;
+
+        Pinch(ScaleGestureIntegrator integrator, int sampleRate, float jitter) {
+            mIntegrator = integrator;
+            mSampleNanos = NANOS_PER_SECOND / sampleRate;
+            mJitter = jitter;
+        }
+
+        /**
+         * @return 统计区间内每帧缩放倍数变化（对数）的标准差
+         */
+        double run(long durationNanos) {
+            mIntegrator.begin(0, FOCUS_X, FOCUS_Y, START_SPAN);
+            long nextFrame = FRAME_NANOS;
+            float lastScale = mMatrix.getScale();
+            double sum = 0;
+            double sumSquares = 0;
+            int count = 0;
+            for (long time = mSampleNanos; time <= durationNanos; time += mSampleNanos) {
+                float progress = Math.min(1F, (float) time / PINCH_NANOS);
+                mLastSpan = START_SPAN + (END_SPAN - START_SPAN) * progress + jitter();
+                mLastFocusX = FOCUS_X + jitter();
+                mLastFocusY = FOCUS_Y + jitter();
+                mIntegrator.addSample(time, mLastFocusX, mLastFocusY, mLastSpan);
+                if (time + mSampleNanos > nextFrame) {
+                    mIntegrator.apply(mEngine, mMatrix);
+                    float scale = mMatrix.getScale();
+                    if (time >= MEASURE_FROM_NANOS) {
+                        double change = Math.log(scale / lastScale);
+                        sum += change;
+                        sumSquares += change * change;
+                        count++;
+                    }
+                    lastScale = scale;
+                    nextFrame += FRAME_NANOS;
+                }
+            }
+            if (count == 0) {
+                return 0;
+            }
+            double mean = sum / count;
+            return Math.sqrt(sumSquares / count - mean * mean);
+        }
+
+        private float jitter() {
+            return mJitter == 0 ? 0 : (mRandom.nextFloat() * 2 - 1) * mJitter;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package cn.yinxm.media.video.gesture.touch.transform;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static cn.yinxm.media.video.gesture.touch.transform.AffineTransform2DTest.assertMatrix;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link VideoTransformEngine}：缩放上下限、结束吸边/居中、平移范围、旋转对齐，期望值按 1000x500 的 View 手工计算
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class VideoTransformEngineTest {
+    private static final float WIDTH = 1000;
+    private static final float HEIGHT = 500;
+    private static final float EPSILON = 1e-3F;
+
+    private VideoTransformEngine mEngine;
+    private final float[] mFullRect = {0, 0, WIDTH, HEIGHT};
+    private final AffineTransform2D mOut = new AffineTransform2D();
+
+    @Before
+    public void setUp() {
+        mEngine = new VideoTransformEngine();
+    }
+
+    @Test
+    public void postScaleClampsToRange() {
+        AffineTransform2D m = new AffineTransform2D();
+        m.setScale(2, 2, 0, 0);
+        // 2 * 2 超出上限 3，只缩放 1.5 倍
+        assertEquals(1.5F, mEngine.postScale(m, 2, 0, 0), EPSILON);
+        assertEquals(VideoTransformEngine.DEFAULT_MAX_SCALE, m.getScaleX(), EPSILON);
+        // 已在上限，不再放大
+        assertEquals(1F, mEngine.postScale(m, 1.2F, 0, 0), 0);
+        // 缩小不受上限影响
+        assertEquals(0.5F, mEngine.postScale(m, 0.5F, 0, 0), 0);
+
+        mEngine.setScaleRange(0.5F, 2F);
+        m.setScale(0.6F, 0.6F, 0, 0);
+        assertEquals(0.5F / 0.6F, mEngine.postScale(m, 0.1F, 0, 0), EPSILON);
+        assertEquals(0.5F, m.getScaleX(), EPSILON);
+        assertEquals(1F, mEngine.postScale(m, 0.9F, 0, 0), 0);
+    }
+
+    @Test
+    public void postScaleUsesRotatedScale() {
+        AffineTransform2D m = new AffineTransform2D();
+        m.setRotate(60, 0, 0);
+        m.postScale(2, 2, 0, 0);
+        // scaleX = 2 * cos60 = 1，按 scaleX 判断会放大到 6 倍
+        assertEquals(1.5F, mEngine.postScale(m, 2, 0, 0), EPSILON);
+        assertEquals(VideoTransformEngine.DEFAULT_MAX_SCALE, m.getScale(), EPSILON);
+    }
+
+    @Test
+    public void applyScaleScalesAtCenterThenFollowsFocus() {
+        AffineTransform2D m = new AffineTransform2D();
+        mEngine.applyScale(m, 2, 100, 50, 10, -5);
+        assertMatrix(m, 2, 0, -100 + 10, 0, 2, -50 - 5);
+    }
+
+    @Test
+    public void scaleEndCentersSmallerContent() {
+        AffineTransform2D m = new AffineTransform2D();
+        m.setScale(0.5F, 0.5F, 0, 0);
+        assertTrue(mEngine.computeScaleEnd(m, WIDTH, HEIGHT, mOut));
+        // 画面 500x250，两个方向都居中
+        assertMatrix(mOut, 0.5F, 0, 250, 0, 0.5F, 125);
+    }
+
+    @Test
+    public void scaleEndSnapsEdgeMovedInside() {
+        AffineTransform2D m = new AffineTransform2D();
+        m.setScale(2, 2, 0, 0);
+        m.postTranslate(100, -700);
+        // 画面 [100, -700, 2100, 300]：左边移入内部吸附到左边，下边移入内部吸附到下边
+        assertTrue(mEngine.computeScaleEnd(m, WIDTH, HEIGHT, mOut));
+        assertMatrix(mOut, 2, 0, 0, 0, 2, -500);
+    }
+
+    @Test
+    public void scaleEndKeepsZoomedContentCoveringView() {
+        AffineTransform2D m = new AffineTransform2D();
+        m.setScale(2, 2, 500, 250);
+        assertFalse(mEngine.computeScaleEnd(m, WIDTH, HEIGHT, mOut));
+    }
+
+    @Test
+    public void scaleEndUsesContentRect() {
+        // 1000x250 的画面上下有黑边
+        float[] contentRect = {0, 125, 1000, 375};
+        AffineTransform2D m = new AffineTransform2D();
+        m.setScale(2, 2, 500, 250);
+        m.postTranslate(0, 100);
+        // 画面 [-500, 100, 1500, 600]：高度等于 View，居中
+        assertTrue(mEngine.computeScaleEnd(m, contentRect, WIDTH, HEIGHT, mOut));
+        assertMatrix(mOut, 2, 0, -500, 0, 2, -250);
+        // contentRect 不被修改
+        assertArrayEquals(new float[]{0, 125, 1000, 375}, contentRect, 0);
+    }
+
+    @Test
+    public void translateBoundsKeepEdgesOutside() {
+        AffineTransform2D m = new AffineTransform2D();
+        m.setScale(2, 2, 0, 0);
+        m.postTranslate(-300, -200);
+        float[] bounds = new float[4];
+        mEngine.computeTranslateBounds(m, WIDTH, HEIGHT, bounds);
+        // 画面 [-300, -200, 1700, 800]
+        assertArrayEquals(new float[]{-700, 300, -300, 200}, bounds, EPSILON);
+
+        // 画面宽度小于 View 时该方向不可平移
+        float[] contentRect = {250, 0, 750, 500};
+        m.setScale(1.5F, 1.5F, 500, 250);
+        mEngine.computeTranslateBounds(m, contentRect, WIDTH, HEIGHT, bounds);
+        assertArrayEquals(new float[]{0, 0, -125, 125}, bounds, EPSILON);
+    }
+
+    @Test
+    public void rotationSnapToNearestQuarterTurn() {
+        AffineTransform2D m = rotated(80, 1.5F);
+        assertTrue(mEngine.computeRotationSnap(m, mFullRect, mOut));
+        // 90 度精确值，缩放不变，画面中心 (500, 250) 位置不变
+        assertEquals(0, mOut.getScaleX(), 0);
+        assertEquals(0, mOut.getScaleY(), 0);
+        assertEquals(1.5F, mOut.getSkewY(), EPSILON);
+        assertEquals(-mOut.getSkewY(), mOut.getSkewX(), 0);
+        assertSameCenter(m, mOut);
+
+        m = rotated(10, 2);
+        assertTrue(mEngine.computeRotationSnap(m, mFullRect, mOut));
+        assertEquals(0, mOut.getSkewX(), 0);
+        assertEquals(0, mOut.getSkewY(), 0);
+        assertEquals(2, mOut.getScaleX(), EPSILON);
+        assertEquals(mOut.getScaleX(), mOut.getScaleY(), 0);
+        assertSameCenter(m, mOut);
+
+        m = rotated(-100, 1);
+        assertTrue(mEngine.computeRotationSnap(m, mFullRect, mOut));
+        assertEquals(0, mOut.getScaleX(), 0);
+        assertEquals(-1, mOut.getSkewY(), EPSILON);
+
+        m = rotated(170, 1);
+        assertTrue(mEngine.computeRotationSnap(m, mFullRect, mOut));
+        assertEquals(-1, mOut.getScaleX(), EPSILON);
+        assertEquals(0, mOut.getSkewY(), 0);
+    }
+
+    @Test
+    public void rotationSnapSkipsAlignedMatrix() {
+        AffineTransform2D m = new AffineTransform2D();
+        assertFalse(mEngine.computeRotationSnap(m, mFullRect, mOut));
+        m.setScale(2, 2, 10, 10);
+        assertFalse(mEngine.computeRotationSnap(m, mFullRect, mOut));
+        m.setRotate(90, 500, 250);
+        assertFalse(mEngine.computeRotationSnap(m, mFullRect, mOut));
+        m.setRotate(180, 500, 250);
+        assertFalse(mEngine.computeRotationSnap(m, mFullRect, mOut));
+    }
+
+    @Test
+    public void rotationSnapThenEdgeSnapUsesBoundingBox() {
+        AffineTransform2D m = rotated(80, 1);
+        assertTrue(mEngine.computeRotationSnap(m, mFullRect, mOut));
+        AffineTransform2D end = new AffineTransform2D();
+        // 转 90 度后画面 500x1000：宽度小于 View 居中；高度大于 View，上下边都在外部
+        assertTrue(mEngine.computeScaleEnd(mOut, mFullRect, WIDTH, HEIGHT, end));
+        float[] rect = mFullRect.clone();
+        end.mapRect(rect);
+        assertArrayEquals(new float[]{250, -250, 750, 750}, rect, EPSILON);
+    }
+
+    /**
+     * 以画面中心旋转、缩放
+     */
+    private static AffineTransform2D rotated(float degrees, float scale) {
+        AffineTransform2D m = new AffineTransform2D();
+        m.setRotate(degrees, WIDTH / 2, HEIGHT / 2);
+        m.postScale(scale, scale, WIDTH / 2, HEIGHT / 2);
+        return m;
+    }
+
+    private static void assertSameCenter(AffineTransform2D expected, AffineTransform2D actual) {
+        float[] a = {WIDTH / 2, HEIGHT / 2, WIDTH / 2, HEIGHT / 2};
+        float[] b = a.clone();
+        expected.mapRect(a);
+        actual.mapRect(b);
+        assertArrayEquals(a, b, EPSILON);
+    }
+}
@@ -0,0 +1,111 @@
+package cn.yinxm.media.video.surface;
+
+import org.junit.Test;
+
+import cn.yinxm.media.video.gesture.touch.transform.AffineTransform2D;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link VideoFitCalculator}：横屏、竖屏视频在横屏 View 中各适配方式的画面区域，以及旋转 90 度后的适配
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class VideoFitCalculatorTest {
+    private static final int VIEW_WIDTH = 1200;
+    private static final int VIEW_HEIGHT = 800;
+    private static final int LANDSCAPE_WIDTH = 1600;
+    private static final int LANDSCAPE_HEIGHT = 900;
+    private static final float EPSILON = 1e-3F;
+
+    @Test
+    public void fit() {
+        // 横屏视频宽度铺满，竖屏视频高度铺满
+        assertContent(VideoScaleType.FIT, LANDSCAPE_WIDTH, LANDSCAPE_HEIGHT, 1200, 675);
+        assertContent(VideoScaleType.FIT, LANDSCAPE_HEIGHT, LANDSCAPE_WIDTH, 450, 800);
+    }
+
+    @Test
+    public void fill() {
+        assertContent(VideoScaleType.FILL, LANDSCAPE_WIDTH, LANDSCAPE_HEIGHT, VIEW_WIDTH, VIEW_HEIGHT);
+        assertContent(VideoScaleType.FILL, LANDSCAPE_HEIGHT, LANDSCAPE_WIDTH, VIEW_WIDTH, VIEW_HEIGHT);
+    }
+
+    @Test
+    public void crop() {
+        // 横屏视频高度铺满、宽度超出，竖屏视频宽度铺满、高度超出
+        assertContent(VideoScaleType.CROP, LANDSCAPE_WIDTH, LANDSCAPE_HEIGHT, 1600 * 800 / 900F, 800);
+        assertContent(VideoScaleType.CROP, LANDSCAPE_HEIGHT, LANDSCAPE_WIDTH, 1200, 1600 * 1200 / 900F);
+    }
+
+    @Test
+    public void original() {
+        assertContent(VideoScaleType.ORIGINAL, LANDSCAPE_WIDTH, LANDSCAPE_HEIGHT, 1600, 900);
+        assertContent(VideoScaleType.ORIGINAL, LANDSCAPE_HEIGHT, LANDSCAPE_WIDTH, 900, 1600);
+    }
+
+    @Test
+    public void quarterTurnFitsSwappedSize() {
+        // 横屏视频旋转 90 度后按竖屏适配：高度铺满
+        AffineTransform2D transform = new AffineTransform2D();
+        assertTrue(VideoFitCalculator.compute(VideoScaleType.FIT, LANDSCAPE_WIDTH, LANDSCAPE_HEIGHT,
+                VIEW_WIDTH, VIEW_HEIGHT, 90, transform));
+        AffineTransform2D rotate = new AffineTransform2D();
+        rotate.setRotate(90, VIEW_WIDTH / 2F, VIEW_HEIGHT / 2F);
+        transform.postConcat(rotate);
+        assertCentered(transform, 450, 800);
+
+        // 旋转 180 度不交换宽高
+        assertTrue(VideoFitCalculator.compute(VideoScaleType.FIT, LANDSCAPE_WIDTH, LANDSCAPE_HEIGHT,
+                VIEW_WIDTH, VIEW_HEIGHT, 180, transform));
+        assertCentered(transform, 1200, 675);
+    }
+
+    @Test
+    public void isQuarterTurn() {
+        assertTrue(VideoFitCalculator.isQuarterTurn(90));
+        assertTrue(VideoFitCalculator.isQuarterTurn(270));
+        assertTrue(VideoFitCalculator.isQuarterTurn(-90));
+        assertTrue(VideoFitCalculator.isQuarterTurn(450));
+        assertFalse(VideoFitCalculator.isQuarterTurn(0));
+        assertFalse(VideoFitCalculator.isQuarterTurn(180));
+        assertFalse(VideoFitCalculator.isQuarterTurn(-360));
+    }
+
+    @Test
+    public void invalidSizeIsIdentity() {
+        AffineTransform2D transform = new AffineTransform2D();
+        transform.setScale(2, 2, 0, 0);
+        assertFalse(VideoFitCalculator.compute(VideoScaleType.FIT, 0, LANDSCAPE_HEIGHT,
+                VIEW_WIDTH, VIEW_HEIGHT, transform));
+        assertTrue(transform.isIdentity());
+        transform.setScale(2, 2, 0, 0);
+        assertFalse(VideoFitCalculator.compute(VideoScaleType.CROP, LANDSCAPE_WIDTH, LANDSCAPE_HEIGHT,
+                VIEW_WIDTH, 0, transform));
+        assertTrue(transform.isIdentity());
+    }
+
+    private static void assertContent(VideoScaleType scaleType, int videoWidth, int videoHeight,
+                                      float displayWidth, float displayHeight) {
+        AffineTransform2D transform = new AffineTransform2D();
+        assertTrue(VideoFitCalculator.compute(scaleType, videoWidth, videoHeight, VIEW_WIDTH, VIEW_HEIGHT,
+                transform));
+        assertCentered(transform, displayWidth, displayHeight);
+    }
+
+    /**
+     * 铺满 View 的画面经变换后，应为居中的 displayWidth x displayHeight
+     */
+    private static void assertCentered(AffineTransform2D transform, float displayWidth, float displayHeight) {
+        float[] rect = {0, 0, VIEW_WIDTH, VIEW_HEIGHT};
+        transform.mapRect(rect);
+        String message = transform.toString();
+        assertEquals(message, (VIEW_WIDTH - displayWidth) / 2, rect[0], EPSILON);
+        assertEquals(message, (VIEW_HEIGHT - displayHeight) / 2, rect[1], EPSILON);
+        assertEquals(message, (VIEW_WIDTH + displayWidth) / 2, rect[2], EPSILON);
+        assertEquals(message, (VIEW_HEIGHT + displayHeight) / 2, rect[3], EPSILON);
+    }
+}
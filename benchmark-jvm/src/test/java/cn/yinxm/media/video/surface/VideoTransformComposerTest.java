@@ -0,0 +1,167 @@
+package cn.yinxm.media.video.surface;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import cn.yinxm.media.video.gesture.touch.transform.AffineTransform2D;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link VideoTransformComposer}：显示矩阵 = 用户 * 旋转 * 适配，基础矩阵缓存在旋转、View 尺寸、视频尺寸、
+ * 适配方式变化后重新计算
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class VideoTransformComposerTest {
+    private static final int VIEW_WIDTH = 1200;
+    private static final int VIEW_HEIGHT = 800;
+    private static final int VIDEO_WIDTH = 1600;
+    private static final int VIDEO_HEIGHT = 900;
+    private static final float EPSILON = 1e-3F;
+
+    private VideoTransformComposer mComposer;
+    private final float[] mValues = new float[9];
+    private final float[] mRect = new float[4];
+
+    @Before
+    public void setUp() {
+        mComposer = new VideoTransformComposer();
+        assertTrue(mComposer.setViewSize(VIEW_WIDTH, VIEW_HEIGHT));
+        assertTrue(mComposer.setVideoSize(VIDEO_WIDTH, VIDEO_HEIGHT));
+    }
+
+    @Test
+    public void eachScaleTypeLandscapeAndPortrait() {
+        assertContentRect(VideoScaleType.FIT, 1200, 675);
+        assertContentRect(VideoScaleType.FILL, 1200, 800);
+        assertContentRect(VideoScaleType.CROP, 1600 * 800 / 900F, 800);
+        assertContentRect(VideoScaleType.ORIGINAL, 1600, 900);
+
+        // 竖屏视频
+        assertTrue(mComposer.setVideoSize(VIDEO_HEIGHT, VIDEO_WIDTH));
+        assertContentRect(VideoScaleType.FIT, 450, 800);
+        assertContentRect(VideoScaleType.FILL, 1200, 800);
+        assertContentRect(VideoScaleType.CROP, 1200, 1600 * 1200 / 900F);
+        assertContentRect(VideoScaleType.ORIGINAL, 900, 1600);
+    }
+
+    @Test
+    public void displayIsUserAfterBase() {
+        AffineTransform2D user = new AffineTransform2D();
+        user.setScale(2, 2, 300, 200);
+        user.postTranslate(-40, 25);
+        setUser(user);
+
+        mComposer.getDisplayValues(mValues);
+        AffineTransform2D display = new AffineTransform2D();
+        display.setValues(mValues);
+        AffineTransform2D base = mComposer.getBaseTransform();
+        float[] expected = new float[2];
+        float[] actual = new float[2];
+        float[][] points = {{0, 0}, {VIEW_WIDTH, 0}, {0, VIEW_HEIGHT}, {VIEW_WIDTH, VIEW_HEIGHT}, {600, 400}};
+        for (float[] point : points) {
+            expected[0] = point[0];
+            expected[1] = point[1];
+            base.mapPoint(expected);
+            user.mapPoint(expected);
+            actual[0] = point[0];
+            actual[1] = point[1];
+            display.mapPoint(actual);
+            assertArrayEquals(expected, actual, EPSILON);
+        }
+
+        // 用户矩阵原样读回，不含适配与旋转
+        float[] userValues = new float[9];
+        mComposer.getUserValues(userValues);
+        float[] userExpected = new float[9];
+        user.getValues(userExpected);
+        assertArrayEquals(userExpected, userValues, 0);
+    }
+
+    @Test
+    public void rotationRecomposesCachedBase() {
+        AffineTransform2D user = new AffineTransform2D();
+        user.postTranslate(30, 0);
+        setUser(user);
+        // 先读取一次，基础矩阵与显示矩阵均已缓存
+        mComposer.getDisplayValues(mValues);
+        assertCenteredContent(1200, 675);
+
+        assertTrue(mComposer.setRotation(90));
+        assertEquals(90, mComposer.getRotation());
+        // 旋转后按竖屏适配：高度铺满
+        assertCenteredContent(450, 800);
+        mComposer.getDisplayValues(mValues);
+        float[] rect = {0, 0, VIEW_WIDTH, VIEW_HEIGHT};
+        AffineTransform2D display = new AffineTransform2D();
+        display.setValues(mValues);
+        display.mapRect(rect);
+        // 用户平移作用在旋转适配之后
+        assertEquals((VIEW_WIDTH - 450) / 2F + 30, rect[0], EPSILON);
+        assertEquals(0, rect[1], EPSILON);
+
+        // 同一角度不重新计算，负角度与超过一周取等价角度
+        assertFalse(mComposer.setRotation(450));
+        assertTrue(mComposer.setRotation(-90));
+        assertEquals(270, mComposer.getRotation());
+        assertCenteredContent(450, 800);
+        assertTrue(mComposer.setRotation(0));
+        assertCenteredContent(1200, 675);
+    }
+
+    @Test
+    public void viewSizeChangeRecomposesCachedBase() {
+        mComposer.getDisplayValues(mValues);
+        assertCenteredContent(1200, 675);
+        assertEquals(675F / VIEW_HEIGHT, mValues[AffineTransform2D.MSCALE_Y], EPSILON);
+
+        assertFalse(mComposer.setViewSize(VIEW_WIDTH, VIEW_HEIGHT));
+        // 竖屏 View
+        assertTrue(mComposer.setViewSize(VIEW_HEIGHT, VIEW_WIDTH));
+        mComposer.getContentRect(mRect);
+        assertEquals(0, mRect[0], EPSILON);
+        assertEquals((VIEW_WIDTH - 450) / 2F, mRect[1], EPSILON);
+        assertEquals(VIEW_HEIGHT, mRect[2], EPSILON);
+        assertEquals((VIEW_WIDTH + 450) / 2F, mRect[3], EPSILON);
+        // 缓存的显示矩阵随之更新：宽度铺满不变，高度压缩比例变化
+        mComposer.getDisplayValues(mValues);
+        assertEquals(1, mValues[AffineTransform2D.MSCALE_X], EPSILON);
+        assertEquals(450F / VIEW_WIDTH, mValues[AffineTransform2D.MSCALE_Y], EPSILON);
+    }
+
+    @Test
+    public void unchangedInputsReportNoChange() {
+        assertFalse(mComposer.setVideoSize(VIDEO_WIDTH, VIDEO_HEIGHT));
+        assertFalse(mComposer.setScaleType(VideoScaleType.FIT));
+        assertFalse(mComposer.setScaleType(null));
+        assertFalse(mComposer.setRotation(0));
+        assertFalse(mComposer.setRotation(20));
+        assertTrue(mComposer.setScaleType(VideoScaleType.CROP));
+        assertEquals(VideoScaleType.CROP, mComposer.getScaleType());
+    }
+
+    private void setUser(AffineTransform2D user) {
+        float[] values = new float[9];
+        user.getValues(values);
+        mComposer.setUserValues(values);
+    }
+
+    private void assertContentRect(VideoScaleType scaleType, float width, float height) {
+        mComposer.setScaleType(scaleType);
+        assertCenteredContent(width, height);
+    }
+
+    private void assertCenteredContent(float width, float height) {
+        mComposer.getContentRect(mRect);
+        String message = mComposer.getScaleType() + " rotation " + mComposer.getRotation();
+        assertEquals(message, (VIEW_WIDTH - width) / 2, mRect[0], EPSILON);
+        assertEquals(message, (VIEW_HEIGHT - height) / 2, mRect[1], EPSILON);
+        assertEquals(message, (VIEW_WIDTH + width) / 2, mRect[2], EPSILON);
+        assertEquals(message, (VIEW_HEIGHT + height) / 2, mRect[3], EPSILON);
+    }
+}
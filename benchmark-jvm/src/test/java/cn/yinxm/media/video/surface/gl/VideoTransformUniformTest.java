@@ -0,0 +1,117 @@
+package cn.yinxm.media.video.surface.gl;
+
+import org.junit.Test;
+
+import cn.yinxm.media.video.gesture.touch.transform.AffineTransform2D;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link VideoTransformUniform}：View 四角与中心经像素矩阵变换后换算到 NDC，
+ * 应与先换算到 NDC 再经 uniform 矩阵变换的结果一致
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class VideoTransformUniformTest {
+    private static final float WIDTH = 1080;
+    private static final float HEIGHT = 608;
+    private static final float EPSILON = 1e-4F;
+
+    @Test
+    public void identity() {
+        assertMatchesPixelTransform(new AffineTransform2D());
+    }
+
+    @Test
+    public void scaleAroundCenter() {
+        AffineTransform2D transform = new AffineTransform2D();
+        transform.setScale(2F, 1.5F, WIDTH / 2, HEIGHT / 2);
+        assertMatchesPixelTransform(transform);
+    }
+
+    @Test
+    public void translate() {
+        AffineTransform2D transform = new AffineTransform2D();
+        transform.postTranslate(120, -45);
+        assertMatchesPixelTransform(transform);
+    }
+
+    @Test
+    public void rotate90AroundCenter() {
+        // 宽高不等，y 轴翻转与宽高比都体现在旋转项中
+        AffineTransform2D transform = new AffineTransform2D();
+        transform.setRotate(90, WIDTH / 2, HEIGHT / 2);
+        assertMatchesPixelTransform(transform);
+    }
+
+    @Test
+    public void combined() {
+        AffineTransform2D transform = new AffineTransform2D();
+        transform.setRotate(90, WIDTH / 2, HEIGHT / 2);
+        transform.postScale(1.8F, 1.8F, 300, 200);
+        transform.postTranslate(-60, 35);
+        assertMatchesPixelTransform(transform);
+    }
+
+    @Test
+    public void matrixValuesMatchTransform() {
+        AffineTransform2D transform = new AffineTransform2D();
+        transform.setRotate(90, WIDTH / 2, HEIGHT / 2);
+        transform.postTranslate(10, 20);
+        float[] values = new float[9];
+        transform.getValues(values);
+        VideoTransformUniform fromValues = new VideoTransformUniform();
+        fromValues.set(values, WIDTH, HEIGHT);
+        VideoTransformUniform fromTransform = new VideoTransformUniform();
+        fromTransform.set(transform, WIDTH, HEIGHT);
+        assertArrayEquals(fromTransform.getValues(), fromValues.getValues(), 0);
+    }
+
+    @Test
+    public void emptyViewIsIdentity() {
+        AffineTransform2D transform = new AffineTransform2D();
+        transform.setScale(2F, 2F, 0, 0);
+        VideoTransformUniform uniform = new VideoTransformUniform();
+        uniform.set(transform, 0, HEIGHT);
+        float[] identity = new float[16];
+        for (int i = 0; i < 16; i += 5) {
+            identity[i] = 1;
+        }
+        assertArrayEquals(identity, uniform.getValues(), 0);
+    }
+
+    private static void assertMatchesPixelTransform(AffineTransform2D transform) {
+        VideoTransformUniform uniform = new VideoTransformUniform();
+        uniform.set(transform, WIDTH, HEIGHT);
+        float[][] points = {
+                {0, 0}, {WIDTH, 0}, {0, HEIGHT}, {WIDTH, HEIGHT}, {WIDTH / 2, HEIGHT / 2}
+        };
+        float[] expected = new float[2];
+        float[] actual = new float[2];
+        for (float[] point : points) {
+            expected[0] = point[0];
+            expected[1] = point[1];
+            transform.mapPoint(expected);
+            toNdc(expected);
+
+            actual[0] = point[0];
+            actual[1] = point[1];
+            toNdc(actual);
+            uniform.mapPoint(actual);
+
+            String message = transform + " at (" + point[0] + ", " + point[1] + ")";
+            assertEquals(message, expected[0], actual[0], EPSILON);
+            assertEquals(message, expected[1], actual[1], EPSILON);
+        }
+    }
+
+    /**
+     * 像素坐标（y 轴向下）换算为 NDC（[-1, 1]，y 轴向上）
+     */
+    private static void toNdc(float[] point) {
+        point[0] = 2 * point[0] / WIDTH - 1;
+        point[1] = 1 - 2 * point[1] / HEIGHT;
+    }
+}